@@ -0,0 +1,132 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Growable byte buffer for the records of the binary parts of a .xlsb package (BIFF12). A record consists of its type and the
+ * size of its data, both as variable length integers of 7 bits per byte, followed by the data. All numbers are little-endian,
+ * and strings are written as UTF-16 code units, preceded by their amount.
+ * <p>
+ * The data of a record is written between <code>beginRecord(int)</code> and <code>endRecord()</code>. Its size is only known
+ * at the end, so the data is moved up by the size of the size field then: records are small, so that costs next to nothing.
+ */
+
+final class BiffRecordWriter {
+
+    private static final int MAX_RECORD_TYPE = 0x3FFF;
+
+    private byte[] buffer;
+    private int size;
+    private int recordDataStart = -1;
+
+    BiffRecordWriter(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, size);
+    }
+
+    byte[] toByteArray() {
+        byte[] result = new byte[size];
+        System.arraycopy(buffer, 0, result, 0, size);
+        return result;
+    }
+
+    BiffRecordWriter beginRecord(int recordType) {
+        if (recordType < 0 || recordType > MAX_RECORD_TYPE) {
+            throw new IllegalArgumentException("Invalid record type " + recordType);
+        }
+        ensureCapacity(2);
+        if (recordType < 0x80) {
+            buffer[size++] = (byte) recordType;
+        } else {
+            buffer[size++] = (byte) (recordType & 0x7F | 0x80);
+            buffer[size++] = (byte) (recordType >>> 7);
+        }
+        recordDataStart = size;
+        return this;
+    }
+
+    void endRecord() {
+        int dataSize = size - recordDataStart;
+        int sizeFieldLength = dataSize < 1 << 7 ? 1 : dataSize < 1 << 14 ? 2 : dataSize < 1 << 21 ? 3 : 4;
+        ensureCapacity(sizeFieldLength);
+        System.arraycopy(buffer, recordDataStart, buffer, recordDataStart + sizeFieldLength, dataSize);
+        int remaining = dataSize;
+        for (int index = 0; index < sizeFieldLength; index++) {
+            int part = remaining & 0x7F;
+            remaining >>>= 7;
+            buffer[recordDataStart + index] = (byte) (index < sizeFieldLength - 1 ? part | 0x80 : part);
+        }
+        size += sizeFieldLength;
+        recordDataStart = -1;
+    }
+
+    BiffRecordWriter writeRecord(int recordType) {
+        beginRecord(recordType).endRecord();
+        return this;
+    }
+
+    BiffRecordWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    BiffRecordWriter writeShort(int value) {
+        ensureCapacity(2);
+        buffer[size++] = (byte) value;
+        buffer[size++] = (byte) (value >>> 8);
+        return this;
+    }
+
+    BiffRecordWriter writeInt(int value) {
+        ensureCapacity(4);
+        buffer[size++] = (byte) value;
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 24);
+        return this;
+    }
+
+    BiffRecordWriter writeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        writeInt((int) bits);
+        return writeInt((int) (bits >>> 32));
+    }
+
+    /**
+     * Writes an XLWideString: the amount of UTF-16 code units, followed by the code units.
+     */
+
+    BiffRecordWriter writeWideString(CharSequence text) {
+        int length = text.length();
+        writeInt(length);
+        ensureCapacity(2 * length);
+        for (int index = 0; index < length; index++) {
+            char character = text.charAt(index);
+            buffer[size++] = (byte) character;
+            buffer[size++] = (byte) (character >>> 8);
+        }
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+            System.arraycopy(buffer, 0, grown, 0, size);
+            buffer = grown;
+        }
+    }
+
+}
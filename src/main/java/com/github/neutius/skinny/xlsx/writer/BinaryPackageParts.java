@@ -0,0 +1,212 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Creates the parts of a .xlsb package besides the worksheets themselves: content types and relationships, which are XML like
+ * in a .xlsx package, and the workbook part and a minimal style sheet, which are BIFF12 records. Worksheet <code>n</code>
+ * (counting from 1) is stored as <code>xl/worksheets/sheet[n].bin</code>.
+ */
+
+final class BinaryPackageParts {
+
+    static final String WORKBOOK = "xl/workbook.bin";
+    static final String WORKBOOK_RELATIONSHIPS = "xl/_rels/workbook.bin.rels";
+    static final String STYLES = "xl/styles.bin";
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String CONTENT_TYPE_PREFIX = "application/vnd.ms-excel.";
+
+    private static final int BEGIN_BOOK = 131;
+    private static final int END_BOOK = 132;
+    private static final int BEGIN_BOOK_VIEWS = 135;
+    private static final int END_BOOK_VIEWS = 136;
+    private static final int BEGIN_BUNDLE_SHEETS = 143;
+    private static final int END_BUNDLE_SHEETS = 144;
+    private static final int BUNDLE_SHEET = 156;
+    private static final int BOOK_VIEW = 158;
+
+    private static final int FONT = 43;
+    private static final int FILL = 45;
+    private static final int BORDER = 46;
+    private static final int CELL_FORMAT = 47;
+    private static final int CELL_STYLE = 48;
+    private static final int BEGIN_STYLE_SHEET = 278;
+    private static final int END_STYLE_SHEET = 279;
+    private static final int BEGIN_DIFFERENTIAL_FORMATS = 505;
+    private static final int END_DIFFERENTIAL_FORMATS = 506;
+    private static final int BEGIN_TABLE_STYLES = 508;
+    private static final int END_TABLE_STYLES = 509;
+    private static final int BEGIN_FILLS = 603;
+    private static final int END_FILLS = 604;
+    private static final int BEGIN_FONTS = 611;
+    private static final int END_FONTS = 612;
+    private static final int BEGIN_BORDERS = 613;
+    private static final int END_BORDERS = 614;
+    private static final int BEGIN_CELL_FORMATS = 617;
+    private static final int END_CELL_FORMATS = 618;
+    private static final int BEGIN_CELL_STYLES = 619;
+    private static final int END_CELL_STYLES = 620;
+    private static final int BEGIN_CELL_STYLE_FORMATS = 626;
+    private static final int END_CELL_STYLE_FORMATS = 627;
+
+    private static final int NORMAL_WEIGHT = 400;
+    private static final int BOLD_WEIGHT = 700;
+    private static final int FONT_HEIGHT = 220; // in twentieths of a point
+    private static final int SWISS_FONT_FAMILY = 2;
+    private static final int GRAY_125_PATTERN = 0x11;
+    private static final int NO_PARENT_FORMAT = 0xFFFF;
+    private static final int DEFAULT_FORMAT_FLAGS = 0x1010;
+    private static final int APPLY_FONT = 0x02;
+    private static final int BUILT_IN_STYLE = 0x0001;
+
+    private BinaryPackageParts() {
+        // nope
+    }
+
+    static String worksheetEntryName(int sheetNumber) {
+        return "xl/worksheets/sheet" + sheetNumber + ".bin";
+    }
+
+    static byte[] contentTypes(int sheetAmount) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/").append(WORKBOOK).append("\" ContentType=\"")
+                .append(CONTENT_TYPE_PREFIX).append("sheet.binary.macroEnabled.main\"/>")
+                .append("<Override PartName=\"/").append(STYLES).append("\" ContentType=\"")
+                .append(CONTENT_TYPE_PREFIX).append("styles\"/>");
+        for (int sheetNumber = 1; sheetNumber <= sheetAmount; sheetNumber++) {
+            xml.append("<Override PartName=\"/").append(worksheetEntryName(sheetNumber)).append("\" ContentType=\"")
+                    .append(CONTENT_TYPE_PREFIX).append("worksheet\"/>");
+        }
+        return bytes(xml.append("</Types>"));
+    }
+
+    static byte[] rootRelationships() {
+        return bytes(new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"").append(RELATIONSHIPS_NAMESPACE).append("\">")
+                .append("<Relationship Id=\"rId1\" Type=\"").append(PackageParts.RELATIONSHIP_TYPES)
+                .append("officeDocument\" Target=\"").append(WORKBOOK).append("\"/>")
+                .append("</Relationships>"));
+    }
+
+    static byte[] workbookRelationships(int sheetAmount) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"").append(RELATIONSHIPS_NAMESPACE).append("\">");
+        for (int sheetNumber = 1; sheetNumber <= sheetAmount; sheetNumber++) {
+            xml.append("<Relationship Id=\"rId").append(sheetNumber).append("\" Type=\"")
+                    .append(PackageParts.RELATIONSHIP_TYPES).append("worksheet\" Target=\"worksheets/sheet")
+                    .append(sheetNumber).append(".bin\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetAmount + 1).append("\" Type=\"")
+                .append(PackageParts.RELATIONSHIP_TYPES).append("styles\" Target=\"styles.bin\"/>");
+        return bytes(xml.append("</Relationships>"));
+    }
+
+    static byte[] workbook(List<String> sheetNames) {
+        BiffRecordWriter records = new BiffRecordWriter(256);
+        records.writeRecord(BEGIN_BOOK);
+        records.writeRecord(BEGIN_BOOK_VIEWS);
+        // window position and size, tab bar ratio, first and active tab, and the default visibility flags
+        records.beginRecord(BOOK_VIEW).writeInt(0).writeInt(0).writeInt(16384).writeInt(8192).writeInt(600)
+                .writeInt(0).writeInt(0).writeByte(0x78).endRecord();
+        records.writeRecord(END_BOOK_VIEWS);
+        records.writeRecord(BEGIN_BUNDLE_SHEETS);
+        for (int index = 0; index < sheetNames.size(); index++) {
+            records.beginRecord(BUNDLE_SHEET).writeInt(0).writeInt(index + 1).writeWideString("rId" + (index + 1))
+                    .writeWideString(sheetNames.get(index)).endRecord();
+        }
+        records.writeRecord(END_BUNDLE_SHEETS);
+        records.writeRecord(END_BOOK);
+        return records.toByteArray();
+    }
+
+    /**
+     * Style 0 is the default style and style 1 (<code>SheetBinaryWriter.COLUMN_HEADER_STYLE</code>) has a bold font, like the
+     * first two styles of <code>PackageParts.styles()</code>.
+     */
+
+    static byte[] styles() {
+        BiffRecordWriter records = new BiffRecordWriter(1024);
+        records.writeRecord(BEGIN_STYLE_SHEET);
+
+        records.beginRecord(BEGIN_FONTS).writeInt(2).endRecord();
+        writeFont(records, NORMAL_WEIGHT);
+        writeFont(records, BOLD_WEIGHT);
+        records.writeRecord(END_FONTS);
+
+        records.beginRecord(BEGIN_FILLS).writeInt(2).endRecord();
+        writeFill(records, 0);
+        writeFill(records, GRAY_125_PATTERN);
+        records.writeRecord(END_FILLS);
+
+        records.beginRecord(BEGIN_BORDERS).writeInt(1).endRecord();
+        records.beginRecord(BORDER).writeByte(0);
+        for (int side = 0; side < 5; side++) {
+            records.writeShort(0);
+            writeAutomaticColor(records);
+        }
+        records.endRecord();
+        records.writeRecord(END_BORDERS);
+
+        records.beginRecord(BEGIN_CELL_STYLE_FORMATS).writeInt(1).endRecord();
+        writeCellFormat(records, NO_PARENT_FORMAT, 0, 0);
+        records.writeRecord(END_CELL_STYLE_FORMATS);
+
+        records.beginRecord(BEGIN_CELL_FORMATS).writeInt(2).endRecord();
+        writeCellFormat(records, 0, 0, 0);
+        writeCellFormat(records, 0, 1, APPLY_FONT);
+        records.writeRecord(END_CELL_FORMATS);
+
+        records.beginRecord(BEGIN_CELL_STYLES).writeInt(1).endRecord();
+        records.beginRecord(CELL_STYLE).writeInt(0).writeShort(BUILT_IN_STYLE).writeByte(0).writeByte(0xFF)
+                .writeWideString("Normal").endRecord();
+        records.writeRecord(END_CELL_STYLES);
+
+        records.beginRecord(BEGIN_DIFFERENTIAL_FORMATS).writeInt(0).endRecord();
+        records.writeRecord(END_DIFFERENTIAL_FORMATS);
+        records.beginRecord(BEGIN_TABLE_STYLES).writeInt(0).writeWideString("TableStyleMedium9")
+                .writeWideString("PivotStyleLight16").endRecord();
+        records.writeRecord(END_TABLE_STYLES);
+
+        records.writeRecord(END_STYLE_SHEET);
+        return records.toByteArray();
+    }
+
+    private static void writeFont(BiffRecordWriter records, int weight) {
+        records.beginRecord(FONT).writeShort(FONT_HEIGHT).writeShort(0).writeShort(weight).writeShort(0)
+                .writeByte(0).writeByte(SWISS_FONT_FAMILY).writeByte(0).writeByte(0);
+        writeAutomaticColor(records);
+        records.writeByte(0).writeWideString("Calibri").endRecord();
+    }
+
+    private static void writeFill(BiffRecordWriter records, int pattern) {
+        records.beginRecord(FILL).writeInt(pattern);
+        // indexed system foreground and background colours
+        records.writeByte(0x02).writeByte(0x40).writeShort(0).writeInt(0);
+        records.writeByte(0x02).writeByte(0x41).writeShort(0).writeInt(0);
+        records.writeInt(0);
+        for (int gradientField = 0; gradientField < 5; gradientField++) {
+            records.writeDouble(0);
+        }
+        records.writeInt(0).endRecord();
+    }
+
+    private static void writeCellFormat(BiffRecordWriter records, int parentFormat, int fontId, int applied) {
+        records.beginRecord(CELL_FORMAT).writeShort(parentFormat).writeShort(0).writeShort(fontId).writeShort(0).writeShort(0)
+                .writeByte(0).writeByte(0).writeShort(DEFAULT_FORMAT_FLAGS).writeByte(applied).writeByte(0).endRecord();
+    }
+
+    private static void writeAutomaticColor(BiffRecordWriter records) {
+        records.writeInt(0).writeInt(0);
+    }
+
+    private static byte[] bytes(CharSequence xml) {
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
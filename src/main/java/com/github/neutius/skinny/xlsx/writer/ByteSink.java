@@ -0,0 +1,319 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable byte buffer used to serialize SpreadsheetML without going through <code>String</code> or a <code>Writer</code>.
+ * <p>
+ * Text is encoded to UTF-8 and escaped for XML in a single pass, and UTF-8 input is copied with as little processing as
+ * possible. Characters that are not allowed in XML 1.0 are replaced by a question mark, like Apache POI does.
+ */
+
+final class ByteSink {
+
+    private static final byte[] AMPERSAND = {'&', 'a', 'm', 'p', ';'};
+    private static final byte[] LESS_THAN = {'&', 'l', 't', ';'};
+    private static final byte[] GREATER_THAN = {'&', 'g', 't', ';'};
+    private static final byte[] QUOTE = {'&', 'q', 'u', 'o', 't', ';'};
+    private static final byte[] CARRIAGE_RETURN = {'&', '#', '1', '3', ';'};
+    private static final byte REPLACEMENT = '?';
+    private static final byte[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_PLAIN_DIGITS = 15;
+    private static final int MIN_PLAIN_POINT_POSITION = -5;
+    private static final byte[] DIGIT_PAIRS = createDigitPairs();
+    private static final long[] POWERS_OF_TEN = createPowersOfTen();
+
+    private byte[] buffer;
+    private int size;
+
+    ByteSink(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, size);
+    }
+
+    ByteSink write(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    ByteSink write(byte[] bytes) {
+        return write(bytes, 0, bytes.length);
+    }
+
+    ByteSink write(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    ByteSink write(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        ensureCapacity(length);
+        bytes.duplicate().get(buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * Writes the decimal representation of the value, without allocating a <code>String</code>.
+     */
+
+    ByteSink writeDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            return write(LONG_MIN_VALUE);
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        writeDigits(value, digitCount(value));
+        return this;
+    }
+
+    /**
+     * Writes a finite double value in a form Excel accepts: the shortest decimal that rounds to the value, without allocating
+     * anything. Integral values are written as integers.
+     */
+
+    ByteSink writeDouble(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return writeDecimal((long) value);
+        }
+        DoubleToDecimal.writeTo(this, value);
+        return this;
+    }
+
+    /**
+     * Writes the positive value <code>significand</code> 10^<code>exponent</code>, in plain notation when the decimal point is
+     * close to the digits, and in scientific notation otherwise, e.g. "0.0012", "1.5E-7" or "2E23".
+     */
+
+    ByteSink writeScaledDecimal(long significand, int exponent) {
+        while (significand % 10 == 0) {
+            significand /= 10;
+            exponent++;
+        }
+        int digitCount = digitCount(significand);
+        int pointPosition = digitCount + exponent;
+        ensureCapacity(digitCount + MAX_PLAIN_DIGITS + 8);
+        if (exponent >= 0 && pointPosition <= MAX_PLAIN_DIGITS) {
+            writeDigits(significand, digitCount);
+            for (int zero = 0; zero < exponent; zero++) {
+                buffer[size++] = '0';
+            }
+        } else if (exponent < 0 && pointPosition > 0) {
+            writeDigits(significand, digitCount);
+            System.arraycopy(buffer, size - digitCount + pointPosition, buffer, size - digitCount + pointPosition + 1,
+                    -exponent);
+            buffer[size - digitCount + pointPosition] = '.';
+            size++;
+        } else if (exponent < 0 && pointPosition > MIN_PLAIN_POINT_POSITION) {
+            buffer[size++] = '0';
+            buffer[size++] = '.';
+            for (int zero = pointPosition; zero < 0; zero++) {
+                buffer[size++] = '0';
+            }
+            writeDigits(significand, digitCount);
+        } else {
+            writeDigits(significand, digitCount);
+            if (digitCount > 1) {
+                System.arraycopy(buffer, size - digitCount + 1, buffer, size - digitCount + 2, digitCount - 1);
+                buffer[size - digitCount + 1] = '.';
+                size++;
+            }
+            buffer[size++] = 'E';
+            writeDecimal(pointPosition - 1);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the column part of a cell reference, e.g. "A" for index 0 and "AA" for index 26.
+     */
+
+    ByteSink writeColumnName(int columnIndex) {
+        ensureCapacity(3);
+        if (columnIndex >= 702) {
+            buffer[size++] = (byte) ('A' + (columnIndex - 702) / 676);
+            columnIndex = 26 + (columnIndex - 702) % 676;
+        }
+        if (columnIndex >= 26) {
+            buffer[size++] = (byte) ('A' + columnIndex / 26 - 1);
+        }
+        buffer[size++] = (byte) ('A' + columnIndex % 26);
+        return this;
+    }
+
+    /**
+     * Encodes the text to UTF-8 and escapes it for use in XML element content and attribute values.
+     */
+
+    ByteSink writeEscaped(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int index = 0; index < length; index++) {
+            char character = text.charAt(index);
+            if (character < 0x80) {
+                writeEscapedAscii(character);
+            } else if (character < 0x800) {
+                ensureCapacity(2);
+                buffer[size++] = (byte) (0xC0 | character >> 6);
+                buffer[size++] = (byte) (0x80 | character & 0x3F);
+            } else if (Character.isHighSurrogate(character) && index + 1 < length
+                    && Character.isLowSurrogate(text.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(character, text.charAt(++index));
+                ensureCapacity(4);
+                buffer[size++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[size++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(character) || character == 0xFFFE || character == 0xFFFF) {
+                write(REPLACEMENT);
+            } else {
+                ensureCapacity(3);
+                buffer[size++] = (byte) (0xE0 | character >> 12);
+                buffer[size++] = (byte) (0x80 | character >> 6 & 0x3F);
+                buffer[size++] = (byte) (0x80 | character & 0x3F);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Copies UTF-8 encoded text, escaping only the ASCII characters that need escaping in XML. Runs of bytes that need no
+     * escaping are copied in bulk. The bytes are assumed to be valid UTF-8.
+     */
+
+    ByteSink writeEscapedUtf8(byte[] utf8, int offset, int length) {
+        ensureCapacity(length);
+        int runStart = offset;
+        int end = offset + length;
+        for (int index = offset; index < end; index++) {
+            if (needsEscaping(utf8[index])) {
+                write(utf8, runStart, index - runStart);
+                writeEscapedAscii((char) utf8[index]);
+                runStart = index + 1;
+            }
+        }
+        return write(utf8, runStart, end - runStart);
+    }
+
+    ByteSink writeEscapedUtf8(ByteBuffer utf8) {
+        if (utf8.hasArray()) {
+            return writeEscapedUtf8(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining());
+        }
+        ensureCapacity(utf8.remaining());
+        for (int index = utf8.position(); index < utf8.limit(); index++) {
+            byte value = utf8.get(index);
+            if (needsEscaping(value)) {
+                writeEscapedAscii((char) value);
+            } else {
+                write(value);
+            }
+        }
+        return this;
+    }
+
+    private static boolean needsEscaping(byte value) {
+        return value >= 0 && (value < 0x20 || value == '&' || value == '<' || value == '>' || value == '"');
+    }
+
+    private void writeEscapedAscii(char character) {
+        switch (character) {
+            case '&':
+                write(AMPERSAND);
+                break;
+            case '<':
+                write(LESS_THAN);
+                break;
+            case '>':
+                write(GREATER_THAN);
+                break;
+            case '"':
+                write(QUOTE);
+                break;
+            case '\r':
+                write(CARRIAGE_RETURN);
+                break;
+            case '\t':
+            case '\n':
+                write(character);
+                break;
+            default:
+                write(character < 0x20 ? REPLACEMENT : character);
+        }
+    }
+
+    // Writes exactly digitCount digits of a non-negative value, two at a time; the capacity must have been ensured
+    private void writeDigits(long value, int digitCount) {
+        int index = size + digitCount;
+        while (value >= 100) {
+            int pair = (int) (value % 100) << 1;
+            value /= 100;
+            buffer[--index] = DIGIT_PAIRS[pair + 1];
+            buffer[--index] = DIGIT_PAIRS[pair];
+        }
+        if (value >= 10) {
+            int pair = (int) value << 1;
+            buffer[--index] = DIGIT_PAIRS[pair + 1];
+            buffer[--index] = DIGIT_PAIRS[pair];
+        } else {
+            buffer[--index] = (byte) ('0' + value);
+        }
+        size += digitCount;
+    }
+
+    // The amount of digits of a non-negative value, estimated from its amount of bits and corrected with a power of ten
+    private static int digitCount(long value) {
+        int estimate = (64 - Long.numberOfLeadingZeros(value)) * 1233 >>> 12;
+        return estimate < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[estimate] ? estimate + 1 : Math.max(1, estimate);
+    }
+
+    private static byte[] createDigitPairs() {
+        byte[] digitPairs = new byte[200];
+        for (int pair = 0; pair < 100; pair++) {
+            digitPairs[pair << 1] = (byte) ('0' + pair / 10);
+            digitPairs[(pair << 1) + 1] = (byte) ('0' + pair % 10);
+        }
+        return digitPairs;
+    }
+
+    private static long[] createPowersOfTen() {
+        long[] powersOfTen = new long[19];
+        powersOfTen[0] = 1;
+        for (int exponent = 1; exponent < powersOfTen.length; exponent++) {
+            powersOfTen[exponent] = powersOfTen[exponent - 1] * 10;
+        }
+        return powersOfTen;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+            System.arraycopy(buffer, 0, grown, 0, size);
+            buffer = grown;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the content of a single zip entry into a file of its own, as a raw deflate stream. A checkpoint ends with a full
+ * flush, which does not refer back to earlier content, and is forced to disk. A new stream can therefore resume the file at a
+ * checkpoint: the file is truncated to the compressed size at the checkpoint, and compressing simply continues from there.
+ * The checksum of the content after the checkpoint is combined with the checksum at the checkpoint.
+ */
+
+final class CheckpointDeflaterOutputStream extends ZipPackageWriter.EntryOutputStream {
+
+    private final FileOutputStream fileOutputStream;
+    private final Deflater deflater = SkinnyResourcePool.acquireDeflater(ZipPackageWriter.DEFAULT_LEVEL);
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[1 << 13];
+    private final long initialCrc;
+    private final long initialUncompressedSize;
+
+    private long compressedSize;
+    private long uncompressedSize;
+    private boolean closed;
+
+    private CheckpointDeflaterOutputStream(FileOutputStream fileOutputStream, long initialCrc, long initialCompressedSize,
+                                           long initialUncompressedSize) {
+        this.fileOutputStream = fileOutputStream;
+        this.initialCrc = initialCrc;
+        this.initialUncompressedSize = initialUncompressedSize;
+        compressedSize = initialCompressedSize;
+        uncompressedSize = initialUncompressedSize;
+    }
+
+    static CheckpointDeflaterOutputStream create(File partFile) throws IOException {
+        return new CheckpointDeflaterOutputStream(new FileOutputStream(partFile), 0, 0, 0);
+    }
+
+    static CheckpointDeflaterOutputStream resume(File partFile, long crc, long compressedSize, long uncompressedSize)
+            throws IOException {
+        if (partFile.length() < compressedSize) {
+            throw new IOException("Part file " + partFile + " is shorter than its last checkpoint");
+        }
+        FileOutputStream fileOutputStream = new FileOutputStream(partFile, true);
+        fileOutputStream.getChannel().truncate(compressedSize);
+        return new CheckpointDeflaterOutputStream(fileOutputStream, crc, compressedSize, uncompressedSize);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        crc.update(bytes, offset, length);
+        uncompressedSize += length;
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            writeCompressed(deflater.deflate(buffer));
+        }
+    }
+
+    void checkpoint() throws IOException {
+        int length;
+        do {
+            length = deflater.deflate(buffer, 0, buffer.length, Deflater.FULL_FLUSH);
+            writeCompressed(length);
+        } while (length == buffer.length);
+        fileOutputStream.getFD().sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                writeCompressed(deflater.deflate(buffer));
+            }
+            fileOutputStream.getFD().sync();
+        } finally {
+            SkinnyResourcePool.releaseDeflater(deflater);
+            fileOutputStream.close();
+        }
+    }
+
+    @Override
+    long getCrc() {
+        return ParallelDeflaterOutputStream.combineCrc(initialCrc, crc.getValue(), uncompressedSize - initialUncompressedSize);
+    }
+
+    @Override
+    long getCompressedSize() {
+        return compressedSize;
+    }
+
+    @Override
+    long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    private void writeCompressed(int length) throws IOException {
+        fileOutputStream.write(buffer, 0, length);
+        compressedSize += length;
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.SheetUtil;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the rows of a single sheet as they are added, following a SkinnyColumnWidthPolicy, and sets the column widths
+ * afterwards. Rows are measured while they are still in memory, so this works for streaming sheets as well, which only keep
+ * the last rows in memory.
+ * <p>
+ * Cell widths are measured the same way <code>Sheet.autoSizeColumn(int)</code> measures them, so the <code>allRows()</code>
+ * policy results in the same widths as auto-sizing every column. That requires AWT font metrics, which are not available in a
+ * GraalVM native image. There, widths are estimated from the amount of characters instead, like SkinnyRawStreamer does.
+ */
+
+final class ColumnWidthTracker {
+
+    private static final long SAMPLE_SEED = 0x5EED;
+    private static final boolean FONT_METRICS_AVAILABLE = System.getProperty("org.graalvm.nativeimage.imagecode") == null;
+
+    private final SkinnyColumnWidthPolicy policy;
+    private final boolean useFontMetrics;
+    private final int defaultCharWidth;
+    private final DataFormatter formatter = new DataFormatter();
+    private final Random random = new Random(SAMPLE_SEED);
+    private final double[][] sample;
+    // Only time the measuring while it is being recorded, see SkinnyEvents.ColumnWidthEvent
+    private final boolean timeMeasuring = new SkinnyEvents.ColumnWidthEvent().isEnabled();
+
+    private double[] widths = new double[0];
+    private int contentRowAmount;
+    private int measuredRowAmount;
+    private long measuredCellAmount;
+    private long measuringTime;
+
+    ColumnWidthTracker(SkinnyColumnWidthPolicy policy, Sheet sheet) {
+        this(policy, sheet, FONT_METRICS_AVAILABLE);
+    }
+
+    ColumnWidthTracker(SkinnyColumnWidthPolicy policy, Sheet sheet, boolean useFontMetrics) {
+        this.policy = policy;
+        this.useFontMetrics = useFontMetrics;
+        defaultCharWidth = useFontMetrics && needsMeasuring() ? SheetUtil.getDefaultCharWidth(sheet.getWorkbook()) : 0;
+        sample = policy.getKind() == SkinnyColumnWidthPolicy.Kind.SAMPLED_ROWS ? new double[policy.getRowAmount()][] : null;
+    }
+
+    /**
+     * Measures all rows that are currently in the sheet. Used when the policy changes after rows have been added.
+     */
+
+    void addExistingRows(Sheet sheet, boolean hasColumnHeaders) {
+        for (Row row : sheet) {
+            if (hasColumnHeaders && row.getRowNum() == 0) {
+                addColumnHeaderRow(row);
+            } else {
+                addContentRow(row);
+            }
+        }
+    }
+
+    void addColumnHeaderRow(Row row) {
+        if (needsMeasuring()) {
+            widths = max(widths, measure(row, true));
+        }
+    }
+
+    void addContentRow(Row row) {
+        int rowIndex = contentRowAmount++;
+        switch (policy.getKind()) {
+            case FIRST_ROWS:
+                if (rowIndex < policy.getRowAmount()) {
+                    widths = max(widths, measure(row, false));
+                }
+                break;
+            case ALL_ROWS:
+                widths = max(widths, measure(row, false));
+                break;
+            case SAMPLED_ROWS:
+                // reservoir sampling: each row ends up in the sample with the same probability
+                int sampleIndex = rowIndex < sample.length ? rowIndex : random.nextInt(rowIndex + 1);
+                if (sampleIndex < sample.length) {
+                    sample[sampleIndex] = measure(row, false);
+                }
+                break;
+            default:
+                // nothing to measure
+        }
+    }
+
+    void applyTo(Sheet sheet) {
+        SkinnyEvents.ColumnWidthEvent event = new SkinnyEvents.ColumnWidthEvent();
+        event.begin();
+        int columnAmount = applyWidths(sheet);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sheetName = sheet.getSheetName();
+            event.policy = policy.toString();
+            event.measuredRowAmount = measuredRowAmount;
+            event.measuredCellAmount = measuredCellAmount;
+            event.columnAmount = columnAmount;
+            event.measuringTime = measuringTime;
+            event.commit();
+        }
+    }
+
+    // Returns the amount of columns that got a width
+    private int applyWidths(Sheet sheet) {
+        if (policy.getKind() == SkinnyColumnWidthPolicy.Kind.NONE) {
+            return 0;
+        }
+        if (policy.getKind() == SkinnyColumnWidthPolicy.Kind.FIXED_WIDTHS) {
+            List<Integer> fixedWidths = policy.getWidths();
+            for (int columnIndex = 0; columnIndex < fixedWidths.size(); columnIndex++) {
+                if (fixedWidths.get(columnIndex) != null) {
+                    sheet.setColumnWidth(columnIndex, fixedWidths.get(columnIndex) * 256);
+                }
+            }
+            return fixedWidths.size();
+        }
+
+        double[] result = widths.clone();
+        if (sample != null) {
+            for (double[] sampledWidths : sample) {
+                if (sampledWidths != null) {
+                    result = max(result, sampledWidths);
+                }
+            }
+        }
+        for (int columnIndex = 0; columnIndex < result.length; columnIndex++) {
+            if (result[columnIndex] > 0) {
+                double width = Math.min(result[columnIndex], SkinnyColumnWidthPolicy.MAX_WIDTH);
+                sheet.setColumnWidth(columnIndex, (int) (width * 256));
+            }
+        }
+        return result.length;
+    }
+
+    private boolean needsMeasuring() {
+        SkinnyColumnWidthPolicy.Kind kind = policy.getKind();
+        return kind != SkinnyColumnWidthPolicy.Kind.NONE && kind != SkinnyColumnWidthPolicy.Kind.FIXED_WIDTHS;
+    }
+
+    private double[] measure(Row row, boolean columnHeader) {
+        long start = timeMeasuring ? System.nanoTime() : 0;
+        double[] result = new double[Math.max(0, row.getLastCellNum())];
+        for (Cell cell : row) {
+            result[cell.getColumnIndex()] = useFontMetrics ? SheetUtil.getCellWidth(cell, defaultCharWidth, formatter, false)
+                    : estimateWidth(formatter.formatCellValue(cell), columnHeader);
+        }
+        measuredRowAmount++;
+        measuredCellAmount += row.getPhysicalNumberOfCells();
+        if (timeMeasuring) {
+            measuringTime += System.nanoTime() - start;
+        }
+        return result;
+    }
+
+    // Bold text is somewhat wider than normal text, hence the extra margin for column headers
+    private static double estimateWidth(String value, boolean columnHeader) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        int longestLine = 0;
+        for (String line : value.split("\n")) {
+            longestLine = Math.max(longestLine, line.length());
+        }
+        return longestLine + (columnHeader ? 3 : 1);
+    }
+
+    private static double[] max(double[] first, double[] second) {
+        double[] result = first.length >= second.length ? first : Arrays.copyOf(first, second.length);
+        for (int index = 0; index < second.length; index++) {
+            result[index] = Math.max(result[index], second[index]);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * The worksheet XML of a sheet, serialized and compressed once into a temporary file, so it can be copied unchanged into
+ * several worksheet entries of a .xlsx file. Closing the part deletes the temporary file.
+ */
+
+final class CompressedSheetPart implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final MappedSpillStore spillStore;
+    private final long crc;
+    private final long uncompressedSize;
+
+    private CompressedSheetPart(MappedSpillStore spillStore, long crc, long uncompressedSize) {
+        this.spillStore = spillStore;
+        this.crc = crc;
+        this.uncompressedSize = uncompressedSize;
+    }
+
+    static CompressedSheetPart write(SheetContentKey sheetContent, boolean minimalMarkup) throws IOException {
+        MappedSpillStore spillStore = new MappedSpillStore(File.createTempFile("skinny-sheet", ".deflate"));
+        try {
+            SpillDeflaterOutputStream compressedSheet = new SpillDeflaterOutputStream(spillStore, true);
+            SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(SkinnyResourcePool.acquireByteSink(BUFFER_SIZE));
+            try (compressedSheet) {
+                sheetXmlWriter.setMinimalMarkup(minimalMarkup);
+                sheetXmlWriter.beginSheet(compressedSheet);
+                List<List<String>> contentRows = sheetContent.getContentRows();
+                sheetXmlWriter.writeDimension(sheetContent.getColumnHeaders(), contentRows);
+                sheetXmlWriter.setColumnTypes(sheetContent.resolveColumnTypes(contentRows));
+                if (sheetContent.hasColumnHeaders()) {
+                    sheetXmlWriter.writeColumnHeaderRow(sheetContent.getColumnHeaders());
+                }
+                for (List<String> contentRow : contentRows) {
+                    sheetXmlWriter.writeRow(contentRow);
+                }
+                sheetXmlWriter.endSheet();
+            } finally {
+                sheetXmlWriter.releaseSink();
+            }
+            return new CompressedSheetPart(spillStore, compressedSheet.getCrc(), compressedSheet.getUncompressedSize());
+        } catch (IOException | RuntimeException exception) {
+            spillStore.close();
+            throw exception;
+        }
+    }
+
+    long getCrc() {
+        return crc;
+    }
+
+    long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    void transferTo(OutputStream output) throws IOException {
+        spillStore.transferTo(output);
+    }
+
+    @Override
+    public void close() throws IOException {
+        spillStore.close();
+    }
+
+}
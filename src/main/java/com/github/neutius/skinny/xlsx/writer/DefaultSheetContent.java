@@ -6,7 +6,8 @@ import java.util.List;
  * A default implementation for the <code>SkinnySheetContent</code> interface - see the JavaDoc for that interface for more
  * information.
  * <p>
- * This class has a private constructor and two static factory methods.
+ * This class has a private constructor and two static factory methods. A column width policy or a column schema can be
+ * added to an instance, which results in a new instance.
  */
 
 public final class DefaultSheetContent implements SkinnySheetContent {
@@ -20,6 +21,8 @@ public final class DefaultSheetContent implements SkinnySheetContent {
     private final boolean hasColumnHeaders;
     private final List<String> columnHeaders;
     private final List<List<String>> contentRows;
+    private final SkinnyColumnWidthPolicy columnWidthPolicy;
+    private final SkinnyColumnSchema columnSchema;
 
     /**
      * This method creates and returns a representation of a sheet to be added to a .xlsx file by the SkinnyWriter class,
@@ -38,7 +41,7 @@ public final class DefaultSheetContent implements SkinnySheetContent {
      */
 
     public static DefaultSheetContent withHeaders(String sheetName, List<String> columnHeaders, List<List<String>> contentRows) {
-        return new DefaultSheetContent(sheetName, true, columnHeaders, contentRows);
+        return new DefaultSheetContent(sheetName, true, columnHeaders, contentRows, null, null);
     }
 
     /**
@@ -53,15 +56,44 @@ public final class DefaultSheetContent implements SkinnySheetContent {
      */
 
     public static DefaultSheetContent withoutHeaders(String sheetName, List<List<String>> contentRows) {
-        return new DefaultSheetContent(sheetName, false, null, contentRows);
+        return new DefaultSheetContent(sheetName, false, null, contentRows, null, null);
+    }
+
+    /**
+     * This method creates and returns a copy of this representation, with a column width policy. This representation
+     * remains unchanged.
+     *
+     * @param columnWidthPolicy The column width policy for the sheet, or null to use the default policy of the writer.
+     * @return A representation of the same sheet, with the column width policy passed in.
+     */
+
+    public DefaultSheetContent withColumnWidthPolicy(SkinnyColumnWidthPolicy columnWidthPolicy) {
+        return new DefaultSheetContent(sheetName, hasColumnHeaders, columnHeaders, contentRows, columnWidthPolicy,
+                columnSchema);
+    }
+
+    /**
+     * This method creates and returns a copy of this representation, with a column schema. This representation remains
+     * unchanged.
+     *
+     * @param columnSchema The column schema for the sheet, or null to write all values as text.
+     * @return A representation of the same sheet, with the column schema passed in.
+     */
+
+    public DefaultSheetContent withColumnSchema(SkinnyColumnSchema columnSchema) {
+        return new DefaultSheetContent(sheetName, hasColumnHeaders, columnHeaders, contentRows, columnWidthPolicy,
+                columnSchema);
     }
 
     private DefaultSheetContent(String sheetName, boolean hasColumnHeaders, List<String> columnHeaders,
-                                List<List<String>> contentRows) {
+                                List<List<String>> contentRows, SkinnyColumnWidthPolicy columnWidthPolicy,
+                                SkinnyColumnSchema columnSchema) {
         this.sheetName = sheetName;
         this.hasColumnHeaders = hasColumnHeaders;
         this.columnHeaders = sanitizeColumnHeaders(hasColumnHeaders, columnHeaders);
         this.contentRows = contentRows;
+        this.columnWidthPolicy = columnWidthPolicy;
+        this.columnSchema = columnSchema;
     }
 
     private List<String> sanitizeColumnHeaders(boolean hasColumnHeaders, List<String> columnHeaders) {
@@ -108,4 +140,14 @@ public final class DefaultSheetContent implements SkinnySheetContent {
         return contentRows;
     }
 
+    @Override
+    public SkinnyColumnWidthPolicy getColumnWidthPolicy() {
+        return columnWidthPolicy;
+    }
+
+    @Override
+    public SkinnyColumnSchema getColumnSchema() {
+        return columnSchema;
+    }
+
 }
@@ -0,0 +1,159 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.math.BigInteger;
+
+/**
+ * Finds the shortest decimal that rounds to a given double, without allocating anything: an implementation of Raffaello
+ * Giulietti's Schubfach algorithm, the algorithm behind <code>Double.toString(double)</code> since Java 19. Among the shortest
+ * decimals, the one closest to the double is chosen. Older versions of <code>Double.toString(double)</code> allocate a
+ * <code>String</code> for each value, and sometimes produce more digits than needed.
+ * <p>
+ * The table of powers of ten is computed once, when this class is initialized.
+ */
+
+final class DoubleToDecimal {
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long T_MASK = (1L << (P - 1)) - 1;
+    private static final int BQ_MASK = (1 << 11) - 1;
+
+    // For each k, the 126 bit approximation g of 10^-k, split into its higher and lower 63 bits
+    private static final long[] G = computeTable();
+
+    private DoubleToDecimal() {
+    }
+
+    /**
+     * Writes the shortest decimal that rounds to the value, which must be finite, as a significand and a power of ten.
+     */
+
+    static void writeTo(ByteSink sink, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq == BQ_MASK) {
+            throw new IllegalArgumentException("Only finite values can be written, not " + value);
+        }
+        if (bits < 0) {
+            sink.write('-');
+        }
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    sink.writeScaledDecimal(f, 0);
+                    return;
+                }
+            }
+            writeDecimal(sink, -mq, c, 0);
+        } else if (t != 0) {
+            if (t < C_TINY) {
+                writeDecimal(sink, Q_MIN, 10 * t, -1);
+            } else {
+                writeDecimal(sink, Q_MIN, t, 0);
+            }
+        } else {
+            sink.write('0');
+        }
+    }
+
+    // The value is c 2^q; the decimal found is multiplied by 10^dk, to compensate for a scaled c
+    private static void writeDecimal(ByteSink sink, int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = G[(k - K_MIN) << 1];
+        long g0 = G[((k - K_MIN) << 1) + 1];
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = 10 floor(s / 10)
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                sink.writeScaledDecimal(upin ? sp10 : tp10, k + dk);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            sink.writeScaledDecimal(uin ? s : t, k + dk);
+            return;
+        }
+        // both candidates round to the value: take the closest one, or the even one when both are equally close
+        long cmp = vb - ((s + t) << 1);
+        sink.writeScaledDecimal(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+    // floor(e log10(2))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 2^e))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    // floor(e log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    // g = floor(10^-k 2^-r) + 1, with r chosen so that 2^125 <= g < 2^126
+    private static long[] computeTable() {
+        long[] table = new long[(K_MAX - K_MIN + 1) << 1];
+        BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                int r = power.bitLength() - 126;
+                g = r >= 0 ? power.shiftRight(r) : power.shiftLeft(-r);
+            } else {
+                BigInteger power = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(125 + power.bitLength()).divide(power);
+            }
+            g = g.add(BigInteger.ONE);
+            table[(k - K_MIN) << 1] = g.shiftRight(63).longValueExact();
+            table[((k - K_MIN) << 1) + 1] = g.and(mask).longValueExact();
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Converts dates and times to Excel serial dates, the number of days since 1899-12-30, with the time of day as fraction. The
+ * conversion only uses arithmetic on epoch days, so nothing is allocated.
+ * <p>
+ * Like Excel itself, serial dates include the non-existing date 1900-02-29, so dates before 1900-03-01 are one day less than
+ * the amount of days since 1899-12-30. Excel cannot represent dates before 1900-01-01 or after 9999-12-31.
+ */
+
+final class ExcelDates {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final double NANOS_PER_DAY = 86_400e9;
+
+    // Epoch days of 1900-01-01, 1900-03-01 and 9999-12-31, and the serial date of 1970-01-01
+    private static final long FIRST_EPOCH_DAY = -25_567;
+    private static final long FIRST_EPOCH_DAY_AFTER_LEAP_DAY_BUG = -25_508;
+    private static final long LAST_EPOCH_DAY = 2_932_896;
+    private static final long EPOCH_SERIAL_DATE = 25_569;
+
+    private ExcelDates() {
+    }
+
+    static long toSerialDate(LocalDate date) {
+        return toSerialDay(date.toEpochDay());
+    }
+
+    static double toSerialDate(LocalDateTime dateTime) {
+        return toSerialDay(dateTime.toLocalDate().toEpochDay()) + dateTime.toLocalTime().toNanoOfDay() / NANOS_PER_DAY;
+    }
+
+    /**
+     * Converts the instant as a date and time in UTC.
+     */
+
+    static double toSerialDate(Instant instant) {
+        long epochDay = Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY);
+        long secondOfDay = Math.floorMod(instant.getEpochSecond(), SECONDS_PER_DAY);
+        return toSerialDay(epochDay) + (secondOfDay * 1e9 + instant.getNano()) / NANOS_PER_DAY;
+    }
+
+    private static long toSerialDay(long epochDay) {
+        if (epochDay < FIRST_EPOCH_DAY || epochDay > LAST_EPOCH_DAY) {
+            throw new IllegalArgumentException("Excel can only represent dates from 1900-01-01 up to 9999-12-31, not "
+                    + LocalDate.ofEpochDay(epochDay));
+        }
+        return epochDay >= FIRST_EPOCH_DAY_AFTER_LEAP_DAY_BUG ? epochDay + EPOCH_SERIAL_DATE : epochDay + EPOCH_SERIAL_DATE - 1;
+    }
+
+}
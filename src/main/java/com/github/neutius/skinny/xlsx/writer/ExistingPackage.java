@@ -0,0 +1,317 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An existing .xlsx package that sheets are appended to. The package is rewritten into a temporary file next to it. All
+ * entries are copied raw, i.e. without inflating and deflating them again, except the parts that list the sheets and their
+ * styles: the workbook part, its relationships, the content types and the style sheet. Those are edited and written again
+ * when the package is finished, after which the temporary file replaces the original file.
+ * <p>
+ * The parts are edited as text, see PackageXml. Document properties, such as the sheet titles in docProps/app.xml, are
+ * copied unchanged.
+ */
+
+final class ExistingPackage {
+
+    private static final String ROOT_RELATIONSHIPS = PackageParts.ROOT_RELATIONSHIPS;
+    private static final Pattern STYLE_SHEET_START = Pattern.compile("<([\\w.-]+:)?styleSheet\\b[^>]*>");
+    private static final int FIRST_CUSTOM_NUMBER_FORMAT = 164;
+
+    private final File file;
+    private final ZipPackageReader reader;
+    private final String workbookName;
+    private final String workbookDirectory;
+    private final String workbookRelationshipsName;
+    private final String stylesName;
+    private final String workbook;
+    private final String workbookRelationships;
+    private final String contentTypes;
+    private final String styles;
+    private final boolean stylesExist;
+    private final int styleOffset;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<String> addedSheetNames = new ArrayList<>();
+    private final List<String> addedEntryNames = new ArrayList<>();
+
+    private int nextSheetNumber;
+    private File temporaryFile;
+    private OutputStream temporaryOutput;
+
+    private ExistingPackage(File file, ZipPackageReader reader) throws IOException {
+        this.file = file;
+        this.reader = reader;
+
+        String officeDocument = PackageXml.relationshipTarget(readPart(ROOT_RELATIONSHIPS), "officeDocument");
+        if (officeDocument == null) {
+            throw new IOException("Not a .xlsx file: no workbook part found in " + file);
+        }
+        workbookName = PackageXml.resolve("", officeDocument);
+        workbookDirectory = workbookName.substring(0, workbookName.lastIndexOf('/') + 1);
+        workbookRelationshipsName = workbookDirectory + "_rels/" + workbookName.substring(workbookDirectory.length()) + ".rels";
+        workbook = readPart(workbookName);
+        workbookRelationships = readPart(workbookRelationshipsName);
+        contentTypes = readPart(PackageParts.CONTENT_TYPES);
+
+        String stylesTarget = PackageXml.relationshipTarget(workbookRelationships, "styles");
+        stylesExist = stylesTarget != null;
+        if (stylesExist) {
+            stylesName = PackageXml.resolve(workbookDirectory, stylesTarget);
+            String existingStyles = readPart(stylesName);
+            Matcher styleSheetStart = STYLE_SHEET_START.matcher(existingStyles);
+            if (!styleSheetStart.find()) {
+                throw new IOException("Not a style sheet: " + stylesName);
+            }
+            String prefix = styleSheetStart.group(1) == null ? "" : styleSheetStart.group(1);
+            styleOffset = PackageXml.elementAmount(existingStyles, prefix + "cellXfs", prefix + "xf") - 1;
+            styles = extendStyles(existingStyles, prefix);
+        } else {
+            stylesName = workbookDirectory + "styles.xml";
+            styleOffset = 0;
+            styles = new String(PackageParts.styles(), StandardCharsets.UTF_8);
+        }
+
+        for (Map<String, String> sheet : PackageXml.elements(workbook, "sheet")) {
+            sheetNames.add(sheet.get("name"));
+        }
+        nextSheetNumber = sheetNames.size() + 1;
+    }
+
+    /**
+     * Reads the parts of the package that will be changed. Nothing is written until <code>openTemporaryFile()</code> is
+     * called.
+     *
+     * @throws IOException Will be thrown when the file cannot be read, or is not a .xlsx package.
+     */
+
+    static ExistingPackage open(File file) throws IOException {
+        ZipPackageReader reader = ZipPackageReader.open(file);
+        try {
+            return new ExistingPackage(file, reader);
+        } catch (IOException | RuntimeException exception) {
+            reader.close();
+            throw exception;
+        }
+    }
+
+    List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    /**
+     * @return The offset for SheetXmlWriter.setStyleOffset(int), which makes the appended sheets use the styles added to the
+     * existing style sheet.
+     */
+
+    int getStyleOffset() {
+        return styleOffset;
+    }
+
+    /**
+     * Creates the temporary file that replaces the original file when the package is finished, in the same directory.
+     */
+
+    OutputStream openTemporaryFile() throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        temporaryFile = File.createTempFile("skinny-append", ".tmp", directory);
+        temporaryOutput = new FileOutputStream(temporaryFile);
+        return temporaryOutput;
+    }
+
+    /**
+     * Copies all entries that do not change raw, i.e. still compressed.
+     */
+
+    void copyUnchangedEntries(ZipPackageWriter zipPackageWriter) throws IOException {
+        Set<String> changedParts = new HashSet<>();
+        for (String partName : List.of(workbookName, workbookRelationshipsName, PackageParts.CONTENT_TYPES, stylesName)) {
+            changedParts.add(partName.toLowerCase(Locale.ROOT));
+        }
+        for (ZipPackageReader.Entry entry : reader.getEntries()) {
+            if (!changedParts.contains(entry.getName().toLowerCase(Locale.ROOT))) {
+                zipPackageWriter.copyEntry(entry.getName(), entry.getMethod(),
+                        compressedOutput -> reader.transferRawContent(entry, compressedOutput),
+                        entry.getCrc(), entry.getCompressedSize(), entry.getUncompressedSize());
+            }
+        }
+    }
+
+    /**
+     * Registers a sheet that will be appended to the workbook, with a sheet name that has already been sanitized.
+     *
+     * @return The name of the worksheet entry to write the sheet to.
+     */
+
+    String addWorksheet(String sheetName) {
+        String entryName;
+        do {
+            entryName = workbookDirectory + "worksheets/sheet" + nextSheetNumber++ + ".xml";
+        } while (reader.getEntry(entryName) != null);
+        addedSheetNames.add(sheetName);
+        addedEntryNames.add(entryName);
+        return entryName;
+    }
+
+    /**
+     * Writes the workbook part, its relationships, the content types and the style sheet, including the appended sheets.
+     */
+
+    void writeChangedParts(ZipPackageWriter zipPackageWriter) throws IOException {
+        List<String> relationshipIds = new ArrayList<>();
+        Set<String> usedRelationshipIds = new HashSet<>();
+        for (Map<String, String> relationship : PackageXml.elements(workbookRelationships, "Relationship")) {
+            usedRelationshipIds.add(relationship.get("Id"));
+        }
+        int relationshipNumber = usedRelationshipIds.size();
+        for (int index = 0; index < addedEntryNames.size() + 1; index++) {
+            String relationshipId;
+            do {
+                relationshipId = "rId" + ++relationshipNumber;
+            } while (usedRelationshipIds.contains(relationshipId));
+            relationshipIds.add(relationshipId);
+        }
+
+        zipPackageWriter.writeEntry(stylesName, styles.getBytes(StandardCharsets.UTF_8));
+        zipPackageWriter.writeEntry(workbookName, extendWorkbook(relationshipIds));
+        zipPackageWriter.writeEntry(workbookRelationshipsName, extendWorkbookRelationships(relationshipIds));
+        zipPackageWriter.writeEntry(PackageParts.CONTENT_TYPES, extendContentTypes());
+    }
+
+    /**
+     * Closes the existing package and replaces it with the temporary file, which should be complete by now.
+     */
+
+    void replaceOriginalFile() throws IOException {
+        temporaryOutput.close();
+        reader.close();
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Closes the existing package and deletes the temporary file, leaving the original file unchanged.
+     */
+
+    void discard() throws IOException {
+        try {
+            if (temporaryOutput != null) {
+                temporaryOutput.close();
+            }
+            reader.close();
+        } finally {
+            if (temporaryFile != null) {
+                Files.deleteIfExists(temporaryFile.toPath());
+            }
+        }
+    }
+
+    private byte[] extendWorkbook(List<String> relationshipIds) throws IOException {
+        int sheetId = 0;
+        for (Map<String, String> sheet : PackageXml.elements(workbook, "sheet")) {
+            sheetId = Math.max(sheetId, Integer.parseInt(sheet.getOrDefault("sheetId", "0")));
+        }
+        String relationshipIdAttribute = PackageXml.relationshipIdAttribute(workbook);
+        String idAttribute = relationshipIdAttribute != null ? relationshipIdAttribute + "=\""
+                : "xmlns:r=\"" + PackageXml.RELATIONSHIPS_NAMESPACE + "\" r:id=\"";
+
+        StringBuilder sheets = new StringBuilder();
+        for (int index = 0; index < addedSheetNames.size(); index++) {
+            sheets.append("<sheet name=\"");
+            PackageParts.appendEscaped(sheets, addedSheetNames.get(index));
+            sheets.append("\" sheetId=\"").append(++sheetId).append("\" ").append(idAttribute)
+                    .append(relationshipIds.get(index)).append("\"/>");
+        }
+        return PackageXml.insertBeforeEnd(workbook, "sheets", sheets.toString(), workbookName);
+    }
+
+    private byte[] extendWorkbookRelationships(List<String> relationshipIds) throws IOException {
+        StringBuilder relationships = new StringBuilder();
+        for (int index = 0; index < addedEntryNames.size(); index++) {
+            appendRelationship(relationships, relationshipIds.get(index), "worksheet", addedEntryNames.get(index));
+        }
+        if (!stylesExist) {
+            appendRelationship(relationships, relationshipIds.get(addedEntryNames.size()), "styles", stylesName);
+        }
+        return PackageXml.insertBeforeEnd(workbookRelationships, "Relationships", relationships.toString(),
+                workbookRelationshipsName);
+    }
+
+    private void appendRelationship(StringBuilder relationships, String id, String type, String entryName) {
+        relationships.append("<Relationship Id=\"").append(id).append("\" Type=\"").append(PackageParts.RELATIONSHIP_TYPES)
+                .append(type).append("\" Target=\"").append(entryName.substring(workbookDirectory.length())).append("\"/>");
+    }
+
+    private byte[] extendContentTypes() throws IOException {
+        StringBuilder overrides = new StringBuilder();
+        for (String entryName : addedEntryNames) {
+            appendOverride(overrides, entryName, "worksheet+xml");
+        }
+        if (!stylesExist) {
+            appendOverride(overrides, stylesName, "styles+xml");
+        }
+        return PackageXml.insertBeforeEnd(contentTypes, "Types", overrides.toString(), PackageParts.CONTENT_TYPES);
+    }
+
+    private static void appendOverride(StringBuilder overrides, String entryName, String contentType) {
+        overrides.append("<Override PartName=\"/").append(entryName).append("\" ContentType=\"")
+                .append(PackageParts.CONTENT_TYPE_PREFIX).append(contentType).append("\"/>");
+    }
+
+    /**
+     * Adds a bold font, a date and time number format, and the cell formats of styles 1, 2 and 3 (see PackageParts.styles())
+     * after the existing fonts, number formats and cell formats.
+     */
+
+    private static String extendStyles(String styles, String prefix) throws IOException {
+        int boldFontId = PackageXml.elementAmount(styles, prefix + "fonts", prefix + "font");
+        int dateTimeFormatId = FIRST_CUSTOM_NUMBER_FORMAT;
+        for (Map<String, String> numberFormat : PackageXml.elements(styles, "numFmt")) {
+            dateTimeFormatId = Math.max(dateTimeFormatId, Integer.parseInt(numberFormat.getOrDefault("numFmtId", "0")) + 1);
+        }
+        String numberFormat = "<numFmt numFmtId=\"" + dateTimeFormatId + "\" formatCode=\"" + PackageParts.DATE_TIME_FORMAT
+                + "\"/>";
+
+        // the sections are extended from the last one to the first one, so earlier positions stay valid
+        String result = PackageXml.appendToSection(styles, prefix + "cellXfs", prefix + "xf",
+                PackageXml.withPrefix(PackageParts.cellFormats(boldFontId, dateTimeFormatId), prefix), 3);
+        result = PackageXml.appendToSection(result, prefix + "fonts", prefix + "font",
+                PackageXml.withPrefix(PackageParts.BOLD_FONT, prefix), 1);
+        if (PackageXml.findSection(result, prefix + "numFmts") != null) {
+            return PackageXml.appendToSection(result, prefix + "numFmts", prefix + "numFmt",
+                    PackageXml.withPrefix(numberFormat, prefix), 1);
+        }
+        Matcher styleSheetStart = STYLE_SHEET_START.matcher(result);
+        styleSheetStart.find();
+        return result.substring(0, styleSheetStart.end())
+                + PackageXml.withPrefix("<numFmts count=\"1\">" + numberFormat + "</numFmts>", prefix)
+                + result.substring(styleSheetStart.end());
+    }
+
+    private String readPart(String partName) throws IOException {
+        ZipPackageReader.Entry entry = reader.getEntry(partName);
+        if (entry == null) {
+            throw new IOException("Not a .xlsx file: package part " + partName + " is missing in " + file);
+        }
+        return new String(reader.readContent(entry), StandardCharsets.UTF_8);
+    }
+
+}
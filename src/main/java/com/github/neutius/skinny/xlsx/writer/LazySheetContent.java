@@ -0,0 +1,122 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * An implementation for the <code>SkinnySheetContent</code> interface whose content rows are produced by a Supplier, only when
+ * the sheet is written - see the JavaDoc for that interface for more information.
+ * <p>
+ * The content rows are not kept by this class: each call to <code>getContentRows()</code> calls the Supplier again. The
+ * streaming writers call it once, when they write the sheet, and drop the rows as soon as the sheet is written. So for a List of
+ * these, only the rows of the sheet being written have to be in memory at any time, instead of the rows of all sheets.
+ * <p>
+ * This class has a private constructor and two static factory methods. A column width policy or a column schema can be
+ * added to an instance, which results in a new instance.
+ */
+
+public final class LazySheetContent implements SkinnySheetContent {
+
+    private final DefaultSheetContent sheetWithoutRows;
+    private final Supplier<List<List<String>>> contentRowSupplier;
+
+    /**
+     * This method creates and returns a representation of a sheet to be added to a .xlsx file,
+     * with a single column header row at the top of the sheet.
+     *
+     * @param sheetName          The name of the sheet to be added.
+     * @param columnHeaders      Represents the column header row: A List of String values to be added to the sheet as column
+     *                           headers. Cannot be null or empty, and can only contain String values with at least 1
+     *                           non-whitespace character.
+     * @param contentRowSupplier Produces the content rows: zero or more Lists containing zero or more String values to be added
+     *                           as content cell values. Called each time the content rows are requested.
+     * @return A representation of a sheet to be added to a .xlsx file.
+     * @throws IllegalArgumentException An Exception will be thrown if the <code>List&lt;String&gt; columnHeaders</code>
+     * is null, is empty, contains any null value, or contains any blank String.
+     */
+
+    public static LazySheetContent withHeaders(String sheetName, List<String> columnHeaders,
+                                               Supplier<List<List<String>>> contentRowSupplier) {
+        return new LazySheetContent(DefaultSheetContent.withHeaders(sheetName, columnHeaders, List.of()), contentRowSupplier);
+    }
+
+    /**
+     * This method creates and returns a representation of a sheet to be added to a .xlsx file, with no column header row.
+     *
+     * @param sheetName          The name of the sheet to be added.
+     * @param contentRowSupplier Produces the content rows: zero or more Lists containing zero or more String values to be added
+     *                           as content cell values. Called each time the content rows are requested.
+     * @return A representation of a sheet to be added to a .xlsx file.
+     */
+
+    public static LazySheetContent withoutHeaders(String sheetName, Supplier<List<List<String>>> contentRowSupplier) {
+        return new LazySheetContent(DefaultSheetContent.withoutHeaders(sheetName, List.of()), contentRowSupplier);
+    }
+
+    /**
+     * This method creates and returns a copy of this representation, with a column width policy. This representation
+     * remains unchanged.
+     *
+     * @param columnWidthPolicy The column width policy for the sheet, or null to use the default policy of the writer.
+     * @return A representation of the same sheet, with the column width policy passed in.
+     */
+
+    public LazySheetContent withColumnWidthPolicy(SkinnyColumnWidthPolicy columnWidthPolicy) {
+        return new LazySheetContent(sheetWithoutRows.withColumnWidthPolicy(columnWidthPolicy), contentRowSupplier);
+    }
+
+    /**
+     * This method creates and returns a copy of this representation, with a column schema. This representation remains
+     * unchanged. An inferred schema infers the column types from the rows produced for writing the sheet.
+     *
+     * @param columnSchema The column schema for the sheet, or null to write all values as text.
+     * @return A representation of the same sheet, with the column schema passed in.
+     */
+
+    public LazySheetContent withColumnSchema(SkinnyColumnSchema columnSchema) {
+        return new LazySheetContent(sheetWithoutRows.withColumnSchema(columnSchema), contentRowSupplier);
+    }
+
+    private LazySheetContent(DefaultSheetContent sheetWithoutRows, Supplier<List<List<String>>> contentRowSupplier) {
+        if (contentRowSupplier == null) {
+            throw new IllegalArgumentException("Supplier of content rows should not be null");
+        }
+        this.sheetWithoutRows = sheetWithoutRows;
+        this.contentRowSupplier = contentRowSupplier;
+    }
+
+    @Override
+    public String getSheetName() {
+        return sheetWithoutRows.getSheetName();
+    }
+
+    @Override
+    public boolean hasColumnHeaders() {
+        return sheetWithoutRows.hasColumnHeaders();
+    }
+
+    @Override
+    public List<String> getColumnHeaders() {
+        return sheetWithoutRows.getColumnHeaders();
+    }
+
+    /**
+     * @return The content rows produced by the Supplier, which is called each time this method is called.
+     */
+
+    @Override
+    public List<List<String>> getContentRows() {
+        return contentRowSupplier.get();
+    }
+
+    @Override
+    public SkinnyColumnWidthPolicy getColumnWidthPolicy() {
+        return sheetWithoutRows.getColumnWidthPolicy();
+    }
+
+    @Override
+    public SkinnyColumnSchema getColumnSchema() {
+        return sheetWithoutRows.getColumnSchema();
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only temporary file, written through memory-mapped segments. Appending copies bytes into the mapped segment, and
+ * leaves writing them to disk to the operating system, so there is no write call for each buffer. The content is passed on
+ * with <code>FileChannel.transferTo</code>, which lets the operating system copy it without reading it into the Java heap.
+ * <p>
+ * The file grows a segment at a time, so it can be somewhat larger than its content: only the first <code>size()</code> bytes
+ * are content. Closing this store deletes the file.
+ */
+
+final class MappedSpillStore extends OutputStream {
+
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 22;
+
+    private final File file;
+    private final FileChannel channel;
+    private final int segmentSize;
+
+    private MappedByteBuffer segment;
+    private long segmentOffset;
+    private long size;
+    private boolean closed;
+
+    MappedSpillStore(File file) throws IOException {
+        this(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedSpillStore(File file, int segmentSize) throws IOException {
+        this.file = file;
+        this.segmentSize = segmentSize;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        checkNotClosed();
+        while (length > 0) {
+            if (segment == null || !segment.hasRemaining()) {
+                mapNextSegment();
+            }
+            int chunk = Math.min(length, segment.remaining());
+            segment.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+            size += chunk;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Copies the content to the output passed in, using <code>FileChannel.transferTo</code>.
+     */
+
+    void transferTo(OutputStream output) throws IOException {
+        checkNotClosed();
+        WritableByteChannel target = Channels.newChannel(output);
+        long position = 0;
+        while (position < size) {
+            position += channel.transferTo(position, size - position, target);
+        }
+    }
+
+    /**
+     * @return A stream that reads the content from the start, for callers that cannot use <code>transferTo(OutputStream)</code>.
+     */
+
+    InputStream newInputStream() throws IOException {
+        checkNotClosed();
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                if (position >= size) {
+                    return -1;
+                }
+                int chunk = (int) Math.min(length, size - position);
+                int read = channel.read(ByteBuffer.wrap(bytes, offset, chunk), position);
+                position += read;
+                return read;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segment = null;
+        channel.close();
+        if (!file.delete()) {
+            // a mapped segment can keep the file open until it is garbage collected on some platforms
+            file.deleteOnExit();
+        }
+    }
+
+    private void mapNextSegment() throws IOException {
+        if (segment != null) {
+            segmentOffset += segmentSize;
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentOffset, segmentSize);
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Spill store " + file + " has already been closed");
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The style sheet of a package that combines the sheets of several packages. The style sheet of the first package is used as
+ * it is. A package with the very same style sheet needs no changes, which is the common case for packages written by the same
+ * writer. The number formats, fonts, fills, borders and cell formats of any other style sheet are added after the existing
+ * ones, so the style indexes of its worksheets have to be moved by the offset that <code>add(String)</code> returns.
+ */
+
+final class MergedStyles {
+
+    private static final int FIRST_CUSTOM_NUMBER_FORMAT = 164;
+    private static final Pattern STYLE_REFERENCE = Pattern.compile("\\b(numFmtId|fontId|fillId|borderId|xfId)\\s*=\\s*\"(\\d+)\"");
+    private static final List<String> SECTIONS = List.of("numFmts", "fonts", "fills", "borders", "cellStyleXfs", "cellXfs");
+    private static final List<String> SECTION_ELEMENTS = List.of("numFmt", "font", "fill", "border", "xf", "xf");
+
+    private final Map<String, Integer> styleOffsets = new HashMap<>();
+    private final Map<String, Integer> numberFormatIds = new HashMap<>();
+    private final StringBuilder[] additions = new StringBuilder[SECTIONS.size()];
+    private final int[] amounts = new int[SECTIONS.size()];
+    private final int[] baseAmounts = new int[SECTIONS.size()];
+
+    private String baseStyles;
+    private String prefix;
+    private int nextNumberFormatId = FIRST_CUSTOM_NUMBER_FORMAT;
+
+    MergedStyles() {
+        for (int index = 0; index < additions.length; index++) {
+            additions[index] = new StringBuilder();
+        }
+    }
+
+    /**
+     * Adds the style sheet of a package.
+     *
+     * @return The amount by which the style indexes of the worksheets of that package have to be moved.
+     */
+
+    int add(String styles) throws IOException {
+        if (baseStyles == null) {
+            useAsBase(styles);
+        }
+        Integer styleOffset = styleOffsets.get(styles);
+        if (styleOffset != null) {
+            return styleOffset;
+        }
+
+        String sourcePrefix = PackageXml.prefixOf(styles, "styleSheet", PackageParts.STYLES);
+        Map<Integer, Integer> sourceNumberFormatIds = new HashMap<>();
+        for (String numberFormat : children(styles, sourcePrefix, 0)) {
+            Map<String, String> attributes = PackageXml.elements(numberFormat, "numFmt").get(0);
+            int sourceId = Integer.parseInt(attributes.get("numFmtId"));
+            Integer id = numberFormatIds.get(attributes.get("formatCode"));
+            if (id == null) {
+                id = nextNumberFormatId++;
+                numberFormatIds.put(attributes.get("formatCode"), id);
+                append(0, STYLE_REFERENCE.matcher(numberFormat).replaceFirst("numFmtId=\"" + id + "\""), sourcePrefix);
+            }
+            sourceNumberFormatIds.put(sourceId, id);
+        }
+        int[] offsets = amounts.clone();
+        for (int section = 1; section < 4; section++) {
+            for (String element : children(styles, sourcePrefix, section)) {
+                append(section, element, sourcePrefix);
+            }
+        }
+        for (int section = 4; section < SECTIONS.size(); section++) {
+            for (String cellFormat : children(styles, sourcePrefix, section)) {
+                append(section, moveReferences(cellFormat, sourceNumberFormatIds, offsets), sourcePrefix);
+            }
+        }
+        styleOffsets.put(styles, offsets[5]);
+        return offsets[5];
+    }
+
+    byte[] toBytes() throws IOException {
+        String result = baseStyles;
+        for (int section = SECTIONS.size() - 1; section >= 0; section--) {
+            String addition = additions[section].toString();
+            int additionAmount = amounts[section] - baseAmounts[section];
+            if (additionAmount == 0) {
+                continue;
+            }
+            if (section == 0 && PackageXml.findSection(result, prefix + SECTIONS.get(0)) == null) {
+                Matcher styleSheetStart = Pattern.compile("<" + Pattern.quote(prefix) + "styleSheet\\b[^>]*>").matcher(result);
+                styleSheetStart.find();
+                result = result.substring(0, styleSheetStart.end()) + PackageXml.withPrefix("<numFmts count=\""
+                        + additionAmount + "\">" + addition + "</numFmts>", prefix) + result.substring(styleSheetStart.end());
+            } else {
+                result = PackageXml.appendToSection(result, prefix + SECTIONS.get(section),
+                        prefix + SECTION_ELEMENTS.get(section), PackageXml.withPrefix(addition, prefix), additionAmount);
+            }
+        }
+        return result.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void useAsBase(String styles) throws IOException {
+        baseStyles = styles;
+        prefix = PackageXml.prefixOf(styles, "styleSheet", PackageParts.STYLES);
+        styleOffsets.put(styles, 0);
+        for (int section = 0; section < SECTIONS.size(); section++) {
+            amounts[section] = children(styles, prefix, section).size();
+            baseAmounts[section] = amounts[section];
+        }
+        for (Map<String, String> numberFormat : PackageXml.elements(styles, "numFmt")) {
+            int id = Integer.parseInt(numberFormat.get("numFmtId"));
+            numberFormatIds.putIfAbsent(numberFormat.get("formatCode"), id);
+            nextNumberFormatId = Math.max(nextNumberFormatId, id + 1);
+        }
+    }
+
+    private static List<String> children(String styles, String sourcePrefix, int section) {
+        return PackageXml.children(styles, sourcePrefix + SECTIONS.get(section), sourcePrefix + SECTION_ELEMENTS.get(section));
+    }
+
+    private void append(int section, String element, String sourcePrefix) {
+        additions[section].append(PackageXml.withoutPrefix(element, sourcePrefix));
+        amounts[section]++;
+    }
+
+    // the offsets are the amounts of number formats, fonts, fills, borders and cell style formats before adding the source
+    private static String moveReferences(String cellFormat, Map<Integer, Integer> numberFormatIds, int[] offsets) {
+        return STYLE_REFERENCE.matcher(cellFormat).replaceAll(reference -> {
+            int value = Integer.parseInt(reference.group(2));
+            switch (reference.group(1)) {
+                case "numFmtId":
+                    value = numberFormatIds.getOrDefault(value, value);
+                    break;
+                case "fontId":
+                    value += offsets[1];
+                    break;
+                case "fillId":
+                    value += offsets[2];
+                    break;
+                case "borderId":
+                    value += offsets[3];
+                    break;
+                default:
+                    value += offsets[4];
+            }
+            return reference.group(1) + "=\"" + value + "\"";
+        });
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Creates the parts of a .xlsx package besides the worksheets themselves: content types, relationships, the workbook part
+ * and a minimal style sheet. Worksheet <code>n</code> (counting from 1) is stored as <code>xl/worksheets/sheet[n].xml</code>.
+ */
+
+final class PackageParts {
+
+    static final String CONTENT_TYPES = "[Content_Types].xml";
+    static final String ROOT_RELATIONSHIPS = "_rels/.rels";
+    static final String WORKBOOK = "xl/workbook.xml";
+    static final String WORKBOOK_RELATIONSHIPS = "xl/_rels/workbook.xml.rels";
+    static final String STYLES = "xl/styles.xml";
+    static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+
+    static final String RELATIONSHIP_TYPES = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/";
+    static final String CONTENT_TYPE_PREFIX = "application/vnd.openxmlformats-officedocument.spreadsheetml.";
+    static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+    static final String BOLD_FONT = "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>";
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private PackageParts() {
+        // nope
+    }
+
+    static String worksheetEntryName(int sheetNumber) {
+        return "xl/worksheets/sheet" + sheetNumber + ".xml";
+    }
+
+    static byte[] contentTypes(int sheetAmount) {
+        return contentTypes(sheetAmount, false);
+    }
+
+    static byte[] contentTypes(int sheetAmount, boolean sharedStrings) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/").append(WORKBOOK).append("\" ContentType=\"")
+                .append(CONTENT_TYPE_PREFIX).append("sheet.main+xml\"/>")
+                .append("<Override PartName=\"/").append(STYLES).append("\" ContentType=\"")
+                .append(CONTENT_TYPE_PREFIX).append("styles+xml\"/>");
+        if (sharedStrings) {
+            xml.append("<Override PartName=\"/").append(SHARED_STRINGS).append("\" ContentType=\"")
+                    .append(CONTENT_TYPE_PREFIX).append("sharedStrings+xml\"/>");
+        }
+        for (int sheetNumber = 1; sheetNumber <= sheetAmount; sheetNumber++) {
+            xml.append("<Override PartName=\"/").append(worksheetEntryName(sheetNumber)).append("\" ContentType=\"")
+                    .append(CONTENT_TYPE_PREFIX).append("worksheet+xml\"/>");
+        }
+        return bytes(xml.append("</Types>"));
+    }
+
+    static byte[] rootRelationships() {
+        return bytes(new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"").append(RELATIONSHIPS_NAMESPACE).append("\">")
+                .append("<Relationship Id=\"rId1\" Type=\"").append(RELATIONSHIP_TYPES)
+                .append("officeDocument\" Target=\"").append(WORKBOOK).append("\"/>")
+                .append("</Relationships>"));
+    }
+
+    static byte[] workbook(List<String> sheetNames) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" ")
+                .append("xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">")
+                .append("<bookViews><workbookView/></bookViews><sheets>");
+        for (int index = 0; index < sheetNames.size(); index++) {
+            xml.append("<sheet name=\"");
+            appendEscaped(xml, sheetNames.get(index));
+            xml.append("\" sheetId=\"").append(index + 1).append("\" r:id=\"rId").append(index + 1).append("\"/>");
+        }
+        return bytes(xml.append("</sheets></workbook>"));
+    }
+
+    static byte[] workbookRelationships(int sheetAmount) {
+        return workbookRelationships(sheetAmount, false);
+    }
+
+    static byte[] workbookRelationships(int sheetAmount, boolean sharedStrings) {
+        StringBuilder xml = new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"").append(RELATIONSHIPS_NAMESPACE).append("\">");
+        for (int sheetNumber = 1; sheetNumber <= sheetAmount; sheetNumber++) {
+            xml.append("<Relationship Id=\"rId").append(sheetNumber).append("\" Type=\"").append(RELATIONSHIP_TYPES)
+                    .append("worksheet\" Target=\"worksheets/sheet").append(sheetNumber).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetAmount + 1).append("\" Type=\"").append(RELATIONSHIP_TYPES)
+                .append("styles\" Target=\"styles.xml\"/>");
+        if (sharedStrings) {
+            xml.append("<Relationship Id=\"rId").append(sheetAmount + 2).append("\" Type=\"").append(RELATIONSHIP_TYPES)
+                    .append("sharedStrings\" Target=\"sharedStrings.xml\"/>");
+        }
+        return bytes(xml.append("</Relationships>"));
+    }
+
+    /**
+     * Style 0 is the default style, style 1 (<code>SheetXmlWriter.COLUMN_HEADER_STYLE</code>) has a bold font, style 2
+     * (<code>SheetXmlWriter.DATE_STYLE</code>) has a date format and style 3 (<code>SheetXmlWriter.DATE_TIME_STYLE</code>) a date
+     * and time format.
+     */
+
+    static byte[] styles() {
+        return bytes(new StringBuilder(XML_DECLARATION)
+                .append("<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">")
+                .append("<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"").append(DATE_TIME_FORMAT)
+                .append("\"/></numFmts>")
+                .append("<fonts count=\"2\">")
+                .append("<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>")
+                .append(BOLD_FONT)
+                .append("</fonts>")
+                .append("<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>")
+                .append("<fill><patternFill patternType=\"gray125\"/></fill></fills>")
+                .append("<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>")
+                .append("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>")
+                .append("<cellXfs count=\"4\">")
+                .append("<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>")
+                .append(cellFormats(1, 164))
+                .append("</cellXfs>")
+                .append("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>")
+                .append("</styleSheet>"));
+    }
+
+    /**
+     * @param stringItems    The string items (si elements) of the table, in index order.
+     * @param referenceCount The amount of cells that refer to the table.
+     * @param uniqueCount    The amount of string items.
+     */
+
+    static byte[] sharedStrings(CharSequence stringItems, long referenceCount, int uniqueCount) {
+        return bytes(new StringBuilder(XML_DECLARATION)
+                .append("<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"")
+                .append(referenceCount).append("\" uniqueCount=\"").append(uniqueCount).append("\">")
+                .append(stringItems).append("</sst>"));
+    }
+
+    /**
+     * @return The cell formats of styles 1, 2 and 3, which refer to the bold font and the date and time number format by the
+     * indexes passed in.
+     */
+
+    static String cellFormats(int boldFontId, int dateTimeFormatId) {
+        return "<xf numFmtId=\"0\" fontId=\"" + boldFontId + "\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+                + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                + "<xf numFmtId=\"" + dateTimeFormatId + "\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\""
+                + " applyNumberFormat=\"1\"/>";
+    }
+
+    static void appendEscaped(StringBuilder xml, String text) {
+        for (int index = 0; index < text.length(); index++) {
+            char character = text.charAt(index);
+            switch (character) {
+                case '&':
+                    xml.append("&amp;");
+                    break;
+                case '<':
+                    xml.append("&lt;");
+                    break;
+                case '>':
+                    xml.append("&gt;");
+                    break;
+                case '"':
+                    xml.append("&quot;");
+                    break;
+                default:
+                    xml.append(character);
+            }
+        }
+    }
+
+    private static byte[] bytes(CharSequence xml) {
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
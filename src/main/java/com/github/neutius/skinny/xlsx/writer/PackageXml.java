@@ -0,0 +1,265 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Helper methods to read and edit the small XML parts of existing .xlsx packages as text: the workbook part, relationships,
+ * content types, style sheets and shared strings. Editing the text, instead of parsing and serializing the whole part, leaves
+ * everything that does not have to change as it is, including elements this library does not know about.
+ * <p>
+ * Element names are matched with any namespace prefix. Elements that are added get the prefix of the element they are added
+ * to.
+ */
+
+final class PackageXml {
+
+    static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final Pattern ATTRIBUTE = Pattern.compile("([\\w:.-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+    private static final Pattern RELATIONSHIPS_PREFIX
+            = Pattern.compile("xmlns:([\\w.-]+)\\s*=\\s*[\"']" + Pattern.quote(RELATIONSHIPS_NAMESPACE) + "[\"']");
+
+    private PackageXml() {
+        // nope
+    }
+
+    /**
+     * @return The namespace prefix of the first element with the local name passed in, including the colon, or an empty String
+     * if that element has no prefix.
+     * @throws IOException Will be thrown when there is no such element.
+     */
+
+    static String prefixOf(String xml, String localName, String partName) throws IOException {
+        Matcher element = Pattern.compile("<([\\w.-]+:)?" + localName + "[\\s/>]").matcher(xml);
+        if (!element.find()) {
+            throw new IOException("Unsupported package part " + partName + ": no " + localName + " element found");
+        }
+        return element.group(1) == null ? "" : element.group(1);
+    }
+
+    /**
+     * @return The qualified name of the relationship id attribute in the part passed in, e.g. "r:id", or null if the part does
+     * not declare the relationships namespace.
+     */
+
+    static String relationshipIdAttribute(String xml) {
+        Matcher relationshipsPrefix = RELATIONSHIPS_PREFIX.matcher(xml);
+        return relationshipsPrefix.find() ? relationshipsPrefix.group(1) + ":id" : null;
+    }
+
+    /**
+     * @return The target of the first internal relationship of the type passed in, e.g. "styles", or null if there is none.
+     */
+
+    static String relationshipTarget(String relationships, String type) {
+        for (Map<String, String> relationship : elements(relationships, "Relationship")) {
+            if (relationship.getOrDefault("Type", "").endsWith("/" + type)
+                    && !"External".equals(relationship.get("TargetMode"))) {
+                return relationship.get("Target");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves a relationship target against the directory of the source part, e.g. "xl/" and "worksheets/sheet1.xml".
+     *
+     * @return The name of the target part, without a leading slash.
+     */
+
+    static String resolve(String directory, String target) {
+        String path = target.startsWith("/") ? target.substring(1) : directory + target;
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (segment.equals("..")) {
+                if (!segments.isEmpty()) {
+                    segments.remove(segments.size() - 1);
+                }
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.add(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    /**
+     * @return The attributes of all elements with the local name passed in, with unescaped values.
+     */
+
+    static List<Map<String, String>> elements(String xml, String localName) {
+        List<Map<String, String>> elements = new ArrayList<>();
+        Matcher element = Pattern.compile("<(?:[\\w.-]+:)?" + localName + "\\s([^>]*)>").matcher(xml);
+        while (element.find()) {
+            Map<String, String> attributes = new HashMap<>();
+            Matcher attribute = ATTRIBUTE.matcher(element.group(1));
+            while (attribute.find()) {
+                String value = attribute.group(2) != null ? attribute.group(2) : attribute.group(3);
+                attributes.put(attribute.group(1), unescape(value));
+            }
+            elements.add(attributes);
+        }
+        return elements;
+    }
+
+    /**
+     * @return The complete text of each child element with the qualified name passed in, within the section element, or an
+     * empty List if there is no such section. Child elements of the same name should not be nested.
+     */
+
+    static List<String> children(String xml, String sectionName, String elementName) {
+        List<String> children = new ArrayList<>();
+        int[] section = findSection(xml, sectionName);
+        if (section == null) {
+            return children;
+        }
+        String quotedName = Pattern.quote(elementName);
+        Matcher child = Pattern.compile("<" + quotedName + "(?:\\s[^>]*)?(?:/>|(?<!/)>.*?</" + quotedName + "\\s*>)",
+                Pattern.DOTALL).matcher(xml);
+        child.region(section[1], section[2]);
+        while (child.find()) {
+            children.add(child.group());
+        }
+        return children;
+    }
+
+    /**
+     * @return The amount of child elements with the qualified name passed in, within the section element.
+     * @throws IOException Will be thrown when there is no such section.
+     */
+
+    static int elementAmount(String xml, String sectionName, String elementName) throws IOException {
+        int[] section = requireSection(xml, sectionName);
+        Matcher element = Pattern.compile("<" + Pattern.quote(elementName) + "[\\s/>]").matcher(xml);
+        element.region(section[1], section[2]);
+        int amount = 0;
+        while (element.find()) {
+            amount++;
+        }
+        return amount;
+    }
+
+    /**
+     * Adds elements at the end of a section element, and updates the count attribute of the section.
+     *
+     * @throws IOException Will be thrown when there is no such section.
+     */
+
+    static String appendToSection(String xml, String sectionName, String elementName, String addition, int additionAmount)
+            throws IOException {
+        int[] section = requireSection(xml, sectionName);
+        int amount = elementAmount(xml, sectionName, elementName) + additionAmount;
+        String startTag = xml.substring(section[0], section[1]);
+        Matcher count = Pattern.compile("\\scount\\s*=\\s*[\"'][^\"']*[\"']").matcher(startTag);
+        String countAttribute = " count=\"" + amount + "\"";
+        startTag = count.find() ? startTag.substring(0, count.start()) + countAttribute + startTag.substring(count.end())
+                : startTag.substring(0, startTag.length() - 1) + countAttribute + ">";
+        return xml.substring(0, section[0]) + startTag + xml.substring(section[1], section[2]) + addition
+                + xml.substring(section[2]);
+    }
+
+    /**
+     * Finds an element with content, and returns the start of its start tag, the end of its start tag and the start of its end
+     * tag. An empty element written as a single tag, e.g. &lt;numFmts count="0"/&gt;, is not found.
+     */
+
+    static int[] findSection(String xml, String sectionName) {
+        Matcher startTag = Pattern.compile("<" + Pattern.quote(sectionName) + "(\\s[^>]*)?>").matcher(xml);
+        while (startTag.find()) {
+            if (xml.charAt(startTag.end() - 2) != '/') {
+                Matcher endTag = Pattern.compile("</" + Pattern.quote(sectionName) + "\\s*>").matcher(xml);
+                return endTag.find(startTag.end()) ? new int[]{startTag.start(), startTag.end(), endTag.start()} : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds unprefixed elements before the end tag of the element with the local name passed in, with the prefix of that
+     * element.
+     */
+
+    static byte[] insertBeforeEnd(String xml, String localName, String addition, String partName) throws IOException {
+        Matcher endTag = Pattern.compile("</([\\w.-]+:)?" + localName + "\\s*>").matcher(xml);
+        if (!endTag.find()) {
+            throw new IOException("Unsupported package part " + partName + ": no " + localName + " element found");
+        }
+        String prefix = endTag.group(1) == null ? "" : endTag.group(1);
+        return (xml.substring(0, endTag.start()) + withPrefix(addition, prefix) + xml.substring(endTag.start()))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adds the prefix to all elements of an XML fragment without prefixes.
+     */
+
+    static String withPrefix(String xml, String prefix) {
+        return prefix.isEmpty() ? xml : xml.replace("</", "</" + prefix).replaceAll("<(?=[^/])", "<" + prefix);
+    }
+
+    /**
+     * Removes the prefix from all elements of an XML fragment.
+     */
+
+    static String withoutPrefix(String xml, String prefix) {
+        return prefix.isEmpty() ? xml : xml.replace("<" + prefix, "<").replace("</" + prefix, "</");
+    }
+
+    private static int[] requireSection(String xml, String sectionName) throws IOException {
+        int[] section = findSection(xml, sectionName);
+        if (section == null) {
+            throw new IOException("Unsupported package part: no " + sectionName + " element found");
+        }
+        return section;
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        int index = 0;
+        while (index < text.length()) {
+            int end = text.indexOf(';', index);
+            if (text.charAt(index) != '&' || end < 0) {
+                result.append(text.charAt(index++));
+                continue;
+            }
+            String entity = text.substring(index + 1, end);
+            switch (entity) {
+                case "amp":
+                    result.append('&');
+                    break;
+                case "lt":
+                    result.append('<');
+                    break;
+                case "gt":
+                    result.append('>');
+                    break;
+                case "quot":
+                    result.append('"');
+                    break;
+                case "apos":
+                    result.append('\'');
+                    break;
+                default:
+                    if (entity.startsWith("#x")) {
+                        result.appendCodePoint(Integer.parseInt(entity.substring(2), 16));
+                    } else if (entity.startsWith("#")) {
+                        result.appendCodePoint(Integer.parseInt(entity.substring(1)));
+                    } else {
+                        result.append('&').append(entity).append(';');
+                    }
+            }
+            index = end + 1;
+        }
+        return result.toString();
+    }
+
+}
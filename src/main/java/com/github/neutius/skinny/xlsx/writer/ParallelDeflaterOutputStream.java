@@ -0,0 +1,229 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a single zip entry on several threads, the way pigz does: the content is split into blocks, and each block is
+ * compressed separately, using the last 32 KB of the previous block as preset dictionary. Every block but the last ends with a
+ * sync flush, so the compressed blocks can simply be concatenated into one valid deflate stream. The checksums of the blocks
+ * are combined into the checksum of the whole entry.
+ * <p>
+ * The compressed blocks are written in order, and at most a few blocks per thread are in progress at any time, which limits
+ * the memory used.
+ */
+
+final class ParallelDeflaterOutputStream extends ZipPackageWriter.EntryOutputStream {
+
+    static final int BLOCK_SIZE = 1 << 17;
+
+    private static final int DICTIONARY_SIZE = 1 << 15;
+    private static final int BLOCKS_IN_PROGRESS_PER_THREAD = 2;
+
+    private final OutputStream compressedOutput;
+    private final int level;
+    private final ExecutorService executor;
+    private final int maxBlocksInProgress;
+    private final Deque<Future<CompressedBlock>> blocksInProgress = new ArrayDeque<>();
+
+    private byte[] previousBlock;
+    private byte[] currentBlock = new byte[BLOCK_SIZE];
+    private int currentBlockSize;
+    private long crc;
+    private long compressedSize;
+    private long uncompressedSize;
+    private boolean closed;
+
+    ParallelDeflaterOutputStream(OutputStream compressedOutput, int level, ExecutorService executor) {
+        this.compressedOutput = compressedOutput;
+        this.level = level;
+        this.executor = executor;
+        maxBlocksInProgress = BLOCKS_IN_PROGRESS_PER_THREAD * Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (currentBlockSize == BLOCK_SIZE) {
+                submitCurrentBlock(false);
+            }
+            int copied = Math.min(length, BLOCK_SIZE - currentBlockSize);
+            System.arraycopy(bytes, offset, currentBlock, currentBlockSize, copied);
+            currentBlockSize += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        submitCurrentBlock(true);
+        while (!blocksInProgress.isEmpty()) {
+            writeOldestBlock();
+        }
+    }
+
+    @Override
+    long getCrc() {
+        return crc;
+    }
+
+    @Override
+    long getCompressedSize() {
+        return compressedSize;
+    }
+
+    @Override
+    long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    private void submitCurrentBlock(boolean lastBlock) throws IOException {
+        byte[] block = currentBlock;
+        int blockSize = currentBlockSize;
+        byte[] dictionary = previousBlock;
+        blocksInProgress.add(executor.submit(() -> compress(block, blockSize, dictionary, lastBlock)));
+
+        previousBlock = block;
+        currentBlock = new byte[BLOCK_SIZE];
+        currentBlockSize = 0;
+
+        while (blocksInProgress.size() > maxBlocksInProgress) {
+            writeOldestBlock();
+        }
+    }
+
+    private void writeOldestBlock() throws IOException {
+        CompressedBlock block;
+        try {
+            block = blocksInProgress.removeFirst().get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException exception) {
+            throw new IOException("Compressing a block failed", exception.getCause());
+        }
+        block.compressed.writeTo(compressedOutput);
+        crc = combineCrc(crc, block.crc, block.uncompressedSize);
+        compressedSize += block.compressed.size();
+        uncompressedSize += block.uncompressedSize;
+    }
+
+    // the dictionary has already been completely filled, because only the last block can be smaller than BLOCK_SIZE
+    private CompressedBlock compress(byte[] block, int blockSize, byte[] dictionary, boolean lastBlock) {
+        Deflater deflater = SkinnyResourcePool.acquireDeflater(level);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary, BLOCK_SIZE - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(block, 0, blockSize);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(blockSize / 2);
+            byte[] buffer = new byte[1 << 14];
+            if (lastBlock) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int length;
+                do {
+                    length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, length);
+                } while (length == buffer.length || !deflater.needsInput());
+            }
+
+            CRC32 blockCrc = new CRC32();
+            blockCrc.update(block, 0, blockSize);
+            return new CompressedBlock(compressed, blockCrc.getValue(), blockSize);
+        } finally {
+            SkinnyResourcePool.releaseDeflater(deflater);
+        }
+    }
+
+    /**
+     * Calculates the CRC-32 of two concatenated byte sequences from their separate checksums, like zlib's crc32_combine.
+     */
+
+    static long combineCrc(long firstCrc, long secondCrc, long secondLength) {
+        if (secondLength <= 0) {
+            return firstCrc;
+        }
+        long[] even = new long[32];
+        long[] odd = new long[32];
+
+        odd[0] = 0xEDB88320L;
+        long row = 1;
+        for (int index = 1; index < 32; index++) {
+            odd[index] = row;
+            row <<= 1;
+        }
+        square(even, odd);
+        square(odd, even);
+
+        long result = firstCrc;
+        long length = secondLength;
+        do {
+            square(even, odd);
+            if ((length & 1) != 0) {
+                result = times(even, result);
+            }
+            length >>= 1;
+            if (length == 0) {
+                break;
+            }
+            square(odd, even);
+            if ((length & 1) != 0) {
+                result = times(odd, result);
+            }
+            length >>= 1;
+        } while (length != 0);
+        return result ^ secondCrc;
+    }
+
+    private static long times(long[] matrix, long vector) {
+        long sum = 0;
+        for (int index = 0; vector != 0; index++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[index];
+            }
+        }
+        return sum;
+    }
+
+    private static void square(long[] square, long[] matrix) {
+        for (int index = 0; index < 32; index++) {
+            square[index] = times(matrix, matrix[index]);
+        }
+    }
+
+    private static final class CompressedBlock {
+        private final ByteArrayOutputStream compressed;
+        private final long crc;
+        private final int uncompressedSize;
+
+        private CompressedBlock(ByteArrayOutputStream compressed, long crc, int uncompressedSize) {
+            this.compressed = compressed;
+            this.crc = crc;
+            this.uncompressedSize = uncompressedSize;
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Serializes a single worksheet part of a .xlsb package as BIFF12 records, see BiffRecordWriter. Strings are written as cells
+ * with their own string (BrtCellSt), so no shared strings table has to be kept in memory.
+ * <p>
+ * Like SheetXmlWriter, a column header row results in a freeze pane and in column widths based on the header text. As the whole
+ * content of the sheet is known in advance, the sheet also gets its dimension. Null values and rows without any value are left
+ * out.
+ */
+
+final class SheetBinaryWriter {
+
+    static final int COLUMN_HEADER_STYLE = 1;
+    static final int MAX_STRING_LENGTH = 32_767;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final int COLUMNS_PER_SPAN_BLOCK = 1024;
+    private static final int DEFAULT_ROW_HEIGHT = 300;
+    private static final int COLUMN_WIDTH_UNITS = 256;
+
+    private static final int ROW_HEADER = 0;
+    private static final int CELL_STRING = 6;
+    private static final int COLUMN_INFO = 60;
+    private static final int BEGIN_SHEET = 129;
+    private static final int END_SHEET = 130;
+    private static final int BEGIN_SHEET_VIEWS = 133;
+    private static final int END_SHEET_VIEWS = 134;
+    private static final int BEGIN_SHEET_VIEW = 137;
+    private static final int END_SHEET_VIEW = 138;
+    private static final int BEGIN_SHEET_DATA = 145;
+    private static final int END_SHEET_DATA = 146;
+    private static final int SHEET_DIMENSION = 148;
+    private static final int PANE = 151;
+    private static final int SELECTION = 152;
+    private static final int BEGIN_COLUMN_INFOS = 390;
+    private static final int END_COLUMN_INFOS = 391;
+
+    // grid lines, row and column headers, zero values, ruler, outline symbols and default header colour are shown
+    private static final int SHEET_VIEW_FLAGS = 0x039C;
+    private static final int SELECTED_SHEET_VIEW_FLAG = 0x0040;
+    private static final int DEFAULT_GRID_LINE_COLOR = 64;
+    private static final int DEFAULT_ZOOM = 100;
+    private static final int BOTTOM_LEFT_PANE = 2;
+    private static final int FROZEN_WITHOUT_SPLIT = 0x03;
+    private static final int USER_SET_WIDTH = 0x0002;
+
+    private final BiffRecordWriter records = new BiffRecordWriter(BUFFER_SIZE);
+
+    private OutputStream outputStream;
+    private int rowAmount;
+
+    /**
+     * Writes a complete worksheet part to the output stream, without closing it.
+     *
+     * @param columnHeaders The column headers, or null for a sheet without column headers.
+     * @param selected      Whether the sheet is the selected sheet of the workbook, which should be the case for one sheet only.
+     */
+
+    void writeSheet(OutputStream outputStream, List<String> columnHeaders, List<List<String>> contentRows, boolean selected)
+            throws IOException {
+        if (columnHeaders != null && columnHeaders.stream().anyMatch(String::isBlank)) {
+            throw new IllegalArgumentException("Column header text should not be blank");
+        }
+        this.outputStream = outputStream;
+        rowAmount = 0;
+        records.reset();
+
+        records.writeRecord(BEGIN_SHEET);
+        writeDimension(UsedRange.of(columnHeaders, contentRows));
+        writeSheetView(columnHeaders != null, selected);
+        if (columnHeaders != null) {
+            writeColumnWidths(columnHeaders);
+        }
+        records.writeRecord(BEGIN_SHEET_DATA);
+        if (columnHeaders != null) {
+            writeRow(columnHeaders, COLUMN_HEADER_STYLE);
+        }
+        for (List<String> contentRow : contentRows) {
+            writeRow(contentRow, 0);
+        }
+        records.writeRecord(END_SHEET_DATA);
+        records.writeRecord(END_SHEET);
+        flush();
+        this.outputStream = null;
+    }
+
+    private void writeDimension(UsedRange usedRange) {
+        records.beginRecord(SHEET_DIMENSION).writeInt(0).writeInt(Math.max(0, usedRange.getRowAmount() - 1))
+                .writeInt(0).writeInt(Math.max(0, usedRange.getColumnAmount() - 1)).endRecord();
+    }
+
+    private void writeSheetView(boolean frozenHeaderRow, boolean selected) {
+        records.writeRecord(BEGIN_SHEET_VIEWS);
+        records.beginRecord(BEGIN_SHEET_VIEW)
+                .writeShort(selected ? SHEET_VIEW_FLAGS | SELECTED_SHEET_VIEW_FLAG : SHEET_VIEW_FLAGS)
+                .writeInt(0) // normal view
+                .writeInt(0).writeInt(0) // top left cell
+                .writeByte(DEFAULT_GRID_LINE_COLOR).writeByte(0).writeShort(0)
+                .writeShort(DEFAULT_ZOOM).writeShort(0).writeShort(0).writeShort(0)
+                .writeInt(0) // workbook view
+                .endRecord();
+        if (frozenHeaderRow) {
+            records.beginRecord(PANE).writeDouble(0).writeDouble(1).writeInt(1).writeInt(0).writeInt(BOTTOM_LEFT_PANE)
+                    .writeByte(FROZEN_WITHOUT_SPLIT).endRecord();
+            // the active cell is A2, and the selection consists of A2 only
+            records.beginRecord(SELECTION).writeInt(BOTTOM_LEFT_PANE).writeInt(1).writeInt(0).writeInt(0).writeInt(1)
+                    .writeInt(1).writeInt(1).writeInt(0).writeInt(0).endRecord();
+        }
+        records.writeRecord(END_SHEET_VIEW);
+        records.writeRecord(END_SHEET_VIEWS);
+    }
+
+    private void writeColumnWidths(List<String> columnHeaders) {
+        checkCellAmount(columnHeaders.size());
+        records.writeRecord(BEGIN_COLUMN_INFOS);
+        for (int columnIndex = 0; columnIndex < columnHeaders.size(); columnIndex++) {
+            records.beginRecord(COLUMN_INFO).writeInt(columnIndex).writeInt(columnIndex)
+                    .writeInt(estimateWidth(columnHeaders.get(columnIndex)) * COLUMN_WIDTH_UNITS).writeInt(0)
+                    .writeShort(USER_SET_WIDTH).endRecord();
+        }
+        records.writeRecord(END_COLUMN_INFOS);
+    }
+
+    // Bold text is somewhat wider than normal text, hence the extra margin, like SheetXmlWriter
+    private static int estimateWidth(String text) {
+        return Math.min(255, Math.max(9, text.length() + 3));
+    }
+
+    private void writeRow(List<String> row, int style) throws IOException {
+        if (rowAmount >= SheetXmlWriter.MAX_ROW_AMOUNT) {
+            throw new IllegalStateException("A sheet cannot contain more than " + SheetXmlWriter.MAX_ROW_AMOUNT + " rows");
+        }
+        int rowIndex = rowAmount++;
+        int lastColumn = UsedRange.usedColumnAmount(row) - 1;
+        if (lastColumn < 0) {
+            return;
+        }
+        checkCellAmount(lastColumn + 1);
+        int firstColumn = 0;
+        while (row.get(firstColumn) == null) {
+            firstColumn++;
+        }
+
+        // the row header lists the columns in use, per block of 1024 columns
+        int firstBlock = firstColumn / COLUMNS_PER_SPAN_BLOCK;
+        int lastBlock = lastColumn / COLUMNS_PER_SPAN_BLOCK;
+        records.beginRecord(ROW_HEADER).writeInt(rowIndex).writeInt(0).writeShort(DEFAULT_ROW_HEIGHT)
+                .writeByte(0).writeByte(0).writeByte(0).writeInt(lastBlock - firstBlock + 1);
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            records.writeInt(Math.max(firstColumn, block * COLUMNS_PER_SPAN_BLOCK))
+                    .writeInt(Math.min(lastColumn, (block + 1) * COLUMNS_PER_SPAN_BLOCK - 1));
+        }
+        records.endRecord();
+
+        for (int columnIndex = firstColumn; columnIndex <= lastColumn; columnIndex++) {
+            String text = row.get(columnIndex);
+            if (text == null) {
+                continue;
+            }
+            if (text.length() > MAX_STRING_LENGTH) {
+                throw new IllegalArgumentException("A cell cannot contain more than " + MAX_STRING_LENGTH + " characters");
+            }
+            records.beginRecord(CELL_STRING).writeInt(columnIndex).writeInt(style).writeWideString(text).endRecord();
+        }
+        if (records.size() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private static void checkCellAmount(int cellAmount) {
+        if (cellAmount > SheetXmlWriter.MAX_COLUMN_AMOUNT) {
+            throw new IllegalArgumentException("A row cannot contain more than " + SheetXmlWriter.MAX_COLUMN_AMOUNT + " cells");
+        }
+    }
+
+    private void flush() throws IOException {
+        records.writeTo(outputStream);
+        records.reset();
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The part of a SkinnySheetContent that ends up in the worksheet XML of the POI-free writers: the column headers, the
+ * content rows and the column schema, but not the sheet name. Two keys are equal when they have equal column headers, the
+ * very same List of content rows and the very same column schema, so finding sheets with identical worksheet XML never
+ * requires comparing or hashing the rows themselves.
+ * <p>
+ * The interface methods of the sheet content are called once, when the key is created. The content rows of a
+ * LazySheetContent are the exception: they are requested when the sheet is written, so they do not stay in memory for as long
+ * as the key does. Such a key is only equal to a key of the very same LazySheetContent.
+ */
+
+final class SheetContentKey {
+
+    private final List<String> columnHeaders;
+    private final List<List<String>> contentRows;
+    private final LazySheetContent lazyContent;
+    private final SkinnyColumnSchema columnSchema;
+
+    private SheetContentKey(List<String> columnHeaders, List<List<String>> contentRows, LazySheetContent lazyContent,
+                            SkinnyColumnSchema columnSchema) {
+        this.columnHeaders = columnHeaders;
+        this.contentRows = contentRows;
+        this.lazyContent = lazyContent;
+        this.columnSchema = columnSchema;
+    }
+
+    static SheetContentKey of(SkinnySheetContent sheetContent) {
+        List<String> columnHeaders = sheetContent.hasColumnHeaders() ? sheetContent.getColumnHeaders() : null;
+        if (sheetContent instanceof LazySheetContent) {
+            return new SheetContentKey(columnHeaders, null, (LazySheetContent) sheetContent, sheetContent.getColumnSchema());
+        }
+        return new SheetContentKey(columnHeaders, sheetContent.getContentRows(), null, sheetContent.getColumnSchema());
+    }
+
+    /**
+     * @return The amount of times each key occurs in the List passed in.
+     */
+
+    static Map<SheetContentKey, Integer> countOccurrences(List<SheetContentKey> keys) {
+        Map<SheetContentKey, Integer> occurrences = new HashMap<>();
+        for (SheetContentKey key : keys) {
+            occurrences.merge(key, 1, Integer::sum);
+        }
+        return occurrences;
+    }
+
+    boolean hasColumnHeaders() {
+        return columnHeaders != null;
+    }
+
+    List<String> getColumnHeaders() {
+        return columnHeaders;
+    }
+
+    List<List<String>> getContentRows() {
+        return lazyContent == null ? contentRows : lazyContent.getContentRows();
+    }
+
+    /**
+     * @return The column types of the content rows passed in, which should be the rows of this key, or null for text only.
+     */
+
+    List<SkinnyColumnSchema.ColumnType> resolveColumnTypes(List<List<String>> rows) {
+        return columnSchema == null ? null : columnSchema.resolveColumnTypes(rows);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SheetContentKey)) {
+            return false;
+        }
+        SheetContentKey otherKey = (SheetContentKey) other;
+        return contentRows == otherKey.contentRows && lazyContent == otherKey.lazyContent
+                && columnSchema == otherKey.columnSchema && Objects.equals(columnHeaders, otherKey.columnHeaders);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * System.identityHashCode(contentRows) + System.identityHashCode(lazyContent))
+                + System.identityHashCode(columnSchema)) + Objects.hashCode(columnHeaders);
+    }
+
+}
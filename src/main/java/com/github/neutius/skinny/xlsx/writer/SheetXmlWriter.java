@@ -0,0 +1,644 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serializes a single worksheet part as SpreadsheetML, directly into bytes. Strings are written as inline strings, so no
+ * shared strings table has to be kept in memory.
+ * <p>
+ * The opening part of the worksheet is written lazily, when the first row arrives: a column header row results in a freeze
+ * pane and in column widths based on the header text.
+ * <p>
+ * Default styles are never written. In minimal markup mode, the output is made smaller still: cell references are only
+ * written for a cell that does not directly follow the previous cell of its row, and empty cells and empty rows are left out
+ * altogether. Row references are always written, as some readers require them.
+ * <p>
+ * With column types, see <code>setColumnTypes(List)</code>, the cells of content rows are written by one encoder per column,
+ * which is chosen once for the whole sheet instead of once per cell.
+ */
+
+final class SheetXmlWriter {
+
+    static final int MAX_ROW_AMOUNT = 1_048_576;
+    static final int MAX_COLUMN_AMOUNT = 16_384;
+    static final int COLUMN_HEADER_STYLE = 1;
+    static final int DATE_STYLE = 2;
+    static final int DATE_TIME_STYLE = 3;
+
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+
+    private static final byte[] WORKSHEET_START = bytes("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+    private static final byte[] FROZEN_HEADER_ROW = bytes("<sheetViews><sheetView workbookViewId=\"0\">"
+            + "<pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/>"
+            + "<selection pane=\"bottomLeft\"/></sheetView></sheetViews>");
+    private static final byte[] SHEET_DATA_START = bytes("<sheetData>");
+    private static final byte[] WORKSHEET_END = bytes("</sheetData></worksheet>");
+    private static final byte[] COLS_START = bytes("<cols>");
+    private static final byte[] COLS_END = bytes("</cols>");
+    private static final byte[] COL_START = bytes("<col min=\"");
+    private static final byte[] COL_MAX = bytes("\" max=\"");
+    private static final byte[] COL_WIDTH = bytes("\" width=\"");
+    private static final byte[] COL_END = bytes("\" customWidth=\"1\"/>");
+    private static final byte[] ROW_START = bytes("<row r=\"");
+    private static final byte[] ROW_START_END = bytes("\">");
+    private static final byte[] EMPTY_ROW_END = bytes("\"/>");
+    private static final byte[] ROW_END = bytes("</row>");
+    private static final byte[] DIMENSION_START = bytes("<dimension ref=\"A1");
+    private static final byte[] DIMENSION_RANGE = bytes(":");
+    private static final byte[] DIMENSION_END = bytes("\"/>");
+    private static final byte[] CELL_START = bytes("<c r=\"");
+    private static final byte[] CELL_START_WITHOUT_REFERENCE = bytes("<c");
+    private static final byte[] ATTRIBUTE_END = bytes("\"");
+    private static final byte[] CELL_STYLE = bytes(" s=\"");
+    private static final byte[] EMPTY_CELL_END = bytes("/>");
+    private static final byte[] INLINE_STRING_START = bytes(" t=\"inlineStr\"><is><t>");
+    private static final byte[] INLINE_STRING_PRESERVE_START = bytes(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+    private static final byte[] INLINE_STRING_END = bytes("</t></is></c>");
+    private static final byte[] NUMBER_START = bytes("><v>");
+    private static final byte[] ERROR_START = bytes(" t=\"e\"><v>");
+    private static final byte[] VALUE_END = bytes("</v></c>");
+    private static final byte[] NOT_A_NUMBER = bytes("#NUM!");
+    private static final byte[] DIVISION_BY_ZERO = bytes("#DIV/0!");
+
+    private final ByteSink sink;
+
+    private OutputStream outputStream;
+    private int styleOffset;
+    private boolean minimalMarkup;
+    private boolean sheetDataStarted;
+    private int rowAmount;
+    private int columnAmount;
+    private int nextColumnIndex;
+    private CellEncoder[] cellEncoders;
+    private boolean sinkReleased;
+
+    SheetXmlWriter(ByteSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Moves the styles of PackageParts.styles() in the style sheet of the workbook: style <code>n</code> is written as
+     * <code>n + styleOffset</code>, except for the default style 0. Used when the styles have been added to an existing style
+     * sheet.
+     */
+
+    void setStyleOffset(int styleOffset) {
+        this.styleOffset = styleOffset;
+    }
+
+    /**
+     * Switches minimal markup mode on or off, for the sheets that are begun after calling this method.
+     */
+
+    void setMinimalMarkup(boolean minimalMarkup) {
+        this.minimalMarkup = minimalMarkup;
+    }
+
+    /**
+     * Sets the types of the columns of the current sheet, which apply to the content rows written as <code>List</code> from
+     * now on: number values and date values of a column of that type are written as number cells and date cells, other values
+     * as text. Beginning a sheet resets all columns to text.
+     *
+     * @param columnTypes The type of each column, starting at the first column, or null for text columns only. Columns after
+     *                    the last type are text columns.
+     */
+
+    void setColumnTypes(List<SkinnyColumnSchema.ColumnType> columnTypes) {
+        if (columnTypes == null || columnTypes.stream().allMatch(SkinnyColumnSchema.ColumnType.TEXT::equals)) {
+            cellEncoders = null;
+            return;
+        }
+        cellEncoders = new CellEncoder[columnTypes.size()];
+        for (int columnIndex = 0; columnIndex < cellEncoders.length; columnIndex++) {
+            cellEncoders[columnIndex] = createCellEncoder(columnTypes.get(columnIndex));
+        }
+    }
+
+    void beginSheet(OutputStream outputStream) {
+        this.outputStream = outputStream;
+        sheetDataStarted = false;
+        rowAmount = 0;
+        columnAmount = 0;
+        cellEncoders = null;
+        sink.reset();
+        sink.write(WORKSHEET_START);
+    }
+
+    /**
+     * Continues a sheet that has been written up to a checkpoint by an earlier writer. The content written before the checkpoint
+     * is not repeated, so the sheet data must already have been started, i.e. a checkpoint can only be taken after the column
+     * header row.
+     */
+
+    void resumeSheet(OutputStream outputStream, int rowAmount, int columnAmount) {
+        this.outputStream = outputStream;
+        sheetDataStarted = true;
+        this.rowAmount = rowAmount;
+        this.columnAmount = columnAmount;
+        sink.reset();
+    }
+
+    /**
+     * In minimal markup mode, writes the dimension of the sheet, i.e. the range of the cells that are used, as computed from the
+     * content passed in. The dimension precedes the rows, so it is only written when all rows are known in advance: this
+     * method has to be called before any row is written, and has no effect otherwise.
+     */
+
+    void writeDimension(List<String> columnHeaders, List<List<String>> contentRows) {
+        if (!minimalMarkup || rowAmount > 0 || sheetDataStarted) {
+            return;
+        }
+        UsedRange usedRange = UsedRange.of(columnHeaders, contentRows);
+        if (usedRange.isEmpty()) {
+            return;
+        }
+        sink.write(DIMENSION_START);
+        if (usedRange.getRowAmount() > 1 || usedRange.getColumnAmount() > 1) {
+            sink.write(DIMENSION_RANGE).writeColumnName(usedRange.getColumnAmount() - 1).writeDecimal(usedRange.getRowAmount());
+        }
+        sink.write(DIMENSION_END);
+    }
+
+    void writeColumnHeaderRow(List<String> columnHeaders) throws IOException {
+        if (rowAmount > 0) {
+            throw new IllegalStateException("Column headers should be added first, and should be added only once.");
+        }
+        if (columnHeaders.stream().anyMatch(String::isBlank)) {
+            throw new IllegalArgumentException("Column header text should not be blank");
+        }
+
+        sink.write(FROZEN_HEADER_ROW);
+        writeColumnWidths(columnHeaders);
+        startRow(columnHeaders.size());
+        for (int columnIndex = 0; columnIndex < columnHeaders.size(); columnIndex++) {
+            writeStringCell(columnIndex, COLUMN_HEADER_STYLE, columnHeaders.get(columnIndex));
+        }
+        endRow();
+    }
+
+    void writeRow(List<String> rowContent) throws IOException {
+        if (rowContent == null || rowContent.isEmpty()) {
+            writeEmptyRow();
+            return;
+        }
+
+        startRow(rowContent.size());
+        if (cellEncoders == null) {
+            for (int columnIndex = 0; columnIndex < rowContent.size(); columnIndex++) {
+                writeStringCell(columnIndex, 0, rowContent.get(columnIndex));
+            }
+        } else {
+            writeEncodedCells(rowContent);
+        }
+        endRow();
+    }
+
+    /**
+     * Writes a block of rows. The block is validated once, before any row is written, instead of row by row. Null rows and
+     * empty rows result in empty rows, null values in empty cells.
+     */
+
+    void writeRows(String[][] rows) throws IOException {
+        startBlock(rows.length, widestRow(rows));
+        for (String[] row : rows) {
+            if (row == null || row.length == 0) {
+                appendEmptyRow();
+                continue;
+            }
+            appendRowStart();
+            for (int columnIndex = 0; columnIndex < row.length; columnIndex++) {
+                writeStringCell(columnIndex, 0, row[columnIndex]);
+            }
+            endRow();
+        }
+    }
+
+    /**
+     * Writes a block of rows like <code>writeRows(String[][])</code>. Whole numbers are written as integer cells, other Numbers
+     * as decimal cells, dates and times as date cells, and any other value as the text of <code>String.valueOf(Object)</code>.
+     * Null values are left out.
+     */
+
+    void writeRows(Object[][] rows) throws IOException {
+        startBlock(rows.length, widestRow(rows));
+        for (Object[] row : rows) {
+            if (row == null || row.length == 0) {
+                appendEmptyRow();
+                continue;
+            }
+            appendRowStart();
+            for (int columnIndex = 0; columnIndex < row.length; columnIndex++) {
+                writeValueCell(columnIndex, row[columnIndex]);
+            }
+            endRow();
+        }
+    }
+
+    /**
+     * Writes a rectangular block of rows, stored row after row in a single array of <code>columnAmount</code> cells per row.
+     */
+
+    void writeRows(String[] cells, int columnAmount) throws IOException {
+        if (columnAmount < 1) {
+            throw new IllegalArgumentException("The amount of columns should be at least 1, not " + columnAmount);
+        }
+        if (cells.length % columnAmount != 0) {
+            throw new IllegalArgumentException("The amount of cells (" + cells.length + ") should be a multiple of the amount "
+                    + "of columns (" + columnAmount + ")");
+        }
+        startBlock(cells.length / columnAmount, columnAmount);
+        for (int rowStart = 0; rowStart < cells.length; rowStart += columnAmount) {
+            appendRowStart();
+            for (int columnIndex = 0; columnIndex < columnAmount; columnIndex++) {
+                writeStringCell(columnIndex, 0, cells[rowStart + columnIndex]);
+            }
+            endRow();
+        }
+    }
+
+    void writeUtf8Row(byte[][] cells, boolean xmlSafe) throws IOException {
+        if (cells == null || cells.length == 0) {
+            writeEmptyRow();
+            return;
+        }
+
+        startRow(cells.length);
+        for (int columnIndex = 0; columnIndex < cells.length; columnIndex++) {
+            byte[] cell = cells[columnIndex];
+            if (cell == null) {
+                writeEmptyCell(columnIndex);
+                continue;
+            }
+            startStringCell(columnIndex, 0,
+                    cell.length > 0 && needsPreservedSpace(cell[0], cell[cell.length - 1]));
+            if (xmlSafe) {
+                sink.write(cell);
+            } else {
+                sink.writeEscapedUtf8(cell, 0, cell.length);
+            }
+            sink.write(INLINE_STRING_END);
+        }
+        endRow();
+    }
+
+    void writeUtf8Row(ByteBuffer[] cells, boolean xmlSafe) throws IOException {
+        if (cells == null || cells.length == 0) {
+            writeEmptyRow();
+            return;
+        }
+
+        startRow(cells.length);
+        for (int columnIndex = 0; columnIndex < cells.length; columnIndex++) {
+            ByteBuffer cell = cells[columnIndex];
+            if (cell == null) {
+                writeEmptyCell(columnIndex);
+                continue;
+            }
+            int length = cell.remaining();
+            startStringCell(columnIndex, 0,
+                    length > 0 && needsPreservedSpace(cell.get(cell.position()), cell.get(cell.limit() - 1)));
+            if (xmlSafe) {
+                sink.write(cell);
+            } else {
+                sink.writeEscapedUtf8(cell);
+            }
+            sink.write(INLINE_STRING_END);
+        }
+        endRow();
+    }
+
+    void writeRow(SkinnyRowBuffer rowBuffer) throws IOException {
+        int cellAmount = rowBuffer.getCellAmount();
+        if (cellAmount == 0) {
+            writeEmptyRow();
+            return;
+        }
+
+        startRow(cellAmount);
+        for (int columnIndex = 0; columnIndex < cellAmount; columnIndex++) {
+            switch (rowBuffer.getType(columnIndex)) {
+                case SkinnyRowBuffer.TEXT:
+                    writeStringCell(columnIndex, 0, rowBuffer.getText(columnIndex));
+                    break;
+                case SkinnyRowBuffer.INTEGER:
+                    writeCellReference(columnIndex, 0);
+                    sink.write(NUMBER_START).writeDecimal(rowBuffer.getInteger(columnIndex)).write(VALUE_END);
+                    break;
+                case SkinnyRowBuffer.DECIMAL:
+                    writeNumberCell(columnIndex, 0, rowBuffer.getDecimal(columnIndex));
+                    break;
+                case SkinnyRowBuffer.DATE:
+                    writeCellReference(columnIndex, DATE_STYLE);
+                    sink.write(NUMBER_START).writeDecimal(rowBuffer.getInteger(columnIndex)).write(VALUE_END);
+                    break;
+                case SkinnyRowBuffer.DATE_TIME:
+                    writeNumberCell(columnIndex, DATE_TIME_STYLE, rowBuffer.getDecimal(columnIndex));
+                    break;
+                default:
+                    // empty cells are left out
+            }
+        }
+        endRow();
+    }
+
+    void endSheet() throws IOException {
+        startSheetData();
+        sink.write(WORKSHEET_END);
+        flush();
+        outputStream = null;
+    }
+
+    /**
+     * Writes all content so far to the output stream, at a row boundary, so the sheet can be resumed from this point.
+     */
+
+    void checkpoint() throws IOException {
+        startSheetData();
+        flush();
+    }
+
+    int getRowAmount() {
+        return rowAmount;
+    }
+
+    int getColumnAmount() {
+        return columnAmount;
+    }
+
+    /**
+     * Returns the sink of this writer to the SkinnyResourcePool, once the last sheet has been ended. Only the amounts of rows
+     * and columns can be requested afterwards.
+     */
+
+    void releaseSink() {
+        if (!sinkReleased) {
+            sinkReleased = true;
+            SkinnyResourcePool.releaseByteSink(sink);
+        }
+    }
+
+    private void writeEmptyRow() throws IOException {
+        startSheetData();
+        checkRowAmount();
+        appendEmptyRow();
+    }
+
+    private void startRow(int cellAmount) {
+        checkCellAmount(cellAmount);
+        startSheetData();
+        checkRowAmount();
+        columnAmount = Math.max(cellAmount, columnAmount);
+        appendRowStart();
+    }
+
+    // Does for a whole block of rows what writeEmptyRow() and startRow(int) do for each single row
+    private void startBlock(int blockRowAmount, int blockColumnAmount) {
+        checkCellAmount(blockColumnAmount);
+        if (blockRowAmount > MAX_ROW_AMOUNT - rowAmount) {
+            throw new IllegalStateException("A sheet cannot contain more than " + MAX_ROW_AMOUNT + " rows");
+        }
+        startSheetData();
+        columnAmount = Math.max(blockColumnAmount, columnAmount);
+    }
+
+    // In minimal markup mode, the row reference of the next row makes up for the missing row
+    private void appendEmptyRow() throws IOException {
+        rowAmount++;
+        if (!minimalMarkup) {
+            sink.write(ROW_START).writeDecimal(rowAmount).write(EMPTY_ROW_END);
+            flushIfNeeded();
+        }
+    }
+
+    private void appendRowStart() {
+        sink.write(ROW_START).writeDecimal(++rowAmount).write(ROW_START_END);
+        nextColumnIndex = 0;
+    }
+
+    private void endRow() throws IOException {
+        sink.write(ROW_END);
+        flushIfNeeded();
+    }
+
+    private void writeStringCell(int columnIndex, int style, String text) {
+        if (text == null) {
+            writeEmptyCell(columnIndex);
+            return;
+        }
+        int length = text.length();
+        startStringCell(columnIndex, style,
+                length > 0 && needsPreservedSpace(text.charAt(0), text.charAt(length - 1)));
+        sink.writeEscaped(text);
+        sink.write(INLINE_STRING_END);
+    }
+
+    private void writeNumberCell(int columnIndex, int style, double value) {
+        writeCellReference(columnIndex, style);
+        if (Double.isNaN(value)) {
+            sink.write(ERROR_START).write(NOT_A_NUMBER).write(VALUE_END);
+        } else if (Double.isInfinite(value)) {
+            sink.write(ERROR_START).write(DIVISION_BY_ZERO).write(VALUE_END);
+        } else {
+            sink.write(NUMBER_START).writeDouble(value).write(VALUE_END);
+        }
+    }
+
+    private void writeValueCell(int columnIndex, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeCellReference(columnIndex, 0);
+            sink.write(NUMBER_START).writeDecimal(((Number) value).longValue()).write(VALUE_END);
+        } else if (value instanceof Number) {
+            writeNumberCell(columnIndex, 0, ((Number) value).doubleValue());
+        } else if (value instanceof LocalDate) {
+            writeCellReference(columnIndex, DATE_STYLE);
+            sink.write(NUMBER_START).writeDecimal(ExcelDates.toSerialDate((LocalDate) value)).write(VALUE_END);
+        } else if (value instanceof LocalDateTime) {
+            writeNumberCell(columnIndex, DATE_TIME_STYLE, ExcelDates.toSerialDate((LocalDateTime) value));
+        } else if (value instanceof Instant) {
+            writeNumberCell(columnIndex, DATE_TIME_STYLE, ExcelDates.toSerialDate((Instant) value));
+        } else {
+            writeStringCell(columnIndex, 0, String.valueOf(value));
+        }
+    }
+
+    private void writeEncodedCells(List<String> rowContent) {
+        int encodedAmount = Math.min(cellEncoders.length, rowContent.size());
+        for (int columnIndex = 0; columnIndex < encodedAmount; columnIndex++) {
+            String text = rowContent.get(columnIndex);
+            if (text == null) {
+                writeEmptyCell(columnIndex);
+            } else {
+                cellEncoders[columnIndex].writeCell(columnIndex, text);
+            }
+        }
+        for (int columnIndex = encodedAmount; columnIndex < rowContent.size(); columnIndex++) {
+            writeStringCell(columnIndex, 0, rowContent.get(columnIndex));
+        }
+    }
+
+    private CellEncoder createCellEncoder(SkinnyColumnSchema.ColumnType columnType) {
+        switch (columnType) {
+            case INTEGER:
+                return this::writeIntegerCell;
+            case DECIMAL:
+                return this::writeDecimalCell;
+            case DATE:
+                return this::writeDateCell;
+            case DATE_TIME:
+                return this::writeDateTimeCell;
+            default:
+                return (columnIndex, text) -> writeStringCell(columnIndex, 0, text);
+        }
+    }
+
+    // Numbers that match the schema are valid SpreadsheetML numbers already, so they are copied as they are
+    private void writeIntegerCell(int columnIndex, String text) {
+        if (SkinnyColumnSchema.isInteger(text)) {
+            writeNumberText(columnIndex, text);
+        } else {
+            writeStringCell(columnIndex, 0, text);
+        }
+    }
+
+    private void writeDecimalCell(int columnIndex, String text) {
+        if (SkinnyColumnSchema.isDecimal(text)) {
+            writeNumberText(columnIndex, text);
+        } else {
+            writeStringCell(columnIndex, 0, text);
+        }
+    }
+
+    private void writeNumberText(int columnIndex, String text) {
+        writeCellReference(columnIndex, 0);
+        sink.write(NUMBER_START);
+        for (int index = 0; index < text.length(); index++) {
+            sink.write(text.charAt(index));
+        }
+        sink.write(VALUE_END);
+    }
+
+    private void writeDateCell(int columnIndex, String text) {
+        LocalDate date = SkinnyColumnSchema.parseDate(text);
+        if (date == null) {
+            writeStringCell(columnIndex, 0, text);
+            return;
+        }
+        writeCellReference(columnIndex, DATE_STYLE);
+        sink.write(NUMBER_START).writeDecimal(ExcelDates.toSerialDate(date)).write(VALUE_END);
+    }
+
+    private void writeDateTimeCell(int columnIndex, String text) {
+        LocalDateTime dateTime = SkinnyColumnSchema.parseDateTime(text);
+        if (dateTime == null) {
+            writeStringCell(columnIndex, 0, text);
+        } else {
+            writeNumberCell(columnIndex, DATE_TIME_STYLE, ExcelDates.toSerialDate(dateTime));
+        }
+    }
+
+    private void writeEmptyCell(int columnIndex) {
+        if (minimalMarkup) {
+            return;
+        }
+        writeCellReference(columnIndex, 0);
+        sink.write(EMPTY_CELL_END);
+    }
+
+    private void startStringCell(int columnIndex, int style, boolean preserveSpace) {
+        writeCellReference(columnIndex, style);
+        sink.write(preserveSpace ? INLINE_STRING_PRESERVE_START : INLINE_STRING_START);
+    }
+
+    private void writeCellReference(int columnIndex, int style) {
+        if (minimalMarkup && columnIndex == nextColumnIndex) {
+            sink.write(CELL_START_WITHOUT_REFERENCE);
+        } else {
+            sink.write(CELL_START).writeColumnName(columnIndex).writeDecimal(rowAmount).write(ATTRIBUTE_END);
+        }
+        nextColumnIndex = columnIndex + 1;
+        if (style != 0) {
+            sink.write(CELL_STYLE).writeDecimal(style + styleOffset).write(ATTRIBUTE_END);
+        }
+    }
+
+    private static boolean needsPreservedSpace(int first, int last) {
+        return Character.isWhitespace(first) || Character.isWhitespace(last);
+    }
+
+    private void writeColumnWidths(List<String> columnHeaders) {
+        sink.write(COLS_START);
+        for (int columnIndex = 0; columnIndex < columnHeaders.size(); columnIndex++) {
+            int columnNumber = columnIndex + 1;
+            sink.write(COL_START).writeDecimal(columnNumber).write(COL_MAX).writeDecimal(columnNumber)
+                    .write(COL_WIDTH).writeDecimal(estimateWidth(columnHeaders.get(columnIndex))).write(COL_END);
+        }
+        sink.write(COLS_END);
+    }
+
+    // Bold text is somewhat wider than normal text, hence the extra margin
+    private static int estimateWidth(String text) {
+        return Math.min(255, Math.max(9, text.length() + 3));
+    }
+
+    private void startSheetData() {
+        if (!sheetDataStarted) {
+            sink.write(SHEET_DATA_START);
+            sheetDataStarted = true;
+        }
+    }
+
+    private static int widestRow(Object[][] rows) {
+        int widestRow = 0;
+        for (Object[] row : rows) {
+            if (row != null) {
+                widestRow = Math.max(row.length, widestRow);
+            }
+        }
+        return widestRow;
+    }
+
+    private static void checkCellAmount(int cellAmount) {
+        if (cellAmount > MAX_COLUMN_AMOUNT) {
+            throw new IllegalArgumentException("A row cannot contain more than " + MAX_COLUMN_AMOUNT + " cells");
+        }
+    }
+
+    private void checkRowAmount() {
+        if (rowAmount >= MAX_ROW_AMOUNT) {
+            throw new IllegalStateException("A sheet cannot contain more than " + MAX_ROW_AMOUNT + " rows");
+        }
+    }
+
+    private void flushIfNeeded() throws IOException {
+        if (sink.size() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        sink.writeTo(outputStream);
+        sink.reset();
+    }
+
+    private static byte[] bytes(String markup) {
+        return markup.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface CellEncoder {
+
+        void writeCell(int columnIndex, String text);
+    }
+
+}
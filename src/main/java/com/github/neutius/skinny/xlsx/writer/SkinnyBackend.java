@@ -0,0 +1,44 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A way of writing .xlsx files, offered through <code>java.util.ServiceLoader</code>. Use SkinnyBackends to find a backend,
+ * so the backend can be chosen at runtime, e.g. one that does not need Apache POI when it is not on the class path.
+ * <p>
+ * Implementations are registered in <code>META-INF/services/com.github.neutius.skinny.xlsx.writer.SkinnyBackend</code>, and need
+ * a public constructor without parameters. Creating an implementation should be cheap, and should not load any class of a
+ * library that might not be present: <code>isAvailable()</code> is called first.
+ */
+
+public interface SkinnyBackend {
+
+    /**
+     * @return The unique name of this backend, e.g. <code>raw</code>, used to select it.
+     */
+
+    String getName();
+
+    /**
+     * @return True if every library this backend needs is on the class path, false otherwise.
+     */
+
+    boolean isAvailable();
+
+    /**
+     * Writes a .xlsx file with one sheet for each object in the List passed in.
+     *
+     * @param targetFolder     The target location for the .xlsx file
+     * @param fileName         The base name of the .xlsx that will be written. No extension needed.
+     *                         If null or an empty String is passed in, the file will be given a name.
+     * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
+     *                         Each object in the List represents a sheet to be added to the .xlsx file.
+     * @throws IOException Any Exception occurring while writing to the file system will remain uncaught.
+     */
+
+    void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList)
+            throws IOException;
+
+}
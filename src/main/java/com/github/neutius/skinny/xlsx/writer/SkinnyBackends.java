@@ -0,0 +1,154 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Finds the SkinnyBackend implementations on the class path, using <code>java.util.ServiceLoader</code>. This library offers
+ * three backends:
+ * <ul>
+ * <li><code>raw</code> uses SkinnyRawStreamer, and does not need Apache POI. This is the default backend.</li>
+ * <li><code>poi-writer</code> uses SkinnyWriter, and needs Apache POI.</li>
+ * <li><code>poi-streamer</code> uses SkinnyStreamer, and needs Apache POI.</li>
+ * </ul>
+ * <p>
+ * Apache POI is an optional dependency of this library: add <code>poi-ooxml</code> to use the Apache POI based backends. The
+ * default backend can be changed with the system property <code>skinny.backend</code>, e.g.
+ * <code>-Dskinny.backend=poi-streamer</code>.
+ * <p>
+ * This class has a private constructor and static methods only.
+ */
+
+public final class SkinnyBackends {
+
+    static final String BACKEND_PROPERTY = "skinny.backend";
+    static final String DEFAULT_BACKEND_NAME = "raw";
+
+    private SkinnyBackends() {
+        // nope
+    }
+
+    /**
+     * @return All backends on the class path whose libraries are available, in the order the ServiceLoader finds them.
+     */
+
+    public static List<SkinnyBackend> getAvailableBackends() {
+        List<SkinnyBackend> result = new ArrayList<>();
+        for (SkinnyBackend backend : ServiceLoader.load(SkinnyBackend.class, SkinnyBackend.class.getClassLoader())) {
+            if (backend.isAvailable()) {
+                result.add(backend);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param name The name of the backend, e.g. <code>raw</code>.
+     * @return The available backend with the name passed in.
+     * @throws IllegalArgumentException Will be thrown when no backend with this name is available.
+     */
+
+    public static SkinnyBackend getBackend(String name) {
+        List<String> availableNames = new ArrayList<>();
+        for (SkinnyBackend backend : getAvailableBackends()) {
+            if (backend.getName().equals(name)) {
+                return backend;
+            }
+            availableNames.add(backend.getName());
+        }
+        throw new IllegalArgumentException("No SkinnyBackend named '" + name + "' is available, available backends: "
+                + availableNames);
+    }
+
+    /**
+     * @return The backend named by the system property <code>skinny.backend</code>, or the <code>raw</code> backend if the
+     * property is not set.
+     * @throws IllegalArgumentException Will be thrown when the backend named by the system property is not available.
+     */
+
+    public static SkinnyBackend getDefaultBackend() {
+        return getBackend(System.getProperty(BACKEND_PROPERTY, DEFAULT_BACKEND_NAME));
+    }
+
+    private static boolean isPoiAvailable() {
+        try {
+            Class.forName("org.apache.poi.xssf.streaming.SXSSFWorkbook", false, SkinnyBackends.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError exception) {
+            return false;
+        }
+    }
+
+    /**
+     * The <code>raw</code> backend, which uses SkinnyRawStreamer.
+     */
+
+    public static final class RawStreamerBackend implements SkinnyBackend {
+
+        @Override
+        public String getName() {
+            return "raw";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList)
+                throws IOException {
+            SkinnyRawStreamer.writeContentToFileSystem(targetFolder, fileName, sheetContentList);
+        }
+    }
+
+    /**
+     * The <code>poi-writer</code> backend, which uses SkinnyWriter.
+     */
+
+    public static final class PoiWriterBackend implements SkinnyBackend {
+
+        @Override
+        public String getName() {
+            return "poi-writer";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return isPoiAvailable();
+        }
+
+        @Override
+        public void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList)
+                throws IOException {
+            SkinnyWriter.writeContentToFileSystem(targetFolder, fileName, sheetContentList);
+        }
+    }
+
+    /**
+     * The <code>poi-streamer</code> backend, which uses SkinnyStreamer.
+     */
+
+    public static final class PoiStreamerBackend implements SkinnyBackend {
+
+        @Override
+        public String getName() {
+            return "poi-streamer";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return isPoiAvailable();
+        }
+
+        @Override
+        public void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList)
+                throws IOException {
+            SkinnyStreamer.writeContentToFileSystem(targetFolder, fileName, sheetContentList);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Sample command line tool that converts delimited text files to a .xlsx file, using SkinnyRawStreamer. Each input file becomes
+ * a sheet, named after the file. Without input files, standard input becomes a single sheet. Each line becomes a row, and the
+ * first line becomes the column header row, unless <code>--no-headers</code> is passed in. Values are split on the separator
+ * only: quoting is not supported.
+ * <p>
+ * This class uses neither Apache POI nor reflection, so it can be compiled to a GraalVM native executable. See the
+ * <code>native</code> profile in the pom.xml file.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnyCli {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILURE = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = "Usage: skinny-xlsx [--separator=<character>] [--no-headers] [--compression-threads=<n>]"
+            + " <target folder> <file name> [input file ...]";
+    private static final String DEFAULT_SEPARATOR = "\t";
+
+    private String separator = DEFAULT_SEPARATOR;
+    private boolean columnHeaders = true;
+    private int compressionThreads = 1;
+    private final List<String> arguments = new ArrayList<>();
+
+    private SkinnyCli() {
+        // use main
+    }
+
+    /**
+     * @param args The options, the target folder, the base name of the .xlsx file and the input files, if any.
+     *             Run without arguments for a description.
+     */
+
+    public static void main(String... args) {
+        System.exit(run(System.in, System.err, args));
+    }
+
+    static int run(InputStream standardInput, PrintStream errorOutput, String... args) {
+        SkinnyCli cli = new SkinnyCli();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException exception) {
+            errorOutput.println(exception.getMessage());
+            errorOutput.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            cli.convert(standardInput);
+            return EXIT_OK;
+        } catch (IOException | RuntimeException exception) {
+            errorOutput.println("Conversion failed: " + exception);
+            return EXIT_FAILURE;
+        }
+    }
+
+    private void parse(String... args) {
+        for (String argument : args) {
+            if (argument.startsWith("--separator=")) {
+                separator = unescape(argument.substring("--separator=".length()));
+            } else if (argument.equals("--no-headers")) {
+                columnHeaders = false;
+            } else if (argument.startsWith("--compression-threads=")) {
+                compressionThreads = parseThreadAmount(argument.substring("--compression-threads=".length()));
+            } else if (argument.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + argument);
+            } else {
+                arguments.add(argument);
+            }
+        }
+        if (arguments.size() < 2) {
+            throw new IllegalArgumentException("A target folder and a file name are required");
+        }
+        if (!new File(arguments.get(0)).isDirectory()) {
+            throw new IllegalArgumentException("The target folder is not an existing directory: " + arguments.get(0));
+        }
+    }
+
+    private static String unescape(String separator) {
+        String result = separator.equals("\\t") ? "\t" : separator;
+        if (result.length() != 1) {
+            throw new IllegalArgumentException("The separator should be a single character, not '" + separator + "'");
+        }
+        return result;
+    }
+
+    private static int parseThreadAmount(String threadAmount) {
+        try {
+            return Integer.parseInt(threadAmount);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("The amount of compression threads should be a number, not " + threadAmount);
+        }
+    }
+
+    private void convert(InputStream standardInput) throws IOException {
+        Pattern splitter = Pattern.compile(Pattern.quote(separator));
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(new File(arguments.get(0)), arguments.get(1))) {
+            streamer.setCompressionThreads(compressionThreads);
+            List<String> inputFiles = arguments.subList(2, arguments.size());
+            if (inputFiles.isEmpty()) {
+                streamer.addSheetToWorkbook((String) null);
+                addLines(streamer, new BufferedReader(new InputStreamReader(standardInput, StandardCharsets.UTF_8)), splitter);
+            }
+            for (String inputFile : inputFiles) {
+                streamer.addSheetToWorkbook(toSheetName(inputFile));
+                addLines(streamer, Files.newBufferedReader(new File(inputFile).toPath(), StandardCharsets.UTF_8), splitter);
+            }
+        }
+    }
+
+    private void addLines(SkinnyRawStreamer streamer, BufferedReader reader, Pattern splitter) throws IOException {
+        try (reader) {
+            String line = reader.readLine();
+            if (line != null && columnHeaders) {
+                streamer.addColumnHeaderRowToCurrentSheet(Arrays.asList(splitter.split(line, -1)));
+                line = reader.readLine();
+            }
+            while (line != null) {
+                streamer.addRowToCurrentSheet(Arrays.asList(splitter.split(line, -1)));
+                line = reader.readLine();
+            }
+        }
+    }
+
+    private static String toSheetName(String inputFile) {
+        String fileName = new File(inputFile).getName();
+        int extensionIndex = fileName.lastIndexOf('.');
+        return extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+    }
+
+}
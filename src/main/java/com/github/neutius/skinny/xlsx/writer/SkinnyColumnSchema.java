@@ -0,0 +1,267 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Determines the type of the cells of each column of a sheet. Content rows are Lists of String values, so by default every
+ * cell is a text cell, even when its value is a number or a date. With a schema, the values of a column are converted to
+ * number cells or date cells instead, which makes the file smaller and lets Excel calculate with them. A value that does not
+ * match the type of its column is written as text, just like without a schema. This class has a private constructor and a
+ * static factory method for each kind of schema:
+ * <ul>
+ * <li><code>declared(List)</code> has a fixed type for each column.</li>
+ * <li><code>inferred(int)</code> infers the type of each column from a sample of content rows, taken evenly from the whole
+ * sheet, when the sheet is written. Each column gets the most specific type that matches all of its non-blank sample values.
+ * The columns are inferred in parallel.</li>
+ * </ul>
+ * The values that match a type are:
+ * <ul>
+ * <li><code>INTEGER</code>: whole numbers of at most 15 digits without leading zeros, such as <code>-42</code>. Values like
+ * <code>007</code> are usually codes rather than numbers, so they remain text.</li>
+ * <li><code>DECIMAL</code>: integers as above, and decimal numbers of at most 15 significant digits with a dot as decimal
+ * separator and an optional exponent, such as <code>3.14</code> or <code>1.5E-3</code>.</li>
+ * <li><code>DATE</code>: dates such as <code>2026-10-19</code>, written with the date format.</li>
+ * <li><code>DATE_TIME</code>: dates as above, and dates and times such as <code>2026-10-19T08:30:00</code> or
+ * <code>2026-10-19 08:30</code>, written with the date and time format.</li>
+ * <li><code>TEXT</code>: any value.</li>
+ * </ul>
+ * Excel cannot represent dates before 1900 or after 9999, so those dates remain text.
+ * <p>
+ * Schemas apply to a single sheet, see <code>SkinnySheetContent.getColumnSchema()</code>. They are used by SkinnyRawStreamer,
+ * and the backend based on it. The other writers write all values as text.
+ */
+
+public final class SkinnyColumnSchema {
+
+    /**
+     * The type of the cells of a column.
+     */
+
+    public enum ColumnType {
+        TEXT, INTEGER, DECIMAL, DATE, DATE_TIME
+    }
+
+    private static final int MAX_DIGITS = 15;
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 9999;
+    private static final int DATE_LENGTH = 10;
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    private final List<ColumnType> columnTypes;
+    private final int sampleSize;
+
+    /**
+     * @param columnTypes The type of each column, starting at the first column. Columns after the last type are text columns.
+     * @return A schema with the column types passed in.
+     * @throws IllegalArgumentException Will be thrown when the List passed in contains a null value.
+     * @throws NullPointerException     Will be thrown when the List passed in is null.
+     */
+
+    public static SkinnyColumnSchema declared(List<ColumnType> columnTypes) {
+        if (columnTypes.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("List of column types should not contain null values");
+        }
+        return new SkinnyColumnSchema(Collections.unmodifiableList(new ArrayList<>(columnTypes)), 0);
+    }
+
+    /**
+     * @param sampleSize The amount of content rows to infer the column types from.
+     * @return A schema that infers the type of each column from a sample of content rows.
+     * @throws IllegalArgumentException Will be thrown when the sample size is smaller than 1.
+     */
+
+    public static SkinnyColumnSchema inferred(int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("The sample size should be at least 1, not " + sampleSize);
+        }
+        return new SkinnyColumnSchema(null, sampleSize);
+    }
+
+    private SkinnyColumnSchema(List<ColumnType> columnTypes, int sampleSize) {
+        this.columnTypes = columnTypes;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * @return The type of each column, declared or inferred from the content rows passed in.
+     */
+
+    List<ColumnType> resolveColumnTypes(List<List<String>> contentRows) {
+        if (columnTypes != null) {
+            return columnTypes;
+        }
+        List<List<String>> sample = takeSample(contentRows);
+        int columnAmount = sample.stream().mapToInt(row -> row == null ? 0 : row.size()).max().orElse(0);
+        IntStream columnIndexes = IntStream.range(0, columnAmount);
+        if ((long) columnAmount * sample.size() >= PARALLEL_THRESHOLD) {
+            columnIndexes = columnIndexes.parallel();
+        }
+        return columnIndexes.mapToObj(columnIndex -> inferColumnType(sample, columnIndex)).collect(Collectors.toList());
+    }
+
+    private List<List<String>> takeSample(List<List<String>> contentRows) {
+        int rowAmount = contentRows.size();
+        if (rowAmount <= sampleSize) {
+            return contentRows;
+        }
+        List<List<String>> sample = new ArrayList<>(sampleSize);
+        for (int sampleIndex = 0; sampleIndex < sampleSize; sampleIndex++) {
+            sample.add(contentRows.get((int) ((long) sampleIndex * rowAmount / sampleSize)));
+        }
+        return sample;
+    }
+
+    private static ColumnType inferColumnType(List<List<String>> sample, int columnIndex) {
+        ColumnType columnType = null;
+        for (List<String> row : sample) {
+            String text = row == null || columnIndex >= row.size() ? null : row.get(columnIndex);
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            columnType = widen(columnType, text);
+            if (columnType == ColumnType.TEXT) {
+                break;
+            }
+        }
+        return columnType == null ? ColumnType.TEXT : columnType;
+    }
+
+    // The most specific type that matches both the values of the current type and the text passed in
+    private static ColumnType widen(ColumnType columnType, String text) {
+        if ((columnType == null || columnType == ColumnType.INTEGER) && isInteger(text)) {
+            return ColumnType.INTEGER;
+        }
+        if ((columnType == null || columnType == ColumnType.INTEGER || columnType == ColumnType.DECIMAL) && isDecimal(text)) {
+            return ColumnType.DECIMAL;
+        }
+        if ((columnType == null || columnType == ColumnType.DATE) && parseDate(text) != null) {
+            return ColumnType.DATE;
+        }
+        if ((columnType == null || columnType == ColumnType.DATE || columnType == ColumnType.DATE_TIME)
+                && parseDateTime(text) != null) {
+            return ColumnType.DATE_TIME;
+        }
+        return ColumnType.TEXT;
+    }
+
+    static boolean isInteger(String text) {
+        int start = text.startsWith("-") ? 1 : 0;
+        int digitAmount = text.length() - start;
+        if (digitAmount < 1 || digitAmount > MAX_DIGITS || digitAmount > 1 && text.charAt(start) == '0') {
+            return false;
+        }
+        for (int index = start; index < text.length(); index++) {
+            if (!isDigit(text.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isDecimal(String text) {
+        int length = text.length();
+        int index = text.startsWith("-") ? 1 : 0;
+        int integerStart = index;
+        while (index < length && isDigit(text.charAt(index))) {
+            index++;
+        }
+        int integerDigits = index - integerStart;
+        if (integerDigits == 0 || integerDigits > 1 && text.charAt(integerStart) == '0') {
+            return false;
+        }
+        int significantDigits = text.charAt(integerStart) == '0' ? 0 : integerDigits;
+        if (index < length && text.charAt(index) == '.') {
+            int fractionStart = ++index;
+            while (index < length && isDigit(text.charAt(index))) {
+                if (significantDigits > 0 || text.charAt(index) != '0') {
+                    significantDigits++;
+                }
+                index++;
+            }
+            if (index == fractionStart) {
+                return false;
+            }
+        }
+        if (index < length && (text.charAt(index) == 'E' || text.charAt(index) == 'e')) {
+            index++;
+            if (index < length && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+                index++;
+            }
+            // at most 2 digits, so every value is within the range of Excel numbers
+            int exponentStart = index;
+            while (index < length && isDigit(text.charAt(index))) {
+                index++;
+            }
+            if (index == exponentStart || index - exponentStart > 2) {
+                return false;
+            }
+        }
+        return index == length && significantDigits <= MAX_DIGITS;
+    }
+
+    /**
+     * @return The date, or null when the text is not a date as described above.
+     */
+
+    static LocalDate parseDate(String text) {
+        if (text.length() != DATE_LENGTH || !isDigit(text.charAt(0))) {
+            return null;
+        }
+        try {
+            LocalDate date = LocalDate.parse(text, DateTimeFormatter.ISO_LOCAL_DATE);
+            return date.getYear() >= MIN_YEAR && date.getYear() <= MAX_YEAR ? date : null;
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The date and time, or null when the text is not a date or a date and time as described above.
+     */
+
+    static LocalDateTime parseDateTime(String text) {
+        if (text.length() == DATE_LENGTH) {
+            LocalDate date = parseDate(text);
+            return date == null ? null : date.atStartOfDay();
+        }
+        if (text.length() < DATE_LENGTH + 6 || text.charAt(DATE_LENGTH) != 'T' && text.charAt(DATE_LENGTH) != ' ') {
+            return null;
+        }
+        LocalDate date = parseDate(text.substring(0, DATE_LENGTH));
+        if (date == null) {
+            return null;
+        }
+        try {
+            return date.atTime(LocalTime.parse(text.substring(DATE_LENGTH + 1), DateTimeFormatter.ISO_LOCAL_TIME));
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the declared column types or the sample size.
+     */
+
+    @Override
+    public String toString() {
+        return columnTypes == null ? "SkinnyColumnSchema - inferred from " + sampleSize + " rows"
+                : "SkinnyColumnSchema - declared " + columnTypes;
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Determines how the column widths of a sheet are adjusted to its content. Measuring the width of a cell value is expensive,
+ * so measuring fewer rows saves a lot of time on large sheets. This class has a private constructor and a static factory
+ * method for each policy:
+ * <ul>
+ * <li><code>none()</code> leaves all columns at their default width.</li>
+ * <li><code>headersOnly()</code> only measures the column header row.</li>
+ * <li><code>firstRows(int)</code> measures the column header row and the first content rows.</li>
+ * <li><code>sampledRows(int)</code> measures the column header row and a random sample of content rows, taken evenly from
+ * the whole sheet. The same content always results in the same sample.</li>
+ * <li><code>allRows()</code> measures every row.</li>
+ * <li><code>fixedWidths(List)</code> does not measure anything, and sets the widths passed in.</li>
+ * </ul>
+ * <p>
+ * Policies apply to a single sheet. See <code>SkinnySheetContent.getColumnWidthPolicy()</code> and
+ * <code>SkinnyWriter.setColumnWidthPolicy(SkinnyColumnWidthPolicy)</code>.
+ */
+
+public final class SkinnyColumnWidthPolicy {
+
+    static final int MAX_WIDTH = 255;
+
+    private static final SkinnyColumnWidthPolicy NONE = new SkinnyColumnWidthPolicy(Kind.NONE, 0, List.of());
+    private static final SkinnyColumnWidthPolicy HEADERS_ONLY = new SkinnyColumnWidthPolicy(Kind.FIRST_ROWS, 0, List.of());
+    private static final SkinnyColumnWidthPolicy ALL_ROWS = new SkinnyColumnWidthPolicy(Kind.ALL_ROWS, 0, List.of());
+
+    private final Kind kind;
+    private final int rowAmount;
+    private final List<Integer> widths;
+
+    /**
+     * @return A policy that leaves all columns at their default width.
+     */
+
+    public static SkinnyColumnWidthPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * @return A policy that adjusts the column widths to the column header row only. Sheets without column headers keep the
+     * default width.
+     */
+
+    public static SkinnyColumnWidthPolicy headersOnly() {
+        return HEADERS_ONLY;
+    }
+
+    /**
+     * @param rowAmount The amount of content rows to measure, not counting the column header row.
+     * @return A policy that adjusts the column widths to the column header row and the first content rows.
+     * @throws IllegalArgumentException Will be thrown when the amount of rows is negative.
+     */
+
+    public static SkinnyColumnWidthPolicy firstRows(int rowAmount) {
+        checkNotNegative(rowAmount, "amount of rows");
+        return new SkinnyColumnWidthPolicy(Kind.FIRST_ROWS, rowAmount, List.of());
+    }
+
+    /**
+     * Uses reservoir sampling, so the amount of content rows does not have to be known upfront, and at most
+     * <code>sampleSize</code> rows are measured at any time: a streaming writer can measure each sampled row before it is
+     * written to disk.
+     *
+     * @param sampleSize The amount of content rows to measure, not counting the column header row.
+     * @return A policy that adjusts the column widths to the column header row and a random sample of content rows.
+     * @throws IllegalArgumentException Will be thrown when the sample size is negative.
+     */
+
+    public static SkinnyColumnWidthPolicy sampledRows(int sampleSize) {
+        checkNotNegative(sampleSize, "sample size");
+        return new SkinnyColumnWidthPolicy(Kind.SAMPLED_ROWS, sampleSize, List.of());
+    }
+
+    /**
+     * @return A policy that adjusts the column widths to all rows, like Excel's auto-fit does. This is the most expensive policy.
+     */
+
+    public static SkinnyColumnWidthPolicy allRows() {
+        return ALL_ROWS;
+    }
+
+    /**
+     * @param widths The width of each column, in characters, starting at the first column. Null values leave a column at its
+     *               default width. Columns after the last width keep the default width as well.
+     * @return A policy that sets fixed column widths, without measuring anything.
+     * @throws IllegalArgumentException Will be thrown when a width is negative or larger than 255, Excel's maximum width.
+     * @throws NullPointerException     Will be thrown when the List passed in is null.
+     */
+
+    public static SkinnyColumnWidthPolicy fixedWidths(List<Integer> widths) {
+        for (Integer width : widths) {
+            if (width != null && (width < 0 || width > MAX_WIDTH)) {
+                throw new IllegalArgumentException("Column width should be between 0 and " + MAX_WIDTH + ", not " + width);
+            }
+        }
+        return new SkinnyColumnWidthPolicy(Kind.FIXED_WIDTHS, 0, Collections.unmodifiableList(new ArrayList<>(widths)));
+    }
+
+    private SkinnyColumnWidthPolicy(Kind kind, int rowAmount, List<Integer> widths) {
+        this.kind = kind;
+        this.rowAmount = rowAmount;
+        this.widths = widths;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    int getRowAmount() {
+        return rowAmount;
+    }
+
+    List<Integer> getWidths() {
+        return widths;
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the policy and its parameter, if any.
+     */
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case FIRST_ROWS:
+                return rowAmount == 0 ? "SkinnyColumnWidthPolicy - headers only"
+                        : "SkinnyColumnWidthPolicy - first " + rowAmount + " rows";
+            case SAMPLED_ROWS:
+                return "SkinnyColumnWidthPolicy - sample of " + rowAmount + " rows";
+            case FIXED_WIDTHS:
+                return "SkinnyColumnWidthPolicy - fixed widths " + widths;
+            default:
+                return "SkinnyColumnWidthPolicy - " + kind.name().toLowerCase().replace('_', ' ');
+        }
+    }
+
+    private static void checkNotNegative(int value, String description) {
+        if (value < 0) {
+            throw new IllegalArgumentException("The " + description + " should not be negative, but was " + value);
+        }
+    }
+
+    enum Kind {
+        NONE, FIRST_ROWS, SAMPLED_ROWS, ALL_ROWS, FIXED_WIDTHS
+    }
+
+}
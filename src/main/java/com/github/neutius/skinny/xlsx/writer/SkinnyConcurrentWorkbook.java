@@ -0,0 +1,288 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes a .xlsx file of which the sheets can be written by several threads at the same time, without Apache POI. The basic
+ * use flow is as follows:
+ * <ol>
+ * <li>The constructor creates the .xlsx file.</li>
+ * <li>Each call to <code>openSheet(String)</code> declares a sheet, and returns a SkinnySheetHandle to add rows to it. The
+ * sheets end up in the .xlsx file in the order in which they were opened, no matter the order in which they are finished.</li>
+ * <li>Each sheet handle can be used by a different thread. Handles compress their rows into temporary files of their own, so
+ * they do not wait for each other. Closing a handle finishes its sheet.</li>
+ * <li>Closing this class copies the compressed sheets into the .xlsx file, and finishes it. All sheet handles should be closed
+ * first.</li>
+ * </ol>
+ * <p>
+ * A sheet whose rows could not be written completely should be abandoned, see <code>SkinnySheetHandle.abandon()</code>. Closing
+ * this class then deletes the .xlsx file, instead of writing a file that looks valid while a sheet is missing rows. The same
+ * happens when a sheet handle has not been closed, or when finishing the file fails.
+ * <p>
+ * <code>openSheet(String)</code> and <code>close()</code> are thread-safe. Sheets look like the sheets of SkinnyRawStreamer.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnyConcurrentWorkbook implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File targetFile;
+    private final ZipPackageWriter zipPackageWriter;
+    private final List<SkinnySheetHandle> sheetHandles = new ArrayList<>();
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<SkinnySheetHandle> closedSheetHandles = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Writes each sheet on a thread of its own, with at most <code>threadAmount</code> sheets at the same time. The content rows
+     * of each sheet are only requested on the thread that writes the sheet, so computing the content of different sheets
+     * overlaps as well, e.g. if the List of content rows is computed lazily. Sheets with the same List of content rows and equal
+     * column headers are written once, by a single thread, and the compressed result is copied for each of them.
+     *
+     * @param targetFolder     The target location for the .xlsx file
+     * @param fileName         The base name of the .xlsx that will be written. No extension needed.
+     *                         If null or an empty String is passed in, the file will be given a name.
+     * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
+     *                         Each object in the List represents a sheet to be added to the .xlsx file, in the same order.
+     * @param threadAmount     The maximum amount of sheets that are written at the same time.
+     * @throws IOException              Any Exception occurring while writing to the file system will remain uncaught, as will
+     *                                  any Exception thrown while writing a sheet. When writing a sheet fails, no .xlsx file is
+     *                                  left behind.
+     * @throws IllegalArgumentException Will be thrown when the amount of threads is smaller than 1.
+     */
+
+    public static void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList,
+                                                int threadAmount) throws IOException {
+        if (threadAmount < 1) {
+            throw new IllegalArgumentException("The amount of threads should be at least 1, not " + threadAmount);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threadAmount, runnable -> {
+            Thread thread = new Thread(runnable, "skinny-xlsx-sheet-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, fileName)) {
+            List<Future<?>> results = new ArrayList<>();
+            Map<SheetContentKey, SkinnySheetHandle> sheetHandlesByContent = new HashMap<>();
+            for (SkinnySheetContent sheetContent : sheetContentList) {
+                SheetContentKey sheetContentKey = SheetContentKey.of(sheetContent);
+                SkinnySheetHandle writtenSheetHandle = sheetHandlesByContent.get(sheetContentKey);
+                if (writtenSheetHandle != null) {
+                    workbook.openDuplicateSheet(sheetContent.getSheetName(), writtenSheetHandle);
+                    continue;
+                }
+                SkinnySheetHandle sheetHandle = workbook.openSheet(sheetContent.getSheetName());
+                sheetHandlesByContent.put(sheetContentKey, sheetHandle);
+                results.add(executor.submit(() -> {
+                    writeSheet(sheetHandle, sheetContentKey);
+                    return null;
+                }));
+            }
+            waitForAll(results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the .xlsx file. The file is finished when this workbook is closed.
+     * <p>
+     * Warning: if the target directory already has a .xlsx file with the same base name,
+     * it will be overwritten with no further warning.
+     *
+     * @param targetFolder The target directory where the .xlsx file will be written to. Must be an existing directory.
+     * @param fileName     The base name of the .xlsx that will be written.
+     *                     No extension needed, this constructor automatically adds the .xlsx extension, without checking if an
+     *                     extension is already present, e.g. passing in "myFile.xlsx" will result in a file named "myFile.xlsx.xlsx".
+     *                     If null or an empty String is passed in, the file will be given a name.
+     * @throws IOException Any Exception that occurs while creating the file will remain uncaught.
+     */
+
+    public SkinnyConcurrentWorkbook(File targetFolder, String fileName) throws IOException {
+        targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.EXTENSION);
+        zipPackageWriter = new ZipPackageWriter(new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE));
+    }
+
+    /**
+     * Declares a new sheet, after the sheets that have been opened before, and returns the handle to write it.
+     *
+     * @param sheetName The name of the sheet to be added to the .xlsx file.
+     *                  If null or a blank String is passed in, the sheet will be given a name.
+     *                  If the passed in String consists of more than 31 characters, only the first 31 characters will be used.
+     *                  If a sheet with the same name is already present, a unique name will be provided.
+     * @return The handle to add column headers and rows to the new sheet.
+     * @throws IOException              Any Exception that occurs while creating the temporary file will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown if the sheet name contains a character that is not allowed by Excel.
+     * @throws IllegalStateException    Will be thrown when this workbook has already been closed.
+     */
+
+    public synchronized SkinnySheetHandle openSheet(String sheetName) throws IOException {
+        checkNotClosed();
+        String sanitizedSheetName = SkinnyUtil.sanitizeSheetName(sheetName, sheetNames);
+        SkinnySheetHandle sheetHandle = new SkinnySheetHandle(this, sanitizedSheetName);
+        sheetNames.add(sanitizedSheetName);
+        sheetHandles.add(sheetHandle);
+        return sheetHandle;
+    }
+
+    /**
+     * Copies all sheets into the .xlsx file and finishes it. A workbook without any sheets is not a valid .xlsx file: if no
+     * sheet has been opened, an empty sheet is added. The temporary files of the sheets are deleted, also when closing fails.
+     * When closing fails, the .xlsx file is deleted as well. Calling this method more than once has no further effect.
+     *
+     * @throws IOException           Will be thrown when a sheet handle has been abandoned. Any Exception that occurs while
+     *                               writing to the file will remain uncaught.
+     * @throws IllegalStateException Will be thrown when a sheet handle has not been closed.
+     */
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (sheetHandles.isEmpty()) {
+            openSheet(null).close();
+        }
+        closed = true;
+        boolean finished = false;
+        try {
+            for (SkinnySheetHandle sheetHandle : sheetHandles) {
+                if (!closedSheetHandles.contains(sheetHandle)) {
+                    throw new IllegalStateException("Sheet '" + sheetHandle.getSheetName() + "' has not been closed");
+                }
+            }
+            for (SkinnySheetHandle sheetHandle : sheetHandles) {
+                if (sheetHandle.isAbandoned()) {
+                    throw new IOException("Sheet '" + sheetHandle.getSheetName() + "' has been abandoned, the .xlsx file "
+                            + targetFile + " has been deleted");
+                }
+            }
+            for (int sheetIndex = 0; sheetIndex < sheetHandles.size(); sheetIndex++) {
+                SkinnySheetHandle sheetHandle = sheetHandles.get(sheetIndex);
+                zipPackageWriter.writeCompressedEntry(PackageParts.worksheetEntryName(sheetIndex + 1),
+                        sheetHandle::transferCompressedSheetTo, sheetHandle.getCrc(), sheetHandle.getUncompressedSize());
+            }
+            zipPackageWriter.writeEntry(PackageParts.STYLES, PackageParts.styles());
+            zipPackageWriter.writeEntry(PackageParts.WORKBOOK, PackageParts.workbook(sheetNames));
+            zipPackageWriter.writeEntry(PackageParts.WORKBOOK_RELATIONSHIPS,
+                    PackageParts.workbookRelationships(sheetNames.size()));
+            zipPackageWriter.writeEntry(PackageParts.ROOT_RELATIONSHIPS, PackageParts.rootRelationships());
+            zipPackageWriter.writeEntry(PackageParts.CONTENT_TYPES, PackageParts.contentTypes(sheetNames.size()));
+            zipPackageWriter.close();
+            finished = true;
+        } finally {
+            try {
+                if (!finished) {
+                    deleteTargetFile();
+                }
+            } finally {
+                for (SkinnySheetHandle sheetHandle : sheetHandles) {
+                    sheetHandle.deleteTemporaryFile();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the amount of sheets, and the amount of sheets that have been finished.
+     */
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SkinnyConcurrentWorkbook - amount of sheets: %s - finished sheets: %s",
+                sheetHandles.size(), closedSheetHandles.size());
+    }
+
+    /**
+     * Declares a new sheet, with the same content as the sheet of the handle passed in. The compressed sheet of that handle is
+     * copied for both sheets when this workbook is closed.
+     */
+
+    synchronized void openDuplicateSheet(String sheetName, SkinnySheetHandle sheetHandle) {
+        checkNotClosed();
+        String sanitizedSheetName = SkinnyUtil.sanitizeSheetName(sheetName, sheetNames);
+        sheetNames.add(sanitizedSheetName);
+        sheetHandles.add(sheetHandle);
+    }
+
+    // Synchronized, so everything a sheet handle has written is visible to the thread that closes this workbook
+    synchronized void sheetClosed(SkinnySheetHandle sheetHandle) {
+        closedSheetHandles.add(sheetHandle);
+    }
+
+    private static void writeSheet(SkinnySheetHandle sheetHandle, SheetContentKey sheetContent) throws IOException {
+        try {
+            if (sheetContent.hasColumnHeaders()) {
+                sheetHandle.addColumnHeaderRow(sheetContent.getColumnHeaders());
+            }
+            for (List<String> contentRow : sheetContent.getContentRows()) {
+                sheetHandle.addRow(contentRow);
+            }
+        } catch (Throwable failure) {
+            try {
+                sheetHandle.abandon();
+            } catch (IOException | RuntimeException abandonFailure) {
+                failure.addSuppressed(abandonFailure);
+            }
+            throw failure;
+        }
+        sheetHandle.close();
+    }
+
+    // Waits for every sheet, also after a failure, so no sheet is still being written when the workbook is closed
+    private static void waitForAll(List<Future<?>> results) throws IOException {
+        Throwable failure = null;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the sheets to be written", exception);
+            } catch (ExecutionException exception) {
+                failure = failure == null ? exception.getCause() : failure;
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new IOException("Writing a sheet failed", failure);
+        }
+    }
+
+    // Closes the file without a central directory first, so the deleted file is not held open
+    private void deleteTargetFile() throws IOException {
+        try {
+            zipPackageWriter.abandon();
+        } finally {
+            Files.deleteIfExists(targetFile.toPath());
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("This workbook has already been closed");
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events of the Apache POI based writers, which show the phases of an export in a recording, next to
+ * garbage collection and file I/O. All events are in the "Skinny .xlsx Writer" category, and have names starting with
+ * <code>com.github.neutius.skinny</code>, e.g. for <code>jfr print --events com.github.neutius.skinny.Export</code>.
+ * <p>
+ * Like the built-in events, these events cost next to nothing when they are not recorded: the writers check
+ * <code>isEnabled()</code> or <code>shouldCommit()</code> before collecting anything that has to be calculated.
+ * <p>
+ * The writers create these events unconditionally, so the <code>jdk.jfr</code> module is a required dependency of them.
+ */
+
+final class SkinnyEvents {
+
+    private static final String CATEGORY = "Skinny .xlsx Writer";
+
+    private SkinnyEvents() {
+        // nope
+    }
+
+    @Name("com.github.neutius.skinny.Export")
+    @Label("Export")
+    @Description("A complete export, from creating the writer up to and including writing the file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ExportEvent extends Event {
+
+        @Label("Writer")
+        String writer;
+
+        @Label("Target File")
+        String targetFile;
+
+        @Label("Sheets")
+        int sheetAmount;
+
+        @Label("Rows")
+        long rowAmount;
+
+        @Label("Cells")
+        long cellAmount;
+
+        @Label("File Size")
+        @DataAmount
+        long fileSize;
+    }
+
+    @Name("com.github.neutius.skinny.SheetCreated")
+    @Label("Sheet Created")
+    @Description("A sheet has been added to the workbook")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class SheetCreatedEvent extends Event {
+
+        @Label("Writer")
+        String writer;
+
+        @Label("Sheet Name")
+        String sheetName;
+
+        @Label("Sheet Index")
+        int sheetIndex;
+    }
+
+    @Name("com.github.neutius.skinny.ColumnWidths")
+    @Label("Column Widths")
+    @Description("The column widths of a sheet have been adjusted to its content. The rows are measured as they are added, "
+            + "so the measuring time is spread over the sheet, while the duration only covers applying the widths")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ColumnWidthEvent extends Event {
+
+        @Label("Sheet Name")
+        String sheetName;
+
+        @Label("Policy")
+        String policy;
+
+        @Label("Measured Rows")
+        int measuredRowAmount;
+
+        @Label("Measured Cells")
+        long measuredCellAmount;
+
+        @Label("Columns")
+        int columnAmount;
+
+        @Label("Measuring Time")
+        @Timespan
+        long measuringTime;
+    }
+
+    @Name("com.github.neutius.skinny.RowFlush")
+    @Label("Row Flush")
+    @Description("Rows flushed from memory by a streaming sheet have reached its temporary file, compressed. The event covers "
+            + "all rows flushed since the previous event of the sheet, automatically or explicitly, and its duration covers "
+            + "the write that made the compressed rows reach the file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class RowFlushEvent extends Event {
+
+        @Label("Sheet Name")
+        String sheetName;
+
+        @Label("Flushed Rows")
+        int flushedRowAmount;
+
+        @Label("Rows Kept In Memory")
+        int keptRowAmount;
+
+        @Label("Spilled Size")
+        @DataAmount
+        long spilledSize;
+    }
+
+    @Name("com.github.neutius.skinny.PackageWrite")
+    @Label("Package Write")
+    @Description("The .xlsx package has been written to the file system")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PackageWriteEvent extends Event {
+
+        @Label("Writer")
+        String writer;
+
+        @Label("Target File")
+        String targetFile;
+
+        @Label("Sheets")
+        int sheetAmount;
+
+        @Label("File Size")
+        @DataAmount
+        long fileSize;
+    }
+
+}
@@ -35,21 +35,14 @@ class SkinnyPerformanceTester {
 
         SkinnyPerformanceTester tester = new SkinnyPerformanceTester();
 
-        tester.skinnyStreamer_currentVersion_noAutoAdjust(targetFolder);
-        tester.skinnyStreamer_currentVersion_noAutoAdjust(targetFolder);
-        tester.skinnyStreamer_currentVersion_noAutoAdjust(targetFolder);
-
-        tester.skinnyStreamer_newVersion_adjustForHeadersOnly(targetFolder);
-        tester.skinnyStreamer_newVersion_adjustForHeadersOnly(targetFolder);
-        tester.skinnyStreamer_newVersion_adjustForHeadersOnly(targetFolder);
-
-        tester.skinnyStreamer_newVersion_adjustForLast100RowsOnly(targetFolder);
-        tester.skinnyStreamer_newVersion_adjustForLast100RowsOnly(targetFolder);
-        tester.skinnyStreamer_newVersion_adjustForLast100RowsOnly(targetFolder);
-
-        tester.skinnyStreamer_currentVersion_withAutoAdjust(targetFolder);
-        tester.skinnyStreamer_currentVersion_withAutoAdjust(targetFolder);
-        tester.skinnyStreamer_currentVersion_withAutoAdjust(targetFolder);
+        List<SkinnyColumnWidthPolicy> policies = List.of(SkinnyColumnWidthPolicy.none(), SkinnyColumnWidthPolicy.headersOnly(),
+                SkinnyColumnWidthPolicy.firstRows(100), SkinnyColumnWidthPolicy.sampledRows(1000),
+                SkinnyColumnWidthPolicy.allRows());
+        for (SkinnyColumnWidthPolicy policy : policies) {
+            tester.skinnyStreamer_withColumnWidthPolicy(targetFolder, policy);
+            tester.skinnyStreamer_withColumnWidthPolicy(targetFolder, policy);
+            tester.skinnyStreamer_withColumnWidthPolicy(targetFolder, policy);
+        }
 
         tester.skinnyWriter_currentVersion_hasAutoAdjust(targetFolder);
         tester.skinnyWriter_currentVersion_hasAutoAdjust(targetFolder);
@@ -85,49 +78,19 @@ class SkinnyPerformanceTester {
         System.out.println(methodName + " - Time Elapsed: " + timeElapsed);
     }
 
-    void skinnyStreamer_currentVersion_noAutoAdjust(File targetFolder) throws IOException {
-        String methodName = "skinnyStreamer_currentVersion_noAutoAdjust--------";
-
-        Instant start = Instant.now();
-//        SkinnyStreamer.writeContentToFileSystem(targetFolder, methodName + counter++, sheetContentList, false);
-        Instant end = Instant.now();
-
-        Duration timeElapsed = Duration.between(start, end);
-        System.out.println(methodName + " - Time Elapsed: " + timeElapsed);
-    }
-
-    void skinnyStreamer_currentVersion_withAutoAdjust(File targetFolder) throws IOException {
-        String methodName = "skinnyStreamer_currentVersion_withAutoAdjust------";
-
-        Instant start = Instant.now();
-//        SkinnyStreamer.writeContentToFileSystem(targetFolder, methodName + counter++, sheetContentList, true);
-        Instant end = Instant.now();
-
-        Duration timeElapsed = Duration.between(start, end);
-        System.out.println(methodName + " - Time Elapsed: " + timeElapsed);
-    }
-
-    void skinnyStreamer_newVersion_adjustForHeadersOnly(File targetFolder) throws IOException {
-        String methodName = "skinnyStreamer_newVersion_adjustForHeadersOnly----";
-
-        Instant start = Instant.now();
-//        SkinnyStreamer.writeContentToFileSystem_adjustForHeadersOnly(targetFolder, methodName + counter++, sheetContentList, true);
-        Instant end = Instant.now();
-
-        Duration timeElapsed = Duration.between(start, end);
-        System.out.println(methodName + " - Time Elapsed: " + timeElapsed);
-    }
-
-    private void skinnyStreamer_newVersion_adjustForLast100RowsOnly(File targetFolder) throws IOException {
-        String methodName = "skinnyStreamer_newVersion_adjustForLast100RowsOnly";
+    void skinnyStreamer_withColumnWidthPolicy(File targetFolder, SkinnyColumnWidthPolicy policy) throws IOException {
+        String methodName = "skinnyStreamer_withColumnWidthPolicy--------------";
+        List<SkinnySheetContent> sheetsWithPolicy = new ArrayList<>();
+        for (SkinnySheetContent sheetContent : sheetContentList) {
+            sheetsWithPolicy.add(((DefaultSheetContent) sheetContent).withColumnWidthPolicy(policy));
+        }
 
         Instant start = Instant.now();
-//        SkinnyStreamer.writeContentToFileSystem_adjustForLast100RowsOnly(targetFolder, methodName + counter++, sheetContentList, true);
+        SkinnyStreamer.writeContentToFileSystem(targetFolder, methodName + counter++, sheetsWithPolicy);
         Instant end = Instant.now();
 
         Duration timeElapsed = Duration.between(start, end);
-        System.out.println(methodName + " - Time Elapsed: " + timeElapsed);
-
+        System.out.println(methodName + " - " + policy + " - Time Elapsed: " + timeElapsed);
     }
 
     private static List<SkinnySheetContent> createLargeSheets() {
@@ -0,0 +1,44 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Helper methods for the writers that use an Apache POI workbook. Kept apart from SkinnyUtil, so the writers that do not use
+ * Apache POI never load any Apache POI class.
+ */
+
+class SkinnyPoiUtil {
+
+    private SkinnyPoiUtil() {
+        // nope
+    }
+
+    static String sanitizeSheetName(String sheetName, Workbook workbook) {
+        if (sheetName == null || sheetName.isBlank()) {
+            return "Sheet_" + (workbook.getNumberOfSheets() + 1);
+        }
+        if (workbook.getSheet(sheetName) != null) {
+            return sheetName + '_' + (workbook.getNumberOfSheets() + 1);
+        }
+
+        return sheetName;
+    }
+
+    static CellStyle createColumnHeaderCellStyle(Workbook workbook) {
+        Font columnHeaderFont = workbook.createFont();
+        columnHeaderFont.setBold(true);
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(columnHeaderFont);
+        style.setWrapText(false);
+        return style;
+    }
+
+    static CellStyle createDateCellStyle(Workbook workbook, String format) {
+        CellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(format));
+        style.setWrapText(false);
+        return style;
+    }
+}
@@ -0,0 +1,527 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streaming writer for .xlsx files that writes SpreadsheetML directly, without Apache POI. The basic use flow is as follows:
+ * <ol>
+ * <li>The constructor creates the .xlsx file and keeps it open for writing.</li>
+ * <li>Sheets are added one at a time. Column headers and content rows can only be added to the current sheet, and are written
+ * to the file (almost) immediately, so memory use does not grow with the amount of rows.</li>
+ * <li>Closing this class finishes the .xlsx file. A file that has not been closed is not a valid .xlsx file.</li>
+ * </ol>
+ * <p>
+ * Besides <code>List&lt;String&gt;</code> rows, this class accepts rows of UTF-8 encoded cell values, as <code>byte[]</code>
+ * or <code>ByteBuffer</code>. These values are copied into the sheet XML with minimal processing, and not at all if the caller
+ * guarantees that they are already safe to use in XML.
+ * <p>
+ * Column headers are written with a bold font and a freeze pane, like the other writers do. Column widths are based on the
+ * column headers only: no auto-sizing based on content takes place.
+ * <p>
+ * Sheets can also be appended to an existing .xlsx file, see <code>appendTo(File)</code>.
+ * <p>
+ * <code>setMinimalMarkup(boolean)</code> makes the sheet XML smaller still, which makes the file smaller and faster to open.
+ * <p>
+ * A sheet added as a SkinnySheetContent with a column schema gets number cells and date cells for the values that match the
+ * type of their column, see SkinnyColumnSchema.
+ * <p>
+ * Compressing the sheet XML usually takes most of the time. For large sheets, <code>setCompressionThreads(int)</code> spreads
+ * the compression over several threads, while the rows are still written by the calling thread only.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnyRawStreamer implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ZipPackageWriter zipPackageWriter;
+    private final ExistingPackage existingPackage;
+    private final SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(SkinnyResourcePool.acquireByteSink(BUFFER_SIZE));
+    private final List<String> sheetNames = new ArrayList<>();
+    private final SkinnyRowBuffer rowBuffer = new SkinnyRowBuffer(this::addRowBufferToCurrentSheet);
+
+    private ExecutorService compressionExecutor;
+    private ExecutorService currentSheetCompressionExecutor;
+    private boolean minimalMarkup;
+    private boolean sheetIsOpen;
+    private boolean closed;
+
+    /**
+     * Offers basically the same functionality as the SkinnyWriter method of the same name, without using Apache POI.
+     * <p>
+     * Sheets that share the same List of content rows, and have equal column headers, have identical worksheet XML. Such
+     * content is serialized and compressed only once, into a temporary file, and copied unchanged for each of these sheets.
+     *
+     * @param targetFolder     The target location for the .xlsx file
+     * @param fileName         The base name of the .xlsx that will be written.
+     *                         No extension needed, this method automatically adds the .xlsx extension, without checking if an
+     *                         extension is already present, e.g. passing in "myFile.xlsx" will result in a file named "myFile.xlsx.xlsx".
+     *                         If null or an empty String is passed in, the file will be given a name.
+     * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
+     *                         Each object in the List represents a sheet to be added to the .xlsx file.
+     * @throws IOException Any Exception occurring while writing to the file system will remain uncaught.
+     */
+
+    public static void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList)
+            throws IOException {
+        writeContentToFileSystem(targetFolder, fileName, sheetContentList, false);
+    }
+
+    /**
+     * Offers the same functionality as the method above, with the option to write the sheets in minimal markup mode, see
+     * <code>setMinimalMarkup(boolean)</code>. As all rows are known in advance, each sheet also gets its dimension in that mode.
+     *
+     * @param targetFolder     The target location for the .xlsx file
+     * @param fileName         The base name of the .xlsx that will be written, see the method above.
+     * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
+     *                         Each object in the List represents a sheet to be added to the .xlsx file.
+     * @param minimalMarkup    Whether the sheets are written in minimal markup mode.
+     * @throws IOException Any Exception occurring while writing to the file system will remain uncaught.
+     */
+
+    public static void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList,
+                                                boolean minimalMarkup) throws IOException {
+        List<SheetContentKey> sheetContentKeys = new ArrayList<>();
+        for (SkinnySheetContent sheetContent : sheetContentList) {
+            sheetContentKeys.add(SheetContentKey.of(sheetContent));
+        }
+        Map<SheetContentKey, Integer> occurrences = SheetContentKey.countOccurrences(sheetContentKeys);
+        Map<SheetContentKey, CompressedSheetPart> sharedSheetParts = new HashMap<>();
+
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, fileName)) {
+            streamer.setMinimalMarkup(minimalMarkup);
+            for (int sheetIndex = 0; sheetIndex < sheetContentList.size(); sheetIndex++) {
+                String sheetName = sheetContentList.get(sheetIndex).getSheetName();
+                SheetContentKey sheetContent = sheetContentKeys.get(sheetIndex);
+                if (occurrences.get(sheetContent) == 1) {
+                    streamer.addSheetToWorkbook(sheetName);
+                    streamer.addContent(sheetContent);
+                    continue;
+                }
+                CompressedSheetPart sheetPart = sharedSheetParts.get(sheetContent);
+                if (sheetPart == null) {
+                    sheetPart = CompressedSheetPart.write(sheetContent, minimalMarkup);
+                    sharedSheetParts.put(sheetContent, sheetPart);
+                }
+                streamer.addCompressedSheetToWorkbook(sheetName, sheetPart);
+            }
+        } finally {
+            for (CompressedSheetPart sheetPart : sharedSheetParts.values()) {
+                sheetPart.close();
+            }
+        }
+    }
+
+    /**
+     * Creates the .xlsx file and keeps it open for writing until this streamer is closed. A sheet has to be added before any
+     * column headers or content rows can be added.
+     * <p>
+     * Warning: if the target directory already has a .xlsx file with the same base name,
+     * it will be overwritten with no further warning.
+     *
+     * @param targetFolder The target directory where the .xlsx file will be written to. Must be an existing directory.
+     * @param fileName     The base name of the .xlsx that will be written.
+     *                     No extension needed, this constructor automatically adds the .xlsx extension, without checking if an
+     *                     extension is already present, e.g. passing in "myFile.xlsx" will result in a file named "myFile.xlsx.xlsx".
+     *                     If null or an empty String is passed in, the file will be given a name.
+     * @throws IOException Any Exception that occurs while creating the file will remain uncaught.
+     */
+
+    public SkinnyRawStreamer(File targetFolder, String fileName) throws IOException {
+        File targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.EXTENSION);
+        zipPackageWriter = new ZipPackageWriter(new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE));
+        existingPackage = null;
+    }
+
+    private SkinnyRawStreamer(ExistingPackage existingPackage) throws IOException {
+        zipPackageWriter = new ZipPackageWriter(new BufferedOutputStream(existingPackage.openTemporaryFile(), BUFFER_SIZE));
+        this.existingPackage = existingPackage;
+        existingPackage.copyUnchangedEntries(zipPackageWriter);
+        sheetNames.addAll(existingPackage.getSheetNames());
+        sheetXmlWriter.setStyleOffset(existingPackage.getStyleOffset());
+    }
+
+    /**
+     * Opens an existing .xlsx file to append sheets to. The existing sheets are kept as they are, and sheets are added after
+     * them, in the same way as with a new file.
+     * <p>
+     * The existing file is not loaded: its entries are copied as they are, still compressed, into a temporary file in the same
+     * directory. Only the parts that list the sheets, the content types and the styles are read and written again, so
+     * appending to a large file costs about as much as writing the new sheets plus copying the file. Closing this streamer
+     * replaces the existing file with the temporary file. Until then, the existing file remains unchanged.
+     * <p>
+     * The existing file may have been written by any application. Its document properties, such as the list of sheet titles
+     * shown by some file browsers, are not updated.
+     *
+     * @param xlsxFile The existing .xlsx file.
+     * @return A streamer that appends sheets to the existing file.
+     * @throws IOException Will be thrown when the file cannot be read or is not a .xlsx file, or when the temporary file cannot
+     *                     be written.
+     */
+
+    public static SkinnyRawStreamer appendTo(File xlsxFile) throws IOException {
+        ExistingPackage existingPackage = ExistingPackage.open(xlsxFile);
+        try {
+            return new SkinnyRawStreamer(existingPackage);
+        } catch (IOException | RuntimeException exception) {
+            existingPackage.discard();
+            throw exception;
+        }
+    }
+
+    /**
+     * Sets the amount of threads used to compress the sheets that are added after calling this method. By default, sheets are
+     * compressed by the calling thread. With more than one thread, the sheet XML is compressed in blocks of 128 KB, and each
+     * block is compressed on a separate thread. The resulting file is a regular .xlsx file, which is slightly larger than a
+     * file compressed by a single thread.
+     * <p>
+     * The threads are daemon threads, that are stopped when this streamer is closed.
+     *
+     * @param threadAmount The amount of compression threads. Passing in 1 restores the default.
+     * @throws IllegalArgumentException Will be thrown when the amount of threads is smaller than 1.
+     * @throws IllegalStateException    Will be thrown when this streamer has already been closed.
+     */
+
+    public void setCompressionThreads(int threadAmount) {
+        checkNotClosed();
+        if (threadAmount < 1) {
+            throw new IllegalArgumentException("The amount of compression threads should be at least 1, not " + threadAmount);
+        }
+        if (compressionExecutor != null && compressionExecutor != currentSheetCompressionExecutor) {
+            compressionExecutor.shutdown();
+        }
+        compressionExecutor = null;
+        if (threadAmount > 1) {
+            compressionExecutor = Executors.newFixedThreadPool(threadAmount, runnable -> {
+                Thread thread = new Thread(runnable, "skinny-xlsx-compression");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Switches minimal markup mode on or off, for the sheets that are added after calling this method. By default, this mode is
+     * off. Default styles are never written, and in this mode the sheet XML is made smaller still:
+     * <ul>
+     * <li>A cell only has a cell reference if it does not directly follow the previous cell of its row.</li>
+     * <li>Null values and empty rows are left out, instead of being written as empty cells and empty rows.</li>
+     * <li>A sheet added as a SkinnySheetContent gets its dimension, i.e. the range of the cells that are used. Sheets that are
+     * written row by row do not, as the dimension has to be written before the rows.</li>
+     * </ul>
+     * The content of the sheets is the same in both modes.
+     *
+     * @param minimalMarkup Whether the sheets that are added from now on are written in minimal markup mode.
+     * @throws IllegalStateException Will be thrown when this streamer has already been closed.
+     */
+
+    public void setMinimalMarkup(boolean minimalMarkup) {
+        checkNotClosed();
+        this.minimalMarkup = minimalMarkup;
+    }
+
+    /**
+     * Finishes the current sheet (if any) and starts a new one.
+     *
+     * @param sheetName The name of the sheet to be added to the .xlsx file.
+     *                  If null or a blank String is passed in, the sheet will be given a name.
+     *                  If the passed in String consists of more than 31 characters, only the first 31 characters will be used.
+     *                  If a sheet with the same name is already present, a unique name will be provided.
+     * @throws IOException              Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown if the sheet name contains a character that is not allowed by Excel.
+     */
+
+    public void addSheetToWorkbook(String sheetName) throws IOException {
+        checkNotClosed();
+        String sanitizedSheetName = SkinnyUtil.sanitizeSheetName(sheetName, sheetNames);
+        finishCurrentSheet();
+
+        String entryName = addWorksheet(sanitizedSheetName);
+        currentSheetCompressionExecutor = compressionExecutor;
+        sheetXmlWriter.setMinimalMarkup(minimalMarkup);
+        sheetXmlWriter.beginSheet(zipPackageWriter.beginEntry(entryName, compressionExecutor));
+        sheetIsOpen = true;
+    }
+
+    /**
+     * Adds a sheet with the column headers (if any) and content rows of the SkinnySheetContent passed in.
+     *
+     * @param sheetContent Any implementation of this interface should provide the name of the sheet to be added, whether column
+     *                     headers should be added to the sheet, the values for the column headers (if applicable),
+     *                     and the content rows to be added to the sheet.
+     * @throws IOException Any Exception that occurs while writing to the file will remain uncaught.
+     */
+
+    public void addSheetToWorkbook(SkinnySheetContent sheetContent) throws IOException {
+        addSheetToWorkbook(sheetContent.getSheetName());
+        addContent(SheetContentKey.of(sheetContent));
+    }
+
+    /**
+     * Adds a column header row to the top of the current sheet, with a bold font and a freeze pane.
+     *
+     * @param columnHeaderRow The List of String values to be added to the column header row.
+     * @throws IOException              Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws NullPointerException     Passing in any null value will result in a NullPointerException, which will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when any <code>String</code> value is blank.
+     * @throws IllegalStateException    Will be thrown when the current sheet is not empty, or when no sheet has been added.
+     */
+
+    public void addColumnHeaderRowToCurrentSheet(List<String> columnHeaderRow) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeColumnHeaderRow(columnHeaderRow);
+    }
+
+    /**
+     * Adds a new row at the bottom of the current sheet.
+     *
+     * @param rowContent The Strings in this List will be added to the new row in the same order.
+     *                   If an empty List or null is passed in, the new row will remain empty.
+     *                   Null values result in empty cells.
+     * @throws IOException           Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalStateException Will be thrown when no sheet has been added.
+     */
+
+    public void addRowToCurrentSheet(List<String> rowContent) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeRow(rowContent);
+    }
+
+    /**
+     * Adds several new rows at the bottom of the current sheet. The rows are checked once for the whole block, before any row is
+     * written, which makes this faster than adding the rows one by one.
+     *
+     * @param rows The rows to be added, each row with its cell values in column order.
+     *             Null rows and empty rows result in empty rows. Null values result in empty cells.
+     * @throws IOException              Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when a row has more cells than a sheet can contain.
+     * @throws IllegalStateException    Will be thrown when the rows do not fit on the current sheet, or when no sheet has been
+     *                                  added.
+     */
+
+    public void addSeveralRowsToCurrentSheet(String[][] rows) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeRows(rows);
+    }
+
+    /**
+     * Adds several new rows at the bottom of the current sheet, like <code>addSeveralRowsToCurrentSheet(String[][])</code>.
+     * Long, Integer, Short and Byte values are added as whole numbers, other Numbers as decimal numbers, LocalDate, LocalDateTime
+     * and Instant values as date cells (an Instant in UTC), and any other value as the text of <code>String.valueOf(Object)</code>.
+     *
+     * @param rows The rows to be added, each row with its cell values in column order.
+     *             Null rows and empty rows result in empty rows. Null values result in empty cells.
+     * @throws IOException              Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when a row has more cells than a sheet can contain, or when a date cannot
+     *                                  be represented by Excel.
+     * @throws IllegalStateException    Will be thrown when the rows do not fit on the current sheet, or when no sheet has been
+     *                                  added.
+     */
+
+    public void addSeveralRowsToCurrentSheet(Object[][] rows) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeRows(rows);
+    }
+
+    /**
+     * Adds a rectangular block of rows at the bottom of the current sheet. The cell values are stored row after row in a single
+     * array, e.g. the first <code>columnAmount</code> values make up the first row.
+     *
+     * @param cells        The cell values of all rows. Null values result in empty cells.
+     * @param columnAmount The amount of cells in each row.
+     * @throws IOException              Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when the amount of columns is smaller than 1 or larger than a sheet can
+     *                                  contain, or when the amount of cells is not a multiple of the amount of columns.
+     * @throws IllegalStateException    Will be thrown when the rows do not fit on the current sheet, or when no sheet has been
+     *                                  added.
+     */
+
+    public void addSeveralRowsToCurrentSheet(String[] cells, int columnAmount) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeRows(cells, columnAmount);
+    }
+
+    /**
+     * Adds a new row at the bottom of the current sheet, with cell values that are already encoded as UTF-8.
+     * <p>
+     * If <code>xmlSafe</code> is true, the bytes are copied into the sheet XML as they are. It is up to the caller to guarantee
+     * that the values contain no '&amp;', '&lt;', '&gt;' or '"' characters and no control characters besides tab and new line.
+     * If <code>xmlSafe</code> is false, these characters are escaped while copying.
+     *
+     * @param cells   The UTF-8 encoded cell values, in column order.
+     *                If an empty array or null is passed in, the new row will remain empty. Null values result in empty cells.
+     * @param xmlSafe Whether the values can be copied into the sheet XML without escaping.
+     * @throws IOException           Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalStateException Will be thrown when no sheet has been added.
+     */
+
+    public void addUtf8RowToCurrentSheet(byte[][] cells, boolean xmlSafe) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeUtf8Row(cells, xmlSafe);
+    }
+
+    /**
+     * Adds a new row at the bottom of the current sheet, with cell values that are already encoded as UTF-8.
+     * <p>
+     * Each value consists of the remaining bytes of the <code>ByteBuffer</code>, which allows passing in slices of a larger
+     * buffer. The position and limit of the buffers are not changed. See
+     * <code>addUtf8RowToCurrentSheet(byte[][], boolean)</code> for the meaning of <code>xmlSafe</code>.
+     *
+     * @param cells   The UTF-8 encoded cell values, in column order.
+     *                If an empty array or null is passed in, the new row will remain empty. Null values result in empty cells.
+     * @param xmlSafe Whether the values can be copied into the sheet XML without escaping.
+     * @throws IOException           Any Exception that occurs while writing to the file will remain uncaught.
+     * @throws IllegalStateException Will be thrown when no sheet has been added.
+     */
+
+    public void addUtf8RowToCurrentSheet(ByteBuffer[] cells, boolean xmlSafe) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeUtf8Row(cells, xmlSafe);
+    }
+
+    /**
+     * Returns the reusable row buffer of this streamer. Committing the row buffer adds a row to the bottom of the current
+     * sheet. This method always returns the same instance.
+     *
+     * @return The row buffer of this streamer.
+     */
+
+    public SkinnyRowBuffer getRowBuffer() {
+        return rowBuffer;
+    }
+
+    /**
+     * Finishes the current sheet and the .xlsx file. A workbook without any sheets is not a valid .xlsx file: if no sheet has
+     * been added, an empty sheet is added before closing. When appending to an existing file, the existing file is replaced,
+     * or left unchanged if an Exception occurs. Calling this method more than once has no further effect.
+     *
+     * @throws IOException Any Exception that occurs while writing to the file will remain uncaught.
+     */
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (sheetNames.isEmpty()) {
+            addSheetToWorkbook((String) null);
+        }
+        finishCurrentSheet();
+        closed = true;
+        sheetXmlWriter.releaseSink();
+        if (compressionExecutor != null) {
+            compressionExecutor.shutdown();
+        }
+        if (existingPackage != null) {
+            finishExistingPackage();
+            return;
+        }
+
+        zipPackageWriter.writeEntry(PackageParts.STYLES, PackageParts.styles());
+        zipPackageWriter.writeEntry(PackageParts.WORKBOOK, PackageParts.workbook(sheetNames));
+        zipPackageWriter.writeEntry(PackageParts.WORKBOOK_RELATIONSHIPS, PackageParts.workbookRelationships(sheetNames.size()));
+        zipPackageWriter.writeEntry(PackageParts.ROOT_RELATIONSHIPS, PackageParts.rootRelationships());
+        zipPackageWriter.writeEntry(PackageParts.CONTENT_TYPES, PackageParts.contentTypes(sheetNames.size()));
+        zipPackageWriter.close();
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the current amount of sheets, and the amount of rows and columns on the
+     * current sheet.
+     */
+
+    @Override
+    public String toString() {
+        return String.format("SkinnyRawStreamer - current amount of sheets: %s - current sheet has %s rows and %s columns",
+                sheetNames.size(), sheetXmlWriter.getRowAmount(), sheetXmlWriter.getColumnAmount());
+    }
+
+    /**
+     * Finishes the current sheet (if any) and adds a sheet with worksheet XML that has already been compressed. No rows can be
+     * added to this sheet: another sheet has to be added first.
+     */
+
+    void addCompressedSheetToWorkbook(String sheetName, CompressedSheetPart sheetPart) throws IOException {
+        checkNotClosed();
+        String sanitizedSheetName = SkinnyUtil.sanitizeSheetName(sheetName, sheetNames);
+        finishCurrentSheet();
+
+        zipPackageWriter.writeCompressedEntry(addWorksheet(sanitizedSheetName), sheetPart::transferTo, sheetPart.getCrc(),
+                sheetPart.getUncompressedSize());
+    }
+
+    private String addWorksheet(String sanitizedSheetName) {
+        sheetNames.add(sanitizedSheetName);
+        return existingPackage == null ? PackageParts.worksheetEntryName(sheetNames.size())
+                : existingPackage.addWorksheet(sanitizedSheetName);
+    }
+
+    private void finishExistingPackage() throws IOException {
+        try {
+            existingPackage.writeChangedParts(zipPackageWriter);
+            zipPackageWriter.close();
+            existingPackage.replaceOriginalFile();
+        } catch (IOException | RuntimeException exception) {
+            existingPackage.discard();
+            throw exception;
+        }
+    }
+
+    private void addContent(SheetContentKey sheetContent) throws IOException {
+        List<List<String>> contentRows = sheetContent.getContentRows();
+        sheetXmlWriter.writeDimension(sheetContent.getColumnHeaders(), contentRows);
+        sheetXmlWriter.setColumnTypes(sheetContent.resolveColumnTypes(contentRows));
+        if (sheetContent.hasColumnHeaders()) {
+            addColumnHeaderRowToCurrentSheet(sheetContent.getColumnHeaders());
+        }
+        for (List<String> contentRow : contentRows) {
+            addRowToCurrentSheet(contentRow);
+        }
+    }
+
+    private void finishCurrentSheet() throws IOException {
+        if (sheetIsOpen) {
+            sheetXmlWriter.endSheet();
+            zipPackageWriter.closeEntry();
+            sheetIsOpen = false;
+            // the executor of the finished sheet can be stopped if it has been replaced in the meantime
+            if (currentSheetCompressionExecutor != null && currentSheetCompressionExecutor != compressionExecutor) {
+                currentSheetCompressionExecutor.shutdown();
+            }
+            currentSheetCompressionExecutor = null;
+        }
+    }
+
+    private void addRowBufferToCurrentSheet(SkinnyRowBuffer committedRow) throws IOException {
+        checkSheetIsOpen();
+        sheetXmlWriter.writeRow(committedRow);
+    }
+
+    private void checkSheetIsOpen() {
+        checkNotClosed();
+        if (!sheetIsOpen) {
+            throw new IllegalStateException("A sheet should be added before adding column headers or rows");
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("This streamer has already been closed");
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An optional pool of the resources that every export allocates and discards: the <code>Deflater</code> and
+ * <code>Inflater</code> instances that compress and decompress zip entries, which hold native memory, and the buffers that
+ * sheet XML is serialized into. In a long-running service that writes many files, possibly at the same time, recycling these
+ * resources reduces allocation churn and native-memory fragmentation.
+ * <p>
+ * Pooling is disabled by default, and is shared by all writers once enabled:
+ * <ul>
+ * <li><code>enable(int)</code> enables pooling, keeping at most the amount of idle resources passed in for each kind of
+ * resource. Resources that are returned to a full pool are released instead.</li>
+ * <li><code>disable()</code> disables pooling, and releases all idle resources. Resources that are in use at that moment are
+ * released when they are returned.</li>
+ * </ul>
+ * A resource is reset before it is returned to the pool, so no state or content is passed from one export to another.
+ * Buffers that have grown beyond 1 MB for a single very large row are not kept.
+ * <p>
+ * Pooled resources are used by the writers that do not use Apache POI, such as SkinnyRawStreamer, SkinnyConcurrentWorkbook
+ * and SkinnyWorkbookMerger, and by the compression of the spilled rows of SkinnyStreamer. The Apache POI based writers
+ * allocate most of their resources inside Apache POI, which this pool cannot reach.
+ * <p>
+ * This class has a private constructor and static methods only.
+ */
+
+public final class SkinnyResourcePool {
+
+    static final int MAX_POOLED_BUFFER_CAPACITY = 1 << 20;
+
+    private static volatile Pools pools;
+
+    private SkinnyResourcePool() {
+        // nope
+    }
+
+    /**
+     * Enables pooling for all writers, or replaces the pool with an empty pool of the size passed in. The idle resources of a
+     * replaced pool are released.
+     *
+     * @param maxIdleResources The maximum amount of idle resources kept for each kind of resource, e.g. the amount of exports
+     *                         that are expected to run at the same time.
+     * @throws IllegalArgumentException Will be thrown when the maximum amount is smaller than 1.
+     */
+
+    public static synchronized void enable(int maxIdleResources) {
+        if (maxIdleResources < 1) {
+            throw new IllegalArgumentException("The maximum amount of idle resources should be at least 1, not "
+                    + maxIdleResources);
+        }
+        Pools replacedPools = pools;
+        pools = new Pools(maxIdleResources);
+        if (replacedPools != null) {
+            replacedPools.releaseAll();
+        }
+    }
+
+    /**
+     * Disables pooling for all writers, and releases all idle resources. Calling this method when pooling is disabled has no
+     * effect.
+     */
+
+    public static synchronized void disable() {
+        Pools disabledPools = pools;
+        pools = null;
+        if (disabledPools != null) {
+            disabledPools.releaseAll();
+        }
+    }
+
+    /**
+     * @return Whether pooling is enabled.
+     */
+
+    public static boolean isEnabled() {
+        return pools != null;
+    }
+
+    /**
+     * @return A Deflater that writes raw deflate streams, as used in zip entries, with the compression level passed in.
+     */
+
+    static Deflater acquireDeflater(int level) {
+        Pools currentPools = pools;
+        Deflater deflater = currentPools == null ? null : currentPools.deflaters.poll();
+        if (deflater == null) {
+            return new Deflater(level, true);
+        }
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /**
+     * Resets the Deflater and returns it to the pool, or releases its native memory when pooling is disabled or the pool is
+     * full. The Deflater must not be used afterwards.
+     */
+
+    static void releaseDeflater(Deflater deflater) {
+        Pools currentPools = pools;
+        if (currentPools != null) {
+            deflater.reset();
+            if (currentPools.deflaters.offer(deflater)) {
+                return;
+            }
+        }
+        deflater.end();
+    }
+
+    /**
+     * @return An Inflater that reads raw deflate streams, as used in zip entries.
+     */
+
+    static Inflater acquireInflater() {
+        Pools currentPools = pools;
+        Inflater inflater = currentPools == null ? null : currentPools.inflaters.poll();
+        return inflater == null ? new Inflater(true) : inflater;
+    }
+
+    /**
+     * Resets the Inflater and returns it to the pool, or releases its native memory when pooling is disabled or the pool is
+     * full. The Inflater must not be used afterwards.
+     */
+
+    static void releaseInflater(Inflater inflater) {
+        Pools currentPools = pools;
+        if (currentPools != null) {
+            inflater.reset();
+            if (currentPools.inflaters.offer(inflater)) {
+                return;
+            }
+        }
+        inflater.end();
+    }
+
+    /**
+     * @return An empty ByteSink with at least the capacity passed in.
+     */
+
+    static ByteSink acquireByteSink(int initialCapacity) {
+        Pools currentPools = pools;
+        ByteSink sink = currentPools == null ? null : currentPools.byteSinks.poll();
+        if (sink == null || sink.capacity() < initialCapacity) {
+            return new ByteSink(initialCapacity);
+        }
+        return sink;
+    }
+
+    /**
+     * Empties the ByteSink and returns it to the pool, unless pooling is disabled, the pool is full, or the sink has grown too
+     * large to keep. The ByteSink must not be used afterwards.
+     */
+
+    static void releaseByteSink(ByteSink sink) {
+        Pools currentPools = pools;
+        if (currentPools != null && sink.capacity() <= MAX_POOLED_BUFFER_CAPACITY) {
+            sink.reset();
+            currentPools.byteSinks.offer(sink);
+        }
+    }
+
+    /**
+     * @return The amount of idle resources in the pool, per kind of resource, for tests.
+     */
+
+    static int[] getIdleAmounts() {
+        Pools currentPools = pools;
+        return currentPools == null ? new int[3] : new int[]{currentPools.deflaters.size(), currentPools.inflaters.size(),
+                currentPools.byteSinks.size()};
+    }
+
+    private static final class Pools {
+        private final Queue<Deflater> deflaters;
+        private final Queue<Inflater> inflaters;
+        private final Queue<ByteSink> byteSinks;
+
+        private Pools(int maxIdleResources) {
+            deflaters = new ArrayBlockingQueue<>(maxIdleResources);
+            inflaters = new ArrayBlockingQueue<>(maxIdleResources);
+            byteSinks = new ArrayBlockingQueue<>(maxIdleResources);
+        }
+
+        private void releaseAll() {
+            Deflater deflater;
+            while ((deflater = deflaters.poll()) != null) {
+                deflater.end();
+            }
+            Inflater inflater;
+            while ((inflater = inflaters.poll()) != null) {
+                inflater.end();
+            }
+            byteSinks.clear();
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * This class has a single public static method that writes a .xlsx file to disk, and that can resume an earlier attempt that
+ * has been interrupted, e.g. because the JVM ran out of memory or was stopped.
+ * <p>
+ * The export keeps its progress in a checkpoint folder next to the .xlsx file, named after the .xlsx file with an extra
+ * <code>.checkpoint</code> extension:
+ * <ul>
+ * <li>Each sheet is compressed into a part file of its own, which is forced to disk at every checkpoint.</li>
+ * <li>A small journal records, for each sheet, the amount of content rows written and the state of the part file at the last
+ * checkpoint. A checkpoint is taken after each sheet, and after every <code>checkpointInterval</code> content rows.</li>
+ * <li>When the export is started again and finds a journal, completed sheets are skipped and the interrupted sheet continues
+ * at the first content row after its last checkpoint.</li>
+ * <li>Once all sheets are done, the part files are copied into the .xlsx file without compressing them again, and the
+ * checkpoint folder is removed.</li>
+ * </ul>
+ * <p>
+ * Like SkinnyRawStreamer, this class writes SpreadsheetML directly, without Apache POI.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnyResumableExport {
+
+    static final String CHECKPOINT_EXTENSION = ".checkpoint";
+    static final String JOURNAL_FILE_NAME = "journal.properties";
+
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 100_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File targetFile;
+    private final File checkpointFolder;
+    private final int checkpointInterval;
+    private final Properties journal = new Properties();
+    private final SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(SkinnyResourcePool.acquireByteSink(BUFFER_SIZE));
+    private final List<String> sheetNames = new ArrayList<>();
+
+    /**
+     * Same as <code>writeContentToFileSystem(File, String, List, int)</code>, with a checkpoint after every 100,000 content
+     * rows.
+     *
+     * @param targetFolder     The target location for the .xlsx file.
+     * @param fileName         The base name of the .xlsx that will be written. No extension needed.
+     * @param sheetContentList A List of objects implementing the SkinnyResumableSheetContent interface.
+     * @throws IOException Any Exception occurring while writing to the file system will remain uncaught.
+     */
+
+    public static void writeContentToFileSystem(File targetFolder, String fileName,
+                                                List<SkinnyResumableSheetContent> sheetContentList) throws IOException {
+        writeContentToFileSystem(targetFolder, fileName, sheetContentList, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Writes a .xlsx file with the sheets passed in, or continues writing it from the last checkpoint of an earlier attempt.
+     * <p>
+     * A resumed export should be passed the same sheets, in the same order, as the interrupted one. Any Exception thrown
+     * while writing leaves the checkpoint folder in place, so the export can be started again.
+     *
+     * @param targetFolder       The target location for the .xlsx file.
+     * @param fileName           The base name of the .xlsx that will be written.
+     *                           No extension needed, this method automatically adds the .xlsx extension.
+     *                           Unlike the other writers, a name is required, because the checkpoint folder is found by name.
+     * @param sheetContentList   A List of objects implementing the SkinnyResumableSheetContent interface.
+     *                           Each object in the List represents a sheet to be added to the .xlsx file.
+     * @param checkpointInterval The amount of content rows between two checkpoints.
+     * @throws IOException              Any Exception occurring while writing to the file system will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when the file name is null or blank, or when the checkpoint interval
+     *                                  is smaller than 1.
+     * @throws IllegalStateException    Will be thrown when the checkpoint folder belongs to an export with different sheets.
+     */
+
+    public static void writeContentToFileSystem(File targetFolder, String fileName,
+                                                List<SkinnyResumableSheetContent> sheetContentList, int checkpointInterval)
+            throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("A resumable export needs a file name");
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("The checkpoint interval should be at least 1, not " + checkpointInterval);
+        }
+        SkinnyResumableExport export = new SkinnyResumableExport(targetFolder, fileName, checkpointInterval);
+        try {
+            export.addSeveralSheetsToWorkbook(sheetContentList);
+        } finally {
+            export.sheetXmlWriter.releaseSink();
+        }
+        export.writeToFile();
+        export.cleanUp();
+    }
+
+    private SkinnyResumableExport(File targetFolder, String fileName, int checkpointInterval) throws IOException {
+        targetFile = new File(targetFolder, fileName + SkinnyUtil.EXTENSION);
+        checkpointFolder = new File(targetFolder, fileName + SkinnyUtil.EXTENSION + CHECKPOINT_EXTENSION);
+        this.checkpointInterval = checkpointInterval;
+
+        Files.createDirectories(checkpointFolder.toPath());
+        File journalFile = new File(checkpointFolder, JOURNAL_FILE_NAME);
+        if (journalFile.isFile()) {
+            try (InputStream inputStream = new FileInputStream(journalFile)) {
+                journal.load(inputStream);
+            }
+        }
+    }
+
+    private void addSeveralSheetsToWorkbook(List<SkinnyResumableSheetContent> sheetContentList) throws IOException {
+        if (sheetContentList.isEmpty()) {
+            sheetContentList = List.of(new EmptySheetContent());
+        }
+        for (SkinnyResumableSheetContent content : sheetContentList) {
+            addSheetToWorkbook(content);
+        }
+    }
+
+    private void addSheetToWorkbook(SkinnyResumableSheetContent content) throws IOException {
+        String sheetName = SkinnyUtil.sanitizeSheetName(content.getSheetName(), sheetNames);
+        sheetNames.add(sheetName);
+        int sheetNumber = sheetNames.size();
+
+        String journaledSheetName = journal.getProperty(key(sheetNumber, "name"));
+        if (journaledSheetName != null && !journaledSheetName.equals(sheetName)) {
+            throw new IllegalStateException("Sheet " + sheetNumber + " was named '" + journaledSheetName + "' in the checkpoint, "
+                    + "not '" + sheetName + "'. Remove " + checkpointFolder + " to start over.");
+        }
+        if (Boolean.parseBoolean(journal.getProperty(key(sheetNumber, "complete")))) {
+            return;
+        }
+
+        CheckpointDeflaterOutputStream partStream;
+        int rowOffset;
+        if (journaledSheetName == null) {
+            partStream = CheckpointDeflaterOutputStream.create(partFile(sheetNumber));
+            rowOffset = 0;
+            sheetXmlWriter.beginSheet(partStream);
+            if (content.hasColumnHeaders()) {
+                sheetXmlWriter.writeColumnHeaderRow(content.getColumnHeaders());
+            }
+        } else {
+            partStream = CheckpointDeflaterOutputStream.resume(partFile(sheetNumber), getLong(sheetNumber, "crc"),
+                    getLong(sheetNumber, "compressedSize"), getLong(sheetNumber, "uncompressedSize"));
+            rowOffset = (int) getLong(sheetNumber, "rowOffset");
+            sheetXmlWriter.resumeSheet(partStream, (int) getLong(sheetNumber, "rowAmount"),
+                    (int) getLong(sheetNumber, "columnAmount"));
+        }
+
+        try (partStream) {
+            Iterator<List<String>> contentRows = content.getContentRows(rowOffset);
+            while (contentRows.hasNext()) {
+                sheetXmlWriter.writeRow(contentRows.next());
+                rowOffset++;
+                if (rowOffset % checkpointInterval == 0) {
+                    sheetXmlWriter.checkpoint();
+                    partStream.checkpoint();
+                    writeJournal(sheetNumber, sheetName, rowOffset, partStream, false);
+                }
+            }
+            sheetXmlWriter.endSheet();
+        }
+        writeJournal(sheetNumber, sheetName, rowOffset, partStream, true);
+    }
+
+    private void writeJournal(int sheetNumber, String sheetName, int rowOffset, CheckpointDeflaterOutputStream partStream,
+                              boolean complete) throws IOException {
+        journal.setProperty(key(sheetNumber, "name"), sheetName);
+        journal.setProperty(key(sheetNumber, "rowOffset"), String.valueOf(rowOffset));
+        journal.setProperty(key(sheetNumber, "rowAmount"), String.valueOf(sheetXmlWriter.getRowAmount()));
+        journal.setProperty(key(sheetNumber, "columnAmount"), String.valueOf(sheetXmlWriter.getColumnAmount()));
+        journal.setProperty(key(sheetNumber, "crc"), String.valueOf(partStream.getCrc()));
+        journal.setProperty(key(sheetNumber, "compressedSize"), String.valueOf(partStream.getCompressedSize()));
+        journal.setProperty(key(sheetNumber, "uncompressedSize"), String.valueOf(partStream.getUncompressedSize()));
+        journal.setProperty(key(sheetNumber, "complete"), String.valueOf(complete));
+
+        // the journal is replaced in one go, so an interruption leaves either the old or the new journal
+        File temporaryFile = new File(checkpointFolder, JOURNAL_FILE_NAME + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(temporaryFile)) {
+            journal.store(outputStream, "Skinny .xlsx Writer checkpoint for " + targetFile.getName());
+            outputStream.getFD().sync();
+        }
+        Files.move(temporaryFile.toPath(), new File(checkpointFolder, JOURNAL_FILE_NAME).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeToFile() throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE);
+        try (ZipPackageWriter zipPackageWriter = new ZipPackageWriter(outputStream)) {
+            for (int sheetNumber = 1; sheetNumber <= sheetNames.size(); sheetNumber++) {
+                try (InputStream partInputStream = new FileInputStream(partFile(sheetNumber))) {
+                    zipPackageWriter.writeCompressedEntry(PackageParts.worksheetEntryName(sheetNumber), partInputStream,
+                            getLong(sheetNumber, "crc"), getLong(sheetNumber, "compressedSize"),
+                            getLong(sheetNumber, "uncompressedSize"));
+                }
+            }
+            zipPackageWriter.writeEntry(PackageParts.STYLES, PackageParts.styles());
+            zipPackageWriter.writeEntry(PackageParts.WORKBOOK, PackageParts.workbook(sheetNames));
+            zipPackageWriter.writeEntry(PackageParts.WORKBOOK_RELATIONSHIPS,
+                    PackageParts.workbookRelationships(sheetNames.size()));
+            zipPackageWriter.writeEntry(PackageParts.ROOT_RELATIONSHIPS, PackageParts.rootRelationships());
+            zipPackageWriter.writeEntry(PackageParts.CONTENT_TYPES, PackageParts.contentTypes(sheetNames.size()));
+        }
+    }
+
+    // The journal goes first: without it, leftover part files are never used again
+    private void cleanUp() throws IOException {
+        Files.delete(new File(checkpointFolder, JOURNAL_FILE_NAME).toPath());
+        for (int sheetNumber = 1; sheetNumber <= sheetNames.size(); sheetNumber++) {
+            Files.deleteIfExists(partFile(sheetNumber).toPath());
+        }
+        Files.delete(checkpointFolder.toPath());
+    }
+
+    private File partFile(int sheetNumber) {
+        return new File(checkpointFolder, "sheet" + sheetNumber + ".deflate");
+    }
+
+    private long getLong(int sheetNumber, String name) {
+        String value = journal.getProperty(key(sheetNumber, name));
+        if (value == null) {
+            throw new IllegalStateException("The checkpoint in " + checkpointFolder + " has no " + key(sheetNumber, name));
+        }
+        return Long.parseLong(value);
+    }
+
+    private static String key(int sheetNumber, String name) {
+        return "sheet." + sheetNumber + "." + name;
+    }
+
+    /**
+     * A workbook without any sheets is not a valid .xlsx file, so an empty sheet is added instead.
+     */
+
+    private static final class EmptySheetContent implements SkinnyResumableSheetContent {
+        @Override
+        public String getSheetName() {
+            return null;
+        }
+
+        @Override
+        public boolean hasColumnHeaders() {
+            return false;
+        }
+
+        @Override
+        public List<String> getColumnHeaders() {
+            return List.of();
+        }
+
+        @Override
+        public Iterator<List<String>> getContentRows(int firstRowIndex) {
+            return List.<List<String>>of().iterator();
+        }
+    }
+
+}
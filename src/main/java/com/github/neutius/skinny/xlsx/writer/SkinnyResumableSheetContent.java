@@ -0,0 +1,55 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This interface represents a single sheet to be added to a .xlsx file by the SkinnyResumableExport class. It is similar to
+ * SkinnySheetContent, except for the content rows: these can be requested starting at any row, so an interrupted export can
+ * continue where it left off.
+ * <p>
+ * Important note: each call to <code>getContentRows(int)</code> should return the same rows in the same order, otherwise a
+ * resumed export results in a file with inconsistent content.
+ */
+
+public interface SkinnyResumableSheetContent {
+
+    /**
+     * This method should return the name of the sheet to be added to the .xlsx file.
+     *
+     * @return The name of the sheet to be added. See <code>SkinnyWriter.addSheetToWorkbook(String)</code> for handling of edge
+     * cases.
+     */
+
+    String getSheetName();
+
+    /**
+     * This method informs the SkinnyResumableExport class whether or not column headers should be added.
+     *
+     * @return A boolean value, with "true" meaning "column headers should be added to the sheet", and "false" meaning the opposite.
+     */
+
+    boolean hasColumnHeaders();
+
+    /**
+     * This method should return all values for the column headers, if applicable. Each value should be a non-blank String value.
+     *
+     * @return A List of String values to be added, in order, as column headers.
+     * If <code>hasColumnHeaders()</code> returns false, this method will not be called, and no valid return value is required.
+     */
+
+    List<String> getColumnHeaders();
+
+    /**
+     * This method should return the content rows of the sheet, skipping the rows before <code>firstRowIndex</code>.
+     * A fresh export starts at row 0, a resumed export starts at the first row after the last checkpoint.
+     *
+     * @param firstRowIndex The zero-based index of the first content row to be returned. Column headers do not count as a
+     *                      content row.
+     * @return The content rows of the sheet, starting at <code>firstRowIndex</code>.
+     * Any combination of null values, empty Lists, and blank Strings is allowed.
+     */
+
+    Iterator<List<String>> getContentRows(int firstRowIndex);
+
+}
@@ -0,0 +1,242 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * A reusable, mutable representation of a single row. The basic use flow is as follows:
+ * <ol>
+ * <li>A row buffer is obtained from a writer, e.g. <code>SkinnyRawStreamer.getRowBuffer()</code>.</li>
+ * <li>Cell values are set by column index, in any order. Cells that are not set remain empty.</li>
+ * <li>Committing the row buffer adds the row to the bottom of the current sheet of the writer, and clears the row buffer,
+ * so it can be used for the next row.</li>
+ * </ol>
+ * <p>
+ * A writer always returns the same row buffer, and the row buffer only grows when a row has more cells than any row before.
+ * Writing rows this way does not require a new <code>List</code> for each row, and numeric values do not have to be converted
+ * to <code>String</code> first: they are added as numeric cells. Dates and times are added as numeric cells with a date format.
+ * <p>
+ * This class is not thread-safe, just like the writers it belongs to.
+ */
+
+public final class SkinnyRowBuffer {
+
+    static final byte EMPTY = 0;
+    static final byte TEXT = 1;
+    static final byte INTEGER = 2;
+    static final byte DECIMAL = 3;
+    static final byte DATE = 4;
+    static final byte DATE_TIME = 5;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final RowConsumer rowConsumer;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private long[] integers = new long[INITIAL_CAPACITY];
+    private double[] decimals = new double[INITIAL_CAPACITY];
+    private int cellAmount;
+
+    SkinnyRowBuffer(RowConsumer rowConsumer) {
+        this.rowConsumer = rowConsumer;
+    }
+
+    /**
+     * Sets a text value.
+     *
+     * @param columnIndex The zero-based index of the column.
+     * @param value       The text value of the cell. If null is passed in, the cell will remain empty.
+     * @return This row buffer, to allow chaining several calls.
+     * @throws IllegalArgumentException Will be thrown if the column index is negative or exceeds the maximum amount of columns.
+     */
+
+    public SkinnyRowBuffer set(int columnIndex, String value) {
+        if (value == null) {
+            return clear(columnIndex);
+        }
+        prepare(columnIndex, TEXT);
+        texts[columnIndex] = value;
+        return this;
+    }
+
+    /**
+     * Sets a numeric value.
+     *
+     * @param columnIndex The zero-based index of the column.
+     * @param value       The numeric value of the cell.
+     * @return This row buffer, to allow chaining several calls.
+     * @throws IllegalArgumentException Will be thrown if the column index is negative or exceeds the maximum amount of columns.
+     */
+
+    public SkinnyRowBuffer set(int columnIndex, long value) {
+        prepare(columnIndex, INTEGER);
+        integers[columnIndex] = value;
+        return this;
+    }
+
+    /**
+     * Sets a numeric value. NaN and infinite values cannot be represented in a .xlsx file and result in an error cell.
+     *
+     * @param columnIndex The zero-based index of the column.
+     * @param value       The numeric value of the cell.
+     * @return This row buffer, to allow chaining several calls.
+     * @throws IllegalArgumentException Will be thrown if the column index is negative or exceeds the maximum amount of columns.
+     */
+
+    public SkinnyRowBuffer set(int columnIndex, double value) {
+        prepare(columnIndex, DECIMAL);
+        decimals[columnIndex] = value;
+        return this;
+    }
+
+    /**
+     * Sets a date value, shown with a date format.
+     *
+     * @param columnIndex The zero-based index of the column.
+     * @param value       The date value of the cell. If null is passed in, the cell will remain empty.
+     * @return This row buffer, to allow chaining several calls.
+     * @throws IllegalArgumentException Will be thrown if the column index is negative or exceeds the maximum amount of columns,
+     *                                  or if the date is before 1900-01-01 or after 9999-12-31, which Excel cannot represent.
+     */
+
+    public SkinnyRowBuffer set(int columnIndex, LocalDate value) {
+        if (value == null) {
+            return clear(columnIndex);
+        }
+        long serialDate = ExcelDates.toSerialDate(value);
+        prepare(columnIndex, DATE);
+        integers[columnIndex] = serialDate;
+        return this;
+    }
+
+    /**
+     * Sets a date and time value, shown with a date and time format.
+     *
+     * @param columnIndex The zero-based index of the column.
+     * @param value       The date and time value of the cell. If null is passed in, the cell will remain empty.
+     * @return This row buffer, to allow chaining several calls.
+     * @throws IllegalArgumentException Will be thrown if the column index is negative or exceeds the maximum amount of columns,
+     *                                  or if the date is before 1900-01-01 or after 9999-12-31, which Excel cannot represent.
+     */
+
+    public SkinnyRowBuffer set(int columnIndex, LocalDateTime value) {
+        if (value == null) {
+            return clear(columnIndex);
+        }
+        double serialDate = ExcelDates.toSerialDate(value);
+        prepare(columnIndex, DATE_TIME);
+        decimals[columnIndex] = serialDate;
+        return this;
+    }
+
+    /**
+     * Sets an instant as date and time value in UTC, shown with a date and time format.
+     *
+     * @param columnIndex The zero-based index of the column.
+     * @param value       The instant value of the cell. If null is passed in, the cell will remain empty.
+     * @return This row buffer, to allow chaining several calls.
+     * @throws IllegalArgumentException Will be thrown if the column index is negative or exceeds the maximum amount of columns,
+     *                                  or if the date is before 1900-01-01 or after 9999-12-31, which Excel cannot represent.
+     */
+
+    public SkinnyRowBuffer set(int columnIndex, Instant value) {
+        if (value == null) {
+            return clear(columnIndex);
+        }
+        double serialDate = ExcelDates.toSerialDate(value);
+        prepare(columnIndex, DATE_TIME);
+        decimals[columnIndex] = serialDate;
+        return this;
+    }
+
+    /**
+     * Adds the current values as a new row to the bottom of the current sheet of the writer this row buffer belongs to,
+     * and clears all values afterwards. If no values have been set, an empty row is added.
+     *
+     * @throws IOException Any Exception that occurs while writing to the file will remain uncaught, as will any Exception
+     *                     thrown by the writer, e.g. when no sheet has been added yet. The values are cleared in any case.
+     */
+
+    public void commit() throws IOException {
+        try {
+            rowConsumer.accept(this);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Removes all values from this row buffer, without adding a row.
+     *
+     * @return This row buffer, to allow chaining several calls.
+     */
+
+    public SkinnyRowBuffer clear() {
+        Arrays.fill(types, 0, cellAmount, EMPTY);
+        Arrays.fill(texts, 0, cellAmount, null);
+        cellAmount = 0;
+        return this;
+    }
+
+    /**
+     * Returns the amount of cells of the row, i.e. the highest column index that has been set plus one.
+     *
+     * @return The amount of cells of the row, including any empty cells before the last cell that has been set.
+     */
+
+    public int getCellAmount() {
+        return cellAmount;
+    }
+
+    byte getType(int columnIndex) {
+        return types[columnIndex];
+    }
+
+    String getText(int columnIndex) {
+        return texts[columnIndex];
+    }
+
+    long getInteger(int columnIndex) {
+        return integers[columnIndex];
+    }
+
+    double getDecimal(int columnIndex) {
+        return decimals[columnIndex];
+    }
+
+    private SkinnyRowBuffer clear(int columnIndex) {
+        if (columnIndex < cellAmount) {
+            types[columnIndex] = EMPTY;
+            texts[columnIndex] = null;
+        }
+        return this;
+    }
+
+    private void prepare(int columnIndex, byte type) {
+        if (columnIndex < 0 || columnIndex >= SheetXmlWriter.MAX_COLUMN_AMOUNT) {
+            throw new IllegalArgumentException("Column index should be between 0 and " + SheetXmlWriter.MAX_COLUMN_AMOUNT
+                    + ", but was " + columnIndex);
+        }
+        if (columnIndex >= types.length) {
+            int capacity = Math.min(SheetXmlWriter.MAX_COLUMN_AMOUNT, Math.max(types.length * 2, columnIndex + 1));
+            types = Arrays.copyOf(types, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            integers = Arrays.copyOf(integers, capacity);
+            decimals = Arrays.copyOf(decimals, capacity);
+        }
+        if (type != TEXT) {
+            texts[columnIndex] = null;
+        }
+        types[columnIndex] = type;
+        cellAmount = Math.max(cellAmount, columnIndex + 1);
+    }
+
+    interface RowConsumer {
+        void accept(SkinnyRowBuffer rowBuffer) throws IOException;
+    }
+
+}
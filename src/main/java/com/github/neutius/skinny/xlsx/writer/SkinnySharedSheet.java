@@ -0,0 +1,254 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets many threads add rows to the same sheet of a SkinnyConcurrentWorkbook. Rows are added to one of several lock-free
+ * queues, chosen by thread, so threads hardly ever compete for the same queue. Whichever thread finds the sheet idle writes
+ * all waiting rows to it; the other threads return right away instead of waiting for it.
+ * <p>
+ * There are two ways to order the rows, chosen when the shared sheet is created:
+ * <ul>
+ * <li><code>inArrivalOrder(SkinnySheetHandle)</code> writes rows roughly in the order in which they are added. The rows of a
+ * single thread always keep their order.</li>
+ * <li><code>inSequenceOrder(SkinnySheetHandle)</code> writes rows in the order of the sequence numbers passed in with them,
+ * starting at 0, so the content of the sheet does not depend on timing. A row is kept in memory until all rows with lower
+ * sequence numbers have been added.</li>
+ * </ul>
+ * <p>
+ * Column headers should be added to the sheet handle before sharing it. Lists passed in should not be changed afterwards, as
+ * they may be written later. Closing the shared sheet writes any remaining rows and closes the sheet handle. When not all rows
+ * could be written, the sheet handle is abandoned instead, so the workbook does not write an incomplete sheet.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnySharedSheet implements Closeable {
+
+    private static final long ARRIVAL_ORDER = -1;
+
+    private final SkinnySheetHandle sheetHandle;
+    private final boolean sequenceOrder;
+    private final Queue<PendingRow>[] stripes;
+    private final int stripeMask;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // only used while holding the write lock
+    private final Map<Long, List<String>> waitingRows = new HashMap<>();
+    private long nextSequenceNumber;
+
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    /**
+     * @param sheetHandle The sheet to add rows to. The shared sheet takes over the handle, which should not be used directly
+     *                    anymore.
+     * @return A shared sheet that writes rows in the order in which they are added.
+     */
+
+    public static SkinnySharedSheet inArrivalOrder(SkinnySheetHandle sheetHandle) {
+        return new SkinnySharedSheet(sheetHandle, false);
+    }
+
+    /**
+     * @param sheetHandle The sheet to add rows to. The shared sheet takes over the handle, which should not be used directly
+     *                    anymore.
+     * @return A shared sheet that writes rows in the order of their sequence numbers.
+     */
+
+    public static SkinnySharedSheet inSequenceOrder(SkinnySheetHandle sheetHandle) {
+        return new SkinnySharedSheet(sheetHandle, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SkinnySharedSheet(SkinnySheetHandle sheetHandle, boolean sequenceOrder) {
+        this.sheetHandle = sheetHandle;
+        this.sequenceOrder = sequenceOrder;
+        int stripeAmount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        stripes = (Queue<PendingRow>[]) new Queue<?>[stripeAmount];
+        for (int stripeIndex = 0; stripeIndex < stripeAmount; stripeIndex++) {
+            stripes[stripeIndex] = new ConcurrentLinkedQueue<>();
+        }
+        stripeMask = stripeAmount - 1;
+    }
+
+    /**
+     * Adds a row to a shared sheet that writes rows in arrival order. Thread-safe.
+     *
+     * @param rowContent The Strings in this List will be added to the new row in the same order.
+     *                   If an empty List or null is passed in, the new row will remain empty.
+     *                   Null values result in empty cells.
+     * @throws IOException           Will be thrown when writing this row or an earlier row failed.
+     * @throws IllegalStateException Will be thrown when this shared sheet writes rows in sequence order, or has been closed.
+     */
+
+    public void addRow(List<String> rowContent) throws IOException {
+        if (sequenceOrder) {
+            throw new IllegalStateException("This shared sheet writes rows in sequence order: pass in a sequence number");
+        }
+        add(new PendingRow(ARRIVAL_ORDER, rowContent));
+    }
+
+    /**
+     * Adds a row to a shared sheet that writes rows in sequence order. Thread-safe.
+     *
+     * @param sequenceNumber The position of the row among the rows added to this shared sheet, starting at 0. Each sequence
+     *                       number should be used exactly once.
+     * @param rowContent     The Strings in this List will be added to the new row in the same order.
+     *                       If an empty List or null is passed in, the new row will remain empty.
+     *                       Null values result in empty cells.
+     * @throws IOException              Will be thrown when writing this row or an earlier row failed, e.g. because a sequence
+     *                                  number was used twice.
+     * @throws IllegalArgumentException Will be thrown when the sequence number is negative.
+     * @throws IllegalStateException    Will be thrown when this shared sheet writes rows in arrival order, or has been closed.
+     */
+
+    public void addRow(long sequenceNumber, List<String> rowContent) throws IOException {
+        if (!sequenceOrder) {
+            throw new IllegalStateException("This shared sheet writes rows in arrival order: leave out the sequence number");
+        }
+        if (sequenceNumber < 0) {
+            throw new IllegalArgumentException("Sequence numbers should not be negative, but was " + sequenceNumber);
+        }
+        add(new PendingRow(sequenceNumber, rowContent));
+    }
+
+    /**
+     * Writes all remaining rows, and closes the sheet handle. All threads should have finished adding rows. When writing a row
+     * failed, or sequence numbers are missing, the sheet handle is abandoned instead of closed. Calling this method more than
+     * once has no further effect.
+     *
+     * @throws IOException Will be thrown when writing a row failed, or when sequence numbers are missing.
+     */
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeSheetHandle();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the ordering of rows and the sheet handle.
+     */
+
+    @Override
+    public String toString() {
+        return String.format("SkinnySharedSheet - %s order - %s", sequenceOrder ? "sequence" : "arrival", sheetHandle);
+    }
+
+    private void closeSheetHandle() throws IOException {
+        boolean allRowsWritten = false;
+        try {
+            writePendingRows();
+            checkNoFailure();
+            if (!waitingRows.isEmpty()) {
+                throw new IOException("Missing row with sequence number " + nextSequenceNumber + ", "
+                        + waitingRows.size() + " rows with higher sequence numbers were not written");
+            }
+            allRowsWritten = true;
+        } finally {
+            if (allRowsWritten) {
+                sheetHandle.close();
+            } else {
+                sheetHandle.abandon();
+            }
+        }
+    }
+
+    private void add(PendingRow row) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("This shared sheet has already been closed");
+        }
+        checkNoFailure();
+        stripes[(int) Thread.currentThread().getId() & stripeMask].add(row);
+
+        // Rows added while another thread held the lock might have been missed by that thread, hence the loop
+        while (hasPendingRows() && writeLock.tryLock()) {
+            try {
+                writePendingRows();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        checkNoFailure();
+    }
+
+    private boolean hasPendingRows() {
+        for (Queue<PendingRow> stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writePendingRows() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            for (Queue<PendingRow> stripe : stripes) {
+                for (PendingRow row = stripe.poll(); row != null; row = stripe.poll()) {
+                    write(row);
+                }
+            }
+        } catch (IOException | RuntimeException exception) {
+            failure = exception;
+        }
+    }
+
+    private void write(PendingRow row) throws IOException {
+        if (!sequenceOrder) {
+            sheetHandle.addRow(row.rowContent);
+            return;
+        }
+        if (row.sequenceNumber < nextSequenceNumber || waitingRows.containsKey(row.sequenceNumber)) {
+            throw new IOException("Sequence number " + row.sequenceNumber + " has been used more than once");
+        }
+        if (row.sequenceNumber > nextSequenceNumber) {
+            waitingRows.put(row.sequenceNumber, row.rowContent);
+            return;
+        }
+        sheetHandle.addRow(row.rowContent);
+        nextSequenceNumber++;
+        while (waitingRows.containsKey(nextSequenceNumber)) {
+            sheetHandle.addRow(waitingRows.remove(nextSequenceNumber));
+            nextSequenceNumber++;
+        }
+    }
+
+    private void checkNoFailure() throws IOException {
+        Throwable currentFailure = failure;
+        if (currentFailure != null) {
+            throw new IOException("Writing rows to sheet failed: " + currentFailure.getMessage(), currentFailure);
+        }
+    }
+
+    private static final class PendingRow {
+        private final long sequenceNumber;
+        private final List<String> rowContent;
+
+        private PendingRow(long sequenceNumber, List<String> rowContent) {
+            this.sequenceNumber = sequenceNumber;
+            this.rowContent = rowContent;
+        }
+    }
+
+}
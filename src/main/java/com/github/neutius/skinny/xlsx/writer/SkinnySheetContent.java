@@ -49,4 +49,28 @@ public interface SkinnySheetContent {
 
     List<List<String>> getContentRows();
 
+    /**
+     * This method informs the writer how the column widths of the sheet should be adjusted to its content.
+     *
+     * @return The column width policy of the sheet, or null to use the default policy of the writer, which is
+     * <code>SkinnyColumnWidthPolicy.allRows()</code> for SkinnyWriter, and <code>SkinnyColumnWidthPolicy.firstRows(100)</code>
+     * for SkinnyStreamer. Unless overridden, this method returns null.
+     */
+
+    default SkinnyColumnWidthPolicy getColumnWidthPolicy() {
+        return null;
+    }
+
+    /**
+     * This method informs the writer which columns of the content rows contain numbers or dates, to be written as number cells
+     * and date cells instead of text cells. Column headers are always text.
+     *
+     * @return The column schema of the sheet, or null to write all values as text. Unless overridden, this method returns null.
+     * See SkinnyColumnSchema for the writers that use the schema.
+     */
+
+    default SkinnyColumnSchema getColumnSchema() {
+        return null;
+    }
+
 }
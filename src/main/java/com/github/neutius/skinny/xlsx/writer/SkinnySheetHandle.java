@@ -0,0 +1,180 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A single sheet of a SkinnyConcurrentWorkbook. Each sheet handle compresses its rows into a temporary file of its own, so
+ * handles of the same workbook can be used on different threads at the same time, without waiting for each other.
+ * <p>
+ * A sheet handle itself is not thread-safe: it should be used by one thread at a time. Closing the handle finishes the sheet.
+ * When the rows of a sheet could not be written completely, abandoning the handle instead makes sure the workbook does not
+ * write a .xlsx file that looks complete.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnySheetHandle implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final SkinnyConcurrentWorkbook workbook;
+    private final String sheetName;
+    private final MappedSpillStore spillStore;
+    private final SpillDeflaterOutputStream compressedSheet;
+    private final SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(SkinnyResourcePool.acquireByteSink(BUFFER_SIZE));
+    private final SkinnyRowBuffer rowBuffer = new SkinnyRowBuffer(this::addRowBuffer);
+
+    private boolean closed;
+    private volatile boolean abandoned;
+
+    SkinnySheetHandle(SkinnyConcurrentWorkbook workbook, String sheetName) throws IOException {
+        this.workbook = workbook;
+        this.sheetName = sheetName;
+        spillStore = new MappedSpillStore(File.createTempFile("skinny-sheet", ".deflate"));
+        compressedSheet = new SpillDeflaterOutputStream(spillStore, true);
+        sheetXmlWriter.beginSheet(compressedSheet);
+    }
+
+    /**
+     * Adds a column header row to the top of this sheet, with a bold font and a freeze pane.
+     *
+     * @param columnHeaderRow The List of String values to be added to the column header row.
+     * @throws IOException              Any Exception that occurs while writing to the temporary file will remain uncaught.
+     * @throws NullPointerException     Passing in any null value will result in a NullPointerException, which will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when any <code>String</code> value is blank.
+     * @throws IllegalStateException    Will be thrown when this sheet is not empty, or has already been closed.
+     */
+
+    public void addColumnHeaderRow(List<String> columnHeaderRow) throws IOException {
+        checkNotClosed();
+        sheetXmlWriter.writeColumnHeaderRow(columnHeaderRow);
+    }
+
+    /**
+     * Adds a new row at the bottom of this sheet.
+     *
+     * @param rowContent The Strings in this List will be added to the new row in the same order.
+     *                   If an empty List or null is passed in, the new row will remain empty.
+     *                   Null values result in empty cells.
+     * @throws IOException           Any Exception that occurs while writing to the temporary file will remain uncaught.
+     * @throws IllegalStateException Will be thrown when this sheet has already been closed.
+     */
+
+    public void addRow(List<String> rowContent) throws IOException {
+        checkNotClosed();
+        sheetXmlWriter.writeRow(rowContent);
+    }
+
+    /**
+     * Adds a new row at the bottom of this sheet, with cell values that are already encoded as UTF-8. See
+     * <code>SkinnyRawStreamer.addUtf8RowToCurrentSheet(byte[][], boolean)</code> for the meaning of <code>xmlSafe</code>.
+     *
+     * @param cells   The UTF-8 encoded cell values, in column order.
+     *                If an empty array or null is passed in, the new row will remain empty. Null values result in empty cells.
+     * @param xmlSafe Whether the values can be copied into the sheet XML without escaping.
+     * @throws IOException           Any Exception that occurs while writing to the temporary file will remain uncaught.
+     * @throws IllegalStateException Will be thrown when this sheet has already been closed.
+     */
+
+    public void addUtf8Row(byte[][] cells, boolean xmlSafe) throws IOException {
+        checkNotClosed();
+        sheetXmlWriter.writeUtf8Row(cells, xmlSafe);
+    }
+
+    /**
+     * Returns the reusable row buffer of this sheet. Committing the row buffer adds a row to the bottom of this sheet. This
+     * method always returns the same instance.
+     *
+     * @return The row buffer of this sheet.
+     */
+
+    public SkinnyRowBuffer getRowBuffer() {
+        return rowBuffer;
+    }
+
+    /**
+     * Finishes this sheet. The sheet is added to the workbook when the workbook is closed. Calling this method more than once has
+     * no further effect.
+     *
+     * @throws IOException Any Exception that occurs while writing to the temporary file will remain uncaught.
+     */
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (compressedSheet) {
+            sheetXmlWriter.endSheet();
+        } finally {
+            sheetXmlWriter.releaseSink();
+        }
+        workbook.sheetClosed(this);
+    }
+
+    /**
+     * Marks this sheet as failed, e.g. because its content could not be computed, and closes it. Closing the workbook will then
+     * delete the .xlsx file and throw an IOException, instead of writing a file with an incomplete sheet. This method can also
+     * be called after the sheet has been closed.
+     *
+     * @throws IOException Any Exception that occurs while writing to the temporary file will remain uncaught.
+     */
+
+    public void abandon() throws IOException {
+        abandoned = true;
+        close();
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the name of this sheet, and its amount of rows and columns.
+     */
+
+    @Override
+    public String toString() {
+        return String.format("SkinnySheetHandle - sheet '%s' has %s rows and %s columns",
+                sheetName, sheetXmlWriter.getRowAmount(), sheetXmlWriter.getColumnAmount());
+    }
+
+    String getSheetName() {
+        return sheetName;
+    }
+
+    boolean isAbandoned() {
+        return abandoned;
+    }
+
+    long getCrc() {
+        return compressedSheet.getCrc();
+    }
+
+    long getUncompressedSize() {
+        return compressedSheet.getUncompressedSize();
+    }
+
+    void transferCompressedSheetTo(OutputStream output) throws IOException {
+        spillStore.transferTo(output);
+    }
+
+    void deleteTemporaryFile() throws IOException {
+        spillStore.close();
+    }
+
+    private void addRowBuffer(SkinnyRowBuffer committedRow) throws IOException {
+        checkNotClosed();
+        sheetXmlWriter.writeRow(committedRow);
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Sheet '" + sheetName + "' has already been closed");
+        }
+    }
+
+}
@@ -0,0 +1,292 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.zip.Deflater;
+
+/**
+ * An upfront estimate of the resources needed to write a .xlsx file, without writing it. This class has a private constructor
+ * and two static factory methods:
+ * <ul>
+ * <li><code>forSheets(List&lt;SkinnySheetContent&gt;)</code> samples the content rows of each sheet.</li>
+ * <li><code>forSample(List&lt;String&gt;, List&lt;List&lt;String&gt;&gt;, long)</code> uses a sample of rows and the expected
+ * amount of rows of a single sheet, for content that is not available in memory yet.</li>
+ * </ul>
+ * <p>
+ * The sample rows are actually serialized and compressed, so the file size and the size of the sheet XML are usually within a
+ * few percent of the real sizes, as long as the sample is representative. The heap size of <code>SkinnyWriter</code> is
+ * derived from the retained heap of the Apache POI object model, measured with Apache POI 4.1.2 on a 64-bit JVM with
+ * compressed object pointers. For text content it is usually within 20% of the real size, but other JVMs and other versions
+ * of Apache POI can differ. The heap size of <code>SkinnyStreamer</code> is a rough indication only. Heap sizes do not
+ * include the content itself, which is held in memory by the caller anyway, nor the one-time initialization of Apache POI
+ * when it is first used.
+ * <p>
+ * Note that <code>SkinnyWriter</code> uses a shared strings table: its files and its heap can be considerably smaller than
+ * estimated when many cell values are repeated.
+ */
+
+public final class SkinnySizeEstimate {
+
+    static final int MAX_SAMPLE_ROWS = 1000;
+
+    private static final long PACKAGE_OVERHEAD_BYTES = 4_000;
+    private static final long ZIP_ENTRY_OVERHEAD_BYTES = 150;
+    private static final long XSSF_BYTES_PER_ROW = 450;
+    private static final long XSSF_BYTES_PER_CELL = 1_050;
+    private static final long XSSF_BYTES_PER_CHARACTER = 4;
+    private static final long SXSSF_WINDOW_ROWS = 100;
+    private static final long SXSSF_BYTES_PER_ROW = 150;
+    private static final long SXSSF_BYTES_PER_CELL = 200;
+    private static final long SXSSF_BYTES_PER_CHARACTER = 2;
+    private static final long RAW_STREAMER_HEAP_BYTES = 3L << 16;
+
+    private final long compressedFileSize;
+    private final long uncompressedSheetSize;
+    private final long skinnyWriterHeapSize;
+    private final long skinnyStreamerHeapSize;
+    private final long skinnyStreamerTempFileSize;
+
+    /**
+     * Estimates the resources needed to write the sheets passed in. For each sheet, at most 1000 content rows are sampled,
+     * evenly spread over the sheet if the List of content rows supports fast random access.
+     *
+     * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
+     *                         Each object in the List represents a sheet to be added to the .xlsx file.
+     * @return The estimate for a .xlsx file with all sheets passed in.
+     */
+
+    public static SkinnySizeEstimate forSheets(List<SkinnySheetContent> sheetContentList) {
+        SkinnySizeEstimate result = new SkinnySizeEstimate(PACKAGE_OVERHEAD_BYTES, 0, 0, 0, 0);
+        for (SkinnySheetContent sheetContent : sheetContentList) {
+            List<String> columnHeaders = sheetContent.hasColumnHeaders() ? sheetContent.getColumnHeaders() : null;
+            List<List<String>> contentRows = sheetContent.getContentRows();
+            result = result.plus(estimateSheet(columnHeaders, sampleRows(contentRows), contentRows.size()));
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the resources needed to write a .xlsx file with a single sheet, based on a sample of the content rows.
+     *
+     * @param columnHeaders The column headers of the sheet, or null if the sheet has no column header row.
+     * @param sampleRows    A representative sample of the content rows, e.g. the first 1000 rows.
+     * @param rowAmount     The expected total amount of content rows of the sheet.
+     * @return The estimate for a .xlsx file with a single sheet.
+     */
+
+    public static SkinnySizeEstimate forSample(List<String> columnHeaders, List<List<String>> sampleRows, long rowAmount) {
+        return new SkinnySizeEstimate(PACKAGE_OVERHEAD_BYTES, 0, 0, 0, 0)
+                .plus(estimateSheet(columnHeaders, sampleRows, rowAmount));
+    }
+
+    private SkinnySizeEstimate(long compressedFileSize, long uncompressedSheetSize, long skinnyWriterHeapSize,
+                               long skinnyStreamerHeapSize, long skinnyStreamerTempFileSize) {
+        this.compressedFileSize = compressedFileSize;
+        this.uncompressedSheetSize = uncompressedSheetSize;
+        this.skinnyWriterHeapSize = skinnyWriterHeapSize;
+        this.skinnyStreamerHeapSize = skinnyStreamerHeapSize;
+        this.skinnyStreamerTempFileSize = skinnyStreamerTempFileSize;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the .xlsx file, e.g. for a Content-Length header.
+     *
+     * @return The estimated size in bytes.
+     */
+
+    public long getCompressedFileSize() {
+        return compressedFileSize;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the XML of all sheets, before compression.
+     *
+     * @return The estimated size in bytes.
+     */
+
+    public long getUncompressedSheetSize() {
+        return uncompressedSheetSize;
+    }
+
+    /**
+     * Returns the estimated peak heap in bytes used by <code>SkinnyWriter</code>, which keeps the whole workbook in memory.
+     *
+     * @return The estimated peak heap in bytes.
+     */
+
+    public long getSkinnyWriterHeapSize() {
+        return skinnyWriterHeapSize;
+    }
+
+    /**
+     * Returns the estimated peak heap in bytes used by <code>SkinnyStreamer</code>, which keeps a window of rows in memory.
+     * <p>
+     * This is a rough figure for the row window only. The buffers that are used to flush rows are not included: they often
+     * take more heap than the window itself, and vary too much from one flush to the next to be estimated.
+     *
+     * @return The estimated peak heap in bytes.
+     */
+
+    public long getSkinnyStreamerHeapSize() {
+        return skinnyStreamerHeapSize;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the temporary files <code>SkinnyStreamer</code> needs while writing.
+     * All temporary files exist at the same time, until the .xlsx file has been written.
+     * <p>
+     * The rows of each sheet are spilled compressed, into a temporary file that grows in segments of 4 MB. The estimate is
+     * therefore the compressed size of the rows of each sheet, rounded up to whole segments.
+     *
+     * @return The estimated size in bytes.
+     */
+
+    public long getSkinnyStreamerTempFileSize() {
+        return skinnyStreamerTempFileSize;
+    }
+
+    /**
+     * Returns the estimated peak heap in bytes used by <code>SkinnyRawStreamer</code>, which only uses fixed size buffers.
+     *
+     * @return The estimated peak heap in bytes.
+     */
+
+    public long getSkinnyRawStreamerHeapSize() {
+        return RAW_STREAMER_HEAP_BYTES;
+    }
+
+    /**
+     * Returns a String representation, including all estimated sizes.
+     *
+     * @return A String representation, containing all estimated sizes in bytes.
+     */
+
+    @Override
+    public String toString() {
+        return String.format("SkinnySizeEstimate - file size: %s bytes - sheet XML: %s bytes - SkinnyWriter heap: %s bytes "
+                        + "- SkinnyStreamer heap: %s bytes - SkinnyStreamer temp files: %s bytes", compressedFileSize,
+                uncompressedSheetSize, skinnyWriterHeapSize, skinnyStreamerHeapSize, skinnyStreamerTempFileSize);
+    }
+
+    private SkinnySizeEstimate plus(SkinnySizeEstimate other) {
+        return new SkinnySizeEstimate(compressedFileSize + other.compressedFileSize,
+                uncompressedSheetSize + other.uncompressedSheetSize,
+                skinnyWriterHeapSize + other.skinnyWriterHeapSize,
+                Math.max(skinnyStreamerHeapSize, other.skinnyStreamerHeapSize),
+                skinnyStreamerTempFileSize + other.skinnyStreamerTempFileSize);
+    }
+
+    static List<List<String>> sampleRows(List<List<String>> contentRows) {
+        if (contentRows.size() <= MAX_SAMPLE_ROWS) {
+            return contentRows;
+        }
+        if (!(contentRows instanceof RandomAccess)) {
+            return contentRows.subList(0, MAX_SAMPLE_ROWS);
+        }
+        List<List<String>> sample = new ArrayList<>(MAX_SAMPLE_ROWS);
+        double stride = (double) contentRows.size() / MAX_SAMPLE_ROWS;
+        for (int index = 0; index < MAX_SAMPLE_ROWS; index++) {
+            sample.add(contentRows.get((int) (index * stride)));
+        }
+        return sample;
+    }
+
+    private static SkinnySizeEstimate estimateSheet(List<String> columnHeaders, List<List<String>> sampleRows, long rowAmount) {
+        byte[] emptySheet = serialize(columnHeaders, Collections.emptyList());
+        byte[] sampleSheet = serialize(columnHeaders, sampleRows);
+
+        long sampleCells = 0;
+        long sampleCharacters = 0;
+        for (List<String> row : sampleRows) {
+            if (row != null) {
+                sampleCells += row.size();
+                sampleCharacters += row.stream().mapToLong(value -> value == null ? 0 : value.length()).sum();
+            }
+        }
+
+        int sampleSize = Math.max(1, sampleRows.size());
+        double bytesPerRow = (double) (sampleSheet.length - emptySheet.length) / sampleSize;
+        double cellsPerRow = (double) sampleCells / sampleSize;
+        double charactersPerRow = (double) sampleCharacters / sampleSize;
+
+        // every row number is written once for the row and once for each cell reference
+        int headerRows = columnHeaders == null ? 0 : 1;
+        double extraDigits = averageDigits(rowAmount + headerRows) - averageDigits(sampleRows.size() + headerRows);
+        bytesPerRow += sampleRows.isEmpty() ? 0 : extraDigits * (cellsPerRow + 2);
+
+        long uncompressedSize = emptySheet.length + Math.round(bytesPerRow * rowAmount);
+        double compressionRatio = (double) compressedSize(sampleSheet) / sampleSheet.length;
+        long compressedSheetSize = Math.round(uncompressedSize * compressionRatio);
+        long compressedSize = compressedSheetSize + ZIP_ENTRY_OVERHEAD_BYTES;
+
+        long cells = Math.round(cellsPerRow * rowAmount);
+        long characters = Math.round(charactersPerRow * rowAmount);
+        long skinnyWriterHeap = rowAmount * XSSF_BYTES_PER_ROW + cells * XSSF_BYTES_PER_CELL
+                + characters * XSSF_BYTES_PER_CHARACTER;
+        long windowRows = Math.min(rowAmount, SXSSF_WINDOW_ROWS);
+        long skinnyStreamerHeap = Math.round(windowRows * (SXSSF_BYTES_PER_ROW + cellsPerRow * SXSSF_BYTES_PER_CELL
+                + charactersPerRow * SXSSF_BYTES_PER_CHARACTER));
+
+        return new SkinnySizeEstimate(compressedSize, uncompressedSize, skinnyWriterHeap, skinnyStreamerHeap,
+                roundUpToSegments(compressedSheetSize));
+    }
+
+    // the spill file of a sheet is mapped a whole segment at a time, and always has at least one segment
+    private static long roundUpToSegments(long size) {
+        long segmentSize = MappedSpillStore.DEFAULT_SEGMENT_SIZE;
+        return Math.max(1, (size + segmentSize - 1) / segmentSize) * segmentSize;
+    }
+
+    private static byte[] serialize(List<String> columnHeaders, List<List<String>> rows) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SheetXmlWriter sheetXmlWriter = new SheetXmlWriter(new ByteSink(1 << 12));
+        try {
+            sheetXmlWriter.beginSheet(outputStream);
+            if (columnHeaders != null) {
+                sheetXmlWriter.writeColumnHeaderRow(columnHeaders);
+            }
+            for (List<String> row : rows) {
+                sheetXmlWriter.writeRow(row);
+            }
+            sheetXmlWriter.endSheet();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static long compressedSize(byte[] bytes) {
+        Deflater deflater = SkinnyResourcePool.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[1 << 13];
+            long size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(buffer);
+            }
+            return size;
+        } finally {
+            SkinnyResourcePool.releaseDeflater(deflater);
+        }
+    }
+
+    // the average amount of decimal digits of the numbers 1 up to and including the amount passed in
+    private static double averageDigits(long amount) {
+        if (amount <= 0) {
+            return 0;
+        }
+        long digits = 0;
+        long lowerBound = 1;
+        for (int length = 1; lowerBound <= amount; length++, lowerBound *= 10) {
+            digits += (Math.min(amount, lowerBound * 10 - 1) - lowerBound + 1) * length;
+        }
+        return (double) digits / amount;
+    }
+
+}
@@ -4,27 +4,43 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.xssf.streaming.SXSSFCell;
 import org.apache.poi.xssf.streaming.SXSSFRow;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 
 /**
- * This class has a single public static method that writes a .xlsx file to disk
+ * This class has a public static method that writes a .xlsx file to disk, and can also be used as a streaming writer that
+ * writes a .xlsx file one row at a time.
  * <p>
- * This class uses the Apache POI SXSSF streaming API to improve performance.
+ * This class uses the Apache POI SXSSF streaming API to improve performance. SXSSF keeps a window of the most recent rows of a
+ * sheet in memory, and flushes older rows to a temporary file. The streaming writer offers control over this window: its size
+ * can be set for the whole workbook and for each sheet, rows can be flushed at any moment, e.g. at the end of a batch, and the
+ * amount of rows still in memory can be requested. When a sheet is finished, its rows are flushed.
+ * <p>
+ * Closing the streaming writer writes the .xlsx file to disk, and removes the temporary files.
  * <p>
  * This class is currently in beta.
  */
 
-public final class SkinnyStreamer {
+public final class SkinnyStreamer implements Closeable {
+    private static final SkinnyColumnWidthPolicy DEFAULT_COLUMN_WIDTH_POLICY = SkinnyColumnWidthPolicy.firstRows(100);
+    private static final int DEFAULT_ROW_WINDOW_SIZE = 100;
+    private static final int UNLIMITED_ROW_WINDOW = -1;
+    private static final String WRITER_NAME = "SkinnyStreamer";
+
     private final File targetFile;
-    private final SXSSFWorkbook workbook;
+    private final SpillingWorkbook workbook;
     private final CellStyle columnHeaderCellStyle;
+    private final SkinnyEvents.ExportEvent exportEvent = new SkinnyEvents.ExportEvent();
 
-    private int currentColumnAmount = 1;
+    private SXSSFSheet currentSheet;
+    private ColumnWidthTracker columnWidthTracker;
+    private long rowAmount;
+    private long cellAmount;
+    private boolean closed;
 
     /**
      * Offers basically the same functionality as the SkinnyWriter method of the same name - there might be some small differences.
@@ -40,95 +56,290 @@ public final class SkinnyStreamer {
      *                         If null or an empty String is passed in, the file will be given a name.
      * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
      *                         Each object in the List represents a sheet to be added to the .xlsx file.
+     *                         The content rows of a sheet are requested when that sheet is written, and are not kept afterwards,
+     *                         so with LazySheetContent only the rows of one sheet have to be in memory at a time.
      * @throws IOException Any Exception occurring while writing to the file system will remain uncaught.
      */
 
     public static void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList) throws IOException {
-        SkinnyStreamer streamer = new SkinnyStreamer(targetFolder, fileName);
-        streamer.addSeveralSheetsToWorkbook(sheetContentList);
-        streamer.writeToFile();
-        streamer.cleanUp();
+        try (SkinnyStreamer streamer = new SkinnyStreamer(targetFolder, fileName)) {
+            for (SkinnySheetContent content : sheetContentList) {
+                streamer.addSheetToWorkbook(content);
+            }
+        }
     }
 
-    private SkinnyStreamer(File targetFolder, String fileName) {
+    /**
+     * Creates a streaming writer that keeps the 100 most recent rows of each sheet in memory. The .xlsx file is written when this
+     * streamer is closed. A sheet has to be added before any column headers or content rows can be added.
+     * <p>
+     * Warning: if the target directory already has a .xlsx file with the same base name,
+     * it will be overwritten with no further warning.
+     *
+     * @param targetFolder The target directory where the .xlsx file will be written to. Must be an existing directory.
+     * @param fileName     The base name of the .xlsx that will be written.
+     *                     No extension needed, this constructor automatically adds the .xlsx extension, without checking if an
+     *                     extension is already present, e.g. passing in "myFile.xlsx" will result in a file named "myFile.xlsx.xlsx".
+     *                     If null or an empty String is passed in, the file will be given a name.
+     */
+
+    public SkinnyStreamer(File targetFolder, String fileName) {
+        this(targetFolder, fileName, DEFAULT_ROW_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a streaming writer with the row window size passed in, for all sheets. See the other constructor.
+     *
+     * @param targetFolder  The target directory where the .xlsx file will be written to. Must be an existing directory.
+     * @param fileName      The base name of the .xlsx that will be written, see the other constructor.
+     * @param rowWindowSize The amount of most recent rows of a sheet that are kept in memory, before older rows are flushed
+     *                      automatically. Pass in -1 to flush rows only when requested, or when the sheet is finished.
+     * @throws IllegalArgumentException Will be thrown when the row window size is 0 or smaller than -1.
+     */
+
+    public SkinnyStreamer(File targetFolder, String fileName, int rowWindowSize) {
+        exportEvent.begin();
+        checkRowWindowSize(rowWindowSize);
         targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.EXTENSION);
-        workbook = new SXSSFWorkbook();
-        columnHeaderCellStyle = SkinnyUtil.createColumnHeaderCellStyle(workbook);
+        workbook = new SpillingWorkbook(rowWindowSize);
+        columnHeaderCellStyle = SkinnyPoiUtil.createColumnHeaderCellStyle(workbook);
     }
 
-    private void addSeveralSheetsToWorkbook(List<SkinnySheetContent> sheetContentList) {
-        for (SkinnySheetContent content : sheetContentList) {
-                addSheetToWorkbook(content);
-        }
+    /**
+     * Finishes the current sheet (if any) and starts a new one. The rows of the finished sheet are flushed, and its column widths
+     * are adjusted according to the default column width policy.
+     *
+     * @param sheetName The name of the sheet to be added to the .xlsx file.
+     *                  If null or a blank String is passed in, the sheet will be given a name.
+     *                  If the passed in String consists of more than 31 characters, only the first 31 characters will be used.
+     *                  If a sheet with the same name is already present, a unique name will be provided.
+     * @throws IOException              Any Exception that occurs while flushing the rows of the finished sheet will remain
+     *                                  uncaught.
+     * @throws IllegalArgumentException Will be thrown if the sheet name contains a character that is not allowed by Excel.
+     * @throws IllegalStateException    Will be thrown when this streamer has already been closed.
+     */
+
+    public void addSheetToWorkbook(String sheetName) throws IOException {
+        addSheetToWorkbook(sheetName, null);
     }
 
-    private void addSheetToWorkbook(SkinnySheetContent content) {
-        SXSSFSheet currentSheet = workbook.createSheet(SkinnyUtil.sanitizeSheetName(content.getSheetName(), workbook));
-        if (content.hasColumnHeaders()) {
-            addColumnHeaderRow(currentSheet, content.getColumnHeaders());
+    /**
+     * Adds a sheet with the column headers (if any) and content rows of the SkinnySheetContent passed in, and its column width
+     * policy (if any). The sheet remains the current sheet, so more rows can be added to it.
+     *
+     * @param sheetContent Any implementation of this interface should provide the name of the sheet to be added, whether column
+     *                     headers should be added to the sheet, the values for the column headers (if applicable),
+     *                     and the content rows to be added to the sheet.
+     * @throws IOException Any Exception that occurs while flushing rows will remain uncaught.
+     */
+
+    public void addSheetToWorkbook(SkinnySheetContent sheetContent) throws IOException {
+        addSheetToWorkbook(sheetContent.getSheetName(), sheetContent.getColumnWidthPolicy());
+        if (sheetContent.hasColumnHeaders()) {
+            addColumnHeaderRowToCurrentSheet(sheetContent.getColumnHeaders());
+        }
+        for (List<String> contentRow : sheetContent.getContentRows()) {
+            addRowToCurrentSheet(contentRow);
         }
-        addContentRows(currentSheet, content.getContentRows());
     }
 
-    private void addColumnHeaderRow(SXSSFSheet currentSheet, List<String> columnHeaders) {
-        SXSSFRow headerRow = currentSheet.createRow(currentSheet.getPhysicalNumberOfRows());
+    /**
+     * Adds a column header row to the top of the current sheet, with a bold font and a freeze pane.
+     *
+     * @param columnHeaderRow The List of String values to be added to the column header row.
+     * @throws IOException           Any Exception that occurs while flushing rows will remain uncaught.
+     * @throws NullPointerException  Passing in null will result in a NullPointerException, which will remain uncaught.
+     * @throws IllegalStateException Will be thrown when the current sheet is not empty, or when no sheet has been added.
+     */
 
-        for (String text : columnHeaders) {
+    public void addColumnHeaderRowToCurrentSheet(List<String> columnHeaderRow) throws IOException {
+        checkSheetIsOpen();
+        if (currentSheet.getPhysicalNumberOfRows() > 0) {
+            throw new IllegalStateException("Column headers can only be added to an empty sheet");
+        }
+        SXSSFRow headerRow = currentSheet.createRow(0);
+
+        for (String text : columnHeaderRow) {
             SXSSFCell cell = headerRow.createCell(headerRow.getPhysicalNumberOfCells());
             cell.setCellValue(text);
             cell.setCellStyle(columnHeaderCellStyle);
         }
 
-        keepTrackOfColumnAmount(columnHeaders);
         currentSheet.createFreezePane(0, 1);
+        columnWidthTracker.addColumnHeaderRow(headerRow);
+        rowAmount++;
+        cellAmount += columnHeaderRow.size();
     }
 
-    private void addContentRows(SXSSFSheet currentSheet, List<List<String>> contentRows) {
-        for (List<String> contentRow : contentRows) {
-            addContentRow(currentSheet, contentRow);
-        }
+    /**
+     * Adds a new row at the bottom of the current sheet. When the row window of the sheet is full, the oldest row is flushed.
+     *
+     * @param rowContent The Strings in this List will be added to the new row in the same order.
+     *                   If an empty List or null is passed in, the new row will remain empty.
+     *                   Null values result in empty cells.
+     * @throws IOException           Any Exception that occurs while flushing rows will remain uncaught.
+     * @throws IllegalStateException Will be thrown when no sheet has been added.
+     */
 
-        if (currentSheet.getPhysicalNumberOfRows() < 100) {
-            adjustColumnSizes(currentSheet);
+    public void addRowToCurrentSheet(List<String> rowContent) throws IOException {
+        checkSheetIsOpen();
+        SXSSFRow row = currentSheet.createRow(currentSheet.getPhysicalNumberOfRows());
+
+        if (rowContent != null) {
+            for (String text : rowContent) {
+                SXSSFCell cell = row.createCell(row.getPhysicalNumberOfCells());
+                cell.setCellValue(text);
+            }
+            cellAmount += rowContent.size();
         }
+        rowAmount++;
+
+        // Rows are measured right away, because they might be flushed before the sheet is finished
+        columnWidthTracker.addContentRow(row);
     }
 
-    private void addContentRow(SXSSFSheet currentSheet, List<String> contentRow) {
-        if (contentRow == null) {
-            currentSheet.createRow(currentSheet.getPhysicalNumberOfRows());
-            return;
+    /**
+     * Sets the row window size of the current sheet, i.e. the amount of most recent rows that are kept in memory before older
+     * rows are flushed automatically. Sheets that are added later use the row window size of the workbook again. Making the
+     * window smaller does not flush any rows right away: see <code>flushRows(int)</code>.
+     *
+     * @param rowWindowSize The amount of most recent rows to keep in memory. Pass in -1 to flush rows only when requested, or
+     *                      when the sheet is finished.
+     * @throws IllegalArgumentException Will be thrown when the row window size is 0 or smaller than -1.
+     * @throws IllegalStateException    Will be thrown when no sheet has been added.
+     */
+
+    public void setRowWindowSize(int rowWindowSize) {
+        checkRowWindowSize(rowWindowSize);
+        checkSheetIsOpen();
+        currentSheet.setRandomAccessWindowSize(rowWindowSize);
+    }
+
+    /**
+     * Flushes all rows of the current sheet that are still in memory to the temporary file.
+     *
+     * @throws IOException           Any Exception that occurs while flushing rows will remain uncaught.
+     * @throws IllegalStateException Will be thrown when no sheet has been added.
+     */
+
+    public void flushRows() throws IOException {
+        flushRows(0);
+    }
+
+    /**
+     * Flushes the rows of the current sheet that are still in memory to the temporary file, except for the most recent ones.
+     *
+     * @param keep The amount of most recent rows to keep in memory.
+     * @throws IOException              Any Exception that occurs while flushing rows will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when the amount of rows to keep is negative.
+     * @throws IllegalStateException    Will be thrown when no sheet has been added.
+     */
+
+    public void flushRows(int keep) throws IOException {
+        if (keep < 0) {
+            throw new IllegalArgumentException("The amount of rows to keep should not be negative, not " + keep);
         }
+        checkSheetIsOpen();
+        currentSheet.flushRows(keep);
+    }
 
-        SXSSFRow row = currentSheet.createRow(currentSheet.getPhysicalNumberOfRows());
+    /**
+     * @return The amount of rows of the current sheet that are still in memory. Rows of earlier sheets have all been flushed.
+     * If no sheet has been added, 0 is returned.
+     */
 
-        for (String text : contentRow) {
-            SXSSFCell cell = row.createCell(row.getPhysicalNumberOfCells());
-            cell.setCellValue(text);
+    public int getBufferedRowAmount() {
+        if (currentSheet == null) {
+            return 0;
         }
+        return currentSheet.getPhysicalNumberOfRows() - workbook.getFlushedRowAmount(currentSheet);
+    }
 
-        keepTrackOfColumnAmount(contentRow);
+    /**
+     * Finishes the current sheet, writes the .xlsx file to disk and removes the temporary files. The temporary files are also
+     * removed if writing fails. Calling this method more than once has no further effect.
+     *
+     * @throws IOException Any Exception occurring while writing to the file system will remain uncaught.
+     */
 
-        if (currentSheet.getPhysicalNumberOfRows() == 100) {
-            adjustColumnSizes(currentSheet);
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
         }
+        closed = true;
+        try {
+            finishCurrentSheet();
+            writeToFile();
+            exportEvent.end();
+            if (exportEvent.shouldCommit()) {
+                exportEvent.writer = WRITER_NAME;
+                exportEvent.targetFile = targetFile.getPath();
+                exportEvent.sheetAmount = workbook.getNumberOfSheets();
+                exportEvent.rowAmount = rowAmount;
+                exportEvent.cellAmount = cellAmount;
+                exportEvent.fileSize = targetFile.length();
+                exportEvent.commit();
+            }
+        } finally {
+            cleanUp();
+        }
+    }
+
+    /**
+     * Returns a String representation, including information considered useful for debugging or logging.
+     *
+     * @return A String representation, containing the current amount of sheets, and the amount of rows on the current sheet,
+     * in total and in memory.
+     */
 
+    @Override
+    public String toString() {
+        return String.format("SkinnyStreamer - current amount of sheets: %s - current sheet has %s rows, %s of which are in memory",
+                workbook.getNumberOfSheets(), currentSheet == null ? 0 : currentSheet.getPhysicalNumberOfRows(),
+                getBufferedRowAmount());
     }
 
-    private void keepTrackOfColumnAmount(List<String> rowAdded) {
-        currentColumnAmount = Math.max(rowAdded.size(), currentColumnAmount);
+    private void addSheetToWorkbook(String sheetName, SkinnyColumnWidthPolicy columnWidthPolicy) throws IOException {
+        checkNotClosed();
+        String sanitizedSheetName = SkinnyPoiUtil.sanitizeSheetName(sheetName, workbook);
+        finishCurrentSheet();
+
+        currentSheet = workbook.createSheet(sanitizedSheetName);
+        columnWidthTracker = new ColumnWidthTracker(
+                columnWidthPolicy == null ? DEFAULT_COLUMN_WIDTH_POLICY : columnWidthPolicy, currentSheet);
+
+        SkinnyEvents.SheetCreatedEvent event = new SkinnyEvents.SheetCreatedEvent();
+        if (event.shouldCommit()) {
+            event.writer = WRITER_NAME;
+            event.sheetName = sanitizedSheetName;
+            event.sheetIndex = workbook.getSheetIndex(currentSheet);
+            event.commit();
+        }
     }
 
-    private void adjustColumnSizes(SXSSFSheet currentSheet) {
-        currentSheet.trackAllColumnsForAutoSizing();
-        SkinnyUtil.adjustColumnSizesInCurrentSheet(currentSheet, currentColumnAmount);
-        currentSheet.untrackAllColumnsForAutoSizing();
+    private void finishCurrentSheet() throws IOException {
+        if (currentSheet != null) {
+            columnWidthTracker.applyTo(currentSheet);
+            currentSheet.flushRows(0);
+        }
     }
 
     private void writeToFile() throws IOException {
+        SkinnyEvents.PackageWriteEvent event = new SkinnyEvents.PackageWriteEvent();
+        event.begin();
         targetFile.createNewFile();
-        FileOutputStream outputStream = new FileOutputStream(targetFile);
-        workbook.write(outputStream);
-        outputStream.close();
+        try (FileOutputStream outputStream = new FileOutputStream(targetFile)) {
+            workbook.write(outputStream);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.writer = WRITER_NAME;
+            event.targetFile = targetFile.getPath();
+            event.sheetAmount = workbook.getNumberOfSheets();
+            event.fileSize = targetFile.length();
+            event.commit();
+        }
     }
 
     // Note that SXSSF allocates temporary files that you must always clean up explicitly, by calling the dispose method.
@@ -136,4 +347,23 @@ public final class SkinnyStreamer {
         workbook.dispose();
     }
 
+    private void checkSheetIsOpen() {
+        checkNotClosed();
+        if (currentSheet == null) {
+            throw new IllegalStateException("A sheet should be added before adding column headers or rows");
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("This streamer has already been closed");
+        }
+    }
+
+    private static void checkRowWindowSize(int rowWindowSize) {
+        if (rowWindowSize == 0 || rowWindowSize < UNLIMITED_ROW_WINDOW) {
+            throw new IllegalArgumentException("The row window size should be at least 1, or -1, not " + rowWindowSize);
+        }
+    }
+
 }
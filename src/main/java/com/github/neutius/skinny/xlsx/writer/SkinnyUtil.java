@@ -1,16 +1,19 @@
 package com.github.neutius.skinny.xlsx.writer;
 
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
 
+/**
+ * Helper methods shared by all writers. This class does not use Apache POI, so the writers that do not use Apache POI either
+ * can run without it, e.g. in a GraalVM native image. Helper methods for Apache POI workbooks are in SkinnyPoiUtil.
+ */
+
 class SkinnyUtil {
 
     static final String EXTENSION = ".xlsx";
+    static final String XLSB_EXTENSION = ".xlsb";
+    static final int MAX_SHEET_NAME_LENGTH = 31;
 
     private SkinnyUtil() {
         // nope
@@ -24,33 +27,49 @@ class SkinnyUtil {
         return fileName;
     }
 
-    static String sanitizeSheetName(String sheetName, Workbook workbook) {
+    /**
+     * Same rules as <code>SkinnyPoiUtil.sanitizeSheetName(String, Workbook)</code>, for writers that do not use an Apache POI
+     * workbook. Like Apache POI, this method truncates names longer than 31 characters and refuses characters Excel does not
+     * allow.
+     */
+
+    static String sanitizeSheetName(String sheetName, Collection<String> existingSheetNames) {
+        String result;
         if (sheetName == null || sheetName.isBlank()) {
-            return "Sheet_" + (workbook.getNumberOfSheets() + 1);
-        }
-        if (workbook.getSheet(sheetName) != null) {
-            return sheetName + '_' + (workbook.getNumberOfSheets() + 1);
+            result = uniqueSheetName("Sheet", existingSheetNames);
+        } else if (containsIgnoreCase(existingSheetNames, truncateSheetName(sheetName))) {
+            result = uniqueSheetName(sheetName, existingSheetNames);
+        } else {
+            result = truncateSheetName(sheetName);
         }
 
-        return sheetName;
+        for (char character : result.toCharArray()) {
+            if ("/\\?*[]:".indexOf(character) >= 0) {
+                throw new IllegalArgumentException("Invalid character '" + character + "' in sheet name: " + sheetName);
+            }
+        }
+        if (result.startsWith("'") || result.endsWith("'")) {
+            throw new IllegalArgumentException("Sheet name cannot start or end with an apostrophe: " + sheetName);
+        }
+        return result;
     }
 
-    static void adjustColumnSizesInCurrentSheet(Sheet currentSheet, int currentColumnAmount) {
-        if (currentSheet == null) {
-            return;
+    // Counts up from the amount of sheets plus one, until the suffixed name is not in use yet
+    private static String uniqueSheetName(String baseName, Collection<String> existingSheetNames) {
+        for (int number = existingSheetNames.size() + 1; ; number++) {
+            String suffix = "_" + number;
+            String result = baseName.substring(0, Math.min(baseName.length(), MAX_SHEET_NAME_LENGTH - suffix.length())) + suffix;
+            if (!containsIgnoreCase(existingSheetNames, result)) {
+                return result;
+            }
         }
+    }
 
-        for (int index = 0; index < currentColumnAmount; index++) {
-            currentSheet.autoSizeColumn(index);
-        }
+    private static String truncateSheetName(String sheetName) {
+        return sheetName.length() > MAX_SHEET_NAME_LENGTH ? sheetName.substring(0, MAX_SHEET_NAME_LENGTH) : sheetName;
     }
 
-    static CellStyle createColumnHeaderCellStyle(Workbook workbook) {
-        Font columnHeaderFont = workbook.createFont();
-        columnHeaderFont.setBold(true);
-        CellStyle style = workbook.createCellStyle();
-        style.setFont(columnHeaderFont);
-        style.setWrapText(false);
-        return style;
+    private static boolean containsIgnoreCase(Collection<String> names, String name) {
+        return names.stream().anyMatch(name::equalsIgnoreCase);
     }
 }
@@ -0,0 +1,224 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combines the sheets of several .xlsx files into a single .xlsx file, without loading the files. This class has a single
+ * public static method.
+ * <p>
+ * Worksheets are copied raw, i.e. still compressed, whenever the indexes they contain remain valid in the combined file. That is
+ * the case for all files written by SkinnyRawStreamer, SkinnyConcurrentWorkbook and SkinnyResumableExport, which share the
+ * same styles and do not use a shared strings table, and for files written by the same Apache POI based writer with the same
+ * styles, as long as at most one of them uses a shared strings table. Other worksheets are inflated, their style indexes and
+ * shared string indexes are moved, and they are compressed again. So are selected worksheets, such as the first sheet of a file
+ * written by SkinnyWriter or SkinnyStreamer, unless they become the first sheet of the combined file.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnyWorkbookMerger {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SkinnyWorkbookMerger() {
+        // nope
+    }
+
+    /**
+     * Writes a .xlsx file with the sheets of the source files, in the order of the source files and in the order of the sheets
+     * within each source file.
+     * <p>
+     * The style sheets of the source files are combined, as are their shared strings tables. Sheet names are kept, except when
+     * a name is already in use: the same rules apply as for adding sheets with the other writers. Only the first sheet of the
+     * combined file is kept selected, so the sheets are not grouped when the file is opened. Only the sheets themselves
+     * are combined: anything the sheets refer to through relationships of their own, such as drawings or comments, is not
+     * supported. Document properties of the source files are not copied.
+     * <p>
+     * Warning: if the target directory already has a .xlsx file with the same base name,
+     * it will be overwritten with no further warning.
+     *
+     * @param targetFolder The target location for the .xlsx file
+     * @param fileName     The base name of the .xlsx that will be written.
+     *                     No extension needed, this method automatically adds the .xlsx extension, without checking if an
+     *                     extension is already present, e.g. passing in "myFile.xlsx" will result in a file named "myFile.xlsx.xlsx".
+     *                     If null or an empty String is passed in, the file will be given a name.
+     * @param sourceFiles  The .xlsx files to combine. None of them should be the target file.
+     * @throws IOException Will be thrown when a source file cannot be read or is not a supported .xlsx file, or when writing the
+     *                     target file fails.
+     */
+
+    public static void mergeFiles(File targetFolder, String fileName, List<File> sourceFiles) throws IOException {
+        List<SourcePackage> sourcePackages = new ArrayList<>();
+        try {
+            for (File sourceFile : sourceFiles) {
+                sourcePackages.add(SourcePackage.open(sourceFile));
+            }
+            File targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.EXTENSION);
+            try (ZipPackageWriter zipPackageWriter = new ZipPackageWriter(
+                    new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE))) {
+                writePackage(zipPackageWriter, sourcePackages);
+            }
+        } finally {
+            for (SourcePackage sourcePackage : sourcePackages) {
+                sourcePackage.reader.close();
+            }
+        }
+    }
+
+    private static void writePackage(ZipPackageWriter zipPackageWriter, List<SourcePackage> sourcePackages)
+            throws IOException {
+        MergedStyles mergedStyles = new MergedStyles();
+        StringBuilder stringItems = new StringBuilder();
+        int uniqueStringCount = 0;
+        long stringReferenceCount = 0;
+        List<String> sheetNames = new ArrayList<>();
+
+        for (SourcePackage sourcePackage : sourcePackages) {
+            int styleOffset = mergedStyles.add(sourcePackage.styles);
+            int sharedStringOffset = 0;
+            if (sourcePackage.sharedStrings != null) {
+                String prefix = PackageXml.prefixOf(sourcePackage.sharedStrings, "sst", PackageParts.SHARED_STRINGS);
+                List<String> sourceStringItems = PackageXml.children(sourcePackage.sharedStrings, prefix + "sst",
+                        prefix + "si");
+                sharedStringOffset = sourceStringItems.isEmpty() ? 0 : uniqueStringCount;
+                for (String stringItem : sourceStringItems) {
+                    stringItems.append(PackageXml.withoutPrefix(stringItem, prefix));
+                    uniqueStringCount++;
+                }
+                stringReferenceCount += Long.parseLong(PackageXml.elements(sourcePackage.sharedStrings, "sst").get(0)
+                        .getOrDefault("count", "0"));
+            }
+
+            for (int sheetIndex = 0; sheetIndex < sourcePackage.sheetNames.size(); sheetIndex++) {
+                sheetNames.add(SkinnyUtil.sanitizeSheetName(sourcePackage.sheetNames.get(sheetIndex), sheetNames));
+                String entryName = PackageParts.worksheetEntryName(sheetNames.size());
+                ZipPackageReader.Entry worksheet = sourcePackage.worksheets.get(sheetIndex);
+                // only the first sheet may stay selected, as Excel groups all selected sheets
+                boolean clearTabSelected = sheetNames.size() > 1;
+                if (styleOffset == 0 && sharedStringOffset == 0
+                        && !(clearTabSelected && isTabSelected(sourcePackage.reader, worksheet))) {
+                    zipPackageWriter.copyEntry(entryName, worksheet.getMethod(),
+                            compressedOutput -> sourcePackage.reader.transferRawContent(worksheet, compressedOutput),
+                            worksheet.getCrc(), worksheet.getCompressedSize(), worksheet.getUncompressedSize());
+                } else {
+                    try (InputStream worksheetContent = sourcePackage.reader.openContent(worksheet)) {
+                        WorksheetRemapper.remap(worksheetContent, zipPackageWriter.beginEntry(entryName, null), styleOffset,
+                                sharedStringOffset, clearTabSelected);
+                    }
+                    zipPackageWriter.closeEntry();
+                }
+            }
+        }
+
+        boolean sharedStrings = uniqueStringCount > 0;
+        zipPackageWriter.writeEntry(PackageParts.STYLES, mergedStyles.toBytes());
+        if (sharedStrings) {
+            zipPackageWriter.writeEntry(PackageParts.SHARED_STRINGS,
+                    PackageParts.sharedStrings(stringItems, stringReferenceCount, uniqueStringCount));
+        }
+        zipPackageWriter.writeEntry(PackageParts.WORKBOOK, PackageParts.workbook(sheetNames));
+        zipPackageWriter.writeEntry(PackageParts.WORKBOOK_RELATIONSHIPS,
+                PackageParts.workbookRelationships(sheetNames.size(), sharedStrings));
+        zipPackageWriter.writeEntry(PackageParts.ROOT_RELATIONSHIPS, PackageParts.rootRelationships());
+        zipPackageWriter.writeEntry(PackageParts.CONTENT_TYPES, PackageParts.contentTypes(sheetNames.size(), sharedStrings));
+    }
+
+    private static boolean isTabSelected(ZipPackageReader reader, ZipPackageReader.Entry worksheet) throws IOException {
+        try (InputStream worksheetContent = reader.openContent(worksheet)) {
+            return WorksheetRemapper.isTabSelected(worksheetContent);
+        }
+    }
+
+    /**
+     * The parts of a source file that are needed to combine its sheets: the sheet names and worksheet entries in workbook order,
+     * the style sheet and the shared strings table.
+     */
+
+    private static final class SourcePackage {
+        private final ZipPackageReader reader;
+        private final List<String> sheetNames = new ArrayList<>();
+        private final List<ZipPackageReader.Entry> worksheets = new ArrayList<>();
+        private String styles;
+        private String sharedStrings;
+
+        private SourcePackage(ZipPackageReader reader) {
+            this.reader = reader;
+        }
+
+        private static SourcePackage open(File file) throws IOException {
+            ZipPackageReader reader = ZipPackageReader.open(file);
+            SourcePackage sourcePackage = new SourcePackage(reader);
+            try {
+                sourcePackage.readParts(file);
+                return sourcePackage;
+            } catch (IOException | RuntimeException exception) {
+                reader.close();
+                throw exception;
+            }
+        }
+
+        private void readParts(File file) throws IOException {
+            String officeDocument = PackageXml.relationshipTarget(readPart(PackageParts.ROOT_RELATIONSHIPS, file),
+                    "officeDocument");
+            if (officeDocument == null) {
+                throw new IOException("Not a .xlsx file: no workbook part found in " + file);
+            }
+            String workbookName = PackageXml.resolve("", officeDocument);
+            String workbookDirectory = workbookName.substring(0, workbookName.lastIndexOf('/') + 1);
+            String workbook = readPart(workbookName, file);
+            String workbookRelationships = readPart(workbookDirectory + "_rels/"
+                    + workbookName.substring(workbookDirectory.length()) + ".rels", file);
+
+            Map<String, String> targets = new HashMap<>();
+            for (Map<String, String> relationship : PackageXml.elements(workbookRelationships, "Relationship")) {
+                targets.put(relationship.get("Id"), relationship.get("Target"));
+            }
+            String relationshipIdAttribute = PackageXml.relationshipIdAttribute(workbook);
+            for (Map<String, String> sheet : PackageXml.elements(workbook, "sheet")) {
+                String target = targets.get(sheet.get(relationshipIdAttribute));
+                if (target == null) {
+                    throw new IOException("No worksheet found for sheet " + sheet.get("name") + " in " + file);
+                }
+                String worksheetName = PackageXml.resolve(workbookDirectory, target);
+                int nameStart = worksheetName.lastIndexOf('/') + 1;
+                if (reader.getEntry(worksheetName.substring(0, nameStart) + "_rels/" + worksheetName.substring(nameStart)
+                        + ".rels") != null) {
+                    throw new IOException("Sheets with relationships of their own are not supported: sheet " + sheet.get("name")
+                            + " in " + file);
+                }
+                sheetNames.add(sheet.get("name"));
+                worksheets.add(requireEntry(worksheetName, file));
+            }
+
+            String stylesTarget = PackageXml.relationshipTarget(workbookRelationships, "styles");
+            styles = stylesTarget == null ? new String(PackageParts.styles(), StandardCharsets.UTF_8)
+                    : readPart(PackageXml.resolve(workbookDirectory, stylesTarget), file);
+            String sharedStringsTarget = PackageXml.relationshipTarget(workbookRelationships, "sharedStrings");
+            if (sharedStringsTarget != null) {
+                sharedStrings = readPart(PackageXml.resolve(workbookDirectory, sharedStringsTarget), file);
+            }
+        }
+
+        private String readPart(String partName, File file) throws IOException {
+            return new String(reader.readContent(requireEntry(partName, file)), StandardCharsets.UTF_8);
+        }
+
+        private ZipPackageReader.Entry requireEntry(String partName, File file) throws IOException {
+            ZipPackageReader.Entry entry = reader.getEntry(partName);
+            if (entry == null) {
+                throw new IOException("Not a .xlsx file: package part " + partName + " is missing in " + file);
+            }
+            return entry;
+        }
+    }
+
+}
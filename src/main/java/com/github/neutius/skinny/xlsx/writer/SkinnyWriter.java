@@ -1,5 +1,6 @@
 package com.github.neutius.skinny.xlsx.writer;
 
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
@@ -11,8 +12,12 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Extremely simple and light-weight writer for .xlsx files. The basic use flow is as follows:
@@ -42,19 +47,31 @@ import java.util.Map;
 
 public final class SkinnyWriter {
 
+    private static final String DATE_FORMAT = "m/d/yy";
+    private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+    private static final String WRITER_NAME = "SkinnyWriter";
+
     private final File targetFile;
     private final CellStyle columnHeaderCellStyle;
-
+    private final CellStyle dateCellStyle;
+    private final CellStyle dateTimeCellStyle;
+    private final SkinnyRowBuffer rowBuffer = new SkinnyRowBuffer(this::addRowBufferToCurrentSheet);
 
     private XSSFWorkbook workbook;
+    private SkinnyEvents.ExportEvent exportEvent = new SkinnyEvents.ExportEvent();
+    private long rowAmount;
+    private long cellAmount;
     private XSSFCellStyle currentCellStyle;
     private XSSFFont columnHeaderFont = new XSSFFont();
     private XSSFSheet currentSheet;
+    private ColumnWidthTracker columnWidthTracker;
+    private boolean currentSheetHasColumnHeaders;
     private int currentColumnAmount;
     private int rowIndex;
 
     {
         columnHeaderFont.setBold(true);
+        exportEvent.begin();
     }
 
     /**
@@ -101,7 +118,9 @@ public final class SkinnyWriter {
     public SkinnyWriter(File targetFolder, String fileName) {
         targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.EXTENSION);
         workbook = new XSSFWorkbook();
-        columnHeaderCellStyle = SkinnyUtil.createColumnHeaderCellStyle(workbook);
+        columnHeaderCellStyle = SkinnyPoiUtil.createColumnHeaderCellStyle(workbook);
+        dateCellStyle = SkinnyPoiUtil.createDateCellStyle(workbook, DATE_FORMAT);
+        dateTimeCellStyle = SkinnyPoiUtil.createDateCellStyle(workbook, DATE_TIME_FORMAT);
     }
 
     /**
@@ -126,7 +145,9 @@ public final class SkinnyWriter {
     public SkinnyWriter(File targetFolder, String fileName, String firstSheetName) throws IOException {
         targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.EXTENSION);
         workbook = new XSSFWorkbook();
-        columnHeaderCellStyle = SkinnyUtil.createColumnHeaderCellStyle(this.workbook);
+        columnHeaderCellStyle = SkinnyPoiUtil.createColumnHeaderCellStyle(this.workbook);
+        dateCellStyle = SkinnyPoiUtil.createDateCellStyle(workbook, DATE_FORMAT);
+        dateTimeCellStyle = SkinnyPoiUtil.createDateCellStyle(workbook, DATE_TIME_FORMAT);
         createNewSheet(firstSheetName);
         writeToFile();
     }
@@ -181,6 +202,10 @@ public final class SkinnyWriter {
         }
 
         currentSheet.createFreezePane(0, 1);
+        columnWidthTracker.addColumnHeaderRow(headerColumnRow);
+        rowAmount++;
+        cellAmount += columnHeaderRow.size();
+        currentSheetHasColumnHeaders = true;
     }
 
     /**
@@ -197,17 +222,49 @@ public final class SkinnyWriter {
     public void addRowToCurrentSheet(List<String> rowContent) {
         XSSFRow currentSheetRow = currentSheet.createRow(rowIndex++);
 
-        if (rowContent == null) {
-            return;
+        if (rowContent != null) {
+            currentColumnAmount = Math.max(rowContent.size(), currentColumnAmount);
+            cellAmount += rowContent.size();
+
+            for (int index = 0; index < rowContent.size(); index++) {
+                XSSFCell currentCell = currentSheetRow.createCell(index);
+                currentCell.setCellValue(rowContent.get(index));
+                currentCell.setCellStyle(currentCellStyle);
+            }
         }
 
-        currentColumnAmount = Math.max(rowContent.size(), currentColumnAmount);
+        columnWidthTracker.addContentRow(currentSheetRow);
+        rowAmount++;
+    }
 
-        for (int index = 0; index < rowContent.size(); index++) {
-            XSSFCell currentCell = currentSheetRow.createCell(index);
-            currentCell.setCellValue(rowContent.get(index));
-            currentCell.setCellStyle(currentCellStyle);
-        }
+    /**
+     * Returns the reusable row buffer of this writer. Committing the row buffer creates a new row at the bottom of the current
+     * sheet, with the values of the row buffer. Numeric values are added as numeric cells.
+     * <p>
+     * This method always returns the same instance, so adding rows this way does not require a new List for each row.
+     *
+     * @return The row buffer of this writer.
+     */
+
+    public SkinnyRowBuffer getRowBuffer() {
+        return rowBuffer;
+    }
+
+    /**
+     * Sets the column width policy of the current sheet. Each new sheet starts with
+     * <code>SkinnyColumnWidthPolicy.allRows()</code>, which adjusts the column widths to every row.
+     * <p>
+     * The policy can be changed at any time: any rows already added to the current sheet are measured again.
+     *
+     * @param columnWidthPolicy The column width policy for the current sheet. If null is passed in, the default policy is used.
+     * @throws NullPointerException Calling this method before any sheet has been added will result in a NullPointerException,
+     *                              which will remain uncaught.
+     */
+
+    public void setColumnWidthPolicy(SkinnyColumnWidthPolicy columnWidthPolicy) {
+        columnWidthTracker = new ColumnWidthTracker(columnWidthPolicy == null ? SkinnyColumnWidthPolicy.allRows()
+                : columnWidthPolicy, currentSheet);
+        columnWidthTracker.addExistingRows(currentSheet, currentSheetHasColumnHeaders);
     }
 
     /**
@@ -228,6 +285,100 @@ public final class SkinnyWriter {
         }
     }
 
+    /**
+     * Adds several new rows at the bottom of the current sheet. The rows are checked once for the whole block, before any row is
+     * added, which makes this faster than adding the rows one by one.
+     *
+     * @param rows The rows to be added, each row with its cell values in column order.
+     *             Null rows and empty rows result in empty rows.
+     * @throws IllegalArgumentException Will be thrown when a row has more cells than a sheet can contain.
+     * @throws IllegalStateException    Will be thrown when the rows do not fit on the current sheet.
+     * @throws NullPointerException     Calling this method before any sheet has been added will result in a
+     *                                  NullPointerException, which will remain uncaught.
+     */
+
+    public void addSeveralRowsToCurrentSheet(String[][] rows) {
+        startBlock(rows.length, widestRow(rows));
+        for (String[] row : rows) {
+            XSSFRow currentSheetRow = currentSheet.createRow(rowIndex++);
+            if (row != null) {
+                for (int index = 0; index < row.length; index++) {
+                    XSSFCell currentCell = currentSheetRow.createCell(index);
+                    currentCell.setCellValue(row[index]);
+                    currentCell.setCellStyle(currentCellStyle);
+                }
+                cellAmount += row.length;
+            }
+            columnWidthTracker.addContentRow(currentSheetRow);
+        }
+    }
+
+    /**
+     * Adds several new rows at the bottom of the current sheet, like <code>addSeveralRowsToCurrentSheet(String[][])</code>.
+     * Numbers are added as numeric cells, LocalDate, LocalDateTime and Instant values as date cells (an Instant in UTC), and any
+     * other value as the text of <code>String.valueOf(Object)</code>.
+     *
+     * @param rows The rows to be added, each row with its cell values in column order.
+     *             Null rows and empty rows result in empty rows. Null values result in empty cells.
+     * @throws IllegalArgumentException Will be thrown when a row has more cells than a sheet can contain, or when a date cannot
+     *                                  be represented by Excel.
+     * @throws IllegalStateException    Will be thrown when the rows do not fit on the current sheet.
+     * @throws NullPointerException     Calling this method before any sheet has been added will result in a
+     *                                  NullPointerException, which will remain uncaught.
+     */
+
+    public void addSeveralRowsToCurrentSheet(Object[][] rows) {
+        startBlock(rows.length, widestRow(rows));
+        for (Object[] row : rows) {
+            XSSFRow currentSheetRow = currentSheet.createRow(rowIndex++);
+            if (row != null) {
+                for (int index = 0; index < row.length; index++) {
+                    Object value = row[index];
+                    if (value == null) {
+                        continue;
+                    }
+                    setCellValue(currentSheetRow.createCell(index), value);
+                    cellAmount++;
+                }
+            }
+            columnWidthTracker.addContentRow(currentSheetRow);
+        }
+    }
+
+    /**
+     * Adds a rectangular block of rows at the bottom of the current sheet. The cell values are stored row after row in a single
+     * array, e.g. the first <code>columnAmount</code> values make up the first row.
+     *
+     * @param cells        The cell values of all rows.
+     * @param columnAmount The amount of cells in each row.
+     * @throws IllegalArgumentException Will be thrown when the amount of columns is smaller than 1 or larger than a sheet can
+     *                                  contain, or when the amount of cells is not a multiple of the amount of columns.
+     * @throws IllegalStateException    Will be thrown when the rows do not fit on the current sheet.
+     * @throws NullPointerException     Calling this method before any sheet has been added will result in a
+     *                                  NullPointerException, which will remain uncaught.
+     */
+
+    public void addSeveralRowsToCurrentSheet(String[] cells, int columnAmount) {
+        if (columnAmount < 1) {
+            throw new IllegalArgumentException("The amount of columns should be at least 1, not " + columnAmount);
+        }
+        if (cells.length % columnAmount != 0) {
+            throw new IllegalArgumentException("The amount of cells (" + cells.length + ") should be a multiple of the amount "
+                    + "of columns (" + columnAmount + ")");
+        }
+        startBlock(cells.length / columnAmount, columnAmount);
+        for (int rowStart = 0; rowStart < cells.length; rowStart += columnAmount) {
+            XSSFRow currentSheetRow = currentSheet.createRow(rowIndex++);
+            for (int index = 0; index < columnAmount; index++) {
+                XSSFCell currentCell = currentSheetRow.createCell(index);
+                currentCell.setCellValue(cells[rowStart + index]);
+                currentCell.setCellStyle(currentCellStyle);
+            }
+            columnWidthTracker.addContentRow(currentSheetRow);
+        }
+        cellAmount += cells.length;
+    }
+
     /**
      * Add a new sheet to the .xlsx file.
      * <p>
@@ -240,7 +391,7 @@ public final class SkinnyWriter {
      */
 
     public void addSheetToWorkbook(String sheetName) {
-        SkinnyUtil.adjustColumnSizesInCurrentSheet(currentSheet, currentColumnAmount);
+        adjustColumnWidthsInCurrentSheet();
         createNewSheet(sheetName);
     }
 
@@ -262,6 +413,9 @@ public final class SkinnyWriter {
 
     public void addSheetToWorkbook(SkinnySheetContent sheetContent) {
         addSheetToWorkbook(sheetContent.getSheetName());
+        if (sheetContent.getColumnWidthPolicy() != null) {
+            setColumnWidthPolicy(sheetContent.getColumnWidthPolicy());
+        }
         if (sheetContent.hasColumnHeaders()) {
             addColumnHeaderRowToCurrentSheet(sheetContent.getColumnHeaders());
         }
@@ -364,17 +518,30 @@ public final class SkinnyWriter {
      * Writes a new .xlsx file on the file system with all added sheets and rows, writing over any previous version.
      * <p>
      * This is a basic method, that is called by the constructor when writing an empty .xlsx file with a single sheet.
+     * <p>
+     * Each call ends a Flight Recorder Export event, which covers the time since the writer was created or last written.
      *
      * @throws IOException Any Exception that occurs while creating a file on the file system or writing to this file
      *                     will remain uncaught.
      */
 
     public void writeToFile() throws IOException {
-        SkinnyUtil.adjustColumnSizesInCurrentSheet(currentSheet, currentColumnAmount);
+        adjustColumnWidthsInCurrentSheet();
+        SkinnyEvents.PackageWriteEvent event = new SkinnyEvents.PackageWriteEvent();
+        event.begin();
         targetFile.createNewFile();
         FileOutputStream outputStream = new FileOutputStream(targetFile);
         workbook.write(outputStream);
         outputStream.close();
+        event.end();
+        if (event.shouldCommit()) {
+            event.writer = WRITER_NAME;
+            event.targetFile = targetFile.getPath();
+            event.sheetAmount = workbook.getNumberOfSheets();
+            event.fileSize = targetFile.length();
+            event.commit();
+        }
+        commitExportEvent();
     }
 
     /**
@@ -391,12 +558,119 @@ public final class SkinnyWriter {
                 currentSheet.getPhysicalNumberOfRows(), currentColumnAmount);
     }
 
+    private void addRowBufferToCurrentSheet(SkinnyRowBuffer committedRow) {
+        XSSFRow currentSheetRow = currentSheet.createRow(rowIndex++);
+        int bufferCellAmount = committedRow.getCellAmount();
+        currentColumnAmount = Math.max(bufferCellAmount, currentColumnAmount);
+
+        for (int index = 0; index < bufferCellAmount; index++) {
+            byte type = committedRow.getType(index);
+            if (type == SkinnyRowBuffer.EMPTY) {
+                continue;
+            }
+            XSSFCell currentCell = currentSheetRow.createCell(index);
+            CellStyle cellStyle = currentCellStyle;
+            if (type == SkinnyRowBuffer.TEXT) {
+                currentCell.setCellValue(committedRow.getText(index));
+            } else if (type == SkinnyRowBuffer.INTEGER) {
+                currentCell.setCellValue(committedRow.getInteger(index));
+            } else if (type == SkinnyRowBuffer.DATE) {
+                currentCell.setCellValue(committedRow.getInteger(index));
+                cellStyle = dateCellStyle;
+            } else if (type == SkinnyRowBuffer.DATE_TIME) {
+                currentCell.setCellValue(committedRow.getDecimal(index));
+                cellStyle = dateTimeCellStyle;
+            } else {
+                currentCell.setCellValue(committedRow.getDecimal(index));
+            }
+            currentCell.setCellStyle(cellStyle);
+            this.cellAmount++;
+        }
+        columnWidthTracker.addContentRow(currentSheetRow);
+        rowAmount++;
+    }
+
+    // Checks a whole block of rows at once, so the rows themselves can be added without any checks
+    private void startBlock(int blockRowAmount, int blockColumnAmount) {
+        Objects.requireNonNull(currentSheet, "A sheet should be added before adding rows");
+        SpreadsheetVersion version = SpreadsheetVersion.EXCEL2007;
+        if (blockColumnAmount > version.getMaxColumns()) {
+            throw new IllegalArgumentException("A row cannot contain more than " + version.getMaxColumns() + " cells");
+        }
+        if (blockRowAmount > version.getMaxRows() - rowIndex) {
+            throw new IllegalStateException("A sheet cannot contain more than " + version.getMaxRows() + " rows");
+        }
+        currentColumnAmount = Math.max(blockColumnAmount, currentColumnAmount);
+        rowAmount += blockRowAmount;
+    }
+
+    private void setCellValue(XSSFCell cell, Object value) {
+        CellStyle cellStyle = currentCellStyle;
+        if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue(ExcelDates.toSerialDate((LocalDate) value));
+            cellStyle = dateCellStyle;
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue(ExcelDates.toSerialDate((LocalDateTime) value));
+            cellStyle = dateTimeCellStyle;
+        } else if (value instanceof Instant) {
+            cell.setCellValue(ExcelDates.toSerialDate((Instant) value));
+            cellStyle = dateTimeCellStyle;
+        } else {
+            cell.setCellValue(String.valueOf(value));
+        }
+        cell.setCellStyle(cellStyle);
+    }
+
+    private static int widestRow(Object[][] rows) {
+        int widestRow = 0;
+        for (Object[] row : rows) {
+            if (row != null) {
+                widestRow = Math.max(row.length, widestRow);
+            }
+        }
+        return widestRow;
+    }
+
+    // An event can only be committed once, so a later write is covered by a new event
+    private void commitExportEvent() {
+        exportEvent.end();
+        if (exportEvent.shouldCommit()) {
+            exportEvent.writer = WRITER_NAME;
+            exportEvent.targetFile = targetFile.getPath();
+            exportEvent.sheetAmount = workbook.getNumberOfSheets();
+            exportEvent.rowAmount = rowAmount;
+            exportEvent.cellAmount = cellAmount;
+            exportEvent.fileSize = targetFile.length();
+            exportEvent.commit();
+        }
+        exportEvent = new SkinnyEvents.ExportEvent();
+        exportEvent.begin();
+    }
+
+    private void adjustColumnWidthsInCurrentSheet() {
+        if (currentSheet != null) {
+            columnWidthTracker.applyTo(currentSheet);
+        }
+    }
+
     private void createNewSheet(String sheetName) {
-        currentSheet = workbook.createSheet(SkinnyUtil.sanitizeSheetName(sheetName, workbook));
+        currentSheet = workbook.createSheet(SkinnyPoiUtil.sanitizeSheetName(sheetName, workbook));
         currentCellStyle = workbook.createCellStyle();
         currentCellStyle.setWrapText(false);
+        columnWidthTracker = new ColumnWidthTracker(SkinnyColumnWidthPolicy.allRows(), currentSheet);
+        currentSheetHasColumnHeaders = false;
         currentColumnAmount = 0;
         rowIndex = 0;
+
+        SkinnyEvents.SheetCreatedEvent event = new SkinnyEvents.SheetCreatedEvent();
+        if (event.shouldCommit()) {
+            event.writer = WRITER_NAME;
+            event.sheetName = currentSheet.getSheetName();
+            event.sheetIndex = workbook.getSheetIndex(currentSheet);
+            event.commit();
+        }
     }
 
 }
@@ -0,0 +1,77 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes .xlsb files: Excel binary workbooks, which store the same content as .xlsx files in BIFF12 records instead of XML.
+ * Excel opens these files considerably faster, and they are usually smaller. This class does not use Apache POI, and has a
+ * single public static method.
+ * <p>
+ * The content of the sheets is the same as with the other writers: column headers are written with a bold font and a freeze
+ * pane, and all cell values are text. Column widths are based on the column headers only, like with SkinnyRawStreamer: no
+ * auto-sizing based on content takes place. Each cell has its own string, so no shared strings table is kept in memory.
+ * <p>
+ * This class is made final to prevent sub-classing. Copying and adjusting the source code is permitted.
+ */
+
+public final class SkinnyXlsbWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SkinnyXlsbWriter() {
+        // nope
+    }
+
+    /**
+     * Offers basically the same functionality as the SkinnyWriter method of the same name, for the .xlsb format.
+     * <p>
+     * The content rows of each sheet are requested once, just before the sheet is written, so for sheets such as
+     * LazySheetContent only the rows of one sheet have to be in memory at any time.
+     * <p>
+     * Warning: if the target directory already has a .xlsb file with the same base name,
+     * it will be overwritten with no further warning.
+     *
+     * @param targetFolder     The target location for the .xlsb file
+     * @param fileName         The base name of the .xlsb that will be written.
+     *                         No extension needed, this method automatically adds the .xlsb extension, without checking if an
+     *                         extension is already present, e.g. passing in "myFile.xlsb" will result in a file named "myFile.xlsb.xlsb".
+     *                         If null or an empty String is passed in, the file will be given a name.
+     * @param sheetContentList A List of objects implementing the SkinnySheetContent interface.
+     *                         Each object in the List represents a sheet to be added to the .xlsb file.
+     * @throws IOException              Any Exception occurring while writing to the file system will remain uncaught.
+     * @throws IllegalArgumentException Will be thrown when a sheet name contains a character that is not allowed by Excel, when a
+     *                                  column header is blank, or when a row or a cell value does not fit in a sheet.
+     */
+
+    public static void writeContentToFileSystem(File targetFolder, String fileName, List<SkinnySheetContent> sheetContentList)
+            throws IOException {
+        File targetFile = new File(targetFolder, SkinnyUtil.sanitizeFileName(fileName) + SkinnyUtil.XLSB_EXTENSION);
+        SheetBinaryWriter sheetBinaryWriter = new SheetBinaryWriter();
+        List<String> sheetNames = new ArrayList<>();
+
+        try (ZipPackageWriter zipPackageWriter = new ZipPackageWriter(
+                new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE))) {
+            for (SkinnySheetContent sheetContent : sheetContentList) {
+                sheetNames.add(SkinnyUtil.sanitizeSheetName(sheetContent.getSheetName(), sheetNames));
+                List<String> columnHeaders = sheetContent.hasColumnHeaders() ? sheetContent.getColumnHeaders() : null;
+                List<List<String>> contentRows = sheetContent.getContentRows();
+                sheetBinaryWriter.writeSheet(
+                        zipPackageWriter.beginEntry(BinaryPackageParts.worksheetEntryName(sheetNames.size()), null),
+                        columnHeaders, contentRows == null ? List.of() : contentRows, sheetNames.size() == 1);
+                zipPackageWriter.closeEntry();
+            }
+            zipPackageWriter.writeEntry(BinaryPackageParts.STYLES, BinaryPackageParts.styles());
+            zipPackageWriter.writeEntry(BinaryPackageParts.WORKBOOK, BinaryPackageParts.workbook(sheetNames));
+            zipPackageWriter.writeEntry(BinaryPackageParts.WORKBOOK_RELATIONSHIPS,
+                    BinaryPackageParts.workbookRelationships(sheetNames.size()));
+            zipPackageWriter.writeEntry(PackageParts.ROOT_RELATIONSHIPS, BinaryPackageParts.rootRelationships());
+            zipPackageWriter.writeEntry(PackageParts.CONTENT_TYPES, BinaryPackageParts.contentTypes(sheetNames.size()));
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses content that is spilled to a temporary store, as a raw deflate stream, and keeps track of its checksum and sizes.
+ * A stream that is the last part of a zip entry is finished when it is closed. Other streams end with a sync flush instead,
+ * so more compressed data can follow them in the same entry.
+ */
+
+final class SpillDeflaterOutputStream extends ZipPackageWriter.EntryOutputStream {
+
+    private final OutputStream compressedOutput;
+    private final boolean lastPart;
+    private final Deflater deflater = SkinnyResourcePool.acquireDeflater(ZipPackageWriter.DEFAULT_LEVEL);
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[1 << 13];
+    private long compressedSize;
+    private long uncompressedSize;
+    private boolean closed;
+
+    SpillDeflaterOutputStream(OutputStream compressedOutput, boolean lastPart) {
+        this.compressedOutput = compressedOutput;
+        this.lastPart = lastPart;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        crc.update(bytes, offset, length);
+        uncompressedSize += length;
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            writeCompressed(deflater.deflate(buffer));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (lastPart) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    writeCompressed(deflater.deflate(buffer));
+                }
+            } else {
+                int length;
+                do {
+                    length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    writeCompressed(length);
+                } while (length == buffer.length);
+            }
+        } finally {
+            SkinnyResourcePool.releaseDeflater(deflater);
+        }
+    }
+
+    @Override
+    long getCrc() {
+        return crc.getValue();
+    }
+
+    @Override
+    long getCompressedSize() {
+        return compressedSize;
+    }
+
+    @Override
+    long getUncompressedSize() {
+        return uncompressedSize;
+    }
+
+    private void writeCompressed(int length) throws IOException {
+        compressedOutput.write(buffer, 0, length);
+        compressedSize += length;
+    }
+
+}
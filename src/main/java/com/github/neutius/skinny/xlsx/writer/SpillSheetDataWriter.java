@@ -0,0 +1,162 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import jdk.jfr.EventType;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.SequenceInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * SXSSF sheet data writer that compresses the rows while they are flushed, and spills them into a MappedSpillStore instead of
+ * a temporary XML file. The compressed rows end with a sync flush, so SpillingWorkbook can copy them unchanged into the
+ * worksheet entry of the .xlsx file, between the compressed start and end of the worksheet XML.
+ * <p>
+ * Every flush of rows passes through this writer, whether SXSSF flushes its row window automatically or the rows are flushed
+ * explicitly. A RowFlushEvent is emitted each time compressed rows reach the spill file, for the rows flushed since the
+ * previous event.
+ */
+
+final class SpillSheetDataWriter extends SheetDataWriter {
+
+    private static final EventType ROW_FLUSH_EVENT_TYPE = EventType.getEventType(SkinnyEvents.RowFlushEvent.class);
+
+    // Assigned by createWriter, which the constructor of SheetDataWriter calls before the fields of this class are initialized
+    private MappedSpillStore spillStore;
+    private SpillDeflaterOutputStream compressedRows;
+    private boolean closed;
+
+    private SXSSFSheet sheet;
+    private int unspilledRowAmount;
+    private int keptRowAmount;
+
+    SpillSheetDataWriter(SharedStringsTable sharedStringsTable) throws IOException {
+        super(sharedStringsTable);
+    }
+
+    @Override
+    public File createTempFile() throws IOException {
+        return TempFile.createTempFile("poi-sxssf-sheet", ".deflate");
+    }
+
+    @Override
+    public Writer createWriter(File file) throws IOException {
+        spillStore = new MappedSpillStore(file);
+        compressedRows = new SpillDeflaterOutputStream(spillStore, false);
+        return new BufferedWriter(new OutputStreamWriter(compressedRows, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sets the sheet whose rows are flushed through this writer, which the SXSSFSheet constructor creates before the sheet
+     * itself exists.
+     */
+
+    void setSheet(SXSSFSheet sheet) {
+        this.sheet = sheet;
+    }
+
+    // SXSSFSheet still holds the row while it is written, and removes it afterwards
+    @Override
+    public void writeRow(int rowNumber, SXSSFRow row) throws IOException {
+        unspilledRowAmount++;
+        keptRowAmount = sheet == null ? 0 : sheet.getPhysicalNumberOfRows() - getNumberOfFlushedRows() - 1;
+        if (!ROW_FLUSH_EVENT_TYPE.isEnabled()) {
+            super.writeRow(rowNumber, row);
+            return;
+        }
+        SkinnyEvents.RowFlushEvent event = new SkinnyEvents.RowFlushEvent();
+        event.begin();
+        long spilledSize = spillStore.size();
+        super.writeRow(rowNumber, row);
+        commitIfSpilled(event, spilledSize);
+    }
+
+    // SXSSFSheet closes its writer before reading it, and SheetDataWriter cannot be closed twice
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            SkinnyEvents.RowFlushEvent event = new SkinnyEvents.RowFlushEvent();
+            event.begin();
+            long spilledSize = spillStore.size();
+            super.close();
+            commitIfSpilled(event, spilledSize);
+        }
+    }
+
+    /**
+     * Only used by <code>SXSSFWorkbook.write(OutputStream)</code>, which decompresses the rows and compresses them again.
+     * SpillingWorkbook copies the compressed rows instead.
+     */
+
+    @Override
+    public InputStream getWorksheetXMLInputStream() throws IOException {
+        close();
+        // an empty final block ends the deflate stream, which the sync flush left open
+        InputStream finishedRows = new SequenceInputStream(spillStore.newInputStream(),
+                new ByteArrayInputStream(new byte[]{3, 0}));
+        return new InflaterInputStream(finishedRows, new Inflater(true));
+    }
+
+    /**
+     * Copies the compressed rows, a raw deflate stream that ends with a sync flush, to the output passed in. Flushes and closes
+     * this writer first.
+     */
+
+    void transferCompressedRowsTo(OutputStream output) throws IOException {
+        close();
+        spillStore.transferTo(output);
+    }
+
+    /**
+     * Flushes and closes this writer first, so the checksum includes every row.
+     */
+
+    long getCrc() throws IOException {
+        close();
+        return compressedRows.getCrc();
+    }
+
+    /**
+     * Flushes and closes this writer first, so the size includes every row.
+     */
+
+    long getUncompressedSize() throws IOException {
+        close();
+        return compressedRows.getUncompressedSize();
+    }
+
+    void closeSpillStore() throws IOException {
+        spillStore.close();
+    }
+
+    private void commitIfSpilled(SkinnyEvents.RowFlushEvent event, long spilledSizeBefore) {
+        long spilledSize = spillStore.size() - spilledSizeBefore;
+        if (spilledSize == 0 || unspilledRowAmount == 0) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.sheetName = sheet == null ? null : sheet.getSheetName();
+            event.flushedRowAmount = unspilledRowAmount;
+            event.keptRowAmount = keptRowAmount;
+            event.spilledSize = spilledSize;
+            event.commit();
+        }
+        unspilledRowAmount = 0;
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * SXSSF workbook that writes its sheet data in a single pass. A regular SXSSFWorkbook spills flushed rows into temporary XML
+ * files, and reads and compresses them again when the workbook is written. This workbook compresses the rows while they are
+ * flushed, into memory-mapped spill files (see SpillSheetDataWriter), and copies the compressed rows into the .xlsx file
+ * unchanged. Only the small start and end of each worksheet XML are compressed when the workbook is written.
+ * <p>
+ * Remember to call <code>dispose()</code>, like with any SXSSFWorkbook.
+ */
+
+final class SpillingWorkbook extends SXSSFWorkbook {
+
+    private static final String EMPTY_SHEET_DATA = "<sheetData/>";
+    private static final byte[] SHEET_DATA_START = "<sheetData>\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SHEET_DATA_END = "</sheetData>".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<SXSSFSheet, SpillSheetDataWriter> sheetDataWriters = new IdentityHashMap<>();
+    private SpillSheetDataWriter lastSheetDataWriter;
+
+    SpillingWorkbook() {
+        super();
+    }
+
+    /**
+     * @param rowWindowSize The amount of most recent rows of each sheet to keep in memory, or -1 to keep all rows until they
+     *                      are flushed explicitly.
+     */
+
+    SpillingWorkbook(int rowWindowSize) {
+        super(rowWindowSize);
+    }
+
+    @Override
+    protected SheetDataWriter createSheetDataWriter() throws IOException {
+        lastSheetDataWriter = new SpillSheetDataWriter(getSharedStringSource());
+        return lastSheetDataWriter;
+    }
+
+    @Override
+    public SXSSFSheet createSheet() {
+        return register(super.createSheet());
+    }
+
+    @Override
+    public SXSSFSheet createSheet(String sheetName) {
+        return register(super.createSheet(sheetName));
+    }
+
+    /**
+     * Writes the workbook as a .xlsx file to the stream passed in, without closing it.
+     */
+
+    @Override
+    public void write(OutputStream stream) throws IOException {
+        flushSheets();
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        getXSSFWorkbook().write(template);
+
+        Map<String, SpillSheetDataWriter> worksheetEntries = new HashMap<>();
+        for (Map.Entry<SXSSFSheet, SpillSheetDataWriter> entry : sheetDataWriters.entrySet()) {
+            XSSFSheet xssfSheet = getXSSFWorkbook().getSheet(entry.getKey().getSheetName());
+            worksheetEntries.put(xssfSheet.getPackagePart().getPartName().getName().substring(1), entry.getValue());
+        }
+
+        ZipPackageWriter zipPackageWriter = new ZipPackageWriter(stream);
+        try (ZipInputStream templateEntries = new ZipInputStream(new ByteArrayInputStream(template.toByteArray()))) {
+            for (ZipEntry entry = templateEntries.getNextEntry(); entry != null; entry = templateEntries.getNextEntry()) {
+                byte[] content = templateEntries.readAllBytes();
+                SpillSheetDataWriter sheetDataWriter = worksheetEntries.get(entry.getName());
+                if (sheetDataWriter == null) {
+                    zipPackageWriter.writeEntry(entry.getName(), content);
+                } else {
+                    writeWorksheet(zipPackageWriter, entry.getName(), content, sheetDataWriter);
+                }
+            }
+        }
+        zipPackageWriter.finish();
+    }
+
+    /**
+     * @return The amount of rows of the sheet passed in that have been flushed, i.e. that are no longer in memory.
+     */
+
+    int getFlushedRowAmount(SXSSFSheet sheet) {
+        return sheetDataWriters.get(sheet).getNumberOfFlushedRows();
+    }
+
+    @Override
+    public boolean dispose() {
+        for (SpillSheetDataWriter sheetDataWriter : sheetDataWriters.values()) {
+            try {
+                sheetDataWriter.closeSpillStore();
+            } catch (IOException exception) {
+                // the spill file will be deleted on exit
+            }
+        }
+        return super.dispose();
+    }
+
+    // Each sheet creates its SheetDataWriter in its constructor
+    private SXSSFSheet register(SXSSFSheet sheet) {
+        sheetDataWriters.put(sheet, lastSheetDataWriter);
+        lastSheetDataWriter.setSheet(sheet);
+        return sheet;
+    }
+
+    private static void writeWorksheet(ZipPackageWriter zipPackageWriter, String entryName, byte[] template,
+                                       SpillSheetDataWriter sheetDataWriter) throws IOException {
+        String templateXml = new String(template, StandardCharsets.UTF_8);
+        int sheetDataIndex = templateXml.indexOf(EMPTY_SHEET_DATA);
+        if (sheetDataIndex < 0) {
+            throw new IOException("Worksheet template " + entryName + " does not contain " + EMPTY_SHEET_DATA);
+        }
+        byte[] start = concat(templateXml.substring(0, sheetDataIndex).getBytes(StandardCharsets.UTF_8), SHEET_DATA_START);
+        byte[] end = concat(SHEET_DATA_END,
+                templateXml.substring(sheetDataIndex + EMPTY_SHEET_DATA.length()).getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream compressedStart = new ByteArrayOutputStream();
+        SpillDeflaterOutputStream startStream = compress(start, compressedStart, false);
+        ByteArrayOutputStream compressedEnd = new ByteArrayOutputStream();
+        SpillDeflaterOutputStream endStream = compress(end, compressedEnd, true);
+        long crc = ParallelDeflaterOutputStream.combineCrc(startStream.getCrc(), sheetDataWriter.getCrc(),
+                sheetDataWriter.getUncompressedSize());
+        crc = ParallelDeflaterOutputStream.combineCrc(crc, endStream.getCrc(), end.length);
+        long uncompressedSize = start.length + sheetDataWriter.getUncompressedSize() + end.length;
+
+        zipPackageWriter.writeCompressedEntry(entryName, compressedOutput -> {
+            compressedStart.writeTo(compressedOutput);
+            sheetDataWriter.transferCompressedRowsTo(compressedOutput);
+            compressedEnd.writeTo(compressedOutput);
+        }, crc, uncompressedSize);
+    }
+
+    private static SpillDeflaterOutputStream compress(byte[] content, OutputStream compressedOutput, boolean lastPart)
+            throws IOException {
+        SpillDeflaterOutputStream result = new SpillDeflaterOutputStream(compressedOutput, lastPart);
+        result.write(content);
+        result.close();
+        return result;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+}
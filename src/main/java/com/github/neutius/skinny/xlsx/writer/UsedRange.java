@@ -0,0 +1,68 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.util.List;
+
+/**
+ * The range of the cells of a sheet that have a value, from cell A1 up to the last row and the last column with a value, as
+ * needed for the dimension of a sheet. Null values and rows without any value do not count.
+ */
+
+final class UsedRange {
+
+    private final int rowAmount;
+    private final int columnAmount;
+
+    private UsedRange(int rowAmount, int columnAmount) {
+        this.rowAmount = rowAmount;
+        this.columnAmount = columnAmount;
+    }
+
+    /**
+     * @param columnHeaders The column headers, or null for a sheet without column headers.
+     * @param contentRows   The content rows, which are iterated once.
+     */
+
+    static UsedRange of(List<String> columnHeaders, List<List<String>> contentRows) {
+        int lastRow = columnHeaders == null ? 0 : 1;
+        int lastColumn = columnHeaders == null ? 0 : columnHeaders.size();
+        int rowNumber = lastRow;
+        for (List<String> contentRow : contentRows) {
+            rowNumber++;
+            int usedColumnAmount = usedColumnAmount(contentRow);
+            if (usedColumnAmount > 0) {
+                lastRow = rowNumber;
+                lastColumn = Math.max(usedColumnAmount, lastColumn);
+            }
+        }
+        return new UsedRange(lastRow, lastColumn);
+    }
+
+    /**
+     * @return The amount of cells of the row passed in, up to and including the last cell with a value.
+     */
+
+    static int usedColumnAmount(List<String> row) {
+        if (row == null) {
+            return 0;
+        }
+        for (int columnIndex = row.size() - 1; columnIndex >= 0; columnIndex--) {
+            if (row.get(columnIndex) != null) {
+                return columnIndex + 1;
+            }
+        }
+        return 0;
+    }
+
+    boolean isEmpty() {
+        return rowAmount == 0;
+    }
+
+    int getRowAmount() {
+        return rowAmount;
+    }
+
+    int getColumnAmount() {
+        return columnAmount;
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Copies worksheet XML while moving the indexes it contains into the style sheet and the shared strings table, for a worksheet
+ * that is moved into a package where its styles and shared strings start at a later index. Only the style indexes of cells,
+ * rows and columns, and the values of shared string cells, are changed, and the selection of the sheet can be cleared. The XML
+ * is streamed, so memory use does not depend on the size of the worksheet.
+ */
+
+final class WorksheetRemapper {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newFactory();
+    private static final String TAB_SELECTED = "tabSelected";
+
+    private WorksheetRemapper() {
+        // nope
+    }
+
+    static void remap(InputStream worksheet, OutputStream output, int styleOffset, int sharedStringOffset,
+            boolean clearTabSelected) throws IOException {
+        try {
+            XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(worksheet);
+            XMLEventWriter writer = OUTPUT_FACTORY.createXMLEventWriter(output, StandardCharsets.UTF_8.name());
+            boolean sharedStringCell = false;
+            StringBuilder sharedStringIndex = null;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    StartElement startElement = event.asStartElement();
+                    switch (startElement.getName().getLocalPart()) {
+                        case "c":
+                            sharedStringCell = "s".equals(attributeValue(startElement, "t"));
+                            event = shiftAttribute(startElement, "s", styleOffset);
+                            break;
+                        case "row":
+                            event = shiftAttribute(startElement, "s", styleOffset);
+                            break;
+                        case "col":
+                            event = shiftAttribute(startElement, "style", styleOffset);
+                            break;
+                        case "sheetView":
+                            if (clearTabSelected) {
+                                event = withoutAttribute(startElement, TAB_SELECTED);
+                            }
+                            break;
+                        case "v":
+                            sharedStringIndex = sharedStringCell ? new StringBuilder() : null;
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event.isCharacters() && sharedStringIndex != null) {
+                    // the value may arrive in several parts, so it is written when the element ends
+                    sharedStringIndex.append(event.asCharacters().getData());
+                    continue;
+                } else if (event.isEndElement() && sharedStringIndex != null) {
+                    long index = Long.parseLong(sharedStringIndex.toString().trim()) + sharedStringOffset;
+                    writer.add(EVENT_FACTORY.createCharacters(Long.toString(index)));
+                    sharedStringIndex = null;
+                }
+                writer.add(event);
+            }
+            writer.flush();
+            reader.close();
+        } catch (XMLStreamException | NumberFormatException exception) {
+            throw new IOException("Invalid worksheet XML", exception);
+        }
+    }
+
+    // The sheet views come before the sheet data, so only the start of the worksheet is read
+    static boolean isTabSelected(InputStream worksheet) throws IOException {
+        try {
+            XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(worksheet);
+            try {
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (event.isStartElement()) {
+                        StartElement startElement = event.asStartElement();
+                        String localName = startElement.getName().getLocalPart();
+                        if (localName.equals("sheetView") && isTrue(attributeValue(startElement, TAB_SELECTED))) {
+                            return true;
+                        }
+                        if (localName.equals("sheetData")) {
+                            return false;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException exception) {
+            throw new IOException("Invalid worksheet XML", exception);
+        }
+    }
+
+    private static boolean isTrue(String value) {
+        return value != null && (value.trim().equals("1") || value.trim().equals("true"));
+    }
+
+    private static String attributeValue(StartElement startElement, String name) {
+        Attribute attribute = startElement.getAttributeByName(new QName(name));
+        return attribute == null ? null : attribute.getValue();
+    }
+
+    private static XMLEvent shiftAttribute(StartElement startElement, String name, int offset) {
+        String value = attributeValue(startElement, name);
+        if (value == null || offset == 0) {
+            return startElement;
+        }
+        List<Attribute> attributes = new ArrayList<>();
+        for (Iterator<Attribute> iterator = startElement.getAttributes(); iterator.hasNext(); ) {
+            Attribute attribute = iterator.next();
+            attributes.add(attribute.getName().getLocalPart().equals(name) && attribute.getName().getPrefix().isEmpty()
+                    ? EVENT_FACTORY.createAttribute(name, Integer.toString(Integer.parseInt(value.trim()) + offset))
+                    : attribute);
+        }
+        return EVENT_FACTORY.createStartElement(startElement.getName(), attributes.iterator(), startElement.getNamespaces());
+    }
+
+    private static XMLEvent withoutAttribute(StartElement startElement, String name) {
+        if (attributeValue(startElement, name) == null) {
+            return startElement;
+        }
+        List<Attribute> attributes = new ArrayList<>();
+        for (Iterator<Attribute> iterator = startElement.getAttributes(); iterator.hasNext(); ) {
+            Attribute attribute = iterator.next();
+            if (!attribute.getName().getLocalPart().equals(name) || !attribute.getName().getPrefix().isEmpty()) {
+                attributes.add(attribute);
+            }
+        }
+        return EVENT_FACTORY.createStartElement(startElement.getName(), attributes.iterator(), startElement.getNamespaces());
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+}
@@ -0,0 +1,346 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Minimal zip reader for existing .xlsx packages, the counterpart of ZipPackageWriter. Only the central directory is read
+ * upfront. The content of an entry can be copied raw, i.e. still compressed, which is what makes appending to a large package
+ * cheap. It can also be inflated, into memory for small parts such as the workbook part, or as a stream.
+ */
+
+final class ZipPackageReader implements Closeable {
+
+    static final int METHOD_STORED = 0;
+    static final int METHOD_DEFLATED = 8;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int FLAG_ENCRYPTED = 1;
+
+    private final FileChannel channel;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private ZipPackageReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static ZipPackageReader open(File file) throws IOException {
+        ZipPackageReader reader = new ZipPackageReader(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        try {
+            reader.readCentralDirectory();
+            return reader;
+        } catch (IOException | RuntimeException exception) {
+            reader.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * @return The entries in the order of the central directory.
+     */
+
+    List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * Part names in a package are case-insensitive, so the name is matched ignoring case.
+     *
+     * @return The entry with the name passed in, or null if there is no such entry.
+     */
+
+    Entry getEntry(String name) {
+        return entries.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Copies the content of the entry as it is stored in the package, i.e. still compressed.
+     */
+
+    void transferRawContent(Entry entry, OutputStream output) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(1, entry.compressedSize)));
+        long position = dataOffset(entry);
+        long remaining = entry.compressedSize;
+        while (remaining > 0) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of package while copying " + entry.name);
+            }
+            output.write(buffer.array(), 0, read);
+            position += read;
+            remaining -= read;
+        }
+    }
+
+    /**
+     * Reads and inflates the content of the entry, which should be small enough to keep in memory.
+     */
+
+    byte[] readContent(Entry entry) throws IOException {
+        if (entry.compressedSize > Integer.MAX_VALUE - 8 || entry.uncompressedSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Package part is too large to read into memory: " + entry.name);
+        }
+        ByteBuffer compressed = read(dataOffset(entry), (int) entry.compressedSize);
+        if (entry.method == METHOD_STORED) {
+            return compressed.array();
+        }
+        if (entry.method != METHOD_DEFLATED) {
+            throw new IOException("Unsupported compression method " + entry.method + " for package part " + entry.name);
+        }
+        Inflater inflater = SkinnyResourcePool.acquireInflater();
+        try {
+            inflater.setInput(compressed.array());
+            ByteArrayOutputStream content = new ByteArrayOutputStream((int) entry.uncompressedSize);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Unexpected end of compressed data for package part " + entry.name);
+                }
+                content.write(buffer, 0, inflated);
+            }
+            return content.toByteArray();
+        } catch (DataFormatException exception) {
+            throw new IOException("Invalid compressed data for package part " + entry.name, exception);
+        } finally {
+            SkinnyResourcePool.releaseInflater(inflater);
+        }
+    }
+
+    /**
+     * Opens a stream of the inflated content of the entry, for parts that are too large to keep in memory, such as worksheets.
+     */
+
+    InputStream openContent(Entry entry) throws IOException {
+        InputStream rawContent = new RawContentInputStream(dataOffset(entry), entry.compressedSize);
+        if (entry.method == METHOD_STORED) {
+            return rawContent;
+        }
+        if (entry.method != METHOD_DEFLATED) {
+            throw new IOException("Unsupported compression method " + entry.method + " for package part " + entry.name);
+        }
+        Inflater inflater = SkinnyResourcePool.acquireInflater();
+        return new InflaterInputStream(rawContent, inflater, BUFFER_SIZE) {
+            private boolean released;
+
+            @Override
+            public void close() throws IOException {
+                super.close();
+                // a pooled Inflater must be returned only once
+                if (!released) {
+                    released = true;
+                    SkinnyResourcePool.releaseInflater(inflater);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readCentralDirectory() throws IOException {
+        long fileSize = channel.size();
+        int tailSize = (int) Math.min(fileSize, END_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = read(fileSize - tailSize, tailSize);
+        int endPosition = tailSize - END_SIZE;
+        while (endPosition >= 0 && tail.getInt(endPosition) != END_SIGNATURE) {
+            endPosition--;
+        }
+        if (endPosition < 0) {
+            throw new IOException("Not a zip file: no end of central directory record found");
+        }
+
+        long entryAmount = tail.getShort(endPosition + 10) & 0xFFFF;
+        long centralDirectorySize = tail.getInt(endPosition + 12) & ZIP64_MARKER;
+        long centralDirectoryOffset = tail.getInt(endPosition + 16) & ZIP64_MARKER;
+        long zip64LocatorPosition = fileSize - tailSize + endPosition - 20;
+        if (zip64LocatorPosition >= 0 && read(zip64LocatorPosition, 4).getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+            ByteBuffer zip64End = read(read(zip64LocatorPosition + 8, 8).getLong(0), 56);
+            if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                throw new IOException("Invalid zip64 end of central directory record");
+            }
+            entryAmount = zip64End.getLong(32);
+            centralDirectorySize = zip64End.getLong(40);
+            centralDirectoryOffset = zip64End.getLong(48);
+        }
+        if (centralDirectorySize > Integer.MAX_VALUE) {
+            throw new IOException("Central directory is too large: " + centralDirectorySize + " bytes");
+        }
+
+        ByteBuffer centralDirectory = read(centralDirectoryOffset, (int) centralDirectorySize);
+        for (long index = 0; index < entryAmount; index++) {
+            Entry entry = readCentralHeader(centralDirectory);
+            entries.put(entry.name.toLowerCase(Locale.ROOT), entry);
+        }
+    }
+
+    private static Entry readCentralHeader(ByteBuffer centralDirectory) throws IOException {
+        int start = centralDirectory.position();
+        if (centralDirectory.remaining() < 46 || centralDirectory.getInt(start) != CENTRAL_HEADER_SIGNATURE) {
+            throw new IOException("Invalid central directory header at position " + start);
+        }
+        int flags = centralDirectory.getShort(start + 8) & 0xFFFF;
+        int method = centralDirectory.getShort(start + 10) & 0xFFFF;
+        long crc = centralDirectory.getInt(start + 16) & ZIP64_MARKER;
+        long compressedSize = centralDirectory.getInt(start + 20) & ZIP64_MARKER;
+        long uncompressedSize = centralDirectory.getInt(start + 24) & ZIP64_MARKER;
+        int nameLength = centralDirectory.getShort(start + 28) & 0xFFFF;
+        int extraLength = centralDirectory.getShort(start + 30) & 0xFFFF;
+        int commentLength = centralDirectory.getShort(start + 32) & 0xFFFF;
+        long localHeaderOffset = centralDirectory.getInt(start + 42) & ZIP64_MARKER;
+
+        byte[] name = new byte[nameLength];
+        centralDirectory.position(start + 46);
+        centralDirectory.get(name);
+        String entryName = new String(name, StandardCharsets.UTF_8);
+        if ((flags & FLAG_ENCRYPTED) != 0) {
+            throw new IOException("Encrypted zip entries are not supported: " + entryName);
+        }
+
+        // the zip64 extra field only holds the values that did not fit, in this order
+        int extraEnd = centralDirectory.position() + extraLength;
+        while (centralDirectory.position() + 4 <= extraEnd) {
+            int headerId = centralDirectory.getShort() & 0xFFFF;
+            int dataEnd = centralDirectory.position() + (centralDirectory.getShort() & 0xFFFF);
+            if (headerId == 0x0001) {
+                if (uncompressedSize == ZIP64_MARKER) {
+                    uncompressedSize = centralDirectory.getLong();
+                }
+                if (compressedSize == ZIP64_MARKER) {
+                    compressedSize = centralDirectory.getLong();
+                }
+                if (localHeaderOffset == ZIP64_MARKER) {
+                    localHeaderOffset = centralDirectory.getLong();
+                }
+            }
+            centralDirectory.position(dataEnd);
+        }
+        centralDirectory.position(extraEnd + commentLength);
+        return new Entry(entryName, method, crc, compressedSize, uncompressedSize, localHeaderOffset);
+    }
+
+    private long dataOffset(Entry entry) throws IOException {
+        ByteBuffer localHeader = read(entry.localHeaderOffset, 30);
+        if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("Invalid local header for " + entry.name);
+        }
+        return entry.localHeaderOffset + 30 + (localHeader.getShort(26) & 0xFFFF) + (localHeader.getShort(28) & 0xFFFF);
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of package at position " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Reads the raw content of an entry directly from the channel, without changing the position of the channel.
+     */
+
+    private final class RawContentInputStream extends InputStream {
+        private long position;
+        private long remaining;
+
+        private RawContentInputStream(long position, long length) {
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, remaining)), position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of package at position " + position);
+            }
+            position += read;
+            remaining -= read;
+            return read;
+        }
+    }
+
+    /**
+     * An entry of the central directory.
+     */
+
+    static final class Entry {
+        private final String name;
+        private final int method;
+        private final long crc;
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final long localHeaderOffset;
+
+        private Entry(String name, int method, long crc, long compressedSize, long uncompressedSize, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getMethod() {
+            return method;
+        }
+
+        long getCrc() {
+            return crc;
+        }
+
+        long getCompressedSize() {
+            return compressedSize;
+        }
+
+        long getUncompressedSize() {
+            return uncompressedSize;
+        }
+    }
+
+}
@@ -0,0 +1,467 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal zip writer for .xlsx packages. Unlike <code>java.util.zip.ZipOutputStream</code>, it accepts entries that have been
+ * compressed elsewhere, e.g. by several threads in parallel. Entries are written with a data descriptor after the compressed
+ * data, so sizes do not have to be known upfront. Zip64 records are added when sizes or offsets require them.
+ * <p>
+ * An entry that may grow beyond 4 GB gets a Zip64 extended information extra field in its local header, and its data
+ * descriptor always has 8-byte sizes, as APPNOTE.TXT 4.3.9 requires. Streaming readers, which never see the central directory,
+ * rely on the local header to tell the size of the data descriptor.
+ */
+
+final class ZipPackageWriter implements Closeable {
+
+    static final int DEFAULT_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+    private static final long ZIP64_THRESHOLD = 0xFFFFFFFFL;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+    private static final int FLAG_UTF8_NAMES = 1 << 11;
+    private static final int METHOD_DEFLATED = ZipPackageReader.METHOD_DEFLATED;
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    // an upper bound for the growth of incompressible data, a little above the bound zlib itself calculates
+    private static final int DEFLATE_OVERHEAD_SHIFT = 11;
+
+    private final OutputStream outputStream;
+    private final List<EntryRecord> entries = new ArrayList<>();
+    private final int dosTime = dosTime(LocalDateTime.now());
+    private final byte[] scratch = new byte[8];
+
+    private long offset;
+    private EntryOutputStream currentEntry;
+    private EntryRecord currentRecord;
+
+    ZipPackageWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Starts a new entry and returns the stream to write its uncompressed content to. With an executor, the content is
+     * compressed in blocks on the threads of that executor; without one, it is compressed on the calling thread.
+     */
+
+    OutputStream beginEntry(String name, ExecutorService compressionExecutor) throws IOException {
+        return beginEntry(name, compressionExecutor, true);
+    }
+
+    private OutputStream beginEntry(String name, ExecutorService compressionExecutor, boolean zip64) throws IOException {
+        closeEntry();
+        currentRecord = writeLocalHeader(name, METHOD_DEFLATED, zip64);
+        OutputStream compressedOutput = new CountingOutputStream();
+        currentEntry = compressionExecutor == null
+                ? new SerialDeflaterOutputStream(compressedOutput, DEFAULT_LEVEL)
+                : new ParallelDeflaterOutputStream(compressedOutput, DEFAULT_LEVEL, compressionExecutor);
+        return currentEntry;
+    }
+
+    void closeEntry() throws IOException {
+        if (currentEntry == null) {
+            return;
+        }
+        currentEntry.close();
+        writeDataDescriptor(currentRecord, currentEntry.getCrc(), currentEntry.getCompressedSize(),
+                currentEntry.getUncompressedSize());
+        currentEntry = null;
+        currentRecord = null;
+    }
+
+    void writeEntry(String name, byte[] content) throws IOException {
+        beginEntry(name, null, mayNeedZip64(content.length)).write(content);
+        closeEntry();
+    }
+
+    /**
+     * Adds an entry with content that has already been compressed as a raw deflate stream, by copying it unchanged.
+     */
+
+    void writeCompressedEntry(String name, InputStream compressedContent, long crc, long compressedSize, long uncompressedSize)
+            throws IOException {
+        long copied = writeCompressedEntry(name, compressedContent::transferTo, crc, uncompressedSize);
+        if (copied != compressedSize) {
+            throw new IOException("Expected " + compressedSize + " compressed bytes for " + name + ", but found " + copied);
+        }
+    }
+
+    /**
+     * Adds an entry with content that the caller writes as a raw deflate stream, e.g. several parts that have been compressed
+     * separately. Every part but the last should end with a sync or full flush, and only the last should end the stream.
+     *
+     * @return The compressed size of the entry.
+     */
+
+    long writeCompressedEntry(String name, CompressedContent compressedContent, long crc, long uncompressedSize)
+            throws IOException {
+        closeEntry();
+        EntryRecord record = writeLocalHeader(name, METHOD_DEFLATED, mayNeedZip64(uncompressedSize));
+        long startOffset = offset;
+        compressedContent.writeTo(new CountingOutputStream());
+        long compressedSize = offset - startOffset;
+        writeDataDescriptor(record, crc, compressedSize, uncompressedSize);
+        return compressedSize;
+    }
+
+    /**
+     * Adds an entry by copying its raw content, as stored in another zip file, unchanged. The compression method and sizes are
+     * kept, and written in the local header, so no data descriptor is needed unless the sizes require Zip64 records.
+     */
+
+    void copyEntry(String name, int method, CompressedContent rawContent, long crc, long compressedSize, long uncompressedSize)
+            throws IOException {
+        closeEntry();
+        boolean sizesFit = compressedSize < ZIP64_THRESHOLD && uncompressedSize < ZIP64_THRESHOLD;
+        EntryRecord record = sizesFit
+                ? writeLocalHeader(name, method, FLAG_UTF8_NAMES, crc, compressedSize, uncompressedSize)
+                : writeLocalHeader(name, method, true);
+        long startOffset = offset;
+        rawContent.writeTo(new CountingOutputStream());
+        long copied = offset - startOffset;
+        if (copied != compressedSize) {
+            throw new IOException("Expected " + compressedSize + " compressed bytes for " + name + ", but found " + copied);
+        }
+        if (sizesFit) {
+            record.crc = crc;
+            record.compressedSize = compressedSize;
+            record.uncompressedSize = uncompressedSize;
+        } else {
+            writeDataDescriptor(record, crc, compressedSize, uncompressedSize);
+        }
+    }
+
+    /**
+     * Writes the central directory, without closing the underlying stream.
+     */
+
+    void finish() throws IOException {
+        closeEntry();
+        long centralDirectoryOffset = offset;
+        for (EntryRecord record : entries) {
+            writeCentralHeader(record);
+        }
+        long centralDirectorySize = offset - centralDirectoryOffset;
+
+        boolean zip64 = centralDirectoryOffset >= ZIP64_THRESHOLD || centralDirectorySize >= ZIP64_THRESHOLD
+                || entries.size() >= 0xFFFF;
+        if (zip64) {
+            long zip64EndOffset = offset;
+            writeInt(ZIP64_END_SIGNATURE);
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(entries.size());
+            writeLong(entries.size());
+            writeLong(centralDirectorySize);
+            writeLong(centralDirectoryOffset);
+            writeInt(ZIP64_LOCATOR_SIGNATURE);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(entries.size(), 0xFFFF));
+        writeShort(Math.min(entries.size(), 0xFFFF));
+        writeInt(Math.min(centralDirectorySize, ZIP64_THRESHOLD));
+        writeInt(Math.min(centralDirectoryOffset, ZIP64_THRESHOLD));
+        writeShort(0);
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        outputStream.close();
+    }
+
+    /**
+     * Closes the underlying stream without writing the central directory, for a package that will be deleted.
+     */
+
+    void abandon() throws IOException {
+        outputStream.close();
+    }
+
+    // Writes the local header of an entry with a data descriptor
+    private EntryRecord writeLocalHeader(String name, int method, boolean zip64) throws IOException {
+        if (!zip64) {
+            return writeLocalHeader(name, method, FLAG_DATA_DESCRIPTOR | FLAG_UTF8_NAMES, 0, 0, 0);
+        }
+        EntryRecord record = new EntryRecord(name.getBytes(StandardCharsets.UTF_8), method,
+                FLAG_DATA_DESCRIPTOR | FLAG_UTF8_NAMES, offset, true);
+        entries.add(record);
+
+        // the sizes follow in the data descriptor, so the sizes in the extra field are zero
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(VERSION_ZIP64);
+        writeShort(record.flags);
+        writeShort(method);
+        writeInt(dosTime);
+        writeInt(0);
+        writeInt(ZIP64_THRESHOLD);
+        writeInt(ZIP64_THRESHOLD);
+        writeShort(record.name.length);
+        writeShort(20);
+        writeBytes(record.name);
+        writeShort(ZIP64_EXTRA_ID);
+        writeShort(16);
+        writeLong(0);
+        writeLong(0);
+        return record;
+    }
+
+    private EntryRecord writeLocalHeader(String name, int method, int flags, long crc, long compressedSize,
+                                         long uncompressedSize) throws IOException {
+        EntryRecord record = new EntryRecord(name.getBytes(StandardCharsets.UTF_8), method, flags, offset, false);
+        entries.add(record);
+
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(VERSION_DEFAULT);
+        writeShort(flags);
+        writeShort(method);
+        writeInt(dosTime);
+        writeInt(crc);
+        writeInt(compressedSize);
+        writeInt(uncompressedSize);
+        writeShort(record.name.length);
+        writeShort(0);
+        writeBytes(record.name);
+        return record;
+    }
+
+    private void writeDataDescriptor(EntryRecord record, long crc, long compressedSize, long uncompressedSize)
+            throws IOException {
+        record.crc = crc;
+        record.compressedSize = compressedSize;
+        record.uncompressedSize = uncompressedSize;
+
+        writeInt(DATA_DESCRIPTOR_SIGNATURE);
+        writeInt(crc);
+        if (record.zip64) {
+            writeLong(compressedSize);
+            writeLong(uncompressedSize);
+        } else {
+            if (compressedSize >= ZIP64_THRESHOLD || uncompressedSize >= ZIP64_THRESHOLD) {
+                throw new IOException("Entry " + new String(record.name, StandardCharsets.UTF_8)
+                        + " was expected to be smaller than 4 GB");
+            }
+            writeInt(compressedSize);
+            writeInt(uncompressedSize);
+        }
+    }
+
+    private static boolean mayNeedZip64(long uncompressedSize) {
+        return uncompressedSize + (uncompressedSize >>> DEFLATE_OVERHEAD_SHIFT) + 64 >= ZIP64_THRESHOLD;
+    }
+
+    private void writeCentralHeader(EntryRecord record) throws IOException {
+        boolean uncompressedSizeOverflows = record.uncompressedSize >= ZIP64_THRESHOLD;
+        boolean compressedSizeOverflows = record.compressedSize >= ZIP64_THRESHOLD;
+        boolean offsetOverflows = record.localHeaderOffset >= ZIP64_THRESHOLD;
+        int zip64ExtraSize = (uncompressedSizeOverflows ? 8 : 0) + (compressedSizeOverflows ? 8 : 0) + (offsetOverflows ? 8 : 0);
+        int version = zip64ExtraSize > 0 ? VERSION_ZIP64 : VERSION_DEFAULT;
+
+        writeInt(CENTRAL_HEADER_SIGNATURE);
+        writeShort(version);
+        writeShort(version);
+        writeShort(record.flags);
+        writeShort(record.method);
+        writeInt(dosTime);
+        writeInt(record.crc);
+        writeInt(Math.min(record.compressedSize, ZIP64_THRESHOLD));
+        writeInt(Math.min(record.uncompressedSize, ZIP64_THRESHOLD));
+        writeShort(record.name.length);
+        writeShort(zip64ExtraSize > 0 ? zip64ExtraSize + 4 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(Math.min(record.localHeaderOffset, ZIP64_THRESHOLD));
+        writeBytes(record.name);
+        if (zip64ExtraSize > 0) {
+            writeShort(0x0001);
+            writeShort(zip64ExtraSize);
+            if (uncompressedSizeOverflows) {
+                writeLong(record.uncompressedSize);
+            }
+            if (compressedSizeOverflows) {
+                writeLong(record.compressedSize);
+            }
+            if (offsetOverflows) {
+                writeLong(record.localHeaderOffset);
+            }
+        }
+    }
+
+    private void writeShort(int value) throws IOException {
+        scratch[0] = (byte) value;
+        scratch[1] = (byte) (value >>> 8);
+        outputStream.write(scratch, 0, 2);
+        offset += 2;
+    }
+
+    private void writeInt(long value) throws IOException {
+        for (int index = 0; index < 4; index++) {
+            scratch[index] = (byte) (value >>> (8 * index));
+        }
+        outputStream.write(scratch, 0, 4);
+        offset += 4;
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int index = 0; index < 8; index++) {
+            scratch[index] = (byte) (value >>> (8 * index));
+        }
+        outputStream.write(scratch, 0, 8);
+        offset += 8;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        outputStream.write(bytes);
+        offset += bytes.length;
+    }
+
+    private static int dosTime(LocalDateTime time) {
+        int year = Math.max(1980, time.getYear());
+        return (year - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    private static final class EntryRecord {
+        private final byte[] name;
+        private final int method;
+        private final int flags;
+        private final long localHeaderOffset;
+        private final boolean zip64;
+        private long crc;
+        private long compressedSize;
+        private long uncompressedSize;
+
+        private EntryRecord(byte[] name, int method, int flags, long localHeaderOffset, boolean zip64) {
+            this.name = name;
+            this.method = method;
+            this.flags = flags;
+            this.localHeaderOffset = localHeaderOffset;
+            this.zip64 = zip64;
+        }
+    }
+
+    /**
+     * Passes compressed data on to the package, keeping track of the offset.
+     */
+
+    private final class CountingOutputStream extends OutputStream {
+        @Override
+        public void write(int value) throws IOException {
+            outputStream.write(value);
+            offset++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int bytesOffset, int length) throws IOException {
+            outputStream.write(bytes, bytesOffset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Writes the compressed content of an entry.
+     */
+
+    interface CompressedContent {
+        void writeTo(OutputStream compressedOutput) throws IOException;
+    }
+
+    /**
+     * Stream that compresses the content of a single entry, and keeps track of its checksum and sizes.
+     */
+
+    abstract static class EntryOutputStream extends OutputStream {
+        abstract long getCrc();
+
+        abstract long getCompressedSize();
+
+        abstract long getUncompressedSize();
+    }
+
+    private static final class SerialDeflaterOutputStream extends EntryOutputStream {
+        private final OutputStream compressedOutput;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] buffer = new byte[1 << 13];
+        private long compressedSize;
+        private long uncompressedSize;
+        private boolean closed;
+
+        private SerialDeflaterOutputStream(OutputStream compressedOutput, int level) {
+            this.compressedOutput = compressedOutput;
+            deflater = SkinnyResourcePool.acquireDeflater(level);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[]{(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            crc.update(bytes, offset, length);
+            deflater.setInput(bytes, offset, length);
+            while (!deflater.needsInput()) {
+                compressedOutput.write(buffer, 0, deflater.deflate(buffer));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            deflater.finish();
+            while (!deflater.finished()) {
+                compressedOutput.write(buffer, 0, deflater.deflate(buffer));
+            }
+            compressedSize = deflater.getBytesWritten();
+            uncompressedSize = deflater.getBytesRead();
+            SkinnyResourcePool.releaseDeflater(deflater);
+        }
+
+        @Override
+        long getCrc() {
+            return crc.getValue();
+        }
+
+        @Override
+        long getCompressedSize() {
+            return compressedSize;
+        }
+
+        @Override
+        long getUncompressedSize() {
+            return uncompressedSize;
+        }
+    }
+
+}
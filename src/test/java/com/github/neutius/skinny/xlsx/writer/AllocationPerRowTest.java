@@ -0,0 +1,159 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the amount of memory allocated for each row that is written, so an accidental extra allocation per cell fails a test
+ * instead of going unnoticed. Each engine writes a small and a large sheet, and the difference in allocated bytes is divided
+ * by the difference in rows, which leaves out fixed costs like creating the workbook and writing the file.
+ * <p>
+ * The budgets are roughly twice the measured values, to allow for differences between JVMs. The Apache POI based writers
+ * allocate far more than SkinnyRawStreamer, mostly inside POI and XMLBeans. A budget can be overridden with a system
+ * property, e.g. <code>-Dskinny.allocation.budget.rawStreamerUtf8=64</code>.
+ */
+
+class AllocationPerRowTest {
+
+    private static final String SHEET_NAME = "Allocations";
+    private static final int SMALL_ROW_AMOUNT = 2_000;
+    private static final int LARGE_ROW_AMOUNT = 22_000;
+    private static final int CELLS_PER_ROW = 4;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+    @Test
+    void rawStreamer_utf8Rows_allocateAlmostNothing(@TempDir File targetFolder) throws Exception {
+        byte[][] row = new byte[CELLS_PER_ROW][];
+        for (int columnIndex = 0; columnIndex < CELLS_PER_ROW; columnIndex++) {
+            row[columnIndex] = ("Cell value " + columnIndex).getBytes(StandardCharsets.UTF_8);
+        }
+
+        verifyBudget("rawStreamerUtf8", 16, rowAmount -> {
+            try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, "utf8")) {
+                streamer.addSheetToWorkbook(SHEET_NAME);
+                for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+                    streamer.addUtf8RowToCurrentSheet(row, true);
+                }
+            }
+        });
+    }
+
+    @Test
+    void rawStreamer_listRows_allocateAlmostNothing(@TempDir File targetFolder) throws Exception {
+        List<String> row = createRow();
+
+        verifyBudget("rawStreamerList", 16, rowAmount -> {
+            try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, "list")) {
+                streamer.addSheetToWorkbook(SHEET_NAME);
+                for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+                    streamer.addRowToCurrentSheet(row);
+                }
+            }
+        });
+    }
+
+    @Test
+    void rawStreamer_rowBuffer_allocatesAlmostNothing(@TempDir File targetFolder) throws Exception {
+        verifyBudget("rawStreamerRowBuffer", 64, rowAmount -> {
+            try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, "rowBuffer")) {
+                streamer.addSheetToWorkbook(SHEET_NAME);
+                SkinnyRowBuffer rowBuffer = streamer.getRowBuffer();
+                for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+                    rowBuffer.set(0, "Cell value").set(1, rowIndex).set(2, rowIndex * 0.5).set(3, "Cell value").commit();
+                }
+            }
+        });
+    }
+
+    @Test
+    void streamer_listRows_staysWithinBudget(@TempDir File targetFolder) throws Exception {
+        verifyMeasuredBudget("streamer", 8_000, rowAmount -> {
+            List<SkinnySheetContent> content = List.of(DefaultSheetContent.withoutHeaders(SHEET_NAME, createRows(rowAmount)));
+            long before = allocatedBytes();
+            SkinnyStreamer.writeContentToFileSystem(targetFolder, "streamer", content);
+            return allocatedBytes() - before;
+        });
+    }
+
+    @Test
+    void writer_listRows_staysWithinBudget(@TempDir File targetFolder) throws Exception {
+        verifyMeasuredBudget("writer", 120_000, rowAmount -> {
+            List<List<String>> rows = createRows(rowAmount);
+            long before = allocatedBytes();
+            SkinnyWriter writer = new SkinnyWriter(targetFolder, "writer", SHEET_NAME);
+            for (List<String> row : rows) {
+                writer.addRowToCurrentSheet(row);
+            }
+            return allocatedBytes() - before;
+        });
+    }
+
+    private static void verifyBudget(String engine, long defaultBudget, Export export) throws Exception {
+        verifyMeasuredBudget(engine, defaultBudget, rowAmount -> {
+            long before = allocatedBytes();
+            export.write(rowAmount);
+            return allocatedBytes() - before;
+        });
+    }
+
+    private static void verifyMeasuredBudget(String engine, long defaultBudget, MeasuredExport export) throws Exception {
+        assumeTrue(THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled(),
+                "Measuring allocated memory is not supported by this JVM");
+        long budget = Long.getLong("skinny.allocation.budget." + engine, defaultBudget);
+
+        // the first round loads classes and warms up the JIT compiler
+        export.write(LARGE_ROW_AMOUNT);
+        long smallExportBytes = export.write(SMALL_ROW_AMOUNT);
+        long largeExportBytes = export.write(LARGE_ROW_AMOUNT);
+        long bytesPerRow = (largeExportBytes - smallExportBytes) / (LARGE_ROW_AMOUNT - SMALL_ROW_AMOUNT);
+
+        assertThat(bytesPerRow)
+                .as("%s allocates %s bytes per row of %s cells, budget is %s", engine, bytesPerRow, CELLS_PER_ROW, budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<String> createRow() {
+        List<String> row = new ArrayList<>();
+        for (int columnIndex = 0; columnIndex < CELLS_PER_ROW; columnIndex++) {
+            row.add("Cell value " + columnIndex);
+        }
+        return row;
+    }
+
+    private static List<List<String>> createRows(int rowAmount) {
+        List<List<String>> rows = new ArrayList<>(rowAmount);
+        for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+            rows.add(createRow());
+        }
+        return rows;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) threadMXBean : null;
+    }
+
+    private interface Export {
+        void write(int rowAmount) throws Exception;
+    }
+
+    private interface MeasuredExport {
+        long write(int rowAmount) throws Exception;
+    }
+
+}
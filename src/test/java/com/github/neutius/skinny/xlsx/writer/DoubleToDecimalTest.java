@@ -0,0 +1,79 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DoubleToDecimalTest {
+
+    @Test
+    void knownValues_areWrittenAsShortestDecimal() throws IOException {
+        assertThat(format(0.1)).isEqualTo("0.1");
+        assertThat(format(-2.5)).isEqualTo("-2.5");
+        assertThat(format(0.1 + 0.2)).isEqualTo("0.30000000000000004");
+        assertThat(format(123456.789)).isEqualTo("123456.789");
+        assertThat(format(0.00012)).isEqualTo("0.00012");
+        assertThat(format(1.5e-7)).isEqualTo("1.5E-7");
+        assertThat(format(1e15)).isEqualTo("1E15");
+        assertThat(format(2e23)).isEqualTo("2E23");
+        assertThat(format(1e23)).isEqualTo("1E23");
+        assertThat(format(Double.MAX_VALUE)).isEqualTo("1.7976931348623157E308");
+        assertThat(format(Double.MIN_VALUE)).isEqualTo("4.9E-324");
+        assertThat(format(Double.MIN_NORMAL)).isEqualTo("2.2250738585072014E-308");
+        assertThat(format(-0.0)).isEqualTo("0");
+        assertThat(format(42)).isEqualTo("42");
+    }
+
+    @Test
+    void randomValues_roundTripAndAreNeverLongerThanDoubleToString() throws IOException {
+        Random random = new Random(20261019);
+        for (int index = 0; index < 200_000; index++) {
+            double value = index % 2 == 0 ? Double.longBitsToDouble(random.nextLong())
+                    : Math.round(random.nextDouble() * 1e8) / 1e4;
+            if (!Double.isFinite(value)) {
+                continue;
+            }
+
+            String actual = format(value);
+
+            assertThat(Double.parseDouble(actual)).as(actual).isEqualTo(value);
+            assertThat(significantDigits(actual)).as(actual).isLessThanOrEqualTo(significantDigits(Double.toString(value)));
+        }
+    }
+
+    @Test
+    void longValues_areWrittenCompletely() throws IOException {
+        ByteSink sink = new ByteSink(16);
+        sink.writeDecimal(Long.MIN_VALUE).write(' ').writeDecimal(Long.MAX_VALUE).write(' ').writeDecimal(0);
+
+        assertThat(toString(sink)).isEqualTo(Long.MIN_VALUE + " " + Long.MAX_VALUE + " 0");
+    }
+
+    @Test
+    void nonFiniteValue_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> DoubleToDecimal.writeTo(new ByteSink(16), Double.NaN))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String format(double value) throws IOException {
+        return toString(new ByteSink(16).writeDouble(value));
+    }
+
+    private static String toString(ByteSink sink) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        sink.writeTo(output);
+        return output.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static int significantDigits(String decimal) {
+        return new BigDecimal(decimal).stripTrailingZeros().precision();
+    }
+
+}
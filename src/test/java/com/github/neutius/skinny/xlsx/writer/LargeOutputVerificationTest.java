@@ -0,0 +1,106 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies large files with StreamingXlsxVerifier instead of an XSSFWorkbook, so neither the content nor the written file has
+ * to fit in memory. The content rows are generated on request.
+ */
+
+class LargeOutputVerificationTest {
+
+    private static final String FILE_NAME = "largeFile";
+    private static final String EXTENSION = ".xlsx";
+    private static final List<String> COLUMN_HEADERS = List.of("Id", "Name", "Description");
+
+    @Test
+    void rawStreamer_maximumAmountOfRows_contentIsComplete(@TempDir File targetFolder) throws IOException {
+        int rowAmount = SheetXmlWriter.MAX_ROW_AMOUNT - 1;
+        List<List<String>> contentRows = new GeneratedRows(rowAmount);
+
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.setCompressionThreads(Math.max(2, Runtime.getRuntime().availableProcessors()));
+            streamer.addSheetToWorkbook(DefaultSheetContent.withHeaders("Large Sheet", COLUMN_HEADERS, contentRows));
+        }
+
+        verifyLargeSheet(targetFolder, "Large Sheet", contentRows);
+    }
+
+    @Test
+    void streamer_manyRows_contentIsComplete(@TempDir File targetFolder) throws IOException {
+        List<List<String>> contentRows = new GeneratedRows(100_000);
+
+        SkinnyStreamer.writeContentToFileSystem(targetFolder, FILE_NAME,
+                List.of(DefaultSheetContent.withHeaders("Large Sheet", COLUMN_HEADERS, contentRows)));
+
+        verifyLargeSheet(targetFolder, "Large Sheet", contentRows);
+    }
+
+    @Test
+    void writerWithSharedStrings_severalSheets_contentIsComplete(@TempDir File targetFolder) throws IOException {
+        List<List<String>> contentRows = new GeneratedRows(5000);
+
+        SkinnyWriter.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(
+                DefaultSheetContent.withHeaders("First Sheet", COLUMN_HEADERS, contentRows),
+                DefaultSheetContent.withoutHeaders("Second Sheet", List.of(List.of("only", "one"), List.of("row", "each")))));
+
+        verifyLargeSheet(targetFolder, "First Sheet", contentRows);
+        try (StreamingXlsxVerifier verifier = new StreamingXlsxVerifier(new File(targetFolder, FILE_NAME + EXTENSION))) {
+            assertThat(verifier.getSheetNames()).containsExactly("First Sheet", "Second Sheet");
+            StreamingXlsxVerifier.SheetSummary summary = verifier.readSheet("Second Sheet");
+            assertThat(summary.getRowAmount()).isEqualTo(2);
+            assertThat(summary.getFrozenRowAmount()).isZero();
+        }
+    }
+
+    private static void verifyLargeSheet(File targetFolder, String sheetName, List<List<String>> contentRows)
+            throws IOException {
+        int middleRowIndex = contentRows.size() / 2;
+        List<List<String>> sampledRows = new ArrayList<>();
+        try (StreamingXlsxVerifier verifier = new StreamingXlsxVerifier(new File(targetFolder, FILE_NAME + EXTENSION))) {
+            assertThat(verifier.getSheetNames()).contains(sheetName);
+            StreamingXlsxVerifier.SheetSummary summary = verifier.readSheet(sheetName, (rowIndex, cellValues) -> {
+                if (rowIndex == 0 || rowIndex == middleRowIndex + 1) {
+                    sampledRows.add(new ArrayList<>(cellValues));
+                }
+            });
+
+            assertThat(summary.getRowAmount()).isEqualTo(contentRows.size() + 1);
+            assertThat(summary.getFrozenRowAmount()).isEqualTo(1);
+            Iterable<List<String>> expectedRows = Stream.concat(Stream.of(COLUMN_HEADERS), contentRows.stream())::iterator;
+            assertThat(summary.getContentHash()).isEqualTo(StreamingXlsxVerifier.hashRows(expectedRows));
+        }
+
+        assertThat(sampledRows.get(0)).isEqualTo(COLUMN_HEADERS);
+        assertThat(sampledRows.get(1)).isEqualTo(contentRows.get(middleRowIndex));
+    }
+
+    private static final class GeneratedRows extends AbstractList<List<String>> {
+        private final int rowAmount;
+
+        private GeneratedRows(int rowAmount) {
+            this.rowAmount = rowAmount;
+        }
+
+        @Override
+        public List<String> get(int index) {
+            return List.of(String.valueOf(index), "Name " + (index % 1000), "Row number " + index + " of " + rowAmount);
+        }
+
+        @Override
+        public int size() {
+            return rowAmount;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazySheetContentTest {
+
+    private final String sheetName = "sheetName";
+    private final List<String> columnHeaders = List.of("Header1", "Header2");
+
+    @Test
+    void withHeaders_eachRequestCallsTheSupplier() {
+        List<List<List<String>>> producedRows = new ArrayList<>();
+        SkinnySheetContent sheetContent = LazySheetContent.withHeaders(sheetName, columnHeaders, () -> {
+            List<List<String>> contentRows = List.of(List.of("A1", "A2"));
+            producedRows.add(contentRows);
+            return contentRows;
+        });
+
+        assertThat(producedRows).isEmpty();
+        assertThat(sheetContent.getSheetName()).isEqualTo(sheetName);
+        assertThat(sheetContent.hasColumnHeaders()).isTrue();
+        assertThat(sheetContent.getColumnHeaders()).isEqualTo(columnHeaders);
+        assertThat(sheetContent.getContentRows()).containsExactly(List.of("A1", "A2"));
+        assertThat(sheetContent.getContentRows()).isNotSameAs(producedRows.get(0));
+        assertThat(producedRows).hasSize(2);
+    }
+
+    @Test
+    void withoutHeaders() {
+        SkinnySheetContent sheetContent = LazySheetContent.withoutHeaders(sheetName, List::of);
+
+        assertThat(sheetContent.getSheetName()).isEqualTo(sheetName);
+        assertThat(sheetContent.hasColumnHeaders()).isFalse();
+        assertThat(sheetContent.getColumnHeaders()).isNull();
+        assertThat(sheetContent.getContentRows()).isEmpty();
+        assertThat(sheetContent.getColumnWidthPolicy()).isNull();
+    }
+
+    @Test
+    void withColumnWidthPolicy_policyIsAdded() {
+        SkinnyColumnWidthPolicy columnWidthPolicy = SkinnyColumnWidthPolicy.firstRows(10);
+
+        SkinnySheetContent sheetContent = LazySheetContent.withoutHeaders(sheetName, List::of)
+                .withColumnWidthPolicy(columnWidthPolicy);
+
+        assertThat(sheetContent.getColumnWidthPolicy()).isSameAs(columnWidthPolicy);
+    }
+
+    @Test
+    void withHeaders_columnHeadersContainsBlankString_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> LazySheetContent.withHeaders(sheetName, List.of("valid", " "), List::of))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void withoutHeaders_supplierIsNull_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> LazySheetContent.withoutHeaders(sheetName, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedSpillStoreTest {
+
+    private static final int SEGMENT_SIZE = 16;
+
+    @Test
+    void contentSpanningSeveralSegments_isTransferredUnchanged(@TempDir File targetFolder) throws IOException {
+        byte[] expectedContent = createContent(100);
+        ByteArrayOutputStream actualContent = new ByteArrayOutputStream();
+
+        try (MappedSpillStore spillStore = new MappedSpillStore(new File(targetFolder, "spill"), SEGMENT_SIZE)) {
+            spillStore.write(expectedContent, 0, 7);
+            spillStore.write(expectedContent[7]);
+            spillStore.write(expectedContent, 8, expectedContent.length - 8);
+            spillStore.transferTo(actualContent);
+
+            assertThat(spillStore.size()).isEqualTo(expectedContent.length);
+        }
+
+        assertThat(actualContent.toByteArray()).isEqualTo(expectedContent);
+    }
+
+    @Test
+    void inputStream_readsContentOnly(@TempDir File targetFolder) throws IOException {
+        byte[] expectedContent = createContent(20);
+
+        try (MappedSpillStore spillStore = new MappedSpillStore(new File(targetFolder, "spill"), SEGMENT_SIZE)) {
+            spillStore.write(expectedContent);
+            try (InputStream inputStream = spillStore.newInputStream()) {
+                assertThat(inputStream.readAllBytes()).isEqualTo(expectedContent);
+            }
+        }
+    }
+
+    @Test
+    void close_deletesFile(@TempDir File targetFolder) throws IOException {
+        File spillFile = new File(targetFolder, "spill");
+        MappedSpillStore spillStore = new MappedSpillStore(spillFile, SEGMENT_SIZE);
+        spillStore.write(createContent(5));
+
+        spillStore.close();
+
+        assertThat(spillFile).doesNotExist();
+        assertThatThrownBy(() -> spillStore.write(1)).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] createContent(int length) {
+        byte[] content = new byte[length];
+        for (int index = 0; index < length; index++) {
+            content[index] = (byte) (index * 31);
+        }
+        return content;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyBackendsTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void availableBackends_allBackendsAreFound() {
+        List<String> actualNames = SkinnyBackends.getAvailableBackends().stream()
+                .map(SkinnyBackend::getName).collect(Collectors.toList());
+
+        assertThat(actualNames).containsExactly("raw", "poi-writer", "poi-streamer");
+    }
+
+    @Test
+    void eachBackend_writesTheSameContent(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        SkinnySheetContent content = DefaultSheetContent.withHeaders(SHEET_NAME, List.of("Header 1", "Header 2"),
+                List.of(List.of("Content 1", "Content 2")));
+
+        for (SkinnyBackend backend : SkinnyBackends.getAvailableBackends()) {
+            backend.writeContentToFileSystem(targetFolder, backend.getName(), List.of(content));
+
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new File(targetFolder, backend.getName() + EXTENSION))) {
+                XSSFSheet actualSheet = workbook.getSheet(SHEET_NAME);
+                verifyCellContent(actualSheet, 0, 1, "Header 2");
+                verifyCellContent(actualSheet, 1, 0, "Content 1");
+            }
+        }
+    }
+
+    @Test
+    void defaultBackend_isRawUnlessPropertyIsSet() {
+        assertThat(SkinnyBackends.getDefaultBackend().getName()).isEqualTo(SkinnyBackends.DEFAULT_BACKEND_NAME);
+
+        System.setProperty(SkinnyBackends.BACKEND_PROPERTY, "poi-streamer");
+        try {
+            assertThat(SkinnyBackends.getDefaultBackend().getName()).isEqualTo("poi-streamer");
+        } finally {
+            System.clearProperty(SkinnyBackends.BACKEND_PROPERTY);
+        }
+    }
+
+    @Test
+    void unknownBackend_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> SkinnyBackends.getBackend("jxl"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("raw");
+    }
+
+    @Test
+    void withoutApachePoi_rawBackendStillWorks(@TempDir File targetFolder) throws Exception {
+        URL libraryLocation = SkinnyBackend.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader withoutPoi = new URLClassLoader(new URL[]{libraryLocation}, ClassLoader.getPlatformClassLoader())) {
+            Class<?> backendsClass = withoutPoi.loadClass(SkinnyBackends.class.getName());
+            Object availableBackends = backendsClass.getMethod("getAvailableBackends").invoke(null);
+            assertThat((List<?>) availableBackends).hasSize(1);
+
+            Object backend = backendsClass.getMethod("getDefaultBackend").invoke(null);
+            Method write = backend.getClass().getMethod("writeContentToFileSystem", File.class, String.class, List.class);
+            write.invoke(backend, targetFolder, FILE_NAME, List.of());
+        }
+
+        assertThat(new File(targetFolder, FILE_NAME + EXTENSION)).exists();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkinnyCliTest extends AbstractSkinnyWriterTestBase {
+
+    private final ByteArrayOutputStream errorOutput = new ByteArrayOutputStream();
+
+    @Test
+    void inputFiles_eachFileIsASheet(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        File firstInputFile = writeInputFile(targetFolder, "first.tsv", "Id\tName\n1\tOne\n2\t\n");
+        File secondInputFile = writeInputFile(targetFolder, "second.txt", "3\tThree\n");
+
+        int exitCode = run(InputStream.nullInputStream(), targetFolder.getPath(), FILE_NAME, firstInputFile.getPath(),
+                "--no-headers", secondInputFile.getPath());
+
+        assertThat(exitCode).isEqualTo(SkinnyCli.EXIT_OK);
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet firstSheet = actualWorkbook.getSheet("first");
+        assertThat(firstSheet).hasSize(3);
+        verifyCellContent(firstSheet, 0, 1, "Name");
+        verifyCellContent(firstSheet, 2, 0, "2");
+        verifyCellContent(actualWorkbook.getSheet("second"), 0, 1, "Three");
+    }
+
+    @Test
+    void standardInput_separatorOption_isUsed(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        InputStream standardInput = new ByteArrayInputStream("Header;Other\nValue;Other value\n".getBytes(StandardCharsets.UTF_8));
+
+        int exitCode = run(standardInput, "--separator=;", targetFolder.getPath(), FILE_NAME);
+
+        assertThat(exitCode).isEqualTo(SkinnyCli.EXIT_OK);
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheetAt(0);
+        assertThat(actualSheet.getPaneInformation().isFreezePane()).isTrue();
+        verifyCellContent(actualSheet, 1, 1, "Other value");
+    }
+
+    @Test
+    void invalidArguments_usageIsPrinted(@TempDir File targetFolder) {
+        assertThat(run(InputStream.nullInputStream(), targetFolder.getPath())).isEqualTo(SkinnyCli.EXIT_USAGE);
+        assertThat(run(InputStream.nullInputStream(), "--separator=ab", targetFolder.getPath(), FILE_NAME))
+                .isEqualTo(SkinnyCli.EXIT_USAGE);
+        assertThat(errorOutput.toString(StandardCharsets.UTF_8)).contains("Usage: skinny-xlsx");
+    }
+
+    @Test
+    void missingInputFile_conversionFails(@TempDir File targetFolder) {
+        int exitCode = run(InputStream.nullInputStream(), targetFolder.getPath(), FILE_NAME, "missing.tsv");
+
+        assertThat(exitCode).isEqualTo(SkinnyCli.EXIT_FAILURE);
+        assertThat(errorOutput.toString(StandardCharsets.UTF_8)).contains("missing.tsv");
+    }
+
+    private int run(InputStream standardInput, String... args) {
+        return SkinnyCli.run(standardInput, new PrintStream(errorOutput, true, StandardCharsets.UTF_8), args);
+    }
+
+    private static File writeInputFile(File targetFolder, String fileName, String content) throws IOException {
+        File inputFile = new File(targetFolder, fileName);
+        Files.write(inputFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return inputFile;
+    }
+
+}
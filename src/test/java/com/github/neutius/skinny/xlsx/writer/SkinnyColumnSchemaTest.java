@@ -0,0 +1,120 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import com.github.neutius.skinny.xlsx.writer.SkinnyColumnSchema.ColumnType;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyColumnSchemaTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void declared_matchingValuesAreTypedAndOtherValuesRemainText(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        SkinnyColumnSchema schema = SkinnyColumnSchema.declared(List.of(ColumnType.INTEGER, ColumnType.DECIMAL,
+                ColumnType.DATE, ColumnType.DATE_TIME));
+        List<List<String>> contentRows = List.of(
+                List.of("42", "3.14", "2026-10-19", "2026-10-19T08:30:00", "-7"),
+                List.of("007", "1,5", "19-10-2026", "2026-10-19 08:30"),
+                Arrays.asList(null, "-1.5E3", "1899-12-31", "2026-10-19"));
+
+        XSSFSheet actualSheet = writeWithRawStreamer(targetFolder, DefaultSheetContent.withHeaders(SHEET_NAME,
+                List.of("Integer", "Decimal", "Date", "Date and time"), contentRows).withColumnSchema(schema));
+
+        verifyCellContent(actualSheet, 0, 0, "Integer");
+        verifyNumber(actualSheet.getRow(1).getCell(0), 42);
+        verifyNumber(actualSheet.getRow(1).getCell(1), 3.14);
+        assertThat(actualSheet.getRow(1).getCell(2).getLocalDateTimeCellValue().toLocalDate())
+                .isEqualTo(LocalDate.of(2026, 10, 19));
+        assertThat(actualSheet.getRow(1).getCell(2).getCellStyle().getDataFormat()).isEqualTo((short) 14);
+        assertThat(actualSheet.getRow(1).getCell(3).getLocalDateTimeCellValue())
+                .isEqualTo(LocalDateTime.of(2026, 10, 19, 8, 30));
+        verifyCellContent(actualSheet, 1, 4, "-7");
+
+        verifyCellContent(actualSheet, 2, 0, "007");
+        verifyCellContent(actualSheet, 2, 1, "1,5");
+        verifyCellContent(actualSheet, 2, 2, "19-10-2026");
+        assertThat(actualSheet.getRow(2).getCell(3).getLocalDateTimeCellValue())
+                .isEqualTo(LocalDateTime.of(2026, 10, 19, 8, 30));
+
+        verifyNumber(actualSheet.getRow(3).getCell(1), -1500);
+        verifyCellContent(actualSheet, 3, 2, "1899-12-31");
+        assertThat(actualSheet.getRow(3).getCell(3).getLocalDateTimeCellValue())
+                .isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+    }
+
+    @Test
+    void inferred_eachColumnGetsTheMostSpecificTypeOfItsSample(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        List<List<String>> contentRows = new ArrayList<>();
+        for (int rowIndex = 0; rowIndex < 100; rowIndex++) {
+            contentRows.add(List.of(String.valueOf(rowIndex), rowIndex % 20 == 10 ? "0.5" : "1", "Text " + rowIndex,
+                    LocalDate.of(2026, 1, 1).plusDays(rowIndex).toString(), rowIndex == 99 ? "n/a" : "" + rowIndex));
+        }
+
+        assertThat(SkinnyColumnSchema.inferred(10).resolveColumnTypes(contentRows)).containsExactly(ColumnType.INTEGER,
+                ColumnType.DECIMAL, ColumnType.TEXT, ColumnType.DATE, ColumnType.INTEGER);
+        assertThat(SkinnyColumnSchema.inferred(100).resolveColumnTypes(contentRows)).endsWith(ColumnType.TEXT);
+
+        XSSFSheet actualSheet = writeWithRawStreamer(targetFolder, LazySheetContent.withoutHeaders(SHEET_NAME, () -> contentRows)
+                .withColumnSchema(SkinnyColumnSchema.inferred(10)));
+
+        verifyNumber(actualSheet.getRow(5).getCell(0), 5);
+        verifyNumber(actualSheet.getRow(10).getCell(1), 0.5);
+        verifyCellContent(actualSheet, 5, 2, "Text 5");
+        assertThat(actualSheet.getRow(5).getCell(3).getLocalDateTimeCellValue().toLocalDate())
+                .isEqualTo(LocalDate.of(2026, 1, 6));
+        verifyCellContent(actualSheet, 99, 4, "n/a");
+    }
+
+    @Test
+    void inferred_datesAndDatesWithTime_dateTimeColumn() {
+        List<List<String>> contentRows = List.of(List.of("2026-10-19", ""), List.of("2026-10-19 08:30"),
+                Arrays.asList("2026-10-20", null));
+
+        assertThat(SkinnyColumnSchema.inferred(3).resolveColumnTypes(contentRows))
+                .containsExactly(ColumnType.DATE_TIME, ColumnType.TEXT);
+    }
+
+    @Test
+    void isDecimal_onlyNumbersThatExcelCanRepresentExactly() {
+        assertThat(List.of("0", "-0.25", "12.5e2", "1E-99", "0.000123456789012345"))
+                .allMatch(SkinnyColumnSchema::isDecimal);
+        assertThat(List.of("", "-", ".5", "5.", "01.5", "1e", "1e100", "1234567890123456", "NaN", "1 000", "+1"))
+                .noneMatch(SkinnyColumnSchema::isDecimal);
+    }
+
+    @Test
+    void factoryMethods_invalidArguments_throwException() {
+        assertThatThrownBy(() -> SkinnyColumnSchema.inferred(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SkinnyColumnSchema.declared(Arrays.asList(ColumnType.DATE, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private XSSFSheet writeWithRawStreamer(File targetFolder, SkinnySheetContent sheetContent)
+            throws IOException, InvalidFormatException {
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(sheetContent));
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        return actualWorkbook.getSheetAt(0);
+    }
+
+    private static void verifyNumber(XSSFCell cell, double expectedValue) {
+        assertThat(cell.getCellType()).isEqualTo(CellType.NUMERIC);
+        assertThat(cell.getNumericCellValue()).isEqualTo(expectedValue);
+    }
+
+}
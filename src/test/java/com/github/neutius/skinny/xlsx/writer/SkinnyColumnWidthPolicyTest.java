@@ -0,0 +1,166 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyColumnWidthPolicyTest extends AbstractSkinnyWriterTestBase {
+
+    private static final String LONG_VALUE = "A rather long cell value that needs a wide column";
+    private static final int DEFAULT_WIDTH = 8 * 256;
+
+    @Test
+    void none_columnsKeepDefaultWidth(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        XSSFSheet actualSheet = writeWithSkinnyWriter(targetFolder, SkinnyColumnWidthPolicy.none(), 10, 5);
+
+        assertThat(actualSheet.getColumnWidth(0)).isEqualTo(DEFAULT_WIDTH);
+        assertThat(actualSheet.getColumnWidth(1)).isEqualTo(DEFAULT_WIDTH);
+    }
+
+    @Test
+    void headersOnly_contentIsIgnored(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        XSSFSheet actualSheet = writeWithSkinnyWriter(targetFolder, SkinnyColumnWidthPolicy.headersOnly(), 10, 0);
+
+        assertThat(actualSheet.getColumnWidth(0)).isLessThan(actualSheet.getColumnWidth(1));
+        assertThat(actualSheet.getColumnWidth(1)).isLessThan(widthOf(LONG_VALUE, targetFolder));
+    }
+
+    @Test
+    void firstRows_laterRowsAreIgnored(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        XSSFSheet ignoringSheet = writeWithSkinnyWriter(targetFolder, SkinnyColumnWidthPolicy.firstRows(5), 10, 7);
+        int ignoredWidth = ignoringSheet.getColumnWidth(0);
+        actualWorkbook.close();
+        XSSFSheet measuringSheet = writeWithSkinnyWriter(targetFolder, SkinnyColumnWidthPolicy.firstRows(8), 10, 7);
+
+        assertThat(ignoredWidth).isLessThan(measuringSheet.getColumnWidth(0));
+    }
+
+    @Test
+    void allRows_sameWidthAsSampleOfAllRows(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        int allRowsWidth = writeWithSkinnyWriter(targetFolder, SkinnyColumnWidthPolicy.allRows(), 50, 42).getColumnWidth(0);
+        actualWorkbook.close();
+        int sampledWidth = writeWithSkinnyWriter(targetFolder, SkinnyColumnWidthPolicy.sampledRows(50), 50, 42)
+                .getColumnWidth(0);
+
+        assertThat(allRowsWidth).isEqualTo(sampledWidth).isEqualTo(widthOf(LONG_VALUE, targetFolder));
+    }
+
+    @Test
+    void sampledRows_sameContent_sameWidths(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        int firstWidth = writeWithSkinnyStreamer(targetFolder, SkinnyColumnWidthPolicy.sampledRows(10), 1000, 500)
+                .getColumnWidth(0);
+        actualWorkbook.close();
+        int secondWidth = writeWithSkinnyStreamer(targetFolder, SkinnyColumnWidthPolicy.sampledRows(10), 1000, 500)
+                .getColumnWidth(0);
+
+        assertThat(firstWidth).isEqualTo(secondWidth);
+    }
+
+    @Test
+    void fixedWidths_widthsAreSetInCharacters(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        XSSFSheet actualSheet = writeWithSkinnyStreamer(targetFolder,
+                SkinnyColumnWidthPolicy.fixedWidths(Arrays.asList(20, null, 5)), 10, 5);
+
+        assertThat(actualSheet.getColumnWidth(0)).isEqualTo(20 * 256);
+        assertThat(actualSheet.getColumnWidth(1)).isEqualTo(DEFAULT_WIDTH);
+    }
+
+    @Test
+    void streamer_defaultPolicy_laterRowsAreIgnored(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        XSSFSheet actualSheet = writeWithSkinnyStreamer(targetFolder, null, 500, 300);
+
+        assertThat(actualSheet.getColumnWidth(0)).isLessThan(widthOf(LONG_VALUE, targetFolder));
+    }
+
+    @Test
+    void streamer_allRows_laterRowsAreMeasured(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        XSSFSheet actualSheet = writeWithSkinnyStreamer(targetFolder, SkinnyColumnWidthPolicy.allRows(), 500, 300);
+
+        assertThat(actualSheet.getColumnWidth(0)).isEqualTo(widthOf(LONG_VALUE, targetFolder));
+    }
+
+    @Test
+    void writer_policyChangedAfterRows_existingRowsAreMeasured(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+        writer.addColumnHeaderRowToCurrentSheet(List.of("Id", "Header"));
+        writer.addRowToCurrentSheet(List.of(LONG_VALUE));
+        writer.setColumnWidthPolicy(SkinnyColumnWidthPolicy.headersOnly());
+        writeAndReadActualWorkbook(targetFolder);
+
+        assertThat(actualWorkbook.getSheet(SHEET_NAME).getColumnWidth(0)).isLessThan(widthOf(LONG_VALUE, targetFolder));
+    }
+
+    @Test
+    void withoutFontMetrics_widthsAreEstimatedFromCharacters() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSSFSheet sheet = workbook.createSheet(SHEET_NAME);
+            sheet.createRow(0).createCell(0).setCellValue("Header");
+            sheet.createRow(1).createCell(0).setCellValue("Two lines\nof text");
+            sheet.getRow(1).createCell(1).setCellValue(12345);
+
+            ColumnWidthTracker tracker = new ColumnWidthTracker(SkinnyColumnWidthPolicy.allRows(), sheet, false);
+            tracker.addExistingRows(sheet, true);
+            tracker.applyTo(sheet);
+
+            assertThat(sheet.getColumnWidth(0)).isEqualTo(("Two lines".length() + 1) * 256);
+            assertThat(sheet.getColumnWidth(1)).isEqualTo(("12345".length() + 1) * 256);
+        }
+    }
+
+    @Test
+    void invalidParameters_throwIllegalArgumentException() {
+        assertThatThrownBy(() -> SkinnyColumnWidthPolicy.firstRows(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SkinnyColumnWidthPolicy.sampledRows(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SkinnyColumnWidthPolicy.fixedWidths(List.of(256)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private XSSFSheet writeWithSkinnyWriter(File targetFolder, SkinnyColumnWidthPolicy policy, int rowAmount,
+                                            int longValueRowIndex) throws IOException, InvalidFormatException {
+        SkinnyWriter.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(createSheet(policy, rowAmount, longValueRowIndex)));
+        return readActualSheet(targetFolder);
+    }
+
+    private XSSFSheet writeWithSkinnyStreamer(File targetFolder, SkinnyColumnWidthPolicy policy, int rowAmount,
+                                              int longValueRowIndex) throws IOException, InvalidFormatException {
+        SkinnyStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(createSheet(policy, rowAmount, longValueRowIndex)));
+        return readActualSheet(targetFolder);
+    }
+
+    private XSSFSheet readActualSheet(File targetFolder) throws IOException, InvalidFormatException {
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        return actualWorkbook.getSheet(SHEET_NAME);
+    }
+
+    private int widthOf(String value, File targetFolder) throws IOException, InvalidFormatException {
+        File referenceFolder = new File(targetFolder, "reference");
+        referenceFolder.mkdir();
+        SkinnyWriter.writeContentToFileSystem(referenceFolder, FILE_NAME, List.of(DefaultSheetContent.withoutHeaders(SHEET_NAME,
+                List.of(List.of(value)))));
+        try (XSSFWorkbook referenceWorkbook = new XSSFWorkbook(new File(referenceFolder, FILE_NAME + EXTENSION))) {
+            return referenceWorkbook.getSheet(SHEET_NAME).getColumnWidth(0);
+        }
+    }
+
+    private static DefaultSheetContent createSheet(SkinnyColumnWidthPolicy policy, int rowAmount, int longValueRowIndex) {
+        List<List<String>> contentRows = new ArrayList<>();
+        for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+            contentRows.add(List.of(rowIndex == longValueRowIndex ? LONG_VALUE : "Short", "Medium length value"));
+        }
+        return DefaultSheetContent.withHeaders(SHEET_NAME, List.of("Id", "A somewhat longer header"), contentRows)
+                .withColumnWidthPolicy(policy);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyConcurrentWorkbookTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void sheetsWrittenConcurrently_keepDeclaredOrder(@TempDir File targetFolder) throws Exception {
+        CountDownLatch secondSheetFinished = new CountDownLatch(1);
+
+        try (SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME)) {
+            SkinnySheetHandle firstSheet = workbook.openSheet("First");
+            SkinnySheetHandle secondSheet = workbook.openSheet("Second");
+
+            CompletableFuture<Void> firstResult = CompletableFuture.runAsync(() -> {
+                awaitQuietly(secondSheetFinished);
+                writeRows(firstSheet, "First", 500);
+            });
+            CompletableFuture<Void> secondResult = CompletableFuture.runAsync(() -> {
+                writeRows(secondSheet, "Second", 300);
+                secondSheetFinished.countDown();
+            });
+            CompletableFuture.allOf(firstResult, secondResult).get(30, TimeUnit.SECONDS);
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook.getSheetName(0)).isEqualTo("First");
+        assertThat(actualWorkbook.getSheetName(1)).isEqualTo("Second");
+        XSSFSheet actualFirstSheet = actualWorkbook.getSheetAt(0);
+        assertThat(actualFirstSheet).hasSize(501);
+        assertThat(actualFirstSheet.getPaneInformation().isFreezePane()).isTrue();
+        verifyCellContent(actualFirstSheet, 500, 1, "First 499");
+        verifyCellContent(actualWorkbook.getSheetAt(1), 300, 1, "Second 299");
+    }
+
+    @Test
+    void writeContentToFileSystem_allSheetsAreWritten(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        List<SkinnySheetContent> sheetContentList = new ArrayList<>();
+        for (int sheetIndex = 0; sheetIndex < 8; sheetIndex++) {
+            sheetContentList.add(DefaultSheetContent.withHeaders("Sheet " + sheetIndex, List.of("Id", "Value"),
+                    createRows("Sheet " + sheetIndex, 1000 + sheetIndex)));
+        }
+
+        SkinnyConcurrentWorkbook.writeContentToFileSystem(targetFolder, FILE_NAME, sheetContentList, 3);
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(8);
+        for (int sheetIndex = 0; sheetIndex < 8; sheetIndex++) {
+            XSSFSheet actualSheet = actualWorkbook.getSheetAt(sheetIndex);
+            assertThat(actualSheet.getSheetName()).isEqualTo("Sheet " + sheetIndex);
+            assertThat(actualSheet).hasSize(1001 + sheetIndex);
+            verifyCellContent(actualSheet, 1000 + sheetIndex, 1, "Sheet " + sheetIndex + " " + (999 + sheetIndex));
+        }
+    }
+
+    @Test
+    void writeContentToFileSystem_sheetsShareContentRows_allSheetsHaveTheSameContent(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        List<List<String>> sharedRows = createRows("Shared", 500);
+        List<SkinnySheetContent> sheetContentList = List.of(
+                DefaultSheetContent.withHeaders("First", List.of("Id", "Value"), sharedRows),
+                DefaultSheetContent.withHeaders("Other", List.of("Id", "Value"), createRows("Other", 10)),
+                DefaultSheetContent.withHeaders("First", List.of("Id", "Value"), sharedRows));
+
+        SkinnyConcurrentWorkbook.writeContentToFileSystem(targetFolder, FILE_NAME, sheetContentList, 2);
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(3);
+        assertThat(actualWorkbook.getSheetName(2)).isNotEqualTo("First");
+        verifyCellContent(actualWorkbook.getSheetAt(0), 500, 1, "Shared 499");
+        verifyCellContent(actualWorkbook.getSheetAt(1), 10, 1, "Other 9");
+        verifyCellContent(actualWorkbook.getSheetAt(2), 500, 1, "Shared 499");
+    }
+
+    @Test
+    void writeContentToFileSystem_failingSheet_exceptionIsPassedOn(@TempDir File targetFolder) {
+        List<List<String>> failingRows = new AbstractList<>() {
+            @Override
+            public List<String> get(int index) {
+                throw new IllegalStateException("Computing the content failed");
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+        };
+        List<SkinnySheetContent> sheetContentList = List.of(
+                DefaultSheetContent.withoutHeaders("Fine", createRows("Fine", 10)),
+                DefaultSheetContent.withoutHeaders("Failing", failingRows));
+
+        assertThatThrownBy(() -> SkinnyConcurrentWorkbook.writeContentToFileSystem(targetFolder, FILE_NAME, sheetContentList, 2))
+                .isInstanceOf(IllegalStateException.class).hasMessage("Computing the content failed");
+        assertThat(new File(targetFolder, FILE_NAME + EXTENSION)).doesNotExist();
+    }
+
+    @Test
+    void close_sheetAbandoned_fileIsDeletedAndIOExceptionIsThrown(@TempDir File targetFolder) throws IOException {
+        SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME);
+        SkinnySheetHandle fineSheet = workbook.openSheet("Fine");
+        SkinnySheetHandle abandonedSheet = workbook.openSheet("Abandoned");
+        writeRows(fineSheet, "Fine", 10);
+        abandonedSheet.addRow(List.of("Incomplete"));
+        abandonedSheet.abandon();
+
+        assertThatThrownBy(workbook::close).isInstanceOf(IOException.class).hasMessageContaining("Abandoned");
+        assertThat(new File(targetFolder, FILE_NAME + EXTENSION)).doesNotExist();
+    }
+
+    @Test
+    void close_sheetStillOpen_throwsIllegalStateException(@TempDir File targetFolder) throws IOException {
+        SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME);
+        SkinnySheetHandle sheetHandle = workbook.openSheet(SHEET_NAME);
+        sheetHandle.addRow(List.of("Content"));
+
+        assertThatThrownBy(workbook::close).isInstanceOf(IllegalStateException.class).hasMessageContaining(SHEET_NAME);
+        assertThatThrownBy(() -> workbook.openSheet("Too late")).isInstanceOf(IllegalStateException.class);
+        assertThat(new File(targetFolder, FILE_NAME + EXTENSION)).doesNotExist();
+    }
+
+    @Test
+    void noSheets_emptySheetIsAdded(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME).close();
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(1);
+    }
+
+    private static void writeRows(SkinnySheetHandle sheetHandle, String prefix, int rowAmount) {
+        try (sheetHandle) {
+            sheetHandle.addColumnHeaderRow(List.of("Id", "Value"));
+            for (List<String> row : createRows(prefix, rowAmount)) {
+                sheetHandle.addRow(row);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static List<List<String>> createRows(String prefix, int rowAmount) {
+        List<List<String>> rows = new ArrayList<>();
+        for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+            rows.add(List.of(String.valueOf(rowIndex), prefix + " " + rowIndex));
+        }
+        return rows;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkinnyEventsTest {
+
+    private static final String FILE_NAME = "testFile";
+    private static final String SHEET_NAME = "Sheet";
+    private static final String EVENT_PREFIX = "com.github.neutius.skinny.";
+
+    private static final List<SkinnySheetContent> SHEETS = List.of(
+            DefaultSheetContent.withHeaders("First", List.of("Header 1", "Header 2"),
+                    List.of(List.of("a", "b"), List.of("c"))),
+            DefaultSheetContent.withoutHeaders("Second", List.of(List.of("d", "e", "f"))));
+
+    @Test
+    void skinnyWriter_exportIsRecorded(@TempDir File targetFolder) throws IOException {
+        List<RecordedEvent> events = record(targetFolder,
+                () -> SkinnyWriter.writeContentToFileSystem(targetFolder, FILE_NAME, SHEETS));
+
+        verifyExportEvents(events, "SkinnyWriter", new File(targetFolder, FILE_NAME + ".xlsx"));
+    }
+
+    @Test
+    void skinnyWriterConstructor_exportIsRecordedWhenWritten(@TempDir File targetFolder) throws IOException {
+        List<RecordedEvent> events = record(targetFolder, () -> {
+            SkinnyWriter writer = new SkinnyWriter(targetFolder, FILE_NAME);
+            writer.addSeveralSheetsToWorkbook(SHEETS);
+            writer.writeToFile();
+        });
+
+        verifyExportEvents(events, "SkinnyWriter", new File(targetFolder, FILE_NAME + ".xlsx"));
+    }
+
+    @Test
+    void skinnyWriterRowBuffer_cellsAreCounted(@TempDir File targetFolder) throws IOException {
+        List<RecordedEvent> events = record(targetFolder, () -> {
+            SkinnyWriter writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+            SkinnyRowBuffer rowBuffer = writer.getRowBuffer();
+            for (int index = 0; index < 12; index += 2) {
+                rowBuffer.set(index, index);
+            }
+            rowBuffer.commit();
+            writer.writeToFile();
+        });
+
+        List<RecordedEvent> exports = eventsNamed(events, "Export");
+        assertThat(exports).last().matches(export -> export.getLong("rowAmount") == 1 && export.getLong("cellAmount") == 6);
+    }
+
+    @Test
+    void skinnyStreamer_exportAndFlushesAreRecorded(@TempDir File targetFolder) throws IOException {
+        List<RecordedEvent> events = record(targetFolder,
+                () -> SkinnyStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, SHEETS));
+
+        verifyExportEvents(events, "SkinnyStreamer", new File(targetFolder, FILE_NAME + ".xlsx"));
+        List<RecordedEvent> flushes = eventsNamed(events, "RowFlush");
+        assertThat(flushes).hasSize(2);
+        assertThat(flushes.get(0).getInt("flushedRowAmount")).isEqualTo(3);
+        assertThat(flushes.get(1).getInt("flushedRowAmount")).isEqualTo(1);
+        assertThat(flushes).allMatch(flush -> flush.getInt("keptRowAmount") == 0);
+    }
+
+    @Test
+    void skinnyStreamer_automaticFlushesAreRecorded(@TempDir File targetFolder) throws IOException {
+        List<RecordedEvent> events = record(targetFolder, () -> {
+            try (SkinnyStreamer streamer = new SkinnyStreamer(targetFolder, FILE_NAME, 100)) {
+                streamer.addSheetToWorkbook(SHEET_NAME);
+                for (int rowIndex = 0; rowIndex < 50_000; rowIndex++) {
+                    streamer.addRowToCurrentSheet(List.of("Row " + rowIndex, Integer.toHexString(rowIndex * 31)));
+                }
+            }
+        });
+
+        List<RecordedEvent> flushes = eventsNamed(events, "RowFlush");
+        assertThat(flushes).hasSizeGreaterThan(1);
+        assertThat(flushes.stream().mapToInt(flush -> flush.getInt("flushedRowAmount")).sum()).isEqualTo(50_000);
+        assertThat(flushes.get(0).getInt("keptRowAmount")).isEqualTo(100);
+        assertThat(flushes).allMatch(flush -> flush.getString("sheetName").equals(SHEET_NAME)
+                && flush.getLong("spilledSize") > 0);
+    }
+
+    private static void verifyExportEvents(List<RecordedEvent> events, String writer, File targetFile) {
+        List<RecordedEvent> exports = eventsNamed(events, "Export");
+        assertThat(exports).hasSize(1);
+        RecordedEvent export = exports.get(0);
+        assertThat(export.getString("writer")).isEqualTo(writer);
+        assertThat(export.getInt("sheetAmount")).isEqualTo(2);
+        assertThat(export.getLong("rowAmount")).isEqualTo(4);
+        assertThat(export.getLong("cellAmount")).isEqualTo(8);
+        assertThat(export.getLong("fileSize")).isEqualTo(targetFile.length()).isPositive();
+
+        assertThat(eventsNamed(events, "SheetCreated").stream().map(event -> event.getString("sheetName")))
+                .containsExactly("First", "Second");
+        List<RecordedEvent> columnWidths = eventsNamed(events, "ColumnWidths");
+        assertThat(columnWidths).isNotEmpty();
+        assertThat(columnWidths.get(0).getString("sheetName")).isEqualTo("First");
+        assertThat(columnWidths.get(0).getInt("columnAmount")).isEqualTo(2);
+        assertThat(eventsNamed(events, "PackageWrite")).last()
+                .matches(write -> write.getLong("fileSize") == targetFile.length());
+    }
+
+    private static List<RecordedEvent> record(File targetFolder, Export export) throws IOException {
+        Path recordingFile = new File(targetFolder, "recording.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            for (String eventName : List.of("Export", "SheetCreated", "ColumnWidths", "RowFlush", "PackageWrite")) {
+                recording.enable(EVENT_PREFIX + eventName);
+            }
+            recording.start();
+            export.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        return RecordingFile.readAllEvents(recordingFile);
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String eventName) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(EVENT_PREFIX + eventName))
+                .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+    @FunctionalInterface
+    private interface Export {
+
+        void run() throws IOException;
+    }
+
+}
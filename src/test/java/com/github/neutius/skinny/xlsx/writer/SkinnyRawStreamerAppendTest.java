@@ -0,0 +1,112 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyRawStreamerAppendTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void appendTo_fileWrittenByApachePoi_existingSheetsAreKeptAndNewSheetIsAdded(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        SkinnyWriter.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(
+                DefaultSheetContent.withHeaders("Day 1", List.of("Item", "Amount"), List.of(List.of("Apples", "3")))));
+        File xlsxFile = new File(targetFolder, FILE_NAME + EXTENSION);
+
+        try (SkinnyRawStreamer streamer = SkinnyRawStreamer.appendTo(xlsxFile)) {
+            streamer.addSheetToWorkbook("Day 2");
+            streamer.addColumnHeaderRowToCurrentSheet(List.of("Item", "Date"));
+            streamer.getRowBuffer().set(0, "Pears").set(1, LocalDate.of(2026, 10, 19)).commit();
+        }
+
+        actualWorkbook = new XSSFWorkbook(xlsxFile);
+        assertThat(actualWorkbook).hasSize(2);
+        XSSFSheet existingSheet = actualWorkbook.getSheet("Day 1");
+        verifyCellContent(existingSheet, 0, 1, "Amount");
+        verifyCellContent(existingSheet, 1, 0, "Apples");
+        assertThat(existingSheet.getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+
+        XSSFSheet appendedSheet = actualWorkbook.getSheet("Day 2");
+        verifyCellContent(appendedSheet, 0, 1, "Date");
+        assertThat(appendedSheet.getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+        assertThat(appendedSheet.getPaneInformation().isFreezePane()).isTrue();
+        verifyCellContent(appendedSheet, 1, 0, "Pears");
+        XSSFCell dateCell = appendedSheet.getRow(1).getCell(1);
+        assertThat(dateCell.getLocalDateTimeCellValue().toLocalDate()).isEqualTo(LocalDate.of(2026, 10, 19));
+        assertThat(dateCell.getCellStyle().getDataFormat()).isEqualTo((short) 14);
+        assertThat(dateCell.getCellStyle().getFont().getBold()).isFalse();
+    }
+
+    @Test
+    void appendTo_severalTimes_sheetsAreAddedInOrderWithUniqueNames(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(
+                DefaultSheetContent.withoutHeaders("Report", List.of(List.of("First")))));
+        File xlsxFile = new File(targetFolder, FILE_NAME + EXTENSION);
+
+        for (String content : List.of("Second", "Third")) {
+            try (SkinnyRawStreamer streamer = SkinnyRawStreamer.appendTo(xlsxFile)) {
+                streamer.addSheetToWorkbook(DefaultSheetContent.withHeaders("Report", List.of("Header"),
+                        List.of(List.of(content))));
+            }
+        }
+
+        actualWorkbook = new XSSFWorkbook(xlsxFile);
+        assertThat(actualWorkbook).hasSize(3);
+        assertThat(actualWorkbook.getSheetName(0)).isEqualTo("Report");
+        verifyCellContent(actualWorkbook.getSheetAt(0), 0, 0, "First");
+        verifyCellContent(actualWorkbook.getSheetAt(1), 1, 0, "Second");
+        verifyCellContent(actualWorkbook.getSheetAt(2), 1, 0, "Third");
+        assertThat(actualWorkbook.getSheetName(1)).isNotEqualToIgnoringCase(actualWorkbook.getSheetName(2));
+        assertThat(actualWorkbook.getSheetAt(2).getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+        assertThat(targetFolder.list()).containsExactly(FILE_NAME + EXTENSION);
+    }
+
+    @Test
+    void appendTo_existingWorksheetEntriesAreCopiedWithoutRecompressing(@TempDir File targetFolder) throws IOException {
+        SkinnyWriter.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(
+                DefaultSheetContent.withoutHeaders(SHEET_NAME, List.of(List.of("Content 1", "Content 2")))));
+        File xlsxFile = new File(targetFolder, FILE_NAME + EXTENSION);
+        ZipEntry originalEntry;
+        try (ZipFile zipFile = new ZipFile(xlsxFile)) {
+            originalEntry = zipFile.getEntry("xl/worksheets/sheet1.xml");
+        }
+
+        try (SkinnyRawStreamer streamer = SkinnyRawStreamer.appendTo(xlsxFile)) {
+            streamer.addSheetToWorkbook("Appended");
+            streamer.addRowToCurrentSheet(List.of("Appended content"));
+        }
+
+        try (ZipFile zipFile = new ZipFile(xlsxFile)) {
+            ZipEntry copiedEntry = zipFile.getEntry("xl/worksheets/sheet1.xml");
+            assertThat(copiedEntry.getCompressedSize()).isEqualTo(originalEntry.getCompressedSize());
+            assertThat(copiedEntry.getCrc()).isEqualTo(originalEntry.getCrc());
+            assertThat(zipFile.getEntry("xl/worksheets/sheet2.xml")).isNotNull();
+        }
+    }
+
+    @Test
+    void appendTo_notAnXlsxFile_throwsIOExceptionAndLeavesFileUnchanged(@TempDir File targetFolder) throws IOException {
+        File textFile = new File(targetFolder, "notes.xlsx");
+        Files.writeString(textFile.toPath(), "Not a spreadsheet");
+
+        assertThatThrownBy(() -> SkinnyRawStreamer.appendTo(textFile)).isInstanceOf(IOException.class);
+        assertThat(Files.readString(textFile.toPath())).isEqualTo("Not a spreadsheet");
+        assertThat(targetFolder.list()).containsExactly("notes.xlsx");
+    }
+
+}
@@ -0,0 +1,412 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.commons.compress.archivers.zip.Zip64ExtendedInformationExtraField;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.util.PaneInformation;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyRawStreamerTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void writeContentToFileSystem_severalSheetsHaveTheRightContent(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        SkinnySheetContent firstSheet = DefaultSheetContent.withHeaders(SHEET_NAME, List.of("Header 1", "Header 2"),
+                List.of(List.of("Content 1", "Content 2")));
+        SkinnySheetContent secondSheet = DefaultSheetContent.withoutHeaders("Second Sheet", List.of(
+                List.of("Cell Content", "More Content"),
+                List.of("Row 2 Cell 1", "Row 2 Cell 2", "Row 2 Cell 3")));
+
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(firstSheet, secondSheet));
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(2);
+
+        XSSFSheet actualFirstSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualFirstSheet).hasSize(2);
+        verifyCellContent(actualFirstSheet, 0, 0, "Header 1");
+        verifyCellContent(actualFirstSheet, 0, 1, "Header 2");
+        verifyCellContent(actualFirstSheet, 1, 0, "Content 1");
+        verifyCellContent(actualFirstSheet, 1, 1, "Content 2");
+
+        XSSFSheet actualSecondSheet = actualWorkbook.getSheet("Second Sheet");
+        assertThat(actualSecondSheet).hasSize(2);
+        assertThat(actualSecondSheet.getRow(1).getPhysicalNumberOfCells()).isEqualTo(3);
+        verifyCellContent(actualSecondSheet, 1, 2, "Row 2 Cell 3");
+    }
+
+    @Test
+    void writeContentToFileSystem_sheetsShareContentRows_rowsAreWrittenOnce(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        List<List<String>> sharedRows = new CountingRows(100);
+        SkinnySheetContent ownSheet = DefaultSheetContent.withoutHeaders("Own", List.of(List.of("Own content")));
+        List<SkinnySheetContent> sheetContentList = List.of(
+                DefaultSheetContent.withHeaders("North", List.of("Id", "Value"), sharedRows), ownSheet,
+                DefaultSheetContent.withHeaders("South", List.of("Id", "Value"), sharedRows),
+                DefaultSheetContent.withHeaders("All", List.of("Id", "Value"), sharedRows),
+                DefaultSheetContent.withoutHeaders("Without headers", sharedRows));
+
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, sheetContentList);
+
+        assertThat(((CountingRows) sharedRows).requestedRowAmount).isEqualTo(200);
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(5);
+        for (String sheetName : List.of("North", "South", "All")) {
+            XSSFSheet actualSheet = actualWorkbook.getSheet(sheetName);
+            assertThat(actualSheet).hasSize(101);
+            verifyCellContent(actualSheet, 0, 1, "Value");
+            verifyCellContent(actualSheet, 100, 1, "Value 99");
+        }
+        assertThat(actualWorkbook.getSheet("Without headers")).hasSize(100);
+        verifyCellContent(actualWorkbook.getSheet("Own"), 0, 0, "Own content");
+    }
+
+    @Test
+    void writeContentToFileSystem_lazySheetContent_rowsAreRequestedWhenTheirSheetIsWritten(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        List<String> requestedSheets = new ArrayList<>();
+        LazySheetContent repeatedSheet = LazySheetContent.withHeaders("Repeated", List.of("Id", "Value"), () -> {
+            requestedSheets.add("Repeated");
+            return new CountingRows(10);
+        });
+        List<SkinnySheetContent> sheetContentList = List.of(
+                LazySheetContent.withoutHeaders("First", () -> {
+                    requestedSheets.add("First");
+                    return List.of(List.of("First content"));
+                }),
+                repeatedSheet, repeatedSheet);
+
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, sheetContentList);
+
+        assertThat(requestedSheets).containsExactly("First", "Repeated");
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(3);
+        verifyCellContent(actualWorkbook.getSheet("First"), 0, 0, "First content");
+        verifyCellContent(actualWorkbook.getSheetAt(1), 10, 1, "Value 9");
+        verifyCellContent(actualWorkbook.getSheetAt(2), 10, 1, "Value 9");
+    }
+
+    @Test
+    void writeContentToFileSystem_minimalMarkup_sameContentInSmallerSheetXml(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        List<List<String>> contentRows = new ArrayList<>();
+        contentRows.add(List.of("A2", "B2", "C2"));
+        contentRows.add(null);
+        contentRows.add(Arrays.asList("A4", null, "C4", null));
+        contentRows.add(Arrays.asList(null, null));
+        List<SkinnySheetContent> sheetContentList = List.of(
+                DefaultSheetContent.withHeaders(SHEET_NAME, List.of("Header 1", "Header 2"), contentRows));
+
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, "full", sheetContentList);
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, sheetContentList, true);
+
+        String fullXml = readWorksheet(new File(targetFolder, "full" + EXTENSION));
+        String minimalXml = readWorksheet(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(minimalXml.length()).isLessThan(fullXml.length());
+        assertThat(minimalXml).contains("<dimension ref=\"A1:C4\"/>").contains("<c r=\"C4\"")
+                .doesNotContain("<c r=\"A").doesNotContain("<c r=\"B").doesNotContain("<row r=\"3\"");
+        assertThat(fullXml).doesNotContain("<dimension");
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet.getRow(0).getCell(1).getCellStyle().getFont().getBold()).isTrue();
+        verifyCellContent(actualSheet, 1, 2, "C2");
+        assertThat(actualSheet.getRow(2) == null).isTrue();
+        verifyCellContent(actualSheet, 3, 0, "A4");
+        assertThat(actualSheet.getRow(3).getCell(1) == null).isTrue();
+        verifyCellContent(actualSheet, 3, 2, "C4");
+        assertThat(actualSheet.getRow(3).getLastCellNum()).isEqualTo((short) 3);
+    }
+
+    @Test
+    void columnHeaderRow_isBoldAndHasFreezePane(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addColumnHeaderRowToCurrentSheet(List.of("Short", "Medium-sized text"));
+            streamer.addRowToCurrentSheet(List.of("Content 1", "Content 2"));
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet.getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+        assertThat(actualSheet.getRow(1).getCell(0).getCellStyle().getFont().getBold()).isFalse();
+        assertThat(actualSheet.getColumnWidth(0)).isLessThan(actualSheet.getColumnWidth(1));
+
+        PaneInformation paneInformation = actualSheet.getPaneInformation();
+        assertThat(paneInformation).isNotNull();
+        assertThat(paneInformation.isFreezePane()).isTrue();
+        assertThat((int) paneInformation.getHorizontalSplitTopRow()).isEqualTo(1);
+    }
+
+    @Test
+    void addRowWithSpecialCharacters_contentIsUnchanged(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        String valueWithMarkup = "<tag attribute=\"value\"> & </tag>";
+        String valueWithWhiteSpace = "  we \t like \n white space  ";
+        String valueWithAccents = "Mariënberg, Curaçao";
+
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addRowToCurrentSheet(Arrays.asList(valueWithMarkup, null, valueWithWhiteSpace, valueWithAccents));
+            streamer.addRowToCurrentSheet(null);
+            streamer.addRowToCurrentSheet(List.of("Row 3"));
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet).hasSize(3);
+        verifyCellContent(actualSheet, 0, 0, valueWithMarkup);
+        verifyCellContent(actualSheet, 0, 1, "");
+        verifyCellContent(actualSheet, 0, 2, valueWithWhiteSpace);
+        verifyCellContent(actualSheet, 0, 3, valueWithAccents);
+        verifyCellContent(actualSheet, 2, 0, "Row 3");
+    }
+
+    @Test
+    void addUtf8Row_byteArrays_contentIsDecodedOnlyOnce(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        byte[][] cells = {utf8("plain"), utf8("a < b & c"), null, utf8("Mariënberg")};
+
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addUtf8RowToCurrentSheet(cells, false);
+            streamer.addUtf8RowToCurrentSheet(new byte[][]{utf8("already safe"), utf8("&amp; escaped")}, true);
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        verifyCellContent(actualSheet, 0, 0, "plain");
+        verifyCellContent(actualSheet, 0, 1, "a < b & c");
+        verifyCellContent(actualSheet, 0, 2, "");
+        verifyCellContent(actualSheet, 0, 3, "Mariënberg");
+        verifyCellContent(actualSheet, 1, 0, "already safe");
+        verifyCellContent(actualSheet, 1, 1, "& escaped");
+    }
+
+    @Test
+    void addUtf8Row_byteBufferSlices_onlyRemainingBytesAreUsed(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        ByteBuffer message = ByteBuffer.wrap(utf8("first|second"));
+        ByteBuffer first = message.duplicate().position(0).limit(5);
+        ByteBuffer second = message.duplicate().position(6).limit(12);
+        ByteBuffer direct = ByteBuffer.allocateDirect(16).put(utf8("x > y")).flip();
+
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addUtf8RowToCurrentSheet(new ByteBuffer[]{first, second, direct}, false);
+        }
+
+        assertThat(first.position()).isEqualTo(0);
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFRow actualRow = actualWorkbook.getSheet(SHEET_NAME).getRow(0);
+        assertThat(actualRow.getPhysicalNumberOfCells()).isEqualTo(3);
+        assertThat(actualRow.getCell(0).getStringCellValue()).isEqualTo("first");
+        assertThat(actualRow.getCell(1).getStringCellValue()).isEqualTo("second");
+        assertThat(actualRow.getCell(2).getStringCellValue()).isEqualTo("x > y");
+    }
+
+    @Test
+    void addSeveralRowsFromArrays_allRowsArePresent(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addColumnHeaderRowToCurrentSheet(List.of("Name", "Value", "Amount"));
+            streamer.addSeveralRowsToCurrentSheet(new String[][]{{"entry1", "a < b"}, null, {}});
+            streamer.addSeveralRowsToCurrentSheet(new Object[][]{{"entry4", -7, 2.25, LocalDate.of(2026, 10, 19)},
+                    {null, Long.MAX_VALUE, Double.NaN}});
+            streamer.addSeveralRowsToCurrentSheet(new String[]{"entry6", null, " padded ", "entry7", "x", "y"}, 3);
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheetAt(0);
+        assertThat(actualSheet.getLastRowNum()).isEqualTo(7);
+        verifyCellContent(actualSheet, 1, 1, "a < b");
+        assertThat(actualSheet.getRow(2).getPhysicalNumberOfCells()).isZero();
+        assertThat(actualSheet.getRow(3).getPhysicalNumberOfCells()).isZero();
+        XSSFRow firstObjectRow = actualSheet.getRow(4);
+        assertThat(firstObjectRow.getCell(1).getNumericCellValue()).isEqualTo(-7);
+        assertThat(firstObjectRow.getCell(2).getNumericCellValue()).isEqualTo(2.25);
+        assertThat(firstObjectRow.getCell(3).getLocalDateTimeCellValue()).isEqualTo(LocalDate.of(2026, 10, 19).atStartOfDay());
+        XSSFRow secondObjectRow = actualSheet.getRow(5);
+        assertThat(secondObjectRow.getCell(0)).isNull();
+        assertThat(secondObjectRow.getCell(1).getNumericCellValue()).isEqualTo((double) Long.MAX_VALUE);
+        assertThat(secondObjectRow.getCell(2).getErrorCellString()).isEqualTo("#NUM!");
+        verifyCellContent(actualSheet, 6, 2, " padded ");
+        verifyCellContent(actualSheet, 7, 2, "y");
+    }
+
+    @Test
+    void addSeveralRowsFromArrays_tooManyRows_nothingIsWritten(@TempDir File targetFolder) throws IOException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addRowToCurrentSheet(List.of("entry"));
+
+            assertThatThrownBy(() -> streamer.addSeveralRowsToCurrentSheet(new String[SheetXmlWriter.MAX_ROW_AMOUNT][]))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> streamer.addSeveralRowsToCurrentSheet(new String[]{"a", "b", "c"}, 2))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(streamer.toString()).contains("1 rows");
+        }
+    }
+
+    @Test
+    void duplicateAndMissingSheetNames_namesWillBeGenerated(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addSheetToWorkbook("  ");
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(3);
+        assertThat(actualWorkbook.getSheetAt(0).getSheetName()).isEqualTo(SHEET_NAME);
+        assertThat(actualWorkbook.getSheetAt(1).getSheetName()).isNotEqualTo(SHEET_NAME).contains(SHEET_NAME);
+        assertThat(actualWorkbook.getSheetAt(2).getSheetName()).isNotBlank();
+    }
+
+    @Test
+    void generatedSheetNamesAlreadyInUse_namesAreUnique(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook("Sheet_2");
+            streamer.addSheetToWorkbook((String) null);
+            streamer.addSheetToWorkbook("a");
+            streamer.addSheetToWorkbook("A_5");
+            streamer.addSheetToWorkbook("a");
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(5);
+        assertThat(actualWorkbook.getSheetAt(1).getSheetName()).isEqualTo("Sheet_3");
+        assertThat(actualWorkbook.getSheetAt(4).getSheetName()).isEqualTo("a_6");
+    }
+
+    @Test
+    void noSheetAdded_fileHasOneEmptySheet(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        new SkinnyRawStreamer(targetFolder, FILE_NAME).close();
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(1);
+    }
+
+    @Test
+    void compressionThreads_largeSheetIsCompressedInParallel_contentAndChecksumsAreValid(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        int rowAmount = 20_000;
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.setCompressionThreads(4);
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            for (int rowIndex = 0; rowIndex < rowAmount; rowIndex++) {
+                streamer.addRowToCurrentSheet(List.of("Row " + rowIndex, "Some repeated content", String.valueOf(rowIndex * 7)));
+            }
+            streamer.setCompressionThreads(1);
+            streamer.addSheetToWorkbook("Second Sheet");
+            streamer.addRowToCurrentSheet(List.of("Serial content"));
+        }
+
+        File targetFile = new File(targetFolder, FILE_NAME + EXTENSION);
+        // a streaming read relies on the local headers and data descriptors only, so it is compared with the central directory
+        try (ZipFile zipFile = new ZipFile(targetFile);
+             ZipArchiveInputStream zipInputStream = new ZipArchiveInputStream(new FileInputStream(targetFile))) {
+            int entryAmount = 0;
+            ZipArchiveEntry entry;
+            while ((entry = zipInputStream.getNextZipEntry()) != null) {
+                CheckedInputStream checkedInputStream = new CheckedInputStream(zipInputStream, new CRC32());
+                long size = checkedInputStream.transferTo(OutputStream.nullOutputStream());
+                ZipEntry centralEntry = zipFile.getEntry(entry.getName());
+                assertThat(checkedInputStream.getChecksum().getValue()).isEqualTo(centralEntry.getCrc());
+                assertThat(size).isEqualTo(centralEntry.getSize());
+                assertThat(entry.getExtraField(new Zip64ExtendedInformationExtraField().getHeaderId()) != null)
+                        .isEqualTo(entry.getName().startsWith("xl/worksheets/"));
+                entryAmount++;
+            }
+            assertThat(entryAmount).isEqualTo(7);
+        }
+
+        actualWorkbook = new XSSFWorkbook(targetFile);
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet).hasSize(rowAmount);
+        verifyCellContent(actualSheet, 0, 0, "Row 0");
+        verifyCellContent(actualSheet, rowAmount / 2, 2, String.valueOf(rowAmount / 2 * 7));
+        verifyCellContent(actualSheet, rowAmount - 1, 1, "Some repeated content");
+        verifyCellContent(actualWorkbook.getSheet("Second Sheet"), 0, 0, "Serial content");
+    }
+
+    @Test
+    void compressionThreadsBelowOne_throwsIllegalArgumentException(@TempDir File targetFolder) throws IOException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            assertThatThrownBy(() -> streamer.setCompressionThreads(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void addRowBeforeSheet_throwsIllegalStateException(@TempDir File targetFolder) throws IOException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            assertThatThrownBy(() -> streamer.addRowToCurrentSheet(List.of("entry")))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void addColumnHeadersAfterContent_throwsIllegalStateException(@TempDir File targetFolder) throws IOException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addRowToCurrentSheet(List.of("entry"));
+
+            assertThatThrownBy(() -> streamer.addColumnHeaderRowToCurrentSheet(List.of("header")))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static final class CountingRows extends AbstractList<List<String>> {
+        private final int rowAmount;
+        private int requestedRowAmount;
+
+        private CountingRows(int rowAmount) {
+            this.rowAmount = rowAmount;
+        }
+
+        @Override
+        public List<String> get(int index) {
+            requestedRowAmount++;
+            return List.of(String.valueOf(index), "Value " + index);
+        }
+
+        @Override
+        public int size() {
+            return rowAmount;
+        }
+    }
+
+    private static String readWorksheet(File file) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            return new String(zipFile.getInputStream(zipFile.getEntry("xl/worksheets/sheet1.xml")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
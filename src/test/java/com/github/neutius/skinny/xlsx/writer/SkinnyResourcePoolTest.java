@@ -0,0 +1,107 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyResourcePoolTest extends AbstractSkinnyWriterTestBase {
+
+    @AfterEach
+    void disablePool() {
+        SkinnyResourcePool.disable();
+    }
+
+    @Test
+    void enabled_resourcesAreResetAndReused() throws DataFormatException {
+        SkinnyResourcePool.enable(2);
+        Deflater deflater = SkinnyResourcePool.acquireDeflater(Deflater.BEST_SPEED);
+        compress("first export", deflater);
+        SkinnyResourcePool.releaseDeflater(deflater);
+        Inflater inflater = SkinnyResourcePool.acquireInflater();
+        SkinnyResourcePool.releaseInflater(inflater);
+
+        Deflater reusedDeflater = SkinnyResourcePool.acquireDeflater(Deflater.BEST_COMPRESSION);
+        Inflater reusedInflater = SkinnyResourcePool.acquireInflater();
+
+        assertThat(reusedDeflater).isSameAs(deflater);
+        assertThat(reusedInflater).isSameAs(inflater);
+        byte[] compressed = compress("second export", reusedDeflater);
+        reusedInflater.setInput(compressed);
+        byte[] inflated = new byte[64];
+        int inflatedLength = reusedInflater.inflate(inflated);
+        assertThat(new String(inflated, 0, inflatedLength, StandardCharsets.UTF_8)).isEqualTo("second export");
+    }
+
+    @Test
+    void disabled_resourcesAreNotReused() {
+        SkinnyResourcePool.enable(2);
+        ByteSink largeSink = SkinnyResourcePool.acquireByteSink(SkinnyResourcePool.MAX_POOLED_BUFFER_CAPACITY + 1);
+        SkinnyResourcePool.releaseByteSink(largeSink);
+        Deflater deflater = SkinnyResourcePool.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        SkinnyResourcePool.releaseDeflater(deflater);
+        assertThat(SkinnyResourcePool.getIdleAmounts()).containsExactly(1, 0, 0);
+
+        SkinnyResourcePool.disable();
+
+        assertThat(SkinnyResourcePool.isEnabled()).isFalse();
+        assertThat(SkinnyResourcePool.getIdleAmounts()).containsExactly(0, 0, 0);
+        assertThat(SkinnyResourcePool.acquireDeflater(Deflater.DEFAULT_COMPRESSION)).isNotSameAs(deflater);
+        assertThatThrownBy(() -> SkinnyResourcePool.enable(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void enabled_consecutiveExportsShareResources(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        SkinnyResourcePool.enable(4);
+        List<List<String>> contentRows = new ArrayList<>();
+        for (int rowIndex = 0; rowIndex < 1000; rowIndex++) {
+            contentRows.add(List.of("Row " + rowIndex, String.valueOf(rowIndex)));
+        }
+        List<SkinnySheetContent> sheets = List.of(
+                DefaultSheetContent.withHeaders(SHEET_NAME, List.of("Header 1", "Header 2"), contentRows),
+                DefaultSheetContent.withoutHeaders("Second", contentRows),
+                DefaultSheetContent.withoutHeaders("Third", contentRows));
+
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, "first", sheets);
+        int[] idleAmounts = SkinnyResourcePool.getIdleAmounts();
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, sheets);
+
+        assertThat(idleAmounts[0]).isPositive();
+        assertThat(idleAmounts[2]).isPositive();
+        assertThat(SkinnyResourcePool.getIdleAmounts()).containsExactly(idleAmounts);
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        for (int sheetIndex = 0; sheetIndex < sheets.size(); sheetIndex++) {
+            XSSFSheet actualSheet = actualWorkbook.getSheetAt(sheetIndex);
+            int rowOffset = sheetIndex == 0 ? 1 : 0;
+            verifyCellContent(actualSheet, rowOffset, 0, "Row 0");
+            verifyCellContent(actualSheet, rowOffset + 999, 1, "999");
+        }
+    }
+
+    private static byte[] compress(String text, Deflater deflater) {
+        deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return compressed.toByteArray();
+    }
+
+}
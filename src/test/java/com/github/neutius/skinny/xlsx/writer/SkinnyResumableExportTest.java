@@ -0,0 +1,167 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyResumableExportTest extends AbstractSkinnyWriterTestBase {
+
+    private static final int ROW_AMOUNT = 5000;
+    private static final int CHECKPOINT_INTERVAL = 1000;
+
+    @Test
+    void noInterruption_allSheetsHaveTheRightContent_checkpointFolderIsRemoved(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        GeneratedSheetContent firstSheet = new GeneratedSheetContent(SHEET_NAME, ROW_AMOUNT, -1);
+        GeneratedSheetContent secondSheet = new GeneratedSheetContent("Second Sheet", 10, -1);
+
+        SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(firstSheet, secondSheet),
+                CHECKPOINT_INTERVAL);
+
+        verifyWorkbook(targetFolder);
+        assertThat(checkpointFolder(targetFolder)).doesNotExist();
+        assertThat(firstSheet.requestedFirstRowIndexes).containsExactly(0);
+    }
+
+    @Test
+    void interruptedExport_resumesAfterLastCheckpoint(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        GeneratedSheetContent failingSheet = new GeneratedSheetContent(SHEET_NAME, ROW_AMOUNT, 3500);
+        assertThatThrownBy(() -> SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME,
+                List.of(failingSheet, new GeneratedSheetContent("Second Sheet", 10, -1)), CHECKPOINT_INTERVAL))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(new File(checkpointFolder(targetFolder), SkinnyResumableExport.JOURNAL_FILE_NAME)).isFile();
+
+        GeneratedSheetContent firstSheet = new GeneratedSheetContent(SHEET_NAME, ROW_AMOUNT, -1);
+        GeneratedSheetContent secondSheet = new GeneratedSheetContent("Second Sheet", 10, -1);
+        SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(firstSheet, secondSheet),
+                CHECKPOINT_INTERVAL);
+
+        verifyWorkbook(targetFolder);
+        assertThat(firstSheet.requestedFirstRowIndexes).containsExactly(3000);
+        assertThat(secondSheet.requestedFirstRowIndexes).containsExactly(0);
+        assertThat(checkpointFolder(targetFolder)).doesNotExist();
+    }
+
+    @Test
+    void interruptedInSecondSheet_firstSheetIsNotWrittenAgain(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        assertThatThrownBy(() -> SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME,
+                List.of(new GeneratedSheetContent(SHEET_NAME, ROW_AMOUNT, -1), new GeneratedSheetContent("Second Sheet", 10, 5)),
+                CHECKPOINT_INTERVAL))
+                .isInstanceOf(IllegalStateException.class);
+
+        GeneratedSheetContent firstSheet = new GeneratedSheetContent(SHEET_NAME, ROW_AMOUNT, -1);
+        GeneratedSheetContent secondSheet = new GeneratedSheetContent("Second Sheet", 10, -1);
+        SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(firstSheet, secondSheet),
+                CHECKPOINT_INTERVAL);
+
+        verifyWorkbook(targetFolder);
+        assertThat(firstSheet.requestedFirstRowIndexes).isEmpty();
+        assertThat(secondSheet.requestedFirstRowIndexes).containsExactly(0);
+    }
+
+    @Test
+    void resumeWithDifferentSheets_throwsIllegalStateException(@TempDir File targetFolder) {
+        assertThatThrownBy(() -> SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME,
+                List.of(new GeneratedSheetContent(SHEET_NAME, ROW_AMOUNT, 2500)), CHECKPOINT_INTERVAL))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> SkinnyResumableExport.writeContentToFileSystem(targetFolder, FILE_NAME,
+                List.of(new GeneratedSheetContent("Other Sheet", ROW_AMOUNT, -1)), CHECKPOINT_INTERVAL))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Other Sheet");
+    }
+
+    @Test
+    void blankFileName_throwsIllegalArgumentException(@TempDir File targetFolder) {
+        assertThatThrownBy(() -> SkinnyResumableExport.writeContentToFileSystem(targetFolder, " ", List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void verifyWorkbook(File targetFolder) throws IOException, InvalidFormatException {
+        // reading every entry completely makes ZipInputStream verify the combined checksums of resumed sheets
+        File targetFile = new File(targetFolder, FILE_NAME + EXTENSION);
+        try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(targetFile))) {
+            while (zipInputStream.getNextEntry() != null) {
+                zipInputStream.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+
+        actualWorkbook = new XSSFWorkbook(targetFile);
+        assertThat(actualWorkbook).hasSize(2);
+
+        XSSFSheet actualFirstSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualFirstSheet).hasSize(ROW_AMOUNT + 1);
+        assertThat(actualFirstSheet.getPaneInformation().isFreezePane()).isTrue();
+        verifyCellContent(actualFirstSheet, 0, 0, "Header 1");
+        for (int rowIndex = 0; rowIndex < ROW_AMOUNT; rowIndex += 499) {
+            verifyCellContent(actualFirstSheet, rowIndex + 1, 0, "Row " + rowIndex);
+            verifyCellContent(actualFirstSheet, rowIndex + 1, 1, "Value " + rowIndex * 3);
+        }
+
+        XSSFSheet actualSecondSheet = actualWorkbook.getSheet("Second Sheet");
+        assertThat(actualSecondSheet).hasSize(11);
+        verifyCellContent(actualSecondSheet, 10, 0, "Row 9");
+    }
+
+    private static File checkpointFolder(File targetFolder) {
+        return new File(targetFolder, FILE_NAME + EXTENSION + SkinnyResumableExport.CHECKPOINT_EXTENSION);
+    }
+
+    private static final class GeneratedSheetContent implements SkinnyResumableSheetContent {
+        private final String sheetName;
+        private final int rowAmount;
+        private final int failAtRowIndex;
+        private final List<Integer> requestedFirstRowIndexes = new ArrayList<>();
+
+        private GeneratedSheetContent(String sheetName, int rowAmount, int failAtRowIndex) {
+            this.sheetName = sheetName;
+            this.rowAmount = rowAmount;
+            this.failAtRowIndex = failAtRowIndex;
+        }
+
+        @Override
+        public String getSheetName() {
+            return sheetName;
+        }
+
+        @Override
+        public boolean hasColumnHeaders() {
+            return true;
+        }
+
+        @Override
+        public List<String> getColumnHeaders() {
+            return List.of("Header 1", "Header 2");
+        }
+
+        @Override
+        public Iterator<List<String>> getContentRows(int firstRowIndex) {
+            requestedFirstRowIndexes.add(firstRowIndex);
+            return IntStream.range(firstRowIndex, rowAmount)
+                    .peek(rowIndex -> {
+                        if (rowIndex == failAtRowIndex) {
+                            throw new IllegalStateException("Simulated failure at row " + rowIndex);
+                        }
+                    })
+                    .mapToObj(rowIndex -> List.of("Row " + rowIndex, "Value " + rowIndex * 3))
+                    .iterator();
+        }
+    }
+
+}
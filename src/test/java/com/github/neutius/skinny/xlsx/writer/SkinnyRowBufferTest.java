@@ -0,0 +1,164 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyRowBufferTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void skinnyWriter_rowBufferIsCommitted_rowHasTextAndNumericCells(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        writer.getRowBuffer().set(0, "text").set(1, 42L).set(2, 1.5).commit();
+
+        writeAndReadActualWorkbook(targetFolder);
+        verifyRowWithTextAndNumericCells(actualWorkbook.getSheet(SHEET_NAME).getRow(0));
+    }
+
+    @Test
+    void skinnyWriter_rowBufferWithManyCellsIsCommitted_allCellsAreWritten(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        SkinnyRowBuffer rowBuffer = writer.getRowBuffer();
+        for (int index = 0; index < 12; index++) {
+            rowBuffer.set(index, "Cell " + index);
+        }
+        rowBuffer.commit();
+        rowBuffer.set(0, "first").set(11, 11L).commit();
+
+        writeAndReadActualWorkbook(targetFolder);
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet.getRow(0).getPhysicalNumberOfCells()).isEqualTo(12);
+        verifyCellContent(actualSheet, 0, 0, "Cell 0");
+        verifyCellContent(actualSheet, 0, 11, "Cell 11");
+        assertThat(actualSheet.getRow(1).getPhysicalNumberOfCells()).isEqualTo(2);
+        assertThat(actualSheet.getRow(1).getCell(11).getNumericCellValue()).isEqualTo(11);
+    }
+
+    @Test
+    void skinnyRawStreamer_rowBufferIsCommitted_rowHasTextAndNumericCells(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.getRowBuffer().set(0, "text").set(1, 42L).set(2, 1.5).commit();
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        verifyRowWithTextAndNumericCells(actualWorkbook.getSheet(SHEET_NAME).getRow(0));
+    }
+
+    @Test
+    void skinnyRawStreamer_dateValues_areDateCells(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, FILE_NAME)) {
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.getRowBuffer().set(0, LocalDate.of(2026, 10, 19)).set(1, LocalDateTime.of(2026, 10, 19, 13, 45, 30))
+                    .set(2, Instant.parse("2026-10-19T13:45:30Z")).commit();
+            streamer.getRowBuffer().set(0, LocalDate.of(1900, 1, 1)).set(1, LocalDate.of(1900, 2, 28))
+                    .set(2, LocalDate.of(1900, 3, 1)).commit();
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        verifyRowWithDateCells(actualWorkbook.getSheet(SHEET_NAME).getRow(0));
+        XSSFRow leapDayBugRow = actualWorkbook.getSheet(SHEET_NAME).getRow(1);
+        assertThat(leapDayBugRow.getCell(0).getNumericCellValue()).isEqualTo(1);
+        assertThat(leapDayBugRow.getCell(1).getNumericCellValue()).isEqualTo(59);
+        assertThat(leapDayBugRow.getCell(2).getNumericCellValue()).isEqualTo(61);
+    }
+
+    @Test
+    void skinnyWriter_dateValues_areDateCells(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        writer.getRowBuffer().set(0, LocalDate.of(2026, 10, 19)).set(1, LocalDateTime.of(2026, 10, 19, 13, 45, 30))
+                .set(2, Instant.parse("2026-10-19T13:45:30Z")).commit();
+
+        writeAndReadActualWorkbook(targetFolder);
+        verifyRowWithDateCells(actualWorkbook.getSheet(SHEET_NAME).getRow(0));
+    }
+
+    @Test
+    void dateBefore1900_throwsIllegalArgumentException(@TempDir File targetFolder) throws IOException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        assertThatThrownBy(() -> writer.getRowBuffer().set(0, LocalDate.of(1899, 12, 31)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(writer.getRowBuffer().getCellAmount()).isZero();
+    }
+
+    @Test
+    void rowBufferIsReused_valuesOfPreviousRowAreCleared(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        SkinnyRowBuffer rowBuffer = writer.getRowBuffer();
+        rowBuffer.set(0, "first").set(3, "fourth").commit();
+        rowBuffer.set(1, "second").commit();
+        rowBuffer.commit();
+
+        assertThat(writer.getRowBuffer()).isSameAs(rowBuffer);
+        assertThat(rowBuffer.getCellAmount()).isZero();
+
+        writeAndReadActualWorkbook(targetFolder);
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet.getPhysicalNumberOfRows()).isEqualTo(3);
+        assertThat(actualSheet.getRow(0).getPhysicalNumberOfCells()).isEqualTo(2);
+        verifyCellContent(actualSheet, 0, 0, "first");
+        verifyCellContent(actualSheet, 0, 3, "fourth");
+        assertThat(actualSheet.getRow(1).getPhysicalNumberOfCells()).isEqualTo(1);
+        verifyCellContent(actualSheet, 1, 1, "second");
+        assertThat(actualSheet.getRow(2).getPhysicalNumberOfCells()).isZero();
+    }
+
+    @Test
+    void rowBufferIsCleared_nothingIsCommitted(@TempDir File targetFolder) throws IOException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        SkinnyRowBuffer rowBuffer = writer.getRowBuffer().set(0, "value").set(5, 5L);
+        assertThat(rowBuffer.getCellAmount()).isEqualTo(6);
+
+        rowBuffer.clear();
+        assertThat(rowBuffer.getCellAmount()).isZero();
+    }
+
+    @Test
+    void negativeColumnIndex_throwsIllegalArgumentException(@TempDir File targetFolder) throws IOException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        assertThatThrownBy(() -> writer.getRowBuffer().set(-1, "value"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void verifyRowWithDateCells(XSSFRow actualRow) {
+        assertThat(DateUtil.isCellDateFormatted(actualRow.getCell(0))).isTrue();
+        assertThat(actualRow.getCell(0).getLocalDateTimeCellValue()).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+        assertThat(DateUtil.isCellDateFormatted(actualRow.getCell(1))).isTrue();
+        assertThat(actualRow.getCell(1).getLocalDateTimeCellValue()).isEqualTo(LocalDateTime.of(2026, 10, 19, 13, 45, 30));
+        assertThat(actualRow.getCell(2).getLocalDateTimeCellValue()).isEqualTo(LocalDateTime.of(2026, 10, 19, 13, 45, 30));
+    }
+
+    private void verifyRowWithTextAndNumericCells(XSSFRow actualRow) {
+        assertThat(actualRow.getPhysicalNumberOfCells()).isEqualTo(3);
+        assertThat(actualRow.getCell(0).getStringCellValue()).isEqualTo("text");
+        assertThat(actualRow.getCell(1).getCellType()).isEqualTo(CellType.NUMERIC);
+        assertThat(actualRow.getCell(1).getNumericCellValue()).isEqualTo(42.0);
+        assertThat(actualRow.getCell(2).getCellType()).isEqualTo(CellType.NUMERIC);
+        assertThat(actualRow.getCell(2).getNumericCellValue()).isEqualTo(1.5);
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnySharedSheetTest extends AbstractSkinnyWriterTestBase {
+
+    private static final int THREAD_AMOUNT = 8;
+    private static final int ROWS_PER_THREAD = 2000;
+
+    @Test
+    void sequenceOrder_rowsFromManyThreads_areWrittenInSequence(@TempDir File targetFolder) throws Exception {
+        try (SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME)) {
+            SkinnySheetHandle sheetHandle = workbook.openSheet(SHEET_NAME);
+            sheetHandle.addColumnHeaderRow(List.of("Sequence"));
+            try (SkinnySharedSheet sharedSheet = SkinnySharedSheet.inSequenceOrder(sheetHandle)) {
+                runOnThreads(thread -> {
+                    // interleaved partitions, so every thread depends on the others
+                    for (int rowIndex = thread; rowIndex < THREAD_AMOUNT * ROWS_PER_THREAD; rowIndex += THREAD_AMOUNT) {
+                        sharedSheet.addRow(rowIndex, List.of(String.valueOf(rowIndex)));
+                    }
+                });
+            }
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheetAt(0);
+        assertThat(actualSheet).hasSize(THREAD_AMOUNT * ROWS_PER_THREAD + 1);
+        for (int rowIndex = 0; rowIndex < THREAD_AMOUNT * ROWS_PER_THREAD; rowIndex++) {
+            assertThat(actualSheet.getRow(rowIndex + 1).getCell(0).getStringCellValue()).isEqualTo(String.valueOf(rowIndex));
+        }
+    }
+
+    @Test
+    void arrivalOrder_rowsFromManyThreads_allRowsAreWrittenAndThreadOrderIsKept(@TempDir File targetFolder) throws Exception {
+        try (SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME)) {
+            try (SkinnySharedSheet sharedSheet = SkinnySharedSheet.inArrivalOrder(workbook.openSheet(SHEET_NAME))) {
+                runOnThreads(thread -> {
+                    for (int rowIndex = 0; rowIndex < ROWS_PER_THREAD; rowIndex++) {
+                        sharedSheet.addRow(List.of(String.valueOf(thread), String.valueOf(rowIndex)));
+                    }
+                });
+            }
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheetAt(0);
+        assertThat(actualSheet).hasSize(THREAD_AMOUNT * ROWS_PER_THREAD);
+        int[] lastRowIndexPerThread = new int[THREAD_AMOUNT];
+        Arrays.fill(lastRowIndexPerThread, -1);
+        for (int sheetRowIndex = 0; sheetRowIndex < THREAD_AMOUNT * ROWS_PER_THREAD; sheetRowIndex++) {
+            int thread = Integer.parseInt(actualSheet.getRow(sheetRowIndex).getCell(0).getStringCellValue());
+            int rowIndex = Integer.parseInt(actualSheet.getRow(sheetRowIndex).getCell(1).getStringCellValue());
+            assertThat(rowIndex).isEqualTo(lastRowIndexPerThread[thread] + 1);
+            lastRowIndexPerThread[thread] = rowIndex;
+        }
+    }
+
+    @Test
+    void sequenceOrder_missingSequenceNumber_closeThrowsIOExceptionAndNoFileIsWritten(@TempDir File targetFolder)
+            throws IOException {
+        SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME);
+        SkinnySharedSheet sharedSheet = SkinnySharedSheet.inSequenceOrder(workbook.openSheet(SHEET_NAME));
+        sharedSheet.addRow(0, List.of("First"));
+        sharedSheet.addRow(2, List.of("Third"));
+
+        assertThatThrownBy(sharedSheet::close).isInstanceOf(IOException.class).hasMessageContaining("sequence number 1");
+        assertThatThrownBy(workbook::close).isInstanceOf(IOException.class).hasMessageContaining(SHEET_NAME);
+        assertThat(new File(targetFolder, FILE_NAME + EXTENSION)).doesNotExist();
+    }
+
+    @Test
+    void sequenceOrder_duplicateSequenceNumber_throwsIOException(@TempDir File targetFolder) throws IOException {
+        SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME);
+        SkinnySharedSheet sharedSheet = SkinnySharedSheet.inSequenceOrder(workbook.openSheet(SHEET_NAME));
+        sharedSheet.addRow(0, List.of("First"));
+
+        assertThatThrownBy(() -> sharedSheet.addRow(0, List.of("Again"))).isInstanceOf(IOException.class)
+                .hasMessageContaining("more than once");
+        assertThatThrownBy(sharedSheet::close).isInstanceOf(IOException.class);
+        assertThatThrownBy(workbook::close).isInstanceOf(IOException.class);
+        assertThat(new File(targetFolder, FILE_NAME + EXTENSION)).doesNotExist();
+    }
+
+    @Test
+    void wrongOrdering_throwsIllegalStateException(@TempDir File targetFolder) throws IOException {
+        try (SkinnyConcurrentWorkbook workbook = new SkinnyConcurrentWorkbook(targetFolder, FILE_NAME)) {
+            try (SkinnySharedSheet arrivalSheet = SkinnySharedSheet.inArrivalOrder(workbook.openSheet("Arrival"));
+                 SkinnySharedSheet sequenceSheet = SkinnySharedSheet.inSequenceOrder(workbook.openSheet("Sequence"))) {
+                assertThatThrownBy(() -> arrivalSheet.addRow(0, List.of("Content")))
+                        .isInstanceOf(IllegalStateException.class);
+                assertThatThrownBy(() -> sequenceSheet.addRow(List.of("Content")))
+                        .isInstanceOf(IllegalStateException.class);
+                assertThatThrownBy(() -> sequenceSheet.addRow(-1, List.of("Content")))
+                        .isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    private static void runOnThreads(ThreadTask task) throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREAD_AMOUNT; thread++) {
+            int threadIndex = thread;
+            results.add(CompletableFuture.runAsync(() -> {
+                try {
+                    task.run(threadIndex);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }, runnable -> new Thread(runnable).start()));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int threadIndex) throws IOException;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SkinnySizeEstimateTest {
+    private static final String FILE_NAME = "testFile";
+    private static final List<String> COLUMN_HEADERS = List.of("Name", "Amount", "Description");
+
+    private static final List<SkinnySheetContent> SHEET_CONTENT_LIST = List.of(
+            DefaultSheetContent.withHeaders("first", COLUMN_HEADERS, createContentRows(20_000)),
+            DefaultSheetContent.withoutHeaders("second", createContentRows(500)));
+
+    @Test
+    void forSheets_estimatedFileSizeIsCloseToActualSkinnyRawStreamerFileSize(@TempDir File targetFolder) throws IOException {
+        SkinnyRawStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, SHEET_CONTENT_LIST);
+
+        verifyEstimatedFileSize(new File(targetFolder, FILE_NAME + ".xlsx"));
+    }
+
+    @Test
+    void forSheets_estimatedFileSizeIsCloseToActualSkinnyWriterFileSize(@TempDir File targetFolder) throws IOException {
+        SkinnyWriter.writeContentToFileSystem(targetFolder, FILE_NAME, SHEET_CONTENT_LIST);
+
+        verifyEstimatedFileSize(new File(targetFolder, FILE_NAME + ".xlsx"));
+    }
+
+    @Test
+    void forSheets_estimatedFileSizeIsCloseToActualSkinnyStreamerFileSize(@TempDir File targetFolder) throws IOException {
+        SkinnyStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, SHEET_CONTENT_LIST);
+
+        verifyEstimatedFileSize(new File(targetFolder, FILE_NAME + ".xlsx"));
+    }
+
+    @Test
+    void forSheets_estimatedSkinnyWriterHeapSizeIsCloseToRetainedHeap(@TempDir File targetFolder) throws IOException {
+        SkinnySizeEstimate estimate = SkinnySizeEstimate.forSheets(SHEET_CONTENT_LIST);
+
+        long heapBefore = usedHeapAfterGarbageCollection();
+        SkinnyWriter writer = new SkinnyWriter(targetFolder, FILE_NAME);
+        writer.addSeveralSheetsToWorkbook(SHEET_CONTENT_LIST);
+        long retainedHeap = usedHeapAfterGarbageCollection() - heapBefore;
+        Reference.reachabilityFence(writer);
+
+        assertThat((double) estimate.getSkinnyWriterHeapSize()).isCloseTo(retainedHeap, within(retainedHeap * 0.2));
+    }
+
+    @Test
+    void forSheets_estimatedTempFileSizeIsCloseToActualSpillFileSize(@TempDir File targetFolder) throws IOException {
+        List<SkinnySheetContent> sheetContentList = List.of(
+                DefaultSheetContent.withHeaders("first", COLUMN_HEADERS, createContentRows(100_000)),
+                DefaultSheetContent.withoutHeaders("second", createContentRows(20_000)));
+        File tempFolder = new File(targetFolder, "temp");
+
+        SkinnySizeEstimate estimate = SkinnySizeEstimate.forSheets(sheetContentList);
+        long actualTempFileSize;
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempFolder));
+        try (SkinnyStreamer streamer = new SkinnyStreamer(targetFolder, FILE_NAME)) {
+            for (SkinnySheetContent sheetContent : sheetContentList) {
+                streamer.addSheetToWorkbook(sheetContent);
+            }
+            streamer.flushRows();
+            actualTempFileSize = Arrays.stream(tempFolder.listFiles((folder, name) -> name.startsWith("poi-sxssf-sheet")))
+                    .mapToLong(File::length).sum();
+        } finally {
+            TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+        }
+
+        assertThat(actualTempFileSize).isPositive();
+        assertThat((double) estimate.getSkinnyStreamerTempFileSize())
+                .isCloseTo(actualTempFileSize, within(actualTempFileSize * 0.2));
+    }
+
+    @Test
+    void forSample_estimateGrowsWithRowAmount() {
+        List<List<String>> sampleRows = createContentRows(100);
+
+        SkinnySizeEstimate smallEstimate = SkinnySizeEstimate.forSample(COLUMN_HEADERS, sampleRows, 1_000);
+        SkinnySizeEstimate largeEstimate = SkinnySizeEstimate.forSample(COLUMN_HEADERS, sampleRows, 1_000_000);
+
+        assertThat(largeEstimate.getCompressedFileSize()).isGreaterThan(smallEstimate.getCompressedFileSize() * 500);
+        assertThat(largeEstimate.getUncompressedSheetSize()).isGreaterThan(largeEstimate.getCompressedFileSize());
+        assertThat(largeEstimate.getSkinnyWriterHeapSize()).isGreaterThan(smallEstimate.getSkinnyWriterHeapSize() * 500);
+        assertThat(largeEstimate.getSkinnyStreamerHeapSize()).isEqualTo(smallEstimate.getSkinnyStreamerHeapSize());
+        assertThat(largeEstimate.getSkinnyStreamerTempFileSize()).isLessThan(largeEstimate.getUncompressedSheetSize())
+                .isGreaterThanOrEqualTo(largeEstimate.getCompressedFileSize())
+                .isEqualTo(largeEstimate.getSkinnyStreamerTempFileSize() / MappedSpillStore.DEFAULT_SEGMENT_SIZE
+                        * MappedSpillStore.DEFAULT_SEGMENT_SIZE);
+    }
+
+    @Test
+    void forSample_noRows_estimateIsSmall() {
+        SkinnySizeEstimate estimate = SkinnySizeEstimate.forSample(null, List.of(), 0);
+
+        assertThat(estimate.getCompressedFileSize()).isPositive().isLessThan(10_000);
+        assertThat(estimate.getSkinnyWriterHeapSize()).isZero();
+    }
+
+    private static void verifyEstimatedFileSize(File actualFile) {
+        long actualFileSize = actualFile.length();
+        SkinnySizeEstimate estimate = SkinnySizeEstimate.forSheets(SHEET_CONTENT_LIST);
+        assertThat((double) estimate.getCompressedFileSize()).isCloseTo(actualFileSize, within(actualFileSize * 0.2));
+    }
+
+    private static long usedHeapAfterGarbageCollection() {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        for (int collection = 0; collection < 3; collection++) {
+            memoryBean.gc();
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<List<String>> createContentRows(int rowAmount) {
+        Random random = new Random(rowAmount);
+        List<List<String>> result = new ArrayList<>();
+        for (int index = 0; index < rowAmount; index++) {
+            result.add(List.of("name" + random.nextInt(1000), String.valueOf(random.nextInt()),
+                    Long.toString(random.nextLong(), 36) + " " + Long.toString(random.nextLong(), 36)));
+        }
+        return result;
+    }
+
+}
@@ -12,10 +12,13 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SkinnyStreamerTest extends AbstractSkinnyWriterTestBase {
 
@@ -179,6 +182,94 @@ class SkinnyStreamerTest extends AbstractSkinnyWriterTestBase {
         assertThat(actualSheet).isNotNull().isNotEmpty().hasSize(3);
     }
 
+    @Test
+    void writeContentToFileSystem_lazySheetContent_rowsOfWrittenSheetsAreReleased(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        List<WeakReference<List<List<String>>>> producedRows = new ArrayList<>();
+        List<Boolean> earlierRowsReleased = new ArrayList<>();
+        Supplier<List<List<String>>> rowSupplier = () -> {
+            earlierRowsReleased.add(allReleased(producedRows));
+            List<List<String>> contentRows = new ArrayList<>(List.of(List.of("Cell Content")));
+            producedRows.add(new WeakReference<>(contentRows));
+            return contentRows;
+        };
+        List<SkinnySheetContent> sheets = List.of(LazySheetContent.withoutHeaders(SHEET_NAME, rowSupplier),
+                LazySheetContent.withHeaders("Second Sheet", List.of("Header"), rowSupplier),
+                LazySheetContent.withoutHeaders("Third Sheet", rowSupplier));
+
+        SkinnyStreamer.writeContentToFileSystem(targetFolder, FILE_NAME, sheets);
+
+        assertThat(earlierRowsReleased).containsExactly(true, true, true);
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(3);
+        verifySheetWithOneContentCell(actualWorkbook.getSheet(SHEET_NAME));
+        verifyCellContent(actualWorkbook.getSheet("Second Sheet"), 1, 0, "Cell Content");
+        verifySheetWithOneContentCell(actualWorkbook.getSheet("Third Sheet"));
+    }
+
+    @Test
+    void streamingWriter_flushRowsAndRowWindows_bufferedRowAmountFollowsThem(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        try (SkinnyStreamer streamer = new SkinnyStreamer(targetFolder, FILE_NAME, 10)) {
+            assertThat(streamer.getBufferedRowAmount()).isZero();
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addColumnHeaderRowToCurrentSheet(List.of("Header"));
+            addRows(streamer, 24);
+            assertThat(streamer.getBufferedRowAmount()).isEqualTo(10);
+
+            streamer.flushRows(3);
+            assertThat(streamer.getBufferedRowAmount()).isEqualTo(3);
+            streamer.flushRows();
+            assertThat(streamer.getBufferedRowAmount()).isZero();
+
+            streamer.setRowWindowSize(-1);
+            addRows(streamer, 50);
+            assertThat(streamer.getBufferedRowAmount()).isEqualTo(50);
+
+            streamer.addSheetToWorkbook("Second Sheet");
+            assertThat(streamer.getBufferedRowAmount()).isZero();
+            addRows(streamer, 15);
+            assertThat(streamer.getBufferedRowAmount()).isEqualTo(10);
+        }
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet).hasSize(75);
+        assertThat(actualSheet.getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+        verifyCellContent(actualSheet, 24, 0, "Row 23");
+        verifyCellContent(actualSheet, 74, 0, "Row 49");
+        assertThat(actualWorkbook.getSheet("Second Sheet")).hasSize(15);
+    }
+
+    @Test
+    void streamingWriter_invalidUse_throwsExceptions(@TempDir File targetFolder) throws IOException {
+        assertThatThrownBy(() -> new SkinnyStreamer(targetFolder, FILE_NAME, 0)).isInstanceOf(IllegalArgumentException.class);
+        try (SkinnyStreamer streamer = new SkinnyStreamer(targetFolder, FILE_NAME)) {
+            assertThatThrownBy(() -> streamer.addRowToCurrentSheet(List.of("Content")))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(streamer::flushRows).isInstanceOf(IllegalStateException.class);
+            streamer.addSheetToWorkbook(SHEET_NAME);
+            streamer.addRowToCurrentSheet(List.of("Content"));
+            assertThatThrownBy(() -> streamer.addColumnHeaderRowToCurrentSheet(List.of("Header")))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> streamer.flushRows(-1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> streamer.setRowWindowSize(-2)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static void addRows(SkinnyStreamer streamer, int rowAmount) throws IOException {
+        for (int index = 0; index < rowAmount; index++) {
+            streamer.addRowToCurrentSheet(List.of("Row " + index));
+        }
+    }
+
+    private static boolean allReleased(List<WeakReference<List<List<String>>>> references) {
+        for (int attempt = 0; attempt < 20 && references.stream().anyMatch(reference -> reference.get() != null); attempt++) {
+            System.gc();
+        }
+        return references.stream().allMatch(reference -> reference.get() == null);
+    }
+
     private void verifySheetWithOneContentCell(XSSFSheet actualSheet) {
         assertThat(actualSheet).isNotNull().isNotEmpty().hasSize(1);
 
@@ -0,0 +1,137 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyWorkbookMergerTest extends AbstractSkinnyWriterTestBase {
+
+    @Test
+    void mergeFiles_filesWrittenBySkinnyRawStreamer_worksheetsAreCopiedWithoutRecompressing(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        File firstFile = writeWithRawStreamer(targetFolder, "first", "Shard", "First content");
+        File secondFile = writeWithRawStreamer(targetFolder, "second", "Shard", "Second content");
+
+        SkinnyWorkbookMerger.mergeFiles(targetFolder, FILE_NAME, List.of(firstFile, secondFile));
+
+        File mergedFile = new File(targetFolder, FILE_NAME + EXTENSION);
+        try (ZipFile merged = new ZipFile(mergedFile); ZipFile second = new ZipFile(secondFile)) {
+            assertThat(merged.getEntry("xl/worksheets/sheet2.xml").getCompressedSize())
+                    .isEqualTo(second.getEntry("xl/worksheets/sheet1.xml").getCompressedSize());
+            assertThat(merged.getEntry("xl/sharedStrings.xml")).isNull();
+        }
+        actualWorkbook = new XSSFWorkbook(mergedFile);
+        assertThat(actualWorkbook).hasSize(2);
+        assertThat(actualWorkbook.getSheetName(0)).isEqualTo("Shard");
+        assertThat(actualWorkbook.getSheetName(1)).isNotEqualToIgnoringCase("Shard");
+        verifyCellContent(actualWorkbook.getSheetAt(0), 1, 0, "First content");
+        verifyCellContent(actualWorkbook.getSheetAt(1), 1, 0, "Second content");
+        assertThat(actualWorkbook.getSheetAt(1).getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+    }
+
+    @Test
+    void mergeFiles_filesWithSharedStringsAndDifferentStyles_allSheetsKeepTheirContentAndStyles(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        File rawFile = writeWithRawStreamer(targetFolder, "raw", "Raw", "Raw content");
+        SkinnyWriter.writeContentToFileSystem(targetFolder, "poi", List.of(
+                DefaultSheetContent.withHeaders("Poi", List.of("Header"), List.of(List.of("Poi content"), List.of("Repeated"))),
+                DefaultSheetContent.withoutHeaders("More", List.of(List.of("Repeated", "Poi content")))));
+        SkinnyWriter.writeContentToFileSystem(targetFolder, "other", List.of(
+                DefaultSheetContent.withHeaders("Other", List.of("Other header"), List.of(List.of("Other content")))));
+
+        SkinnyWorkbookMerger.mergeFiles(targetFolder, FILE_NAME, List.of(rawFile, new File(targetFolder, "poi" + EXTENSION),
+                new File(targetFolder, "other" + EXTENSION)));
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(4);
+        XSSFSheet rawSheet = actualWorkbook.getSheet("Raw");
+        verifyCellContent(rawSheet, 1, 0, "Raw content");
+        XSSFCell dateCell = rawSheet.getRow(1).getCell(1);
+        assertThat(dateCell.getLocalDateTimeCellValue().toLocalDate()).isEqualTo(LocalDate.of(2026, 10, 19));
+        assertThat(dateCell.getCellStyle().getDataFormat()).isEqualTo((short) 14);
+
+        XSSFSheet poiSheet = actualWorkbook.getSheet("Poi");
+        verifyCellContent(poiSheet, 0, 0, "Header");
+        verifyCellContent(poiSheet, 2, 0, "Repeated");
+        assertThat(poiSheet.getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+        assertThat(poiSheet.getRow(1).getCell(0).getCellStyle().getFont().getBold()).isFalse();
+        verifyCellContent(actualWorkbook.getSheet("More"), 0, 1, "Poi content");
+
+        XSSFSheet otherSheet = actualWorkbook.getSheet("Other");
+        verifyCellContent(otherSheet, 0, 0, "Other header");
+        verifyCellContent(otherSheet, 1, 0, "Other content");
+        assertThat(otherSheet.getRow(0).getCell(0).getCellStyle().getFont().getBold()).isTrue();
+    }
+
+    @Test
+    void mergeFiles_filesWrittenBySkinnyWriter_onlyTheFirstSheetIsSelected(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        SkinnyWriter.writeContentToFileSystem(targetFolder, "first", List.of(
+                DefaultSheetContent.withHeaders("First", List.of("Header"), List.of(List.of("First content")))));
+        SkinnyWriter.writeContentToFileSystem(targetFolder, "second", List.of(
+                DefaultSheetContent.withHeaders("Second", List.of("Header"), List.of(List.of("Second content"))),
+                DefaultSheetContent.withoutHeaders("Third", List.of(List.of("Third content")))));
+
+        SkinnyWorkbookMerger.mergeFiles(targetFolder, FILE_NAME, List.of(new File(targetFolder, "first" + EXTENSION),
+                new File(targetFolder, "second" + EXTENSION)));
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook).hasSize(3);
+        assertThat(actualWorkbook.getSheetAt(0).isSelected()).isTrue();
+        assertThat(actualWorkbook.getSheetAt(1).isSelected()).isFalse();
+        assertThat(actualWorkbook.getSheetAt(2).isSelected()).isFalse();
+        verifyCellContent(actualWorkbook.getSheetAt(1), 1, 0, "Second content");
+        verifyCellContent(actualWorkbook.getSheetAt(2), 0, 0, "Third content");
+    }
+
+    @Test
+    void mergeFiles_filesWrittenBySkinnyStreamer_selectedSheetsAreNotCopiedRaw(@TempDir File targetFolder)
+            throws IOException, InvalidFormatException {
+        for (String fileName : List.of("first", "second")) {
+            SkinnyStreamer.writeContentToFileSystem(targetFolder, fileName, List.of(
+                    DefaultSheetContent.withHeaders(fileName, List.of("Header"), List.of(List.of(fileName + " content")))));
+        }
+
+        SkinnyWorkbookMerger.mergeFiles(targetFolder, FILE_NAME, List.of(new File(targetFolder, "first" + EXTENSION),
+                new File(targetFolder, "second" + EXTENSION)));
+
+        actualWorkbook = new XSSFWorkbook(new File(targetFolder, FILE_NAME + EXTENSION));
+        assertThat(actualWorkbook.getSheetAt(0).isSelected()).isTrue();
+        assertThat(actualWorkbook.getSheetAt(1).isSelected()).isFalse();
+        verifyCellContent(actualWorkbook.getSheetAt(1), 1, 0, "second content");
+    }
+
+    @Test
+    void mergeFiles_notAnXlsxFile_throwsIOException(@TempDir File targetFolder) throws IOException {
+        File rawFile = writeWithRawStreamer(targetFolder, "raw", "Raw", "Raw content");
+        File textFile = new File(targetFolder, "notes.xlsx");
+        Files.writeString(textFile.toPath(), "Not a spreadsheet");
+
+        assertThatThrownBy(() -> SkinnyWorkbookMerger.mergeFiles(targetFolder, FILE_NAME, List.of(rawFile, textFile)))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static File writeWithRawStreamer(File targetFolder, String fileName, String sheetName, String content)
+            throws IOException {
+        try (SkinnyRawStreamer streamer = new SkinnyRawStreamer(targetFolder, fileName)) {
+            streamer.addSheetToWorkbook(sheetName);
+            streamer.addColumnHeaderRowToCurrentSheet(List.of("Content", "Date"));
+            streamer.getRowBuffer().set(0, content).set(1, LocalDate.of(2026, 10, 19)).commit();
+        }
+        return new File(targetFolder, fileName + EXTENSION);
+    }
+
+}
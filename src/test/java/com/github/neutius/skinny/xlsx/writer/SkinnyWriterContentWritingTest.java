@@ -53,6 +53,49 @@ class SkinnyWriterContentWritingTest extends AbstractSkinnyWriterTestBase {
         verifyCellContent(actualSheet, 2, 0, "entry2");
     }
 
+    @Test
+    void addSeveralRowsFromArrays_allRowsArePresent(@TempDir File targetFolder) throws IOException, InvalidFormatException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        writer.addSeveralRowsToCurrentSheet(new String[][]{{"entry0", "text"}, null, {"entry2"}});
+        writer.addSeveralRowsToCurrentSheet(new Object[][]{{"entry3", 42L, 1.5, null, true}});
+        writer.addSeveralRowsToCurrentSheet(new String[]{"entry4", "a", "entry5", "b"}, 2);
+
+        writeAndReadActualWorkbook(targetFolder);
+        XSSFSheet actualSheet = actualWorkbook.getSheet(SHEET_NAME);
+        assertThat(actualSheet.getLastRowNum()).isEqualTo(5);
+        verifyCellContent(actualSheet, 0, 1, "text");
+        assertThat(actualSheet.getRow(1).getPhysicalNumberOfCells()).isZero();
+        verifyCellContent(actualSheet, 2, 0, "entry2");
+        XSSFRow objectRow = actualSheet.getRow(3);
+        assertThat(objectRow.getCell(1).getNumericCellValue()).isEqualTo(42);
+        assertThat(objectRow.getCell(2).getNumericCellValue()).isEqualTo(1.5);
+        assertThat(objectRow.getCell(3)).isNull();
+        assertThat(objectRow.getCell(4).getStringCellValue()).isEqualTo("true");
+        verifyCellContent(actualSheet, 4, 1, "a");
+        verifyCellContent(actualSheet, 5, 0, "entry5");
+        assertThat(writer.toString()).contains("5 columns");
+    }
+
+    @Test
+    void addSeveralRowsFromIncompleteBlock_throwsIllegalArgumentException(@TempDir File targetFolder) throws IOException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+
+        assertThatThrownBy(() -> writer.addSeveralRowsToCurrentSheet(new String[]{"a", "b", "c"}, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> writer.addSeveralRowsToCurrentSheet(new String[]{"a"}, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void addSeveralRowsBeyondLastRow_throwsIllegalStateException(@TempDir File targetFolder) throws IOException {
+        writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
+        writer.addRowToCurrentSheet(List.of("entry"));
+
+        assertThatThrownBy(() -> writer.addSeveralRowsToCurrentSheet(new String[SheetXmlWriter.MAX_ROW_AMOUNT][]))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     void addSeveralRowsAndColumns_allFieldsArePresent(@TempDir File targetFolder) throws IOException, InvalidFormatException {
         writer = new SkinnyWriter(targetFolder, FILE_NAME, SHEET_NAME);
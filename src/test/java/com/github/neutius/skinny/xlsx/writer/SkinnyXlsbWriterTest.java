@@ -0,0 +1,148 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.binary.XSSFBParser;
+import org.apache.poi.xssf.binary.XSSFBSheetHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFBReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkinnyXlsbWriterTest {
+
+    private static final String FILE_NAME = "testFile";
+    private static final int CELL_STRING = 6;
+    private static final int PANE = 151;
+    private static final int COLUMN_INFO = 60;
+
+    @Test
+    void writeContentToFileSystem_sheetsWithAndWithoutHeaders_contentCanBeReadBack(@TempDir File targetFolder)
+            throws IOException, OpenXML4JException {
+        List<SkinnySheetContent> sheets = List.of(
+                DefaultSheetContent.withHeaders("First", List.of("Name", "Description"),
+                        List.of(List.of("Apple", "Green & round"), Arrays.asList(null, "No name"), List.of(),
+                                List.of("Zürich", "Ünïcödé"))),
+                LazySheetContent.withoutHeaders("First", () -> List.of(List.of("Lazy"), Arrays.asList(null, null, "C"))));
+
+        SkinnyXlsbWriter.writeContentToFileSystem(targetFolder, FILE_NAME, sheets);
+
+        Map<String, Map<String, String>> actualSheets = readCells(new File(targetFolder, FILE_NAME + ".xlsb"));
+        assertThat(actualSheets.keySet()).hasSize(2).contains("First").doesNotContain("first");
+        Map<String, String> firstSheet = actualSheets.get("First");
+        assertThat(firstSheet).containsEntry("A1", "Name").containsEntry("B1", "Description")
+                .containsEntry("A2", "Apple").containsEntry("B2", "Green & round").containsEntry("B3", "No name")
+                .containsEntry("A5", "Zürich").containsEntry("B5", "Ünïcödé").hasSize(7);
+        Map<String, String> secondSheet = actualSheets.values().stream().filter(cells -> cells != firstSheet)
+                .findFirst().orElseThrow();
+        assertThat(secondSheet).containsEntry("A1", "Lazy").containsEntry("C2", "C").hasSize(2);
+    }
+
+    @Test
+    void writeContentToFileSystem_sheetWithHeaders_headersAreBoldAndFrozenWithColumnWidths(@TempDir File targetFolder)
+            throws IOException, OpenXML4JException {
+        SkinnyXlsbWriter.writeContentToFileSystem(targetFolder, FILE_NAME, List.of(
+                DefaultSheetContent.withHeaders(null, List.of("Header"), List.of(List.of("Content"))),
+                DefaultSheetContent.withoutHeaders(null, List.of(List.of("Content")))));
+
+        List<List<int[]>> sheetRecords = readRecords(new File(targetFolder, FILE_NAME + ".xlsb"));
+        List<int[]> headerSheet = sheetRecords.get(0);
+        assertThat(headerSheet).anyMatch(record -> record[0] == PANE);
+        assertThat(headerSheet).anyMatch(record -> record[0] == COLUMN_INFO);
+        assertThat(headerSheet.stream().filter(record -> record[0] == CELL_STRING).mapToInt(record -> record[1]))
+                .containsExactly(SheetBinaryWriter.COLUMN_HEADER_STYLE, 0);
+        List<int[]> plainSheet = sheetRecords.get(1);
+        assertThat(plainSheet).noneMatch(record -> record[0] == PANE || record[0] == COLUMN_INFO);
+        assertThat(plainSheet.stream().filter(record -> record[0] == CELL_STRING).mapToInt(record -> record[1]))
+                .containsExactly(0);
+    }
+
+    @Test
+    void writeContentToFileSystem_cellValueTooLong_throwsException(@TempDir File targetFolder) {
+        List<SkinnySheetContent> sheets = List.of(DefaultSheetContent.withoutHeaders("Sheet",
+                List.of(List.of("x".repeat(SheetBinaryWriter.MAX_STRING_LENGTH + 1)))));
+
+        assertThatThrownBy(() -> SkinnyXlsbWriter.writeContentToFileSystem(targetFolder, FILE_NAME, sheets))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Map<String, String>> readCells(File xlsbFile) throws IOException, OpenXML4JException {
+        Map<String, Map<String, String>> sheets = new LinkedHashMap<>();
+        try (OPCPackage xlsbPackage = OPCPackage.open(xlsbFile, PackageAccess.READ)) {
+            XSSFBReader reader = new XSSFBReader(xlsbPackage);
+            XSSFBReader.SheetIterator sheetIterator = (XSSFBReader.SheetIterator) reader.getSheetsData();
+            while (sheetIterator.hasNext()) {
+                Map<String, String> cells = new LinkedHashMap<>();
+                try (InputStream sheetData = sheetIterator.next()) {
+                    new XSSFBSheetHandler(sheetData, reader.getXSSFBStylesTable(), null, null, new CellCollector(cells),
+                            new DataFormatter(), false).parse();
+                }
+                sheets.put(sheetIterator.getSheetName(), cells);
+            }
+        }
+        return sheets;
+    }
+
+    // each record as its type and, for string cells, its style
+    private static List<List<int[]>> readRecords(File xlsbFile) throws IOException, OpenXML4JException {
+        List<List<int[]>> sheets = new ArrayList<>();
+        try (OPCPackage xlsbPackage = OPCPackage.open(xlsbFile, PackageAccess.READ)) {
+            Iterator<InputStream> sheetIterator = new XSSFBReader(xlsbPackage).getSheetsData();
+            while (sheetIterator.hasNext()) {
+                List<int[]> records = new ArrayList<>();
+                try (InputStream sheetData = sheetIterator.next()) {
+                    new XSSFBParser(sheetData) {
+                        @Override
+                        public void handleRecord(int recordType, byte[] data) {
+                            int style = recordType == CELL_STRING ? (data[4] & 0xFF) | (data[5] & 0xFF) << 8 : -1;
+                            records.add(new int[]{recordType, style});
+                        }
+                    }.parse();
+                }
+                sheets.add(records);
+            }
+        }
+        return sheets;
+    }
+
+    private static final class CellCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Map<String, String> cells;
+
+        private CellCollector(Map<String, String> cells) {
+            this.cells = cells;
+        }
+
+        @Override
+        public void startRow(int rowNumber) {
+            // not needed
+        }
+
+        @Override
+        public void endRow(int rowNumber) {
+            // not needed
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            cells.put(cellReference, formattedValue);
+        }
+    }
+
+}
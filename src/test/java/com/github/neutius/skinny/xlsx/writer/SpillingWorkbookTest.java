@@ -0,0 +1,84 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillingWorkbookTest {
+
+    private static final int ROW_AMOUNT = 1000;
+
+    @Test
+    void write_sameEntriesAsSXSSFWorkbook() throws IOException {
+        Map<String, String> expectedEntries = readEntries(writeWorkbook(new SXSSFWorkbook()));
+        Map<String, String> actualEntries = readEntries(writeWorkbook(new SpillingWorkbook()));
+        // contains the time of writing
+        expectedEntries.remove("docProps/core.xml");
+        actualEntries.remove("docProps/core.xml");
+
+        assertThat(actualEntries).isEqualTo(expectedEntries);
+        assertThat(actualEntries.get("xl/worksheets/sheet2.xml")).contains("<sheetData>\n<row r=\"1\">");
+    }
+
+    @Test
+    void worksheetXmlInputStream_containsFlushedRows() throws IOException {
+        SpillingWorkbook workbook = new SpillingWorkbook();
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Sheet");
+            addRows(sheet);
+            try (InputStream worksheetXml = sheet.getWorksheetXMLInputStream()) {
+                String actualXml = new String(worksheetXml.readAllBytes(), StandardCharsets.UTF_8);
+
+                assertThat(actualXml.trim()).startsWith("<row r=\"1\">").contains("Row " + (ROW_AMOUNT - 1)).endsWith("</row>");
+            }
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private static byte[] writeWorkbook(SXSSFWorkbook workbook) throws IOException {
+        try {
+            addRows(workbook.createSheet("First"));
+            addRows(workbook.createSheet("Second"));
+            workbook.createSheet("Empty");
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            workbook.write(result);
+            return result.toByteArray();
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private static void addRows(SXSSFSheet sheet) {
+        for (int rowIndex = 0; rowIndex < ROW_AMOUNT; rowIndex++) {
+            SXSSFRow row = sheet.createRow(rowIndex);
+            row.createCell(0).setCellValue("Row " + rowIndex);
+            row.createCell(1).setCellValue(rowIndex);
+        }
+    }
+
+    // ZipInputStream verifies the checksum and size of each entry
+    private static Map<String, String> readEntries(byte[] xlsxFile) throws IOException {
+        Map<String, String> result = new HashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(xlsxFile))) {
+            for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+                result.put(entry.getName(), new String(zipInputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,304 @@
+package com.github.neutius.skinny.xlsx.writer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads a .xlsx file with a StAX parser, one row at a time, so files with a million rows can be verified in constant memory
+ * and in a fraction of the time a full <code>XSSFWorkbook</code> load takes. Only the shared strings table (if any) is kept
+ * in memory, because cells can refer to any shared string.
+ * <p>
+ * Cell values are returned as text: the text of inline and shared strings, and the raw value of all other cells. Numbers are
+ * therefore returned the way they are stored, e.g. "42" or "0.5".
+ * <p>
+ * <code>hashRows(Iterable)</code> computes the same content hash as <code>readSheet</code>, so the expected content of a large
+ * sheet can be compared without keeping the actual content in memory.
+ */
+
+final class StreamingXlsxVerifier implements Closeable {
+
+    private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final long HASH_OFFSET = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    private final ZipFile zipFile;
+    private final XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+    private final Map<String, String> sheetEntryNames = new HashMap<>();
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<String> sharedStrings = new ArrayList<>();
+
+    StreamingXlsxVerifier(File xlsxFile) throws IOException {
+        zipFile = new ZipFile(xlsxFile);
+        try {
+            readWorkbook();
+            readSharedStrings();
+        } catch (XMLStreamException exception) {
+            zipFile.close();
+            throw new IOException("Invalid XML in " + xlsxFile, exception);
+        }
+    }
+
+    List<String> getSheetNames() {
+        return Collections.unmodifiableList(sheetNames);
+    }
+
+    SheetSummary readSheet(String sheetName) throws IOException {
+        return readSheet(sheetName, (rowIndex, cellValues) -> {
+            // the summary is enough
+        });
+    }
+
+    /**
+     * Reads a single sheet and passes each row to the visitor. The List of cell values is reused for the next row, so the
+     * visitor should copy any values it wants to keep.
+     */
+
+    SheetSummary readSheet(String sheetName, RowVisitor rowVisitor) throws IOException {
+        String entryName = sheetEntryNames.get(sheetName);
+        if (entryName == null) {
+            throw new IllegalArgumentException("No sheet named '" + sheetName + "', only " + sheetNames);
+        }
+        try (InputStream inputStream = openEntry(entryName)) {
+            return readSheet(inputFactory.createXMLStreamReader(inputStream), rowVisitor);
+        } catch (XMLStreamException exception) {
+            throw new IOException("Invalid XML in " + entryName, exception);
+        }
+    }
+
+    /**
+     * Computes the content hash of the rows passed in, the same way <code>readSheet</code> does. Null values and empty Strings
+     * are treated the same, as are trailing empty cells and missing cells.
+     */
+
+    static long hashRows(Iterable<List<String>> rows) {
+        long hash = HASH_OFFSET;
+        for (List<String> row : rows) {
+            hash = hashRow(hash, row);
+        }
+        return hash;
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+
+    private SheetSummary readSheet(XMLStreamReader reader, RowVisitor rowVisitor) throws XMLStreamException {
+        List<String> cellValues = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int rowAmount = 0;
+        int frozenRowAmount = 0;
+        long contentHash = HASH_OFFSET;
+        int rowIndex = -1;
+        int columnIndex = -1;
+        String cellType = null;
+        boolean inValue = false;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "pane":
+                        if ("frozen".equals(reader.getAttributeValue(null, "state"))) {
+                            String ySplit = reader.getAttributeValue(null, "ySplit");
+                            frozenRowAmount = ySplit == null ? 0 : (int) Double.parseDouble(ySplit);
+                        }
+                        break;
+                    case "row":
+                        String rowReference = reader.getAttributeValue(null, "r");
+                        rowIndex = rowReference == null ? rowIndex + 1 : Integer.parseInt(rowReference) - 1;
+                        columnIndex = -1;
+                        cellValues.clear();
+                        break;
+                    case "c":
+                        String cellReference = reader.getAttributeValue(null, "r");
+                        columnIndex = cellReference == null ? columnIndex + 1 : columnIndex(cellReference);
+                        cellType = reader.getAttributeValue(null, "t");
+                        while (cellValues.size() <= columnIndex) {
+                            cellValues.add(null);
+                        }
+                        text.setLength(0);
+                        break;
+                    case "v":
+                    case "t":
+                        inValue = true;
+                        break;
+                    default:
+                        // not relevant for verification
+                }
+            } else if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && inValue) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "v":
+                    case "t":
+                        inValue = false;
+                        break;
+                    case "c":
+                        cellValues.set(columnIndex, cellValue(cellType, text));
+                        break;
+                    case "row":
+                        rowAmount++;
+                        contentHash = hashRow(contentHash, cellValues);
+                        rowVisitor.visit(rowIndex, cellValues);
+                        break;
+                    default:
+                        // not relevant for verification
+                }
+            }
+        }
+        reader.close();
+        return new SheetSummary(rowAmount, frozenRowAmount, contentHash);
+    }
+
+    private String cellValue(String cellType, StringBuilder text) {
+        if (text.length() == 0) {
+            return null;
+        }
+        if ("s".equals(cellType)) {
+            return sharedStrings.get(Integer.parseInt(text.toString()));
+        }
+        return text.toString();
+    }
+
+    private void readWorkbook() throws IOException, XMLStreamException {
+        Map<String, String> targets = new HashMap<>();
+        try (InputStream inputStream = openEntry("xl/_rels/workbook.xml.rels")) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(reader.getLocalName())) {
+                    String target = reader.getAttributeValue(null, "Target");
+                    targets.put(reader.getAttributeValue(null, "Id"),
+                            target.startsWith("/") ? target.substring(1) : "xl/" + target);
+                }
+            }
+            reader.close();
+        }
+        try (InputStream inputStream = openEntry("xl/workbook.xml")) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(reader.getLocalName())) {
+                    String sheetName = reader.getAttributeValue(null, "name");
+                    sheetNames.add(sheetName);
+                    sheetEntryNames.put(sheetName, targets.get(reader.getAttributeValue(RELATIONSHIPS_NAMESPACE, "id")));
+                }
+            }
+            reader.close();
+        }
+    }
+
+    private void readSharedStrings() throws IOException, XMLStreamException {
+        if (zipFile.getEntry("xl/sharedStrings.xml") == null) {
+            return;
+        }
+        try (InputStream inputStream = openEntry("xl/sharedStrings.xml")) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+            StringBuilder text = new StringBuilder();
+            boolean inText = false;
+            boolean inPhonetic = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String localName = reader.getLocalName();
+                    if ("si".equals(localName)) {
+                        text.setLength(0);
+                    } else if ("rPh".equals(localName)) {
+                        inPhonetic = true;
+                    } else if ("t".equals(localName)) {
+                        inText = !inPhonetic;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String localName = reader.getLocalName();
+                    if ("si".equals(localName)) {
+                        sharedStrings.add(text.toString());
+                    } else if ("rPh".equals(localName)) {
+                        inPhonetic = false;
+                    } else if ("t".equals(localName)) {
+                        inText = false;
+                    }
+                }
+            }
+            reader.close();
+        }
+    }
+
+    private InputStream openEntry(String entryName) throws IOException {
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            throw new IOException("Missing part " + entryName);
+        }
+        return zipFile.getInputStream(entry);
+    }
+
+    private static int columnIndex(String cellReference) {
+        int result = 0;
+        for (int index = 0; index < cellReference.length() && Character.isLetter(cellReference.charAt(index)); index++) {
+            result = result * 26 + cellReference.charAt(index) - 'A' + 1;
+        }
+        return result - 1;
+    }
+
+    // FNV-1a over the characters, with separators, so ["ab", "c"] and ["a", "bc"] differ
+    private static long hashRow(long hash, List<String> row) {
+        int cellAmount = row == null ? 0 : row.size();
+        while (cellAmount > 0 && isEmpty(row.get(cellAmount - 1))) {
+            cellAmount--;
+        }
+        for (int columnIndex = 0; columnIndex < cellAmount; columnIndex++) {
+            String value = row.get(columnIndex);
+            for (int index = 0; value != null && index < value.length(); index++) {
+                hash = (hash ^ value.charAt(index)) * HASH_PRIME;
+            }
+            hash = (hash ^ 0x1F) * HASH_PRIME;
+        }
+        return (hash ^ 0x1E) * HASH_PRIME;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    interface RowVisitor {
+        void visit(int rowIndex, List<String> cellValues);
+    }
+
+    static final class SheetSummary {
+        private final int rowAmount;
+        private final int frozenRowAmount;
+        private final long contentHash;
+
+        private SheetSummary(int rowAmount, int frozenRowAmount, long contentHash) {
+            this.rowAmount = rowAmount;
+            this.frozenRowAmount = frozenRowAmount;
+            this.contentHash = contentHash;
+        }
+
+        int getRowAmount() {
+            return rowAmount;
+        }
+
+        int getFrozenRowAmount() {
+            return frozenRowAmount;
+        }
+
+        long getContentHash() {
+            return contentHash;
+        }
+    }
+
+}